@@ -0,0 +1,48 @@
+package com.example.healthcare.Controller;
+
+import com.example.healthcare.Model.CohortStatsDTO;
+import com.example.healthcare.Model.VitalMetric;
+import com.example.healthcare.service.VitalsAnalyticsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsController.class);
+
+    @Autowired
+    private VitalsAnalyticsService vitalsAnalyticsService;
+
+    // Exemple : /vitals/cohort?metric=BLOOD_SUGAR&condition=diab&threshold=180 (7 derniers jours par défaut)
+    @GetMapping("/vitals/cohort")
+    public ResponseEntity<?> getCohortStats(
+            @RequestParam VitalMetric metric,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String condition,
+            @RequestParam(required = false) List<Long> userIds,
+            @RequestParam(required = false) Double threshold) {
+        logger.info("Received cohort request for {} (condition: {}, threshold: {})", metric, condition, threshold);
+        try {
+            CohortStatsDTO stats = vitalsAnalyticsService.cohortStats(metric, from, to, condition, userIds, threshold);
+            return ResponseEntity.ok(stats);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Error: " + e.getMessage());
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.healthcare.Controller;
 
 import com.example.healthcare.Model.Appointment;
 import com.example.healthcare.Model.AppointmentDTO;
+import com.example.healthcare.exception.AppointmentConflictException;
 import com.example.healthcare.exception.ResourceNotFoundException;
 import com.example.healthcare.service.AppointmentService;
 import jakarta.validation.Valid;
@@ -31,7 +32,7 @@ public class AppointmentController {
 
     // Prendre un rendez-vous
     @PostMapping("/user/{userId}")
-    public ResponseEntity<Appointment> createAppointment(
+    public ResponseEntity<?> createAppointment(
             @PathVariable Long userId,
             @RequestBody @Valid Appointment appointment,
             BindingResult result) {
@@ -50,6 +51,9 @@ public class AppointmentController {
         } catch (ResourceNotFoundException e) {
             logger.error("Error creating appointment: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+        } catch (AppointmentConflictException e) {
+            logger.warn("Appointment conflict for userId {}: {}", userId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
         } catch (IllegalArgumentException e) {
             logger.error("Error creating appointment: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
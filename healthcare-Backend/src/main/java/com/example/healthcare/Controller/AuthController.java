@@ -1,10 +1,16 @@
 package com.example.healthcare.Controller;
 
 import com.example.healthcare.Model.User;
+import com.example.healthcare.exception.HashingCapacityExceededException;
+import com.example.healthcare.exception.InvalidRefreshTokenException;
 import com.example.healthcare.repository.UserRepository;
 import com.example.healthcare.request.LoginRequest;
+import com.example.healthcare.request.RefreshTokenRequest;
 import com.example.healthcare.response.AuthResponse;
+import com.example.healthcare.security.AuthenticatedUser;
 import com.example.healthcare.service.CustomUserDetailService;
+import com.example.healthcare.service.PasswordHashingService;
+import com.example.healthcare.service.RefreshTokenService;
 import com.example.healthcare.service.TokenBlacklistService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -14,7 +20,6 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
@@ -35,7 +40,7 @@ public class AuthController {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
     private CustomUserDetailService customUserDetailsImpl;
@@ -46,6 +51,9 @@ public class AuthController {
     @Autowired
     private TokenBlacklistService tokenBlacklistService;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     @PostMapping("/signup")
     public ResponseEntity<AuthResponse> createUserHandler(@Valid @RequestBody User user) {
 
@@ -58,11 +66,6 @@ public class AuthController {
                 return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
             }
 
-            System.out.println("--------> " + user);
-
-            // Log pour déboguer
-            System.out.println("Password before encoding: " + user.getPassword());
-
             // Vérifiez que le mot de passe n'est pas null
             if (user.getPassword() == null || user.getPassword().isEmpty() ) {
                 AuthResponse errorResponse = new AuthResponse();
@@ -73,7 +76,7 @@ public class AuthController {
             // Create new user
             User createdUser = new User();
             createdUser.setEmail(user.getEmail());
-            createdUser.setPassword(passwordEncoder.encode(user.getPassword()));
+            createdUser.setPassword(passwordHashingService.encode(user.getPassword()));
             createdUser.setRole(user.getRole());
             createdUser.setName(user.getName());
             createdUser.setPhoneNumber(user.getPhoneNumber());
@@ -83,17 +86,20 @@ public class AuthController {
             // Save user
             User savedUser = userRepository.save(createdUser);
 
-            // Authenticate the user after signup
-            Authentication authentication = authenticate(user.getEmail(), user.getPassword());
+            // Authenticate the user after signup: the password was just hashed, no need to verify it again
+            AuthenticatedUser principal = new AuthenticatedUser(savedUser.getId(), savedUser.getEmail(), savedUser.getRole().name());
+            Authentication authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
-            // Generate JWT token using JwtUtil
-            String jwt = jwtUtil.generateToken(savedUser.getEmail(), savedUser.getRole().name());
+            // Generate JWT token using JwtUtil, bound to the new refresh session
+            RefreshTokenService.IssuedToken session = refreshTokenService.issue(savedUser);
+            String jwt = jwtUtil.generateToken(savedUser.getEmail(), savedUser.getRole().name(), savedUser.getId(), session.familyId());
 
             // Create response
             AuthResponse res = new AuthResponse();
             res.setMessage("Signup success");
             res.setJwt(jwt);
+            res.setRefreshToken(session.refreshToken());
             res.setRole(savedUser.getRole().name());
             res.setUserId(savedUser.getId());
             res.setName(savedUser.getName());
@@ -103,6 +109,8 @@ public class AuthController {
 
 
             return new ResponseEntity<>(res, HttpStatus.CREATED);
+        } catch (HashingCapacityExceededException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             AuthResponse errorResponse = new AuthResponse();
             errorResponse.setMessage("Signup failed: " + e.getMessage());
@@ -136,13 +144,15 @@ public class AuthController {
                 return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
             }
 
-            // Generate JWT token using JwtUtil
-            String jwt = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
+            // Generate JWT token using JwtUtil, bound to the new refresh session
+            RefreshTokenService.IssuedToken session = refreshTokenService.issue(user);
+            String jwt = jwtUtil.generateToken(user.getEmail(), user.getRole().name(), user.getId(), session.familyId());
 
             // Create response
             AuthResponse res = new AuthResponse();
             res.setMessage("Login success");
             res.setJwt(jwt);
+            res.setRefreshToken(session.refreshToken());
             res.setRole(user.getRole().name());
             res.setUserId(user.getId());
             res.setName(user.getName());
@@ -156,6 +166,8 @@ public class AuthController {
             AuthResponse errorResponse = new AuthResponse();
             errorResponse.setMessage("Invalid email or password");
             return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED);
+        } catch (HashingCapacityExceededException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             AuthResponse errorResponse = new AuthResponse();
             errorResponse.setMessage("Login failed: " + e.getMessage());
@@ -163,19 +175,50 @@ public class AuthController {
         }
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@RequestBody @Valid RefreshTokenRequest refreshTokenRequest) {
+        try {
+            // Un seul accès indexé par empreinte, sans BCrypt
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshTokenRequest.getRefreshToken());
+            User user = rotation.user();
+
+            AuthResponse res = new AuthResponse();
+            res.setMessage("Token refreshed");
+            res.setJwt(jwtUtil.generateToken(user.getEmail(), user.getRole().name(), user.getId(), rotation.familyId()));
+            res.setRefreshToken(rotation.refreshToken());
+            res.setRole(user.getRole().name());
+            res.setUserId(user.getId());
+            res.setName(user.getName());
+            res.setEmail(user.getEmail());
+            return new ResponseEntity<>(res, HttpStatus.OK);
+        } catch (InvalidRefreshTokenException e) {
+            AuthResponse errorResponse = new AuthResponse();
+            errorResponse.setMessage(e.getMessage());
+            return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED);
+        }
+    }
+
     private Authentication authenticate(String username, String password) {
         UserDetails userDetails = customUserDetailsImpl.loadUserByUsername(username);
         if (userDetails == null) {
             throw new BadCredentialsException("Invalid username");
         }
 
-        if (!passwordEncoder.matches(password, userDetails.getPassword())) {
+        if (!passwordHashingService.matches(password, userDetails.getPassword())) {
             throw new BadCredentialsException("Invalid password");
         }
 
         return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
     }
 
+    private ResponseEntity<AuthResponse> tooManyRequests(HashingCapacityExceededException e) {
+        AuthResponse errorResponse = new AuthResponse();
+        errorResponse.setMessage(e.getMessage() + ", please retry shortly");
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", "1")
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
@@ -186,7 +229,8 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<Map<String, Object>> logout(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<Map<String, Object>> logout(@RequestHeader("Authorization") String authHeader,
+                                                      @RequestBody(required = false) RefreshTokenRequest refreshTokenRequest) {
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Missing or invalid Authorization header");
@@ -200,6 +244,10 @@ public class AuthController {
         );
 
         tokenBlacklistService.blacklistToken(token, expiryDate);
+        // Révoquer aussi la session de refresh pour qu'elle ne puisse plus émettre d'access tokens
+        if (refreshTokenRequest != null && refreshTokenRequest.getRefreshToken() != null) {
+            refreshTokenService.revoke(refreshTokenRequest.getRefreshToken());
+        }
 
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Logged out successfully");
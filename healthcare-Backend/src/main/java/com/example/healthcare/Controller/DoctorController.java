@@ -1,16 +1,28 @@
 package com.example.healthcare.Controller;
 
+import com.example.healthcare.Model.DoctorAvailabilityDTO;
 import com.example.healthcare.Model.DoctorDTO;
 import com.example.healthcare.Model.Role;
 import com.example.healthcare.Model.User;
+import com.example.healthcare.Model.WorkingHoursDTO;
+import com.example.healthcare.exception.ResourceNotFoundException;
 import com.example.healthcare.repository.UserRepository;
+import com.example.healthcare.security.AuthenticatedUser;
+import com.example.healthcare.service.DoctorAvailabilityService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -22,9 +34,11 @@ public class DoctorController {
     Logger logger = Logger.getLogger(DoctorController.class.getName());
 
     private final UserRepository userRepository;
+    private final DoctorAvailabilityService availabilityService;
 
-    public DoctorController(UserRepository userRepository) {
+    public DoctorController(UserRepository userRepository, DoctorAvailabilityService availabilityService) {
         this.userRepository = userRepository;
+        this.availabilityService = availabilityService;
     }
 
     @GetMapping
@@ -40,6 +54,75 @@ public class DoctorController {
         return ResponseEntity.ok(doctorDTOs);
     }
 
+    // Créneaux libres d'un médecin, ex. /12/availability?from=2025-06-02T08:00:00&to=2025-06-09T00:00:00
+    @GetMapping("/{doctorId}/availability")
+    public ResponseEntity<?> getAvailability(
+            @PathVariable Long doctorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            DoctorAvailabilityDTO availability = availabilityService.getAvailability(doctorId, from, to);
+            return ResponseEntity.ok(availability);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Error: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+        }
+    }
+
+    // Créneaux libres de tous les médecins d'une spécialité
+    @GetMapping("/availability")
+    public ResponseEntity<?> getAvailabilityBySpecialization(
+            @RequestParam Long specializationId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            List<DoctorAvailabilityDTO> availability =
+                    availabilityService.getAvailabilityBySpecialization(specializationId, from, to);
+            return ResponseEntity.ok(availability);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/{doctorId}/working-hours")
+    public ResponseEntity<?> getWorkingHours(@PathVariable Long doctorId) {
+        try {
+            return ResponseEntity.ok(availabilityService.getWorkingHours(doctorId));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Error: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+        }
+    }
+
+    @PutMapping("/{doctorId}/working-hours")
+    public ResponseEntity<?> setWorkingHours(@PathVariable Long doctorId, @RequestBody List<WorkingHoursDTO> hours,
+                                             Authentication authentication) {
+        // Seul le médecin concerné peut modifier ses propres plages horaires
+        if (!doctorId.equals(currentUserId(authentication))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body("Error: Only the doctor themself can update these working hours");
+        }
+        try {
+            List<WorkingHoursDTO> saved = availabilityService.setWorkingHours(doctorId, hours);
+            logger.info("Working hours updated for doctorId: " + doctorId);
+            return ResponseEntity.ok(saved);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Error: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+        }
+    }
+
+    private Long currentUserId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return principal.getId();
+        }
+        User user = userRepository.findByEmail(authentication.getName());
+        return user != null ? user.getId() : null;
+    }
+
     private DoctorDTO convertToDoctorDTO(User doctor) {
         DoctorDTO dto = new DoctorDTO();
         dto.setId(doctor.getId());
@@ -1,15 +1,30 @@
 package com.example.healthcare.Controller;
 
+import com.example.healthcare.Model.LatestVitals;
 import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.MedicalDataBatchResult;
 import com.example.healthcare.Model.MedicalDataDTO;
+import com.example.healthcare.Model.MedicalDataPage;
+import com.example.healthcare.Model.RollupGranularity;
 import com.example.healthcare.Model.User;
+import com.example.healthcare.Model.VitalMetric;
+import com.example.healthcare.Model.VitalRollupDTO;
+import com.example.healthcare.Model.VitalThresholdDTO;
+import com.example.healthcare.exception.ResourceNotFoundException;
 import com.example.healthcare.repository.MedicalDataRepository;
 import com.example.healthcare.repository.UserRepository;
+import com.example.healthcare.service.IngestLogService;
+import com.example.healthcare.service.LatestVitalsService;
 import com.example.healthcare.service.MedicalDataService;
+import com.example.healthcare.service.VitalRollupService;
+import com.example.healthcare.service.VitalRuleEngine;
+import com.example.healthcare.service.VitalSeriesService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -31,6 +46,27 @@ public class MedicalDataController {
     @Autowired
     private MedicalDataService medicalDataService;
 
+    @Autowired
+    private VitalRuleEngine vitalRuleEngine;
+
+    @Autowired
+    private VitalRollupService vitalRollupService;
+
+    @Autowired
+    private LatestVitalsService latestVitalsService;
+
+    @Autowired
+    private IngestLogService ingestLogService;
+
+    @Autowired
+    private VitalSeriesService vitalSeriesService;
+
+    @Value("${medical-data.latest.max-users:500}")
+    private int maxLatestUsers;
+
+    @Value("${medical-data.batch.max-items:50000}")
+    private int maxBatchItems;
+
     private final MedicalDataRepository medicalDataRepository;
     private final UserRepository userRepository;
 
@@ -42,8 +78,17 @@ public class MedicalDataController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<MedicalData>> getMedicalDataByUserId(@PathVariable Long userId) {
+    public ResponseEntity<?> getMedicalDataByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after) {
         logger.info("Received GET request to fetch medical data for userId: {}", userId);
+        if (isPageRequested(from, to, limit, after)) {
+            return getMedicalDataPage(userId, from, to, limit, after);
+        }
+        // Sans paramètre de pagination : ancien format (liste complète), conservé pour les clients existants
         try {
             List<MedicalData> data = medicalDataService.getMedicalDataByUserId(userId);
             if (data.isEmpty()) {
@@ -59,20 +104,44 @@ public class MedicalDataController {
     }
 
     @GetMapping
-    public ResponseEntity<List<MedicalData>> getMedicalData() {
+    public ResponseEntity<?> getMedicalData(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
         User user = userRepository.findByEmail(email);
+        if (isPageRequested(from, to, limit, after)) {
+            return getMedicalDataPage(user.getId(), from, to, limit, after);
+        }
         List<MedicalData> medicalData = medicalDataRepository.findByUser(user);
         return new ResponseEntity<>(medicalData, HttpStatus.OK);
     }
 
+    private boolean isPageRequested(LocalDateTime from, LocalDateTime to, Integer limit, String after) {
+        return from != null || to != null || limit != null || after != null;
+    }
+
+    private ResponseEntity<?> getMedicalDataPage(Long userId, LocalDateTime from, LocalDateTime to, Integer limit, String after) {
+        try {
+            MedicalDataPage page = medicalDataService.getMedicalDataPage(userId, from, to, limit, after);
+            logger.info("Returning {} medical data entries for userId: {}", page.getItems().size(), userId);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+        }
+    }
+
     @PostMapping("/user/{userId}")
     public ResponseEntity<?> addMedicalData(
             @PathVariable Long userId,
             @Valid @RequestBody MedicalDataDTO medicalDataDTO) {
         logger.info("Received POST request to add medical data for userId: {}", userId);
         logger.debug("Received MedicalDataDTO: {}", medicalDataDTO);
+        if (ingestLogService.isEnabled()) {
+            return logMedicalData(userId, List.of(medicalDataDTO));
+        }
         try {
             MedicalData medicalData = new MedicalData();
             medicalData.setRecordedAt(medicalDataDTO.getRecordedAt() != null ?
@@ -91,6 +160,141 @@ public class MedicalDataController {
                     .body("Error: " + e.getMessage() + " - Check server logs for details");
         }
     }
+
+    @PostMapping("/user/{userId}/batch")
+    public ResponseEntity<?> addMedicalDataBatch(
+            @PathVariable Long userId,
+            @RequestBody List<MedicalDataDTO> readings) {
+        logger.info("Received POST request to add {} medical data entries for userId: {}", readings.size(), userId);
+        if (readings.size() > maxBatchItems) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body("Error: at most " + maxBatchItems + " readings per batch");
+        }
+        if (ingestLogService.isEnabled()) {
+            return logMedicalData(userId, readings);
+        }
+        try {
+            MedicalDataBatchResult result = medicalDataService.addMedicalDataBatch(userId, readings);
+            return ResponseEntity.status(HttpStatus.CREATED).body(result);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error adding medical data batch: ", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Error: " + e.getMessage() + " - Check server logs for details");
+        }
+    }
+
+    // Mode journal d'ingestion : 202 dès que les mesures sont sur le disque local, chargement en base différé
+    private ResponseEntity<?> logMedicalData(Long userId, List<MedicalDataDTO> readings) {
+        try {
+            MedicalDataBatchResult result = medicalDataService.logMedicalDataBatch(userId, readings);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(result);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Error: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            logger.error("Error logging medical data: ", e);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Error: " + e.getMessage());
+        }
+    }
+
+    // Dernière valeur de chaque mesure, pour l'écran d'accueil
+    @GetMapping("/user/{userId}/latest")
+    public ResponseEntity<LatestVitals> getLatestVitals(@PathVariable Long userId) {
+        return ResponseEntity.ok(latestVitalsService.getLatest(userId));
+    }
+
+    // Variante multi-patients pour la liste du médecin : /latest?userIds=1,2,3
+    @GetMapping("/latest")
+    public ResponseEntity<?> getLatestVitals(@RequestParam List<Long> userIds) {
+        if (userIds.size() > maxLatestUsers) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Error: at most " + maxLatestUsers + " userIds per request");
+        }
+        List<LatestVitals> snapshots = latestVitalsService.getLatest(userIds);
+        return ResponseEntity.ok(snapshots);
+    }
+
+    // Séries brutes en colonnes pour les graphiques (7 derniers jours par défaut)
+    @GetMapping("/user/{userId}/series")
+    public ResponseEntity<?> getSeries(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            return ResponseEntity.ok(vitalSeriesService.getSeries(userId, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/user/{userId}/series/summary")
+    public ResponseEntity<?> getSeriesSummary(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            return ResponseEntity.ok(vitalSeriesService.getSummary(userId, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+        }
+    }
+
+    // Agrégats horaires (HOUR) ou journaliers (DAY) pour les graphiques de tendance
+    @GetMapping("/user/{userId}/rollups")
+    public ResponseEntity<?> getRollups(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "DAY") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        logger.info("Received GET request to fetch {} rollups for userId: {}", granularity, userId);
+        RollupGranularity rollupGranularity;
+        try {
+            rollupGranularity = RollupGranularity.valueOf(granularity.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: granularity must be HOUR or DAY");
+        }
+        try {
+            List<VitalRollupDTO> rollups = vitalRollupService.getRollups(userId, rollupGranularity, from, to);
+            return ResponseEntity.ok(rollups);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+        }
+    }
+
+    // Seuils effectivement appliqués au patient (surcharges, tranche d'âge ou défaut)
+    @GetMapping("/user/{userId}/thresholds")
+    public ResponseEntity<?> getThresholds(@PathVariable Long userId) {
+        try {
+            List<VitalThresholdDTO> thresholds = vitalRuleEngine.getEffectiveThresholds(userId);
+            return ResponseEntity.ok(thresholds);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Error: " + e.getMessage());
+        }
+    }
+
+    @PutMapping("/user/{userId}/thresholds/{metric}")
+    public ResponseEntity<?> setThreshold(
+            @PathVariable Long userId,
+            @PathVariable VitalMetric metric,
+            @RequestBody VitalThresholdDTO threshold) {
+        logger.info("Received PUT request to set {} threshold for userId: {}", metric, userId);
+        try {
+            vitalRuleEngine.setPatientOverride(userId, metric, threshold.getMin(), threshold.getMax());
+            return ResponseEntity.ok(vitalRuleEngine.getEffectiveThresholds(userId));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Error: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/user/{userId}/thresholds/{metric}")
+    public ResponseEntity<?> removeThreshold(@PathVariable Long userId, @PathVariable VitalMetric metric) {
+        logger.info("Received DELETE request to remove {} threshold for userId: {}", metric, userId);
+        vitalRuleEngine.removePatientOverride(userId, metric);
+        return ResponseEntity.noContent().build();
+    }
 //
 
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.example.healthcare.Controller;
 
 import com.example.healthcare.Model.User;
+import com.example.healthcare.service.UserDetailsCache;
 import com.example.healthcare.service.UserService;
 import com.example.healthcare.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,11 +26,13 @@ public class UserController {
 
     private UserService userService;// Renommé en minuscules
     private UserRepository userRepository;
+    private UserDetailsCache userDetailsCache;
 
     @Autowired
-    public UserController(UserService userService, UserRepository userRepository) {
+    public UserController(UserService userService, UserRepository userRepository, UserDetailsCache userDetailsCache) {
         this.userService = userService;
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
     }
 
 
@@ -91,6 +94,7 @@ public class UserController {
         user.setPhoneNumber(updatedUser.getPhoneNumber());
         // Ne pas permettre la mise à jour de l'email ou du mot de passe ici
         User savedUser = userRepository.save(user);
+        userDetailsCache.invalidate(email);
         return new ResponseEntity<>(savedUser, HttpStatus.OK);
     }
 }
\ No newline at end of file
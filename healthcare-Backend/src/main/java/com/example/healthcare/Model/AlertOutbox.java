@@ -0,0 +1,85 @@
+package com.example.healthcare.Model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Alerte de santé en attente d'envoi. La ligne est écrite dans la même transaction que
+ * la mesure qui l'a déclenchée, puis envoyée par {@link com.example.healthcare.service.AlertOutboxProcessor}.
+ */
+@Entity
+@Table(name = "alert_outbox", indexes = {
+        @Index(name = "idx_alert_outbox_status_created", columnList = "status, createdAt"),
+        @Index(name = "idx_alert_outbox_status_next_attempt", columnList = "status, nextAttemptAt"),
+        @Index(name = "idx_alert_outbox_user", columnList = "user_id")
+})
+public class AlertOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    // Détail des valeurs anormales, sans l'en-tête ajouté à l'envoi
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private AlertStatus status = AlertStatus.PENDING;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column
+    private LocalDateTime sentAt;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    // Prochain essai après un échec (backoff exponentiel) ; null tant qu'aucun envoi n'a échoué
+    @Column
+    private LocalDateTime nextAttemptAt;
+
+    // Instance qui envoie l'alerte et échéance de sa réclamation (voir AlertOutboxService#claimDue)
+    @Column(length = 64)
+    private String claimedBy;
+
+    @Column
+    private LocalDateTime claimExpiresAt;
+
+    // Constructeurs
+    public AlertOutbox() {
+    }
+
+    public AlertOutbox(User user, String message) {
+        this.user = user;
+        this.message = message;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters et Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+    public AlertStatus getStatus() { return status; }
+    public void setStatus(AlertStatus status) { this.status = status; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getSentAt() { return sentAt; }
+    public void setSentAt(LocalDateTime sentAt) { this.sentAt = sentAt; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    public String getClaimedBy() { return claimedBy; }
+    public void setClaimedBy(String claimedBy) { this.claimedBy = claimedBy; }
+    public LocalDateTime getClaimExpiresAt() { return claimExpiresAt; }
+    public void setClaimExpiresAt(LocalDateTime claimExpiresAt) { this.claimExpiresAt = claimExpiresAt; }
+}
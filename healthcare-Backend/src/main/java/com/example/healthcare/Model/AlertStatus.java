@@ -0,0 +1,7 @@
+package com.example.healthcare.Model;
+
+public enum AlertStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
@@ -6,7 +6,10 @@
     import java.time.LocalDateTime;
 
     @Entity
-    @Table(name = "appointment")
+    @Table(name = "appointment", indexes = {
+            @Index(name = "idx_appointment_doctor_date", columnList = "doctor_id, appointment_date"),
+            @Index(name = "idx_appointment_user_date", columnList = "user_id, appointment_date")
+    })
     public class Appointment {
 
         @Id
@@ -26,6 +29,10 @@
         @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
         private LocalDateTime appointment_date;
 
+        // Durée réservée ; appointments.slot-minutes si absente (rendez-vous antérieurs)
+        @Column(name = "duration_minutes")
+        private Integer durationMinutes;
+
         @Column
         private String reason;
 
@@ -45,6 +52,9 @@
         public LocalDateTime getAppointmentDate() { return appointment_date; }
         public void setAppointmentDate(LocalDateTime appointmentDate) { this.appointment_date = appointmentDate; }
 
+        public Integer getDurationMinutes() { return durationMinutes; }
+        public void setDurationMinutes(Integer durationMinutes) { this.durationMinutes = durationMinutes; }
+
         public String getReason() {
             return reason;
         }
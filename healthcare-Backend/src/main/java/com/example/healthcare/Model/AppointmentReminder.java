@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "appointment_reminder")
+@Table(name = "appointment_reminder", indexes = {
+        @Index(name = "idx_appointment_reminder_pending", columnList = "sent, reminder_time")
+})
 public class AppointmentReminder {
 
     @Id
@@ -15,12 +17,33 @@ public class AppointmentReminder {
     @JoinColumn(name = "appointment_id", nullable = false)
     private Appointment appointment;
 
+    // Prochain envoi : l'heure prévue, puis celle du nouvel essai après un échec
     @Column(nullable = false)
     private LocalDateTime reminderTime;
 
     @Column(nullable = false)
     private boolean sent;
 
+    // Abandonné après reminders.max-attempts échecs
+    @Column(nullable = false)
+    private boolean failed;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column
+    private LocalDateTime sentAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    // Mode réclamation (reminders.claim.enabled) : instance qui envoie le rappel, jusqu'à claimExpiresAt
+    @Column(length = 64)
+    private String claimedBy;
+
+    @Column
+    private LocalDateTime claimExpiresAt;
+
     // Constructeurs
     public AppointmentReminder() {
     }
@@ -34,4 +57,16 @@ public class AppointmentReminder {
     public void setReminderTime(LocalDateTime reminderTime) { this.reminderTime = reminderTime; }
     public boolean isSent() { return sent; }
     public void setSent(boolean sent) { this.sent = sent; }
+    public boolean isFailed() { return failed; }
+    public void setFailed(boolean failed) { this.failed = failed; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public LocalDateTime getSentAt() { return sentAt; }
+    public void setSentAt(LocalDateTime sentAt) { this.sentAt = sentAt; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public String getClaimedBy() { return claimedBy; }
+    public void setClaimedBy(String claimedBy) { this.claimedBy = claimedBy; }
+    public LocalDateTime getClaimExpiresAt() { return claimExpiresAt; }
+    public void setClaimExpiresAt(LocalDateTime claimExpiresAt) { this.claimExpiresAt = claimExpiresAt; }
 }
\ No newline at end of file
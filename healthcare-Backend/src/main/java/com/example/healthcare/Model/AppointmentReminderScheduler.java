@@ -1,51 +1,115 @@
 package com.example.healthcare.Model;
 
-import com.example.healthcare.service.AppointmentService;
-import com.example.healthcare.service.EmailService;
+import com.example.healthcare.service.AppointmentReminderClaimer;
+import com.example.healthcare.service.AppointmentReminderDispatcher;
+import com.example.healthcare.service.AppointmentReminderWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Envoie les rappels rendus par la roue ({@link AppointmentReminderWheel}) à chaque tick,
+ * par lots parallèles ({@link AppointmentReminderDispatcher}).
+ * Un tick sans rappel dû ne fait aucune requête.
+ * <p>
+ * Avec plusieurs instances ({@code reminders.claim.enabled=true}), la roue ne sert que de
+ * réveil : les rappels dus sont réclamés en base ({@link AppointmentReminderClaimer}), et un
+ * balayage toutes les {@code reminders.claim.sweep-interval-ms} reprend ceux d'une instance
+ * arrêtée ou créés sur une autre.
+ * <p>
+ * Le tick tourne sur son propre thread ({@code reminder-wheel-tick}) et non sur celui des
+ * tâches {@code @Scheduled} : un rafraîchissement d'analytics ou un archivage nocturne ne
+ * retarde pas l'envoi des rappels.
+ */
 @Component
 public class AppointmentReminderScheduler {
 
     private static final Logger logger = LoggerFactory.getLogger(AppointmentReminderScheduler.class);
 
     @Autowired
-    private AppointmentService appointmentService;
+    private AppointmentReminderWheel reminderWheel;
 
     @Autowired
-    private EmailService emailService;
+    private AppointmentReminderDispatcher reminderDispatcher;
+
+    @Autowired
+    private AppointmentReminderClaimer reminderClaimer;
+
+    @Value("${reminders.claim.enabled:false}")
+    private boolean claimEnabled;
+
+    @Value("${reminders.claim.sweep-interval-ms:60000}")
+    private long sweepIntervalMillis = 60000;
+
+    @Value("${reminders.wheel.tick-ms:1000}")
+    private long tickMillis = 1000;
+
+    private long lastSweepMillis;
+    private ScheduledExecutorService ticker;
+
+    @PostConstruct
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reminder-wheel-tick");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tickQuietly, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    // Une exception non rattrapée annulerait les ticks suivants
+    private void tickQuietly() {
+        try {
+            sendReminders();
+        } catch (RuntimeException e) {
+            logger.error("Appointment reminder tick failed: {}", e.getMessage(), e);
+        }
+    }
 
-    @Scheduled(fixedRate = 60000) // Exécuter toutes les 60 secondes
     public void sendReminders() {
         LocalDateTime now = LocalDateTime.now();
-        LocalDateTime end = now.plusMinutes(1);
-        logger.info("Checking for appointment reminders to send between {} and {}", now, end);
-
-        List<AppointmentReminder> reminders = appointmentService.getRemindersToSend(now, end);
-        if (reminders.isEmpty()) {
-            logger.info("No appointment reminders to send");
+        List<Long> due = reminderWheel.advance(now);
+        if (claimEnabled) {
+            claimReminders(now, due);
             return;
         }
+        if (due.isEmpty()) {
+            reminderWheel.markProcessed(now, false);
+            return;
+        }
+        logger.info("Sending {} appointment reminders due by {}", due.size(), now);
+        reminderDispatcher.dispatch(due);
+        reminderWheel.markProcessed(now, true);
+    }
 
-        for (AppointmentReminder reminder : reminders) {
-            Appointment appointment = reminder.getAppointment();
-            String message = "Rappel : Vous avez un rendez-vous avec le Dr " + appointment.getDoctor() +
-                    " le " + appointment.getAppointmentDate() + ".\nNotes : " + (appointment.getReason() != null ? appointment.getReason() : "Aucune note");
-            emailService.sendEmail(
-                    appointment.getUser().getEmail(),
-                    "Rappel de Rendez-vous Médical",
-                    message
-            );
-            reminder.setSent(true);
-            // Note : Vous devrez ajouter un repository pour sauvegarder l'état du rappel
-            logger.info("Reminder sent for appointment with Dr {} at {}", appointment.getDoctor(), appointment.getAppointmentDate());
+    private void claimReminders(LocalDateTime now, List<Long> due) {
+        long nowMillis = System.currentTimeMillis();
+        if (due.isEmpty() && nowMillis - lastSweepMillis < sweepIntervalMillis) {
+            reminderWheel.markProcessed(now, false);
+            return;
+        }
+        lastSweepMillis = nowMillis;
+        int sent = reminderClaimer.claimAndDispatch(now);
+        if (sent > 0) {
+            logger.info("Instance {} sent {} claimed appointment reminders", reminderClaimer.getOwner(), sent);
         }
+        reminderWheel.markProcessed(now, !due.isEmpty());
     }
-}
\ No newline at end of file
+}
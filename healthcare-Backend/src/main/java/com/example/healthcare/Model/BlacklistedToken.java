@@ -1,17 +1,22 @@
 package com.example.healthcare.Model;
 
 import jakarta.persistence.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "blacklisted_tokens")
+@Table(name = "blacklisted_tokens", indexes = {
+        @Index(name = "idx_blacklisted_tokens_expiry_day", columnList = "expiry_day"),
+        @Index(name = "idx_blacklisted_tokens_blacklisted_at", columnList = "blacklistedAt")
+})
 public class BlacklistedToken {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    // Empreinte SHA-256 (64 caractères hex) du JWT, à la place du token complet
+    @Column(name = "token", nullable = false, unique = true, length = 64)
+    private String tokenDigest;
 
     @Column(nullable = false)
     private LocalDateTime blacklistedAt;
@@ -19,22 +24,29 @@ public class BlacklistedToken {
     @Column(nullable = false)
     private LocalDateTime expiryDate;
 
+    // Jour d'expiration : la purge supprime des jours entiers, par lots
+    @Column(name = "expiry_day")
+    private LocalDate expiryDay;
+
     // Constructeurs
     public BlacklistedToken() {}
 
-    public BlacklistedToken(String token, LocalDateTime expiryDate) {
-        this.token = token;
+    public BlacklistedToken(String tokenDigest, LocalDateTime expiryDate) {
+        this.tokenDigest = tokenDigest;
         this.blacklistedAt = LocalDateTime.now();
         this.expiryDate = expiryDate;
+        this.expiryDay = expiryDate.toLocalDate();
     }
 
     // Getters et Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
-    public String getToken() { return token; }
-    public void setToken(String token) { this.token = token; }
+    public String getTokenDigest() { return tokenDigest; }
+    public void setTokenDigest(String tokenDigest) { this.tokenDigest = tokenDigest; }
     public LocalDateTime getBlacklistedAt() { return blacklistedAt; }
     public void setBlacklistedAt(LocalDateTime blacklistedAt) { this.blacklistedAt = blacklistedAt; }
     public LocalDateTime getExpiryDate() { return expiryDate; }
     public void setExpiryDate(LocalDateTime expiryDate) { this.expiryDate = expiryDate; }
-}
\ No newline at end of file
+    public LocalDate getExpiryDay() { return expiryDay; }
+    public void setExpiryDay(LocalDate expiryDay) { this.expiryDay = expiryDay; }
+}
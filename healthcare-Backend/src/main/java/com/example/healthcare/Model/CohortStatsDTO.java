@@ -0,0 +1,71 @@
+package com.example.healthcare.Model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Résultat d'une requête de cohorte sur l'instantané analytique : statistiques de la
+ * mesure sur la période et, si un seuil est donné, patients dont la moyenne le dépasse.
+ */
+public class CohortStatsDTO {
+
+    private VitalMetric metric;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime from;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime to;
+
+    // Patients de la cohorte, puis ceux qui ont au moins une valeur sur la période
+    private int cohortPatients;
+    private int patientsWithReadings;
+    private long readings;
+    private Double mean;
+    private Double min;
+    private Double max;
+
+    private Double threshold;
+    private int patientsAboveThreshold;
+    // Limité à analytics.max-listed-patients
+    private List<Long> patientIdsAboveThreshold = new ArrayList<>();
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime snapshotAt;
+    private long rowsScanned;
+
+    public CohortStatsDTO() {
+    }
+
+    public VitalMetric getMetric() { return metric; }
+    public void setMetric(VitalMetric metric) { this.metric = metric; }
+    public LocalDateTime getFrom() { return from; }
+    public void setFrom(LocalDateTime from) { this.from = from; }
+    public LocalDateTime getTo() { return to; }
+    public void setTo(LocalDateTime to) { this.to = to; }
+    public int getCohortPatients() { return cohortPatients; }
+    public void setCohortPatients(int cohortPatients) { this.cohortPatients = cohortPatients; }
+    public int getPatientsWithReadings() { return patientsWithReadings; }
+    public void setPatientsWithReadings(int patientsWithReadings) { this.patientsWithReadings = patientsWithReadings; }
+    public long getReadings() { return readings; }
+    public void setReadings(long readings) { this.readings = readings; }
+    public Double getMean() { return mean; }
+    public void setMean(Double mean) { this.mean = mean; }
+    public Double getMin() { return min; }
+    public void setMin(Double min) { this.min = min; }
+    public Double getMax() { return max; }
+    public void setMax(Double max) { this.max = max; }
+    public Double getThreshold() { return threshold; }
+    public void setThreshold(Double threshold) { this.threshold = threshold; }
+    public int getPatientsAboveThreshold() { return patientsAboveThreshold; }
+    public void setPatientsAboveThreshold(int patientsAboveThreshold) { this.patientsAboveThreshold = patientsAboveThreshold; }
+    public List<Long> getPatientIdsAboveThreshold() { return patientIdsAboveThreshold; }
+    public void setPatientIdsAboveThreshold(List<Long> patientIdsAboveThreshold) { this.patientIdsAboveThreshold = patientIdsAboveThreshold; }
+    public LocalDateTime getSnapshotAt() { return snapshotAt; }
+    public void setSnapshotAt(LocalDateTime snapshotAt) { this.snapshotAt = snapshotAt; }
+    public long getRowsScanned() { return rowsScanned; }
+    public void setRowsScanned(long rowsScanned) { this.rowsScanned = rowsScanned; }
+}
@@ -0,0 +1,34 @@
+package com.example.healthcare.Model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Créneaux libres d'un médecin, chacun de {@code slotMinutes} minutes à partir de l'heure indiquée.
+ */
+public class DoctorAvailabilityDTO {
+
+    private Long doctorId;
+    private String doctorName;
+    private String specializationName;
+    private int slotMinutes;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private List<LocalDateTime> slots;
+
+    public DoctorAvailabilityDTO() {
+    }
+
+    public Long getDoctorId() { return doctorId; }
+    public void setDoctorId(Long doctorId) { this.doctorId = doctorId; }
+    public String getDoctorName() { return doctorName; }
+    public void setDoctorName(String doctorName) { this.doctorName = doctorName; }
+    public String getSpecializationName() { return specializationName; }
+    public void setSpecializationName(String specializationName) { this.specializationName = specializationName; }
+    public int getSlotMinutes() { return slotMinutes; }
+    public void setSlotMinutes(int slotMinutes) { this.slotMinutes = slotMinutes; }
+    public List<LocalDateTime> getSlots() { return slots; }
+    public void setSlots(List<LocalDateTime> slots) { this.slots = slots; }
+}
@@ -0,0 +1,66 @@
+package com.example.healthcare.Model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Mesure du journal d'ingestion qui n'a pas pu être chargée dans medical_data (patient
+ * supprimé, ou accepté pendant une indisponibilité de la base). Écrite dans la même
+ * transaction que le point de reprise : elle est conservée ici au lieu d'être perdue.
+ */
+@Entity
+@Table(name = "ingest_dead_letter", indexes = {
+        @Index(name = "idx_ingest_dead_letter_user", columnList = "user_id")
+})
+public class IngestDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String logId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime recordedAt;
+
+    private Double bloodSugar;
+    private Integer systolicBloodPressure;
+    private Integer diastolicBloodPressure;
+    private Integer heartRate;
+
+    @Column(nullable = false)
+    private String reason;
+
+    @Column(nullable = false)
+    private LocalDateTime discardedAt;
+
+    public IngestDeadLetter() {
+    }
+
+    public IngestDeadLetter(String logId, Long userId, MedicalData medicalData, String reason, LocalDateTime discardedAt) {
+        this.logId = logId;
+        this.userId = userId;
+        this.recordedAt = medicalData.getRecordedAt();
+        this.bloodSugar = medicalData.getBloodSugar();
+        this.systolicBloodPressure = medicalData.getSystolicBloodPressure();
+        this.diastolicBloodPressure = medicalData.getDiastolicBloodPressure();
+        this.heartRate = medicalData.getHeartRate();
+        this.reason = reason;
+        this.discardedAt = discardedAt;
+    }
+
+    public Long getId() { return id; }
+    public String getLogId() { return logId; }
+    public Long getUserId() { return userId; }
+    public LocalDateTime getRecordedAt() { return recordedAt; }
+    public Double getBloodSugar() { return bloodSugar; }
+    public Integer getSystolicBloodPressure() { return systolicBloodPressure; }
+    public Integer getDiastolicBloodPressure() { return diastolicBloodPressure; }
+    public Integer getHeartRate() { return heartRate; }
+    public String getReason() { return reason; }
+    public LocalDateTime getDiscardedAt() { return discardedAt; }
+}
@@ -0,0 +1,40 @@
+package com.example.healthcare.Model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Position jusqu'à laquelle le journal d'ingestion d'une instance a été chargé dans
+ * medical_data. Mise à jour dans la même transaction que les mesures, elle rend la
+ * relecture au démarrage exacte : ni perte ni doublon.
+ */
+@Entity
+@Table(name = "ingest_log_checkpoint")
+public class IngestLogCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String logId;
+
+    @Column(nullable = false)
+    private long position;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public IngestLogCheckpoint() {
+    }
+
+    public IngestLogCheckpoint(String logId, long position, LocalDateTime updatedAt) {
+        this.logId = logId;
+        this.position = position;
+        this.updatedAt = updatedAt;
+    }
+
+    public String getLogId() { return logId; }
+    public void setLogId(String logId) { this.logId = logId; }
+    public long getPosition() { return position; }
+    public void setPosition(long position) { this.position = position; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
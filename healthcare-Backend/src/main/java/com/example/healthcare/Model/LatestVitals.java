@@ -0,0 +1,76 @@
+package com.example.healthcare.Model;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Dernière valeur connue de chaque mesure d'un patient. Instance immuable : une nouvelle
+ * mesure produit une copie via {@link #merge}, ce qui permet de la partager entre threads.
+ */
+public final class LatestVitals {
+
+    private static final VitalMetric[] METRICS = VitalMetric.values();
+
+    private final Long userId;
+    private final double[] values;
+    private final LocalDateTime[] recordedAt;
+
+    public record LatestValue(Number value, LocalDateTime recordedAt) {
+    }
+
+    public LatestVitals(Long userId) {
+        this(userId, new double[METRICS.length], new LocalDateTime[METRICS.length]);
+    }
+
+    private LatestVitals(Long userId, double[] values, LocalDateTime[] recordedAt) {
+        this.userId = userId;
+        this.values = values;
+        this.recordedAt = recordedAt;
+    }
+
+    public LatestVitals with(VitalMetric metric, double value, LocalDateTime at) {
+        int i = metric.ordinal();
+        if (recordedAt[i] != null && !at.isAfter(recordedAt[i])) {
+            return this;
+        }
+        LatestVitals copy = new LatestVitals(userId, values.clone(), recordedAt.clone());
+        copy.values[i] = value;
+        copy.recordedAt[i] = at;
+        return copy;
+    }
+
+    // Une mesure plus ancienne que la valeur connue (envoi différé) ne la remplace pas
+    public LatestVitals merge(MedicalData medicalData) {
+        LatestVitals merged = this;
+        for (VitalMetric metric : METRICS) {
+            double value = metric.read(medicalData);
+            if (value == value && medicalData.getRecordedAt() != null) {
+                merged = merged.with(metric, value, medicalData.getRecordedAt());
+            }
+        }
+        return merged;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Map<VitalMetric, LatestValue> getMetrics() {
+        Map<VitalMetric, LatestValue> metrics = new EnumMap<>(VitalMetric.class);
+        for (VitalMetric metric : METRICS) {
+            int i = metric.ordinal();
+            if (recordedAt[i] != null) {
+                Number value = metric.isIntegral() ? (Number) (long) values[i] : (Number) values[i];
+                metrics.put(metric, new LatestValue(value, recordedAt[i]));
+            }
+        }
+        return metrics;
+    }
+
+    @Override
+    public String toString() {
+        return "LatestVitals{userId=" + userId + ", values=" + Arrays.toString(values) + "}";
+    }
+}
@@ -6,7 +6,12 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "medical_data")
+@Table(name = "medical_data", indexes = {
+        // Index composite pour les requêtes par patient et par période (pagination par curseur)
+        @Index(name = "idx_medical_data_user_recorded", columnList = "user_id, recordedAt, id"),
+        // Scan par période de l'instantané analytique et de l'archivage, tous patients confondus
+        @Index(name = "idx_medical_data_recorded", columnList = "recordedAt")
+})
 public class MedicalData {
 
     @Id
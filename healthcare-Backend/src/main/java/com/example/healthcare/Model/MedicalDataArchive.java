@@ -0,0 +1,64 @@
+package com.example.healthcare.Model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Mesures d'un patient sur une journée close, compressées en un seul bloc par
+ * {@link com.example.healthcare.util.VitalsBlockCodec}. Les lignes correspondantes
+ * sont retirées de medical_data lors de l'archivage.
+ */
+@Entity
+@Table(name = "medical_data_archive", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_medical_data_archive_window", columnNames = {"user_id", "window_start"})
+})
+public class MedicalDataArchive {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // Fenêtre [windowStart, windowEnd) couverte par le bloc
+    @Column(name = "window_start", nullable = false)
+    private LocalDateTime windowStart;
+
+    @Column(name = "window_end", nullable = false)
+    private LocalDateTime windowEnd;
+
+    @Column(nullable = false)
+    private int readingCount;
+
+    // MEDIUMBLOB sous MySQL (jusqu'à 16 Mo)
+    @Lob
+    @Column(nullable = false, length = 16777215)
+    private byte[] payload;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Deux archivages concurrents de la même fenêtre ne doivent pas s'écraser
+    @Version
+    private long version;
+
+    public MedicalDataArchive() {
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public LocalDateTime getWindowStart() { return windowStart; }
+    public void setWindowStart(LocalDateTime windowStart) { this.windowStart = windowStart; }
+    public LocalDateTime getWindowEnd() { return windowEnd; }
+    public void setWindowEnd(LocalDateTime windowEnd) { this.windowEnd = windowEnd; }
+    public int getReadingCount() { return readingCount; }
+    public void setReadingCount(int readingCount) { this.readingCount = readingCount; }
+    public byte[] getPayload() { return payload; }
+    public void setPayload(byte[] payload) { this.payload = payload; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(LocalDateTime archivedAt) { this.archivedAt = archivedAt; }
+    public long getVersion() { return version; }
+}
@@ -0,0 +1,42 @@
+package com.example.healthcare.Model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compte rendu d'un envoi groupé de mesures. Seules les mesures rejetées sont détaillées
+ * dans {@code rejectedItems} (par leur position dans le tableau envoyé) ; toutes les
+ * autres ont été enregistrées.
+ */
+public class MedicalDataBatchResult {
+
+    private int received;
+
+    private int accepted;
+
+    private List<ItemError> rejectedItems = new ArrayList<>();
+
+    public record ItemError(int index, String error) {
+    }
+
+    // Constructeurs
+    public MedicalDataBatchResult() {
+    }
+
+    public MedicalDataBatchResult(int received) {
+        this.received = received;
+    }
+
+    public void reject(int index, String error) {
+        rejectedItems.add(new ItemError(index, error));
+    }
+
+    // Getters et Setters
+    public int getReceived() { return received; }
+    public void setReceived(int received) { this.received = received; }
+    public int getAccepted() { return accepted; }
+    public void setAccepted(int accepted) { this.accepted = accepted; }
+    public int getRejected() { return rejectedItems.size(); }
+    public List<ItemError> getRejectedItems() { return rejectedItems; }
+    public void setRejectedItems(List<ItemError> rejectedItems) { this.rejectedItems = rejectedItems; }
+}
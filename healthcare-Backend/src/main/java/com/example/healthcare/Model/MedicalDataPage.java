@@ -0,0 +1,34 @@
+package com.example.healthcare.Model;
+
+import java.util.List;
+
+/**
+ * Une page de mesures, avec le curseur à renvoyer dans {@code after} pour obtenir la suivante
+ * ({@code null} quand il n'y a plus de mesures dans la période).
+ */
+public class MedicalDataPage {
+
+    private List<MedicalData> items;
+
+    private String nextCursor;
+
+    private int limit;
+
+    // Constructeurs
+    public MedicalDataPage() {
+    }
+
+    public MedicalDataPage(List<MedicalData> items, String nextCursor, int limit) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    // Getters et Setters
+    public List<MedicalData> getItems() { return items; }
+    public void setItems(List<MedicalData> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+}
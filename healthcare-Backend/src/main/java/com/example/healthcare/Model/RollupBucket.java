@@ -0,0 +1,47 @@
+package com.example.healthcare.Model;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Agrégat en cours de construction pour un intervalle, indexé par {@link VitalMetric#ordinal()}.
+ */
+public class RollupBucket {
+
+    private static final VitalMetric[] METRICS = VitalMetric.values();
+
+    private final RollupGranularity granularity;
+    private final LocalDateTime bucketStart;
+    private final long[] count = new long[METRICS.length];
+    private final double[] sum = new double[METRICS.length];
+    private final double[] min = new double[METRICS.length];
+    private final double[] max = new double[METRICS.length];
+
+    public RollupBucket(RollupGranularity granularity, LocalDateTime bucketStart) {
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+        Arrays.fill(min, Double.POSITIVE_INFINITY);
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+    }
+
+    public void add(MedicalData medicalData) {
+        for (int i = 0; i < METRICS.length; i++) {
+            double value = METRICS[i].read(medicalData);
+            if (value != value) {
+                continue;
+            }
+            count[i]++;
+            sum[i] += value;
+            min[i] = Math.min(min[i], value);
+            max[i] = Math.max(max[i], value);
+        }
+    }
+
+    public RollupGranularity getGranularity() { return granularity; }
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public long getCount(VitalMetric metric) { return count[metric.ordinal()]; }
+    public double getSum(VitalMetric metric) { return sum[metric.ordinal()]; }
+    // null quand la mesure est absente de l'intervalle
+    public Double getMin(VitalMetric metric) { return count[metric.ordinal()] > 0 ? min[metric.ordinal()] : null; }
+    public Double getMax(VitalMetric metric) { return count[metric.ordinal()] > 0 ? max[metric.ordinal()] : null; }
+}
@@ -0,0 +1,40 @@
+package com.example.healthcare.Model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Instant jusqu'auquel un planificateur a traité toutes ses échéances. Au redémarrage,
+ * seules les échéances postérieures sont relues : une période manquée (arrêt, pause)
+ * est rattrapée sans parcourir tout l'historique.
+ */
+@Entity
+@Table(name = "scheduler_watermark")
+public class SchedulerWatermark {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDateTime watermark;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public SchedulerWatermark() {
+    }
+
+    public SchedulerWatermark(String name, LocalDateTime watermark, LocalDateTime updatedAt) {
+        this.name = name;
+        this.watermark = watermark;
+        this.updatedAt = updatedAt;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public LocalDateTime getWatermark() { return watermark; }
+    public void setWatermark(LocalDateTime watermark) { this.watermark = watermark; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
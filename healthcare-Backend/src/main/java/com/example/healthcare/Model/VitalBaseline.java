@@ -0,0 +1,63 @@
+package com.example.healthcare.Model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * État EWMA d'un patient pour une mesure, sauvegardé périodiquement par
+ * {@link com.example.healthcare.service.VitalAnomalyDetector} pour survivre aux redémarrages.
+ */
+@Entity
+@Table(name = "vital_baseline", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_vital_baseline_user_metric", columnNames = {"user_id", "metric"})
+})
+public class VitalBaseline {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private VitalMetric metric;
+
+    @Column(nullable = false)
+    private double mean;
+
+    @Column(nullable = false)
+    private double variance;
+
+    @Column(nullable = false)
+    private double lastValue;
+
+    @Column(nullable = false)
+    private long sampleCount;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructeurs
+    public VitalBaseline() {
+    }
+
+    // Getters et Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public VitalMetric getMetric() { return metric; }
+    public void setMetric(VitalMetric metric) { this.metric = metric; }
+    public double getMean() { return mean; }
+    public void setMean(double mean) { this.mean = mean; }
+    public double getVariance() { return variance; }
+    public void setVariance(double variance) { this.variance = variance; }
+    public double getLastValue() { return lastValue; }
+    public void setLastValue(double lastValue) { this.lastValue = lastValue; }
+    public long getSampleCount() { return sampleCount; }
+    public void setSampleCount(long sampleCount) { this.sampleCount = sampleCount; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,51 @@
+package com.example.healthcare.Model;
+
+/**
+ * Mesures surveillées par {@link com.example.healthcare.service.VitalRuleEngine}. Les bornes
+ * par défaut sont celles appliquées historiquement ; elles peuvent être remplacées par
+ * configuration ({@code vitals.thresholds.*}) ou par patient.
+ */
+public enum VitalMetric {
+    BLOOD_SUGAR("Glycémie", "mg/dL", 70, 130, false),
+    SYSTOLIC_BLOOD_PRESSURE("Tension artérielle systolique", "mmHg", 90, 140, true),
+    DIASTOLIC_BLOOD_PRESSURE("Tension artérielle diastolique", "mmHg", 60, 90, true),
+    HEART_RATE("Fréquence cardiaque", "bpm", 60, 100, true);
+
+    private final String label;
+    private final String unit;
+    private final double defaultMin;
+    private final double defaultMax;
+    private final boolean integral;
+
+    VitalMetric(String label, String unit, double defaultMin, double defaultMax, boolean integral) {
+        this.label = label;
+        this.unit = unit;
+        this.defaultMin = defaultMin;
+        this.defaultMax = defaultMax;
+        this.integral = integral;
+    }
+
+    // NaN quand la mesure n'a pas été fournie
+    public double read(MedicalData medicalData) {
+        switch (this) {
+            case BLOOD_SUGAR:
+                Double bloodSugar = medicalData.getBloodSugar();
+                return bloodSugar != null ? bloodSugar : Double.NaN;
+            case SYSTOLIC_BLOOD_PRESSURE:
+                Integer systolic = medicalData.getSystolicBloodPressure();
+                return systolic != null ? systolic : Double.NaN;
+            case DIASTOLIC_BLOOD_PRESSURE:
+                Integer diastolic = medicalData.getDiastolicBloodPressure();
+                return diastolic != null ? diastolic : Double.NaN;
+            default:
+                Integer heartRate = medicalData.getHeartRate();
+                return heartRate != null ? heartRate : Double.NaN;
+        }
+    }
+
+    public String getLabel() { return label; }
+    public String getUnit() { return unit; }
+    public double getDefaultMin() { return defaultMin; }
+    public double getDefaultMax() { return defaultMax; }
+    public boolean isIntegral() { return integral; }
+}
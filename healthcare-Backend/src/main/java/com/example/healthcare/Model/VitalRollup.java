@@ -0,0 +1,68 @@
+package com.example.healthcare.Model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Agrégat des mesures d'un patient sur une heure ou une journée (nombre, somme, min, max
+ * par mesure). Les lignes sont écrites et lues en JDBC par
+ * {@link com.example.healthcare.repository.VitalRollupJdbcRepository} ; l'entité décrit la table.
+ */
+@Entity
+@Table(name = "vital_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_vital_rollup_bucket", columnNames = {"user_id", "granularity", "bucket_start"})
+})
+public class VitalRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private long bloodSugarCount;
+    @Column(nullable = false)
+    private double bloodSugarSum;
+    private Double bloodSugarMin;
+    private Double bloodSugarMax;
+
+    @Column(nullable = false)
+    private long systolicBloodPressureCount;
+    @Column(nullable = false)
+    private double systolicBloodPressureSum;
+    private Double systolicBloodPressureMin;
+    private Double systolicBloodPressureMax;
+
+    @Column(nullable = false)
+    private long diastolicBloodPressureCount;
+    @Column(nullable = false)
+    private double diastolicBloodPressureSum;
+    private Double diastolicBloodPressureMin;
+    private Double diastolicBloodPressureMax;
+
+    @Column(nullable = false)
+    private long heartRateCount;
+    @Column(nullable = false)
+    private double heartRateSum;
+    private Double heartRateMin;
+    private Double heartRateMax;
+
+    // Constructeurs
+    public VitalRollup() {
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public RollupGranularity getGranularity() { return granularity; }
+    public LocalDateTime getBucketStart() { return bucketStart; }
+}
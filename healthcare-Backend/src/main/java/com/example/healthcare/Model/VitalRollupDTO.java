@@ -0,0 +1,33 @@
+package com.example.healthcare.Model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+public class VitalRollupDTO {
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime bucketStart;
+
+    // Seules les mesures présentes dans l'intervalle figurent dans la map
+    private Map<VitalMetric, MetricSummary> metrics = new EnumMap<>(VitalMetric.class);
+
+    public record MetricSummary(long count, double min, double max, double avg) {
+    }
+
+    // Constructeurs
+    public VitalRollupDTO() {
+    }
+
+    public VitalRollupDTO(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    // Getters et Setters
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+    public Map<VitalMetric, MetricSummary> getMetrics() { return metrics; }
+    public void setMetrics(Map<VitalMetric, MetricSummary> metrics) { this.metrics = metrics; }
+}
@@ -0,0 +1,46 @@
+package com.example.healthcare.Model;
+
+import com.example.healthcare.util.VitalSeries;
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Séries d'un patient pour les graphiques : pour chaque mesure, un tableau d'horodatages
+ * (millisecondes depuis l'epoch, heure locale du serveur lue comme UTC) et un tableau de
+ * valeurs de même longueur.
+ */
+public class VitalSeriesDTO {
+
+    private Long userId;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime from;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime to;
+
+    private Map<VitalMetric, VitalSeries.Column> metrics = new EnumMap<>(VitalMetric.class);
+
+    // Constructeurs
+    public VitalSeriesDTO() {
+    }
+
+    public VitalSeriesDTO(Long userId, LocalDateTime from, LocalDateTime to) {
+        this.userId = userId;
+        this.from = from;
+        this.to = to;
+    }
+
+    // Getters et Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public LocalDateTime getFrom() { return from; }
+    public void setFrom(LocalDateTime from) { this.from = from; }
+    public LocalDateTime getTo() { return to; }
+    public void setTo(LocalDateTime to) { this.to = to; }
+    public Map<VitalMetric, VitalSeries.Column> getMetrics() { return metrics; }
+    public void setMetrics(Map<VitalMetric, VitalSeries.Column> metrics) { this.metrics = metrics; }
+}
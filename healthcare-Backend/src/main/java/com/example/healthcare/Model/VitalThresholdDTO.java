@@ -0,0 +1,28 @@
+package com.example.healthcare.Model;
+
+public class VitalThresholdDTO {
+
+    private VitalMetric metric;
+
+    private Double min;
+
+    private Double max;
+
+    // Constructeurs
+    public VitalThresholdDTO() {
+    }
+
+    public VitalThresholdDTO(VitalMetric metric, Double min, Double max) {
+        this.metric = metric;
+        this.min = min;
+        this.max = max;
+    }
+
+    // Getters et Setters
+    public VitalMetric getMetric() { return metric; }
+    public void setMetric(VitalMetric metric) { this.metric = metric; }
+    public Double getMin() { return min; }
+    public void setMin(Double min) { this.min = min; }
+    public Double getMax() { return max; }
+    public void setMax(Double max) { this.max = max; }
+}
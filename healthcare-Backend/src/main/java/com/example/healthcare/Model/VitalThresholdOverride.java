@@ -0,0 +1,54 @@
+package com.example.healthcare.Model;
+
+import jakarta.persistence.*;
+
+/**
+ * Seuils propres à un patient pour une mesure ; une borne nulle reprend celle de sa tranche d'âge.
+ */
+@Entity
+@Table(name = "vital_threshold_override", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_vital_threshold_user_metric", columnNames = {"user_id", "metric"})
+})
+public class VitalThresholdOverride {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private VitalMetric metric;
+
+    @Column
+    private Double minValue;
+
+    @Column
+    private Double maxValue;
+
+    // Constructeurs
+    public VitalThresholdOverride() {
+    }
+
+    public VitalThresholdOverride(User user, VitalMetric metric, Double minValue, Double maxValue) {
+        this.user = user;
+        this.metric = metric;
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+    }
+
+    // Getters et Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+    public VitalMetric getMetric() { return metric; }
+    public void setMetric(VitalMetric metric) { this.metric = metric; }
+    public Double getMinValue() { return minValue; }
+    public void setMinValue(Double minValue) { this.minValue = minValue; }
+    public Double getMaxValue() { return maxValue; }
+    public void setMaxValue(Double maxValue) { this.maxValue = maxValue; }
+}
@@ -2,8 +2,10 @@ package com.example.healthcare.config;
 
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -30,6 +32,14 @@ public class AppConfig {
         return new RestTemplate();
     }
 
+    // Le filtre JWT ne doit tourner que dans la chaîne Spring Security, pas aussi comme filtre servlet
+    @Bean
+    public FilterRegistrationBean<JwtTokenValidator> jwtTokenValidatorRegistration(JwtTokenValidator validator) {
+        FilterRegistrationBean<JwtTokenValidator> registration = new FilterRegistrationBean<>(validator);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -41,12 +51,19 @@ public class AppConfig {
                         .requestMatchers("/auth/signing", "/auth/signup").permitAll()
                         // Exiger une authentification pour les autres endpoints sous /api/**
                         .requestMatchers("/api/users/**").authenticated()
-                                .requestMatchers("/api/doctors").hasRole("PATIENT")
+                                .requestMatchers("/api/analytics/**").hasRole("DOCTOR")
+                         .requestMatchers("/api/doctors").hasRole("PATIENT")
+                         // Les patients consultent les disponibilités avant de réserver
+                         .requestMatchers(HttpMethod.GET, "/api/doctors/availability", "/api/doctors/*/availability",
+                                 "/api/doctors/*/working-hours").hasAnyRole("DOCTOR", "PATIENT")
                                 .requestMatchers("/api/doctors/**").hasRole("DOCTOR")
                         .requestMatchers("/api/patients/**").hasAnyRole("PATIENT","DOCTOR")
                         .requestMatchers("/api/medications/**").hasAnyRole("DOCTOR","PATIENT")
 //                        .requestMatchers("/api/specializations").permitAll()
 //                        .requestMatchers("/api/specializations/**").permitAll()
+                         // Seuls les médecins modifient les seuils d'alerte d'un patient
+                         .requestMatchers(HttpMethod.PUT, "/api/medical-data/user/*/thresholds/*").hasRole("DOCTOR")
+                         .requestMatchers(HttpMethod.DELETE, "/api/medical-data/user/*/thresholds/*").hasRole("DOCTOR")
                          .requestMatchers("/api/medical-data/**").hasAnyRole("DOCTOR","PATIENT")
                          .requestMatchers("/api/doctors").hasRole("PATIENT")
                                 .requestMatchers("/api/appointments/**").hasAnyRole("DOCTOR", "PATIENT")
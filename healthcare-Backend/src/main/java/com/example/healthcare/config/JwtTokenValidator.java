@@ -1,15 +1,15 @@
 package com.example.healthcare.config;
 
-import com.example.healthcare.config.JwtProvider;
+import com.example.healthcare.security.JwtPrincipalFactory;
 import com.example.healthcare.security.JwtUtil;
+import com.example.healthcare.security.ParsedToken;
 import com.example.healthcare.service.TokenBlacklistService;
-import org.springframework.beans.factory.annotation.Autowired;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -19,52 +19,100 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Unique étape d'authentification JWT. Elle n'est enregistrée que dans la chaîne
+ * Spring Security (voir {@link AppConfig#jwtTokenValidatorRegistration}) et mesure
+ * chacune de ses étapes dans le timer {@code auth.pipeline.stage}.
+ */
 @Component
 public class JwtTokenValidator extends OncePerRequestFilter {
-    @Autowired
-    private JwtUtil jwtUtil;
 
-    @Autowired
-    private UserDetailsService userDetailsService;
+    private final JwtUtil jwtUtil;
+    private final JwtPrincipalFactory jwtPrincipalFactory;
+    private final TokenBlacklistService tokenBlacklistService;
 
-    @Autowired
-    private TokenBlacklistService tokenBlacklistService;
+    private final Timer headerTimer;
+    private final Timer blacklistTimer;
+    private final Timer verifyTimer;
+    private final Timer principalTimer;
+
+    public JwtTokenValidator(JwtUtil jwtUtil, JwtPrincipalFactory jwtPrincipalFactory,
+                             TokenBlacklistService tokenBlacklistService, MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.jwtPrincipalFactory = jwtPrincipalFactory;
+        this.tokenBlacklistService = tokenBlacklistService;
+        this.headerTimer = stageTimer(meterRegistry, "header");
+        this.blacklistTimer = stageTimer(meterRegistry, "blacklist");
+        this.verifyTimer = stageTimer(meterRegistry, "verify");
+        this.principalTimer = stageTimer(meterRegistry, "principal");
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("auth.pipeline.stage")
+                .description("Time spent in each JWT authentication stage")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String username = null;
-
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            try {
-                // Vérifier si le token est dans la blacklist
-                if (tokenBlacklistService.isTokenBlacklisted(token)) {
-                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token has been blacklisted");
-                    return;
-                }
-
-                // Extraire le nom d'utilisateur du token
-                username = jwtUtil.extractUsername(token);
-            } catch (Exception e) {
-                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid token");
+        long start = System.nanoTime();
+        String token = extractJwtFromRequest(request);
+        long end = System.nanoTime();
+        headerTimer.record(end - start, TimeUnit.NANOSECONDS);
+
+        if (token == null || SecurityContextHolder.getContext().getAuthentication() != null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ParsedToken parsedToken;
+        try {
+            // Vérifier si le token est dans la blacklist
+            start = end;
+            boolean blacklisted = tokenBlacklistService.isTokenBlacklisted(token);
+            end = System.nanoTime();
+            blacklistTimer.record(end - start, TimeUnit.NANOSECONDS);
+            if (blacklisted) {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token has been blacklisted");
                 return;
             }
-        }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtUtil.validateToken(token, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+            // Vérifier la signature et extraire les claims une seule fois
+            start = end;
+            parsedToken = jwtUtil.parse(token);
+            end = System.nanoTime();
+            verifyTimer.record(end - start, TimeUnit.NANOSECONDS);
+
+            // Session (famille de refresh tokens) révoquée : déconnexion ou réutilisation détectée
+            start = end;
+            boolean sessionRevoked = tokenBlacklistService.isSessionRevoked(parsedToken.getSessionId());
+            end = System.nanoTime();
+            blacklistTimer.record(end - start, TimeUnit.NANOSECONDS);
+            if (sessionRevoked) {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token has been revoked");
+                return;
             }
+        } catch (ExpiredJwtException e) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token has expired");
+            return;
+        } catch (Exception e) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid token");
+            return;
+        }
+
+        start = end;
+        UserDetails userDetails = jwtPrincipalFactory.resolve(parsedToken);
+        if (jwtUtil.validateToken(parsedToken, userDetails)) {
+            UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
+        principalTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 
         filterChain.doFilter(request, response);
     }
@@ -82,4 +130,4 @@ public class JwtTokenValidator extends OncePerRequestFilter {
         String path = request.getRequestURI();
         return path.startsWith("/api/auth/");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,58 @@
+package com.example.healthcare.config;
+
+import com.example.healthcare.Model.VitalMetric;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Seuils des constantes vitales, par exemple :
+ * <pre>
+ * vitals.thresholds.defaults.heart-rate.min=60
+ * vitals.thresholds.age-bands[0].min-age=65
+ * vitals.thresholds.age-bands[0].ranges.systolic-blood-pressure.max=150
+ * </pre>
+ * Une borne absente reprend celle du niveau supérieur (tranche d'âge, puis défaut,
+ * puis valeur historique de {@link VitalMetric}).
+ */
+@Component
+@ConfigurationProperties(prefix = "vitals.thresholds")
+public class VitalThresholdProperties {
+
+    private Map<VitalMetric, Range> defaults = new EnumMap<>(VitalMetric.class);
+
+    private List<AgeBand> ageBands = new ArrayList<>();
+
+    public static class Range {
+        private Double min;
+        private Double max;
+
+        public Double getMin() { return min; }
+        public void setMin(Double min) { this.min = min; }
+        public Double getMax() { return max; }
+        public void setMax(Double max) { this.max = max; }
+    }
+
+    // Tranche [minAge, maxAge] en années révolues ; maxAge absent = sans limite
+    public static class AgeBand {
+        private int minAge;
+        private Integer maxAge;
+        private Map<VitalMetric, Range> ranges = new EnumMap<>(VitalMetric.class);
+
+        public int getMinAge() { return minAge; }
+        public void setMinAge(int minAge) { this.minAge = minAge; }
+        public Integer getMaxAge() { return maxAge; }
+        public void setMaxAge(Integer maxAge) { this.maxAge = maxAge; }
+        public Map<VitalMetric, Range> getRanges() { return ranges; }
+        public void setRanges(Map<VitalMetric, Range> ranges) { this.ranges = ranges; }
+    }
+
+    public Map<VitalMetric, Range> getDefaults() { return defaults; }
+    public void setDefaults(Map<VitalMetric, Range> defaults) { this.defaults = defaults; }
+    public List<AgeBand> getAgeBands() { return ageBands; }
+    public void setAgeBands(List<AgeBand> ageBands) { this.ageBands = ageBands; }
+}
@@ -0,0 +1,12 @@
+package com.example.healthcare.exception;
+
+public class AppointmentConflictException extends RuntimeException {
+
+    public AppointmentConflictException(String message) {
+        super(message);
+    }
+
+    public AppointmentConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.healthcare.repository;
+
+import com.example.healthcare.Model.AlertOutbox;
+import com.example.healthcare.Model.AlertStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AlertOutboxRepository extends JpaRepository<AlertOutbox, Long> {
+
+    // Alertes envoyables (pas de backoff en cours, pas réclamées) des patients dont la plus ancienne
+    // a dépassé la fenêtre de regroupement ; celles d'un même patient se suivent
+    @Query("SELECT a.id FROM AlertOutbox a WHERE a.status = :status " +
+            "AND (a.nextAttemptAt IS NULL OR a.nextAttemptAt <= :now) " +
+            "AND (a.claimExpiresAt IS NULL OR a.claimExpiresAt < :now) AND a.user.id IN " +
+            "(SELECT b.user.id FROM AlertOutbox b WHERE b.status = :status AND b.createdAt <= :dueBefore " +
+            "AND (b.nextAttemptAt IS NULL OR b.nextAttemptAt <= :now) " +
+            "AND (b.claimExpiresAt IS NULL OR b.claimExpiresAt < :now)) " +
+            "ORDER BY a.user.id, a.createdAt, a.id")
+    List<Long> findClaimable(@Param("status") AlertStatus status,
+                             @Param("dueBefore") LocalDateTime dueBefore,
+                             @Param("now") LocalDateTime now,
+                             Pageable pageable);
+
+    // Réclamation conditionnelle : une ligne déjà prise par une autre instance n'est pas modifiée
+    @Modifying
+    @Query("UPDATE AlertOutbox a SET a.claimedBy = :owner, a.claimExpiresAt = :leaseUntil " +
+            "WHERE a.id IN :ids AND a.status = :status " +
+            "AND (a.claimExpiresAt IS NULL OR a.claimExpiresAt < :now)")
+    int claim(@Param("ids") List<Long> ids,
+              @Param("status") AlertStatus status,
+              @Param("owner") String owner,
+              @Param("leaseUntil") LocalDateTime leaseUntil,
+              @Param("now") LocalDateTime now);
+
+    @Query("SELECT a FROM AlertOutbox a JOIN FETCH a.user u WHERE a.id IN :ids AND a.claimedBy = :owner " +
+            "AND a.claimExpiresAt = :leaseUntil ORDER BY u.id, a.createdAt, a.id")
+    List<AlertOutbox> findClaimed(@Param("ids") List<Long> ids,
+                                  @Param("owner") String owner,
+                                  @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    long countByStatus(AlertStatus status);
+
+    @Query("SELECT MIN(a.createdAt) FROM AlertOutbox a WHERE a.status = :status")
+    LocalDateTime findOldestCreatedAt(@Param("status") AlertStatus status);
+
+    @Modifying
+    @Query("UPDATE AlertOutbox a SET a.status = :status, a.sentAt = :sentAt, " +
+            "a.claimedBy = null, a.claimExpiresAt = null WHERE a.id IN :ids")
+    int markSent(@Param("ids") List<Long> ids,
+                 @Param("status") AlertStatus status,
+                 @Param("sentAt") LocalDateTime sentAt);
+
+    // Un échec libère aussi la réclamation : le prochain essai peut être pris par n'importe quelle instance
+    @Modifying
+    @Query("UPDATE AlertOutbox a SET a.attempts = a.attempts + 1, a.nextAttemptAt = :retryAt, " +
+            "a.claimedBy = null, a.claimExpiresAt = null WHERE a.id IN :ids")
+    int recordFailure(@Param("ids") List<Long> ids, @Param("retryAt") LocalDateTime retryAt);
+
+    @Modifying
+    @Query("UPDATE AlertOutbox a SET a.status = :failed WHERE a.id IN :ids AND a.attempts >= :maxAttempts")
+    int markFailed(@Param("ids") List<Long> ids,
+                   @Param("failed") AlertStatus failed,
+                   @Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Query("DELETE FROM AlertOutbox a WHERE a.status = :status AND a.sentAt < :before")
+    int deleteSentBefore(@Param("status") AlertStatus status, @Param("before") LocalDateTime before);
+}
@@ -1,10 +1,15 @@
 package com.example.healthcare.repository;
 
 import com.example.healthcare.Model.AppointmentReminder;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,4 +17,57 @@ public interface AppointmentReminderRepository extends JpaRepository<Appointment
     List<AppointmentReminder> findByReminderTimeBetweenAndSentFalse(LocalDateTime start, LocalDateTime end);
 
     void deleteByAppointmentId(Long id);
+
+    List<AppointmentReminder> findByAppointmentId(Long appointmentId);
+
+    // Rappels non envoyés de (after, until], pour la roue des rappels
+    @Query("SELECT r.id AS id, r.reminderTime AS reminderTime FROM AppointmentReminder r "
+            + "WHERE r.sent = false AND r.failed = false AND r.reminderTime > :after AND r.reminderTime <= :until")
+    List<PendingReminder> findPendingBetween(@Param("after") LocalDateTime after, @Param("until") LocalDateTime until);
+
+    // Rappels encore à envoyer parmi les ids, avec rendez-vous, patient et médecin en une requête
+    @Query("SELECT r FROM AppointmentReminder r JOIN FETCH r.appointment a JOIN FETCH a.user JOIN FETCH a.doctor "
+            + "WHERE r.id IN :ids AND r.sent = false AND r.failed = false")
+    List<AppointmentReminder> findSendable(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE AppointmentReminder r SET r.sent = true, r.sentAt = :sentAt, r.attempts = r.attempts + 1 "
+            + "WHERE r.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    // Un échec libère aussi la réclamation : le prochain essai peut être pris par n'importe quelle instance
+    @Modifying
+    @Query("UPDATE AppointmentReminder r SET r.attempts = r.attempts + 1, r.reminderTime = :retryAt, "
+            + "r.lastError = :error, r.claimedBy = null, r.claimExpiresAt = null WHERE r.id IN :ids")
+    int recordFailure(@Param("ids") Collection<Long> ids, @Param("retryAt") LocalDateTime retryAt,
+                      @Param("error") String error);
+
+    @Modifying
+    @Query("UPDATE AppointmentReminder r SET r.failed = true WHERE r.id IN :ids AND r.attempts >= :maxAttempts")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("maxAttempts") int maxAttempts);
+
+    // Rappels dus qu'aucune instance ne détient, les plus anciens d'abord
+    @Query("SELECT r.id FROM AppointmentReminder r WHERE r.sent = false AND r.failed = false "
+            + "AND r.reminderTime <= :now AND (r.claimExpiresAt IS NULL OR r.claimExpiresAt < :now) "
+            + "ORDER BY r.reminderTime")
+    List<Long> findClaimable(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Réclamation conditionnelle : une ligne déjà prise par une autre instance n'est pas modifiée
+    @Modifying
+    @Query("UPDATE AppointmentReminder r SET r.claimedBy = :owner, r.claimExpiresAt = :leaseUntil "
+            + "WHERE r.id IN :ids AND r.sent = false AND r.failed = false "
+            + "AND (r.claimExpiresAt IS NULL OR r.claimExpiresAt < :now)")
+    int claim(@Param("ids") Collection<Long> ids, @Param("owner") String owner,
+              @Param("leaseUntil") LocalDateTime leaseUntil, @Param("now") LocalDateTime now);
+
+    @Query("SELECT r.id FROM AppointmentReminder r WHERE r.id IN :ids AND r.claimedBy = :owner "
+            + "AND r.claimExpiresAt = :leaseUntil")
+    List<Long> findClaimedIds(@Param("ids") Collection<Long> ids, @Param("owner") String owner,
+                              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    interface PendingReminder {
+        Long getId();
+
+        LocalDateTime getReminderTime();
+    }
 }
\ No newline at end of file
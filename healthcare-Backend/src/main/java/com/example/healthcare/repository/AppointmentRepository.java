@@ -2,8 +2,12 @@ package com.example.healthcare.repository;
 
 import com.example.healthcare.Model.Appointment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -11,4 +15,17 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     List<Appointment> findByUserId(Long userId);
 
     List<Appointment> findByDoctorId(Long doctorId);
+
+    @Query("SELECT a FROM Appointment a WHERE a.doctor.id = :doctorId AND a.appointment_date >= :from")
+    List<Appointment> findByDoctorIdFrom(@Param("doctorId") Long doctorId, @Param("from") LocalDateTime from);
+
+    @Query("SELECT a FROM Appointment a WHERE a.doctor.id IN :doctorIds AND a.appointment_date >= :from")
+    List<Appointment> findByDoctorIdInFrom(@Param("doctorIds") Collection<Long> doctorIds, @Param("from") LocalDateTime from);
+
+    @Query("SELECT a FROM Appointment a WHERE a.doctor.id = :doctorId AND a.appointment_date >= :from AND a.appointment_date < :to")
+    List<Appointment> findByDoctorIdBetween(@Param("doctorId") Long doctorId, @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to);
+
+    @Query("SELECT a FROM Appointment a WHERE a.user.id = :userId AND a.appointment_date >= :from")
+    List<Appointment> findByUserIdFrom(@Param("userId") Long userId, @Param("from") LocalDateTime from);
 }
\ No newline at end of file
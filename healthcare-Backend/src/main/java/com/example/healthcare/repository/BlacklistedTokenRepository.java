@@ -1,12 +1,23 @@
 package com.example.healthcare.repository;
 
 import com.example.healthcare.Model.BlacklistedToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.List;
 
 public interface BlacklistedTokenRepository extends JpaRepository<BlacklistedToken, Long> {
-    Optional<BlacklistedToken> findByToken(String token);
-    void deleteByExpiryDateBefore(LocalDateTime now);
-}
\ No newline at end of file
+    boolean existsByTokenDigest(String tokenDigest);
+    List<BlacklistedToken> findByExpiryDateAfter(LocalDateTime now);
+    List<BlacklistedToken> findByBlacklistedAtAfter(LocalDateTime since);
+
+    // Lignes antérieures au stockage par empreinte (token brut, sans jour d'expiration)
+    List<BlacklistedToken> findByExpiryDayIsNull();
+
+    @Query("SELECT b.id FROM BlacklistedToken b WHERE b.expiryDay < :day ORDER BY b.expiryDay")
+    List<Long> findIdsExpiringBefore(@Param("day") LocalDate day, Pageable pageable);
+}
@@ -0,0 +1,13 @@
+package com.example.healthcare.repository;
+
+import com.example.healthcare.Model.IngestDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface IngestDeadLetterRepository extends JpaRepository<IngestDeadLetter, Long> {
+
+    List<IngestDeadLetter> findByUserIdOrderByRecordedAt(Long userId);
+}
@@ -0,0 +1,33 @@
+package com.example.healthcare.repository;
+
+import com.example.healthcare.Model.MedicalDataArchive;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MedicalDataArchiveRepository extends JpaRepository<MedicalDataArchive, Long> {
+
+    Optional<MedicalDataArchive> findByUserIdAndWindowStart(Long userId, LocalDateTime windowStart);
+
+    List<MedicalDataArchive> findByUserIdOrderByWindowStart(Long userId);
+
+    Optional<MedicalDataArchive> findFirstByUserIdOrderByWindowStartDesc(Long userId);
+
+    // Blocs qui recoupent [from, to), du plus récent au plus ancien
+    @Query("SELECT a FROM MedicalDataArchive a WHERE a.userId = :userId " +
+            "AND a.windowEnd > :from AND a.windowStart < :to ORDER BY a.windowStart DESC")
+    List<MedicalDataArchive> findOverlapping(@Param("userId") Long userId,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to,
+                                             Pageable pageable);
+
+    @Query("SELECT DISTINCT a.userId FROM MedicalDataArchive a")
+    List<Long> findArchivedUserIds();
+}
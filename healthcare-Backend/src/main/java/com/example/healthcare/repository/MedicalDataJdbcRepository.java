@@ -0,0 +1,186 @@
+package com.example.healthcare.repository;
+
+import com.example.healthcare.Model.LatestVitals;
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.VitalMetric;
+import com.example.healthcare.util.VitalSeries;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Insertions de mesures par lots JDBC. Les entités utilisent GenerationType.IDENTITY,
+ * ce qui empêche Hibernate de regrouper les INSERT ; ce chemin les envoie directement
+ * par batchUpdate (à combiner avec rewriteBatchedStatements=true sous MySQL).
+ */
+@Repository
+public class MedicalDataJdbcRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO medical_data " +
+            "(user_id, recorded_at, blood_sugar, systolic_blood_pressure, diastolic_blood_pressure, heart_rate) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_CHUNK_SQL = "SELECT id, recorded_at, blood_sugar, " +
+            "systolic_blood_pressure, diastolic_blood_pressure, heart_rate FROM medical_data " +
+            "WHERE user_id = ? AND id > ? ORDER BY id LIMIT ?";
+
+    private static final String SELECT_WINDOW_SQL = "SELECT id, recorded_at, blood_sugar, " +
+            "systolic_blood_pressure, diastolic_blood_pressure, heart_rate FROM medical_data " +
+            "WHERE user_id = ? AND recorded_at >= ? AND recorded_at < ? ORDER BY recorded_at, id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MedicalDataJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public int insertBatch(long userId, List<MedicalData> readings, int batchSize) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, readings, batchSize, (ps, reading) -> {
+            ps.setLong(1, userId);
+            ps.setTimestamp(2, Timestamp.valueOf(reading.getRecordedAt()));
+            if (reading.getBloodSugar() != null) {
+                ps.setDouble(3, reading.getBloodSugar());
+            } else {
+                ps.setNull(3, Types.DOUBLE);
+            }
+            setNullableInt(ps, 4, reading.getSystolicBloodPressure());
+            setNullableInt(ps, 5, reading.getDiastolicBloodPressure());
+            setNullableInt(ps, 6, reading.getHeartRate());
+        });
+        int inserted = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // Les pilotes qui réécrivent les lots renvoient SUCCESS_NO_INFO (-2)
+                inserted += count >= 0 ? count : 1;
+            }
+        }
+        return inserted;
+    }
+
+    // Patients ayant des mesures, récentes ou archivées
+    public List<Long> findUserIdsWithReadings() {
+        return jdbcTemplate.queryForList(
+                "SELECT user_id FROM medical_data UNION SELECT user_id FROM medical_data_archive", Long.class);
+    }
+
+    public List<Long> findUserIdsWithReadingsBefore(LocalDateTime before) {
+        return jdbcTemplate.queryForList("SELECT DISTINCT user_id FROM medical_data WHERE recorded_at < ?",
+                Long.class, Timestamp.valueOf(before));
+    }
+
+    public LocalDateTime findOldestRecordedAt(long userId, LocalDateTime before) {
+        Timestamp oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(recorded_at) FROM medical_data WHERE user_id = ? AND recorded_at < ?",
+                Timestamp.class, userId, Timestamp.valueOf(before));
+        return oldest != null ? oldest.toLocalDateTime() : null;
+    }
+
+    // Mesures d'un patient sur [from, to), triées par (recorded_at, id)
+    public List<MedicalData> findWindow(long userId, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(SELECT_WINDOW_SQL, MedicalDataJdbcRepository::mapRow,
+                userId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * Charge directement dans la série les mesures sur [from, to) ({@code to} nul : sans borne),
+     * sans créer d'entité.
+     */
+    public void loadSeries(long userId, LocalDateTime from, LocalDateTime to, VitalSeries series) {
+        String sql = "SELECT recorded_at, blood_sugar, systolic_blood_pressure, diastolic_blood_pressure, heart_rate " +
+                "FROM medical_data WHERE user_id = ? AND recorded_at >= ?" + (to != null ? " AND recorded_at < ?" : "");
+        Object[] args = to != null
+                ? new Object[]{userId, Timestamp.valueOf(from), Timestamp.valueOf(to)}
+                : new Object[]{userId, Timestamp.valueOf(from)};
+        jdbcTemplate.query(sql, rs -> {
+            int mask = 0;
+            double sugar = rs.getDouble(2);
+            if (!rs.wasNull()) {
+                mask |= 1 << VitalMetric.BLOOD_SUGAR.ordinal();
+            }
+            int sys = rs.getInt(3);
+            if (!rs.wasNull()) {
+                mask |= 1 << VitalMetric.SYSTOLIC_BLOOD_PRESSURE.ordinal();
+            }
+            int dia = rs.getInt(4);
+            if (!rs.wasNull()) {
+                mask |= 1 << VitalMetric.DIASTOLIC_BLOOD_PRESSURE.ordinal();
+            }
+            int hr = rs.getInt(5);
+            if (!rs.wasNull()) {
+                mask |= 1 << VitalMetric.HEART_RATE.ordinal();
+            }
+            series.add(VitalSeries.toMillis(rs.getTimestamp(1).toLocalDateTime()), mask, sugar, sys, dia, hr);
+        }, args);
+    }
+
+    public int deleteByIds(List<Long> ids, int batchSize) {
+        int deleted = 0;
+        for (int start = 0; start < ids.size(); start += batchSize) {
+            List<Long> chunk = ids.subList(start, Math.min(start + batchSize, ids.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            deleted += jdbcTemplate.update("DELETE FROM medical_data WHERE id IN (" + placeholders + ")", chunk.toArray());
+        }
+        return deleted;
+    }
+
+    // Parcours de l'historique d'un patient par tranches, dans l'ordre des identifiants
+    public List<MedicalData> findChunkAfterId(long userId, long afterId, int limit) {
+        return jdbcTemplate.query(SELECT_CHUNK_SQL, MedicalDataJdbcRepository::mapRow, userId, afterId, limit);
+    }
+
+    private static MedicalData mapRow(ResultSet rs, int rowNum) throws SQLException {
+        MedicalData medicalData = new MedicalData();
+        medicalData.setId(rs.getLong("id"));
+        medicalData.setRecordedAt(rs.getTimestamp("recorded_at").toLocalDateTime());
+        medicalData.setBloodSugar(rs.getObject("blood_sugar", Double.class));
+        medicalData.setSystolicBloodPressure(rs.getObject("systolic_blood_pressure", Integer.class));
+        medicalData.setDiastolicBloodPressure(rs.getObject("diastolic_blood_pressure", Integer.class));
+        medicalData.setHeartRate(rs.getObject("heart_rate", Integer.class));
+        return medicalData;
+    }
+
+    /**
+     * Dernière valeur de chaque mesure pour plusieurs patients : une requête par mesure,
+     * servie par l'index (user_id, recordedAt, id). Les patients sans mesure sont absents.
+     */
+    public Map<Long, LatestVitals> findLatest(Collection<Long> userIds) {
+        Map<Long, LatestVitals> latest = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return latest;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(userIds.size(), "?"));
+        Object[] args = userIds.toArray();
+        for (VitalMetric metric : VitalMetric.values()) {
+            String column = metric.name().toLowerCase(Locale.ROOT);
+            String sql = "SELECT m.user_id, m." + column + ", m.recorded_at FROM medical_data m " +
+                    "WHERE m.user_id IN (" + placeholders + ") AND m." + column + " IS NOT NULL " +
+                    "AND m.recorded_at = (SELECT MAX(x.recorded_at) FROM medical_data x " +
+                    "WHERE x.user_id = m.user_id AND x." + column + " IS NOT NULL)";
+            jdbcTemplate.query(sql, rs -> {
+                long userId = rs.getLong(1);
+                LatestVitals current = latest.getOrDefault(userId, new LatestVitals(userId));
+                latest.put(userId, current.with(metric, rs.getDouble(2), rs.getTimestamp(3).toLocalDateTime()));
+            }, args);
+        }
+        return latest;
+    }
+
+    private static void setNullableInt(java.sql.PreparedStatement ps, int index, Integer value) throws java.sql.SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+}
@@ -1,15 +1,13 @@
 package com.example.healthcare.repository;
 
 import com.example.healthcare.Model.MedicalData;
-import com.example.healthcare.Model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
-
+/**
+ * Les lectures d'historique (findByUserId, findByUser, findPage, findPageAfter) sont
+ * définies par {@link MedicalDataTieredRepository} et incluent les mesures archivées.
+ */
 @Repository
-public interface MedicalDataRepository extends JpaRepository<MedicalData, Long> {
-    List<MedicalData> findByUserId(Long userId);
-
-    List<MedicalData> findByUser(User user);
-}
\ No newline at end of file
+public interface MedicalDataRepository extends JpaRepository<MedicalData, Long>, MedicalDataTieredRepository {
+}
@@ -0,0 +1,27 @@
+package com.example.healthcare.repository;
+
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.User;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Lectures de l'historique qui couvrent les deux niveaux de stockage : les lignes récentes
+ * de medical_data et les blocs compressés de medical_data_archive. Les mesures archivées
+ * sont rendues comme des MedicalData détachées.
+ */
+public interface MedicalDataTieredRepository {
+
+    List<MedicalData> findByUserId(Long userId);
+
+    List<MedicalData> findByUser(User user);
+
+    // Première page d'une période, de la mesure la plus récente à la plus ancienne
+    List<MedicalData> findPage(Long userId, LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    // Pages suivantes : tout ce qui est strictement avant le curseur (recordedAt, id)
+    List<MedicalData> findPageAfter(Long userId, LocalDateTime from, LocalDateTime to,
+                                    LocalDateTime afterRecordedAt, Long afterId, Pageable pageable);
+}
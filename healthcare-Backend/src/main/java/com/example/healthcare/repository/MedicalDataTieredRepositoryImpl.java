@@ -0,0 +1,170 @@
+package com.example.healthcare.repository;
+
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.MedicalDataArchive;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.util.VitalsBlockCodec;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Fusion des niveaux chaud et froid pour {@link MedicalDataRepository}.
+ * <p>
+ * Une page lit au plus {@code limit} lignes chaudes, puis décode les blocs archivés du plus
+ * récent au plus ancien jusqu'à obtenir {@code limit} mesures froides ; les deux listes sont
+ * fusionnées selon (recordedAt, id) décroissants. Quand la page chaude est pleine, seuls les
+ * blocs plus récents que sa dernière ligne sont consultés, ce qui rend le niveau froid gratuit
+ * pour les pages récentes.
+ */
+public class MedicalDataTieredRepositoryImpl implements MedicalDataTieredRepository {
+
+    private static final int BLOCKS_PER_QUERY = 8;
+
+    static final Comparator<MedicalData> NEWEST_FIRST = Comparator
+            .comparing(MedicalData::getRecordedAt)
+            .thenComparing(MedicalData::getId)
+            .reversed();
+
+    private static final String PAGE_JPQL = "SELECT m FROM MedicalData m WHERE m.user.id = :userId " +
+            "AND m.recordedAt >= :from AND m.recordedAt < :to " +
+            "ORDER BY m.recordedAt DESC, m.id DESC";
+
+    private static final String PAGE_AFTER_JPQL = "SELECT m FROM MedicalData m WHERE m.user.id = :userId " +
+            "AND m.recordedAt >= :from AND m.recordedAt < :to " +
+            "AND (m.recordedAt < :afterRecordedAt OR (m.recordedAt = :afterRecordedAt AND m.id < :afterId)) " +
+            "ORDER BY m.recordedAt DESC, m.id DESC";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final MedicalDataArchiveRepository archiveRepository;
+
+    public MedicalDataTieredRepositoryImpl(MedicalDataArchiveRepository archiveRepository) {
+        this.archiveRepository = archiveRepository;
+    }
+
+    @Override
+    public List<MedicalData> findByUserId(Long userId) {
+        return findAll(userId, entityManager.getReference(User.class, userId));
+    }
+
+    @Override
+    public List<MedicalData> findByUser(User user) {
+        return findAll(user.getId(), user);
+    }
+
+    @Override
+    public List<MedicalData> findPage(Long userId, LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        return findPage(userId, from, to, null, null, pageable);
+    }
+
+    @Override
+    public List<MedicalData> findPageAfter(Long userId, LocalDateTime from, LocalDateTime to,
+                                           LocalDateTime afterRecordedAt, Long afterId, Pageable pageable) {
+        return findPage(userId, from, to, afterRecordedAt, afterId, pageable);
+    }
+
+    // Historique complet, archives d'abord (plus anciennes), dans l'ordre de stockage
+    private List<MedicalData> findAll(Long userId, User user) {
+        List<MedicalData> hot = entityManager
+                .createQuery("SELECT m FROM MedicalData m WHERE m.user.id = :userId", MedicalData.class)
+                .setParameter("userId", userId)
+                .getResultList();
+        List<MedicalDataArchive> blocks = archiveRepository.findByUserIdOrderByWindowStart(userId);
+        if (blocks.isEmpty()) {
+            return hot;
+        }
+        List<MedicalData> all = new ArrayList<>();
+        for (MedicalDataArchive block : blocks) {
+            for (MedicalData medicalData : VitalsBlockCodec.decode(block.getPayload())) {
+                medicalData.setUser(user);
+                all.add(medicalData);
+            }
+        }
+        all.addAll(hot);
+        return all;
+    }
+
+    // La pagination se fait par curseur : seule la taille de page de 'pageable' est utilisée
+    private List<MedicalData> findPage(Long userId, LocalDateTime from, LocalDateTime to,
+                                       LocalDateTime afterRecordedAt, Long afterId, Pageable pageable) {
+        int limit = pageable.getPageSize();
+        TypedQuery<MedicalData> query = entityManager
+                .createQuery(afterRecordedAt == null ? PAGE_JPQL : PAGE_AFTER_JPQL, MedicalData.class)
+                .setParameter("userId", userId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setMaxResults(limit);
+        if (afterRecordedAt != null) {
+            query.setParameter("afterRecordedAt", afterRecordedAt).setParameter("afterId", afterId);
+        }
+        List<MedicalData> hot = query.getResultList();
+
+        // Une mesure froide plus ancienne que la dernière ligne d'une page chaude pleine ne peut pas y entrer
+        LocalDateTime coldFrom = hot.size() == limit ? max(from, hot.get(limit - 1).getRecordedAt()) : from;
+        LocalDateTime coldTo = afterRecordedAt != null && afterRecordedAt.isBefore(to) ? afterRecordedAt.plusNanos(1) : to;
+        List<MedicalData> cold = findColdPage(userId, coldFrom, coldTo, from, to, afterRecordedAt, afterId, limit);
+        if (cold.isEmpty()) {
+            return hot;
+        }
+
+        List<MedicalData> merged = new ArrayList<>(hot.size() + cold.size());
+        merged.addAll(hot);
+        merged.addAll(cold);
+        merged.sort(NEWEST_FIRST);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    private List<MedicalData> findColdPage(Long userId, LocalDateTime blocksFrom, LocalDateTime blocksTo,
+                                           LocalDateTime from, LocalDateTime to,
+                                           LocalDateTime afterRecordedAt, Long afterId, int limit) {
+        List<MedicalData> cold = new ArrayList<>();
+        if (!blocksFrom.isBefore(blocksTo)) {
+            return cold;
+        }
+        User user = null;
+        // Les fenêtres des blocs sont disjointes : un bloc plus ancien ne contient que des mesures plus anciennes
+        for (int page = 0; cold.size() < limit; page++) {
+            List<MedicalDataArchive> blocks = archiveRepository.findOverlapping(
+                    userId, blocksFrom, blocksTo, PageRequest.of(page, BLOCKS_PER_QUERY));
+            for (MedicalDataArchive block : blocks) {
+                List<MedicalData> readings = VitalsBlockCodec.decode(block.getPayload());
+                for (int i = readings.size() - 1; i >= 0 && cold.size() < limit; i--) {
+                    MedicalData medicalData = readings.get(i);
+                    LocalDateTime recordedAt = medicalData.getRecordedAt();
+                    if (recordedAt.isBefore(from) || !recordedAt.isBefore(to)) {
+                        continue;
+                    }
+                    if (afterRecordedAt != null && (recordedAt.isAfter(afterRecordedAt)
+                            || (recordedAt.isEqual(afterRecordedAt) && medicalData.getId() >= afterId))) {
+                        continue;
+                    }
+                    if (user == null) {
+                        user = entityManager.getReference(User.class, userId);
+                    }
+                    medicalData.setUser(user);
+                    cold.add(medicalData);
+                }
+                if (cold.size() >= limit) {
+                    break;
+                }
+            }
+            if (blocks.size() < BLOCKS_PER_QUERY) {
+                break;
+            }
+        }
+        return cold;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -3,9 +3,15 @@ package com.example.healthcare.repository;
 import com.example.healthcare.Model.MedicalRecord;
 import com.example.healthcare.Model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, Long> {
     List<MedicalRecord> findByUser(User user);
+
+    // Patients dont l'historique contient une maladie correspondant au motif (LIKE, minuscules)
+    @Query("SELECT DISTINCT r.user.id FROM MedicalRecord r JOIN r.diseaseHistory d WHERE LOWER(d) LIKE :pattern")
+    List<Long> findUserIdsByDisease(@Param("pattern") String pattern);
 }
\ No newline at end of file
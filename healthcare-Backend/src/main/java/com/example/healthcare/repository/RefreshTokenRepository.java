@@ -0,0 +1,32 @@
+package com.example.healthcare.repository;
+
+import com.example.healthcare.Model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    @Query("SELECT r FROM RefreshToken r JOIN FETCH r.user WHERE r.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHash(@Param("tokenHash") String tokenHash);
+
+    // Échange atomique : une seule requête concurrente peut faire passer rotatedAt de null à une date
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.rotatedAt = :rotatedAt "
+            + "WHERE r.id = :id AND r.rotatedAt IS NULL AND r.revoked = false")
+    int markRotated(@Param("id") Long id, @Param("rotatedAt") LocalDateTime rotatedAt);
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.familyId = :familyId")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,9 @@
+package com.example.healthcare.repository;
+
+import com.example.healthcare.Model.SchedulerWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SchedulerWatermarkRepository extends JpaRepository<SchedulerWatermark, String> {
+}
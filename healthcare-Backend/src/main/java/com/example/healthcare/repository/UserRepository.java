@@ -4,9 +4,14 @@ package com.example.healthcare.repository;
 
 import com.example.healthcare.Model.Role;
 import com.example.healthcare.Model.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -15,4 +20,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findAllByRole(Role role);
 
     List<User> findByRole(Role role);
+
+    List<User> findByRoleAndSpecializationId(Role role, Long specializationId);
+
+    // Verrou exclusif sur la ligne jusqu'à la fin de la transaction (SELECT ... FOR UPDATE)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") Long id);
 }
@@ -0,0 +1,40 @@
+package com.example.healthcare.repository;
+
+import com.example.healthcare.Model.VitalBaseline;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Sauvegarde des états EWMA par lots : un upsert par (patient, mesure) au lieu
+ * d'un SELECT puis INSERT/UPDATE via JPA.
+ */
+@Repository
+public class VitalBaselineJdbcRepository {
+
+    private static final String UPSERT_SQL = "INSERT INTO vital_baseline " +
+            "(user_id, metric, mean, variance, last_value, sample_count, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE mean = VALUES(mean), variance = VALUES(variance), " +
+            "last_value = VALUES(last_value), sample_count = VALUES(sample_count), updated_at = VALUES(updated_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public VitalBaselineJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void upsertAll(List<VitalBaseline> baselines, int batchSize) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, baselines, batchSize, (ps, baseline) -> {
+            ps.setLong(1, baseline.getUserId());
+            ps.setString(2, baseline.getMetric().name());
+            ps.setDouble(3, baseline.getMean());
+            ps.setDouble(4, baseline.getVariance());
+            ps.setDouble(5, baseline.getLastValue());
+            ps.setLong(6, baseline.getSampleCount());
+            ps.setTimestamp(7, Timestamp.valueOf(baseline.getUpdatedAt()));
+        });
+    }
+}
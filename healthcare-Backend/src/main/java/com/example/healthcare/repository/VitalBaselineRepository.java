@@ -0,0 +1,13 @@
+package com.example.healthcare.repository;
+
+import com.example.healthcare.Model.VitalBaseline;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface VitalBaselineRepository extends JpaRepository<VitalBaseline, Long> {
+
+    List<VitalBaseline> findByUserId(Long userId);
+}
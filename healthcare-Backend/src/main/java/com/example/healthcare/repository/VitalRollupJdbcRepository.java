@@ -0,0 +1,124 @@
+package com.example.healthcare.repository;
+
+import com.example.healthcare.Model.RollupBucket;
+import com.example.healthcare.Model.RollupGranularity;
+import com.example.healthcare.Model.VitalMetric;
+import com.example.healthcare.Model.VitalRollupDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Lecture et mise à jour incrémentale de {@code vital_rollup}. Chaque upsert ajoute
+ * le nombre et la somme de l'intervalle et élargit min / max ; une mesure absente
+ * (min NULL) ne modifie pas les bornes existantes.
+ */
+@Repository
+public class VitalRollupJdbcRepository {
+
+    private static final VitalMetric[] METRICS = VitalMetric.values();
+
+    private static final String UPSERT_SQL = buildUpsertSql();
+    private static final String SELECT_SQL = buildSelectSql();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public VitalRollupJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void upsert(long userId, List<RollupBucket> buckets, int batchSize) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, buckets, batchSize, (ps, bucket) -> {
+            ps.setLong(1, userId);
+            ps.setString(2, bucket.getGranularity().name());
+            ps.setTimestamp(3, Timestamp.valueOf(bucket.getBucketStart()));
+            int index = 4;
+            for (VitalMetric metric : METRICS) {
+                ps.setLong(index++, bucket.getCount(metric));
+                ps.setDouble(index++, bucket.getSum(metric));
+                setNullableDouble(ps, index++, bucket.getMin(metric));
+                setNullableDouble(ps, index++, bucket.getMax(metric));
+            }
+        });
+    }
+
+    public int deleteByUserId(long userId) {
+        return jdbcTemplate.update("DELETE FROM vital_rollup WHERE user_id = ?", userId);
+    }
+
+    public List<VitalRollupDTO> findRange(long userId, RollupGranularity granularity,
+                                          LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> {
+            VitalRollupDTO rollup = new VitalRollupDTO(rs.getTimestamp("bucket_start").toLocalDateTime());
+            for (VitalMetric metric : METRICS) {
+                String column = column(metric);
+                long count = rs.getLong(column + "_count");
+                if (count > 0) {
+                    rollup.getMetrics().put(metric, new VitalRollupDTO.MetricSummary(count,
+                            rs.getDouble(column + "_min"), rs.getDouble(column + "_max"),
+                            rs.getDouble(column + "_sum") / count));
+                }
+            }
+            return rollup;
+        }, userId, granularity.name(), Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    // blood_sugar, systolic_blood_pressure... : mêmes noms que dans medical_data
+    private static String column(VitalMetric metric) {
+        return metric.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static String buildUpsertSql() {
+        StringBuilder columns = new StringBuilder("user_id, granularity, bucket_start");
+        StringBuilder placeholders = new StringBuilder("?, ?, ?");
+        StringBuilder updates = new StringBuilder();
+        for (VitalMetric metric : METRICS) {
+            String c = column(metric);
+            columns.append(", ").append(c).append("_count, ").append(c).append("_sum, ")
+                    .append(c).append("_min, ").append(c).append("_max");
+            placeholders.append(", ?, ?, ?, ?");
+            if (updates.length() > 0) {
+                updates.append(", ");
+            }
+            updates.append(c).append("_count = ").append(c).append("_count + VALUES(").append(c).append("_count), ")
+                    .append(c).append("_sum = ").append(c).append("_sum + VALUES(").append(c).append("_sum), ")
+                    .append(bound(c + "_min", "LEAST")).append(", ")
+                    .append(bound(c + "_max", "GREATEST"));
+        }
+        return "INSERT INTO vital_rollup (" + columns + ") VALUES (" + placeholders + ") " +
+                "ON DUPLICATE KEY UPDATE " + updates;
+    }
+
+    // LEAST / GREATEST renvoient NULL dès qu'un argument l'est : COALESCE garde la borne connue
+    private static String bound(String column, String function) {
+        return column + " = " + function + "(COALESCE(" + column + ", VALUES(" + column + ")), " +
+                "COALESCE(VALUES(" + column + "), " + column + "))";
+    }
+
+    private static String buildSelectSql() {
+        StringBuilder columns = new StringBuilder("bucket_start");
+        for (VitalMetric metric : METRICS) {
+            String c = column(metric);
+            columns.append(", ").append(c).append("_count, ").append(c).append("_sum, ")
+                    .append(c).append("_min, ").append(c).append("_max");
+        }
+        return "SELECT " + columns + " FROM vital_rollup " +
+                "WHERE user_id = ? AND granularity = ? AND bucket_start >= ? AND bucket_start < ? " +
+                "ORDER BY bucket_start";
+    }
+
+    private static void setNullableDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value != null) {
+            ps.setDouble(index, value);
+        } else {
+            ps.setNull(index, Types.DOUBLE);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.healthcare.repository;
+
+import com.example.healthcare.Model.VitalMetric;
+import com.example.healthcare.Model.VitalThresholdOverride;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface VitalThresholdOverrideRepository extends JpaRepository<VitalThresholdOverride, Long> {
+
+    List<VitalThresholdOverride> findByUserId(Long userId);
+
+    Optional<VitalThresholdOverride> findByUserIdAndMetric(Long userId, VitalMetric metric);
+}
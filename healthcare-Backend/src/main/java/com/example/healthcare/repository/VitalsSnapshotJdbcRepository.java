@@ -0,0 +1,124 @@
+package com.example.healthcare.repository;
+
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.VitalMetric;
+import com.example.healthcare.util.VitalsBlockCodec;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Lecture en flux de l'historique pour l'instantané analytique. Si
+ * {@code analytics.snapshot.datasource.url} est renseignée (réplique en lecture), les scans
+ * y sont envoyés pour ne pas charger le primaire ; sinon ils passent par la base principale.
+ */
+@Repository
+public class VitalsSnapshotJdbcRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(VitalsSnapshotJdbcRepository.class);
+
+    private static final float MISSING = Float.NaN;
+
+    @FunctionalInterface
+    public interface ReadingHandler {
+        void accept(long userId, long epochSecond, float bloodSugar, float systolic, float diastolic, float heartRate);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource replica;
+
+    public VitalsSnapshotJdbcRepository(JdbcTemplate primaryJdbcTemplate,
+                                        @Value("${spring.datasource.url:}") String primaryUrl,
+                                        @Value("${analytics.snapshot.datasource.url:}") String replicaUrl,
+                                        @Value("${analytics.snapshot.datasource.username:}") String replicaUsername,
+                                        @Value("${analytics.snapshot.datasource.password:}") String replicaPassword) {
+        String url = primaryUrl;
+        if (replicaUrl.isBlank()) {
+            this.replica = null;
+            this.jdbcTemplate = new JdbcTemplate(primaryJdbcTemplate.getDataSource());
+        } else {
+            url = replicaUrl;
+            this.replica = DataSourceBuilder.create().url(replicaUrl)
+                    .username(replicaUsername).password(replicaPassword).build();
+            this.jdbcTemplate = new JdbcTemplate(replica);
+            logger.info("Analytics snapshot reads from the replica {}", replicaUrl);
+        }
+        // Connector/J ne lit ligne à ligne qu'avec une taille de lot de Integer.MIN_VALUE
+        jdbcTemplate.setFetchSize(url.startsWith("jdbc:mysql:") ? Integer.MIN_VALUE : 1000);
+    }
+
+    public boolean readsFromReplica() {
+        return replica != null;
+    }
+
+    public long countReadingsSince(LocalDateTime since) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM medical_data WHERE recorded_at >= ?", Long.class, Timestamp.valueOf(since));
+        Long archived = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(reading_count), 0) FROM medical_data_archive WHERE window_end > ?",
+                Long.class, Timestamp.valueOf(since));
+        return (count != null ? count : 0) + (archived != null ? archived : 0);
+    }
+
+    // Mesures archivées puis récentes, dans l'ordre d'insertion (donc à peu près chronologique)
+    public void scanReadingsSince(LocalDateTime since, ReadingHandler handler) {
+        jdbcTemplate.query("SELECT user_id, payload FROM medical_data_archive WHERE window_end > ? ORDER BY window_start",
+                rs -> {
+                    long userId = rs.getLong(1);
+                    List<MedicalData> readings = VitalsBlockCodec.decode(rs.getBytes(2));
+                    for (MedicalData medicalData : readings) {
+                        if (!medicalData.getRecordedAt().isBefore(since)) {
+                            handler.accept(userId, medicalData.getRecordedAt().toEpochSecond(ZoneOffset.UTC),
+                                    value(VitalMetric.BLOOD_SUGAR, medicalData),
+                                    value(VitalMetric.SYSTOLIC_BLOOD_PRESSURE, medicalData),
+                                    value(VitalMetric.DIASTOLIC_BLOOD_PRESSURE, medicalData),
+                                    value(VitalMetric.HEART_RATE, medicalData));
+                        }
+                    }
+                }, Timestamp.valueOf(since));
+
+        jdbcTemplate.query("SELECT user_id, recorded_at, blood_sugar, systolic_blood_pressure, " +
+                        "diastolic_blood_pressure, heart_rate FROM medical_data WHERE recorded_at >= ? ORDER BY id",
+                rs -> {
+                    float bloodSugar = rs.getFloat(3);
+                    if (rs.wasNull()) {
+                        bloodSugar = MISSING;
+                    }
+                    float systolic = rs.getInt(4);
+                    if (rs.wasNull()) {
+                        systolic = MISSING;
+                    }
+                    float diastolic = rs.getInt(5);
+                    if (rs.wasNull()) {
+                        diastolic = MISSING;
+                    }
+                    float heartRate = rs.getInt(6);
+                    if (rs.wasNull()) {
+                        heartRate = MISSING;
+                    }
+                    handler.accept(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime().toEpochSecond(ZoneOffset.UTC),
+                            bloodSugar, systolic, diastolic, heartRate);
+                }, Timestamp.valueOf(since));
+    }
+
+    private static float value(VitalMetric metric, MedicalData medicalData) {
+        return (float) metric.read(medicalData);
+    }
+
+    @PreDestroy
+    public void close() throws Exception {
+        if (replica instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
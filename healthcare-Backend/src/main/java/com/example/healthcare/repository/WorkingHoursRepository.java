@@ -0,0 +1,23 @@
+package com.example.healthcare.repository;
+
+import com.example.healthcare.Model.WorkingHours;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WorkingHoursRepository extends JpaRepository<WorkingHours, Long> {
+
+    List<WorkingHours> findByDoctorId(Long doctorId);
+
+    List<WorkingHours> findByDoctorIdIn(Collection<Long> doctorIds);
+
+    @Modifying
+    @Query("DELETE FROM WorkingHours w WHERE w.doctor.id = :doctorId")
+    void deleteByDoctorId(@Param("doctorId") Long doctorId);
+}
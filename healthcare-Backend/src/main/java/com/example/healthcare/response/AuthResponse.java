@@ -7,6 +7,7 @@ import java.sql.Date;
 @Data
 public class AuthResponse {
     private String jwt;
+    private String refreshToken;
     private String role;
     private String message;
     private Long userId; // Added field for userId
@@ -0,0 +1,37 @@
+package com.example.healthcare.security;
+
+import com.example.healthcare.service.UserDetailsCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Construit le principal d'une requête authentifiée.
+ * <ul>
+ *     <li>{@code claims} (défaut) : à partir des claims du JWT, sans requête SQL ;</li>
+ *     <li>{@code user-details} : via le cache de UserDetails, pour détecter les comptes modifiés ou supprimés.</li>
+ * </ul>
+ */
+@Component
+public class JwtPrincipalFactory {
+
+    public static final String MODE_CLAIMS = "claims";
+    public static final String MODE_USER_DETAILS = "user-details";
+
+    private final UserDetailsCache userDetailsCache;
+    private final boolean fromClaims;
+
+    public JwtPrincipalFactory(UserDetailsCache userDetailsCache,
+                               @Value("${jwt.auth.principal-source:" + MODE_CLAIMS + "}") String principalSource) {
+        this.userDetailsCache = userDetailsCache;
+        this.fromClaims = MODE_CLAIMS.equalsIgnoreCase(principalSource);
+    }
+
+    public UserDetails resolve(ParsedToken parsedToken) {
+        // Les anciens tokens sans claim "role" passent par le chargement classique
+        if (fromClaims && parsedToken.getRole() != null) {
+            return new AuthenticatedUser(parsedToken.getUserId(), parsedToken.getSubject(), parsedToken.getRole());
+        }
+        return userDetailsCache.loadUserByUsername(parsedToken.getSubject());
+    }
+}
@@ -1,11 +1,17 @@
 package com.example.healthcare.security;
 
+import com.example.healthcare.util.ExpiringCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -15,19 +21,45 @@ import java.util.function.Function;
 public class JwtUtil {
 
     private final String SECRET_KEY = "thisIsASecureSecretKeyThatIsAtLeast64CharactersLongToSatisfyHS512Requirements1234567890"; // Clé statique
-    private long TOKEN_VALIDITY = 1000 * 60 * 60 * 10; // 10 heures
+    // 10 heures par défaut tant que les clients web et mobile n'utilisent pas /api/auth/refresh
+    private final long TOKEN_VALIDITY;
+
+    // Clé et parser construits une seule fois ; le parser est immuable et thread-safe
+    private final SecretKey signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+    private final JwtParser jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+
+    // Claims vérifiés, indexés par l'empreinte du token et expirant avec lui
+    private final ExpiringCache<String, ParsedToken> claimsCache;
+
+    public JwtUtil(@Value("${jwt.claims-cache.max-size:10000}") int claimsCacheMaxSize,
+                   @Value("${jwt.access-token.validity-ms:36000000}") long accessTokenValidityMillis) {
+        this.TOKEN_VALIDITY = accessTokenValidityMillis;
+        this.claimsCache = new ExpiringCache<>(claimsCacheMaxSize);
+    }
+
+    /**
+     * Vérifie la signature du token au plus une fois par durée de vie du token.
+     */
+    public ParsedToken parse(String token) {
+        String digest = TokenDigest.of(token);
+        ParsedToken parsed = claimsCache.get(digest);
+        if (parsed == null) {
+            parsed = ParsedToken.from(extractAllClaims(token));
+            claimsCache.put(digest, parsed, parsed.getExpiresAtMillis());
+        }
+        return parsed;
+    }
 
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parse(token).getSubject();
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return parse(token).getExpiration();
     }
 
     public String extractRole(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.get("role", String.class);
+        return parse(token).getRole();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -36,31 +68,52 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token).getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
+    }
+
+    public String generateToken(String username, String role) {
+        return generateToken(username, role, null);
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public String generateToken(String username, String role, Long userId) {
+        return generateToken(username, role, userId, null);
     }
 
-    public String generateToken(String username, String role) {
+    /**
+     * @param sessionId famille de refresh tokens de la session (claim {@code sid}) : révoquer la
+     *                  famille révoque aussi les access tokens qu'elle a émis
+     */
+    public String generateToken(String username, String role, Long userId, String sessionId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", role);
+        if (userId != null) {
+            claims.put("userId", userId);
+        }
+        if (sessionId != null) {
+            claims.put("sid", sessionId);
+        }
         return createToken(claims, username);
     }
 
+    public long getAccessTokenValidityMillis() {
+        return TOKEN_VALIDITY;
+    }
+
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + TOKEN_VALIDITY))
-                .signWith(SignatureAlgorithm.HS512, SECRET_KEY)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(parse(token), userDetails);
+    }
+
+    public Boolean validateToken(ParsedToken parsedToken, UserDetails userDetails) {
+        return parsedToken.getSubject().equals(userDetails.getUsername()) && !parsedToken.isExpired();
     }
-}
\ No newline at end of file
+}
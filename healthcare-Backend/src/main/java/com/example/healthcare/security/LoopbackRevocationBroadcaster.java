@@ -0,0 +1,39 @@
+package com.example.healthcare.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Diffusion dans la JVM : chaque abonné reçoit les événements de façon synchrone.
+ * Suffisant pour une instance unique, et permet de simuler plusieurs nœuds dans un même processus.
+ */
+@Component
+@ConditionalOnProperty(name = "token.revocation.broadcaster", havingValue = "loopback", matchIfMissing = true)
+public class LoopbackRevocationBroadcaster implements RevocationBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoopbackRevocationBroadcaster.class);
+
+    private final List<Consumer<RevocationEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(RevocationEvent event) {
+        for (Consumer<RevocationEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                logger.error("Revocation listener failed for event from node {}: {}", event.originNode(), e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<RevocationEvent> listener) {
+        listeners.add(listener);
+    }
+}
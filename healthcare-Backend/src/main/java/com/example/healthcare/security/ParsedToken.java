@@ -0,0 +1,49 @@
+package com.example.healthcare.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * Claims d'un JWT dont la signature a déjà été vérifiée.
+ */
+public final class ParsedToken {
+
+    private final String subject;
+    private final String role;
+    private final Long userId;
+    private final String sessionId;
+    private final long expiresAtMillis;
+
+    private ParsedToken(String subject, String role, Long userId, String sessionId, long expiresAtMillis) {
+        this.subject = subject;
+        this.role = role;
+        this.userId = userId;
+        this.sessionId = sessionId;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    static ParsedToken from(Claims claims) {
+        Date expiration = claims.getExpiration();
+        Number userId = claims.get("userId", Number.class);
+        return new ParsedToken(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                userId != null ? userId.longValue() : null,
+                claims.get("sid", String.class),
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE
+        );
+    }
+
+    public String getSubject() { return subject; }
+    public String getRole() { return role; }
+    public Long getUserId() { return userId; }
+    // Famille de refresh tokens ; null pour les tokens émis sans session
+    public String getSessionId() { return sessionId; }
+    public long getExpiresAtMillis() { return expiresAtMillis; }
+    public Date getExpiration() { return new Date(expiresAtMillis); }
+
+    public boolean isExpired() {
+        return expiresAtMillis <= System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.healthcare.security;
+
+import java.util.function.Consumer;
+
+/**
+ * SPI de diffusion des révocations de tokens entre instances. Une implémentation
+ * peut s'appuyer sur un bus de messages (Redis, Kafka, ...) ; les événements perdus
+ * sont rattrapés par l'interrogation périodique de la base dans TokenBlacklistService.
+ */
+public interface RevocationBroadcaster {
+
+    void publish(RevocationEvent event);
+
+    void subscribe(Consumer<RevocationEvent> listener);
+}
@@ -0,0 +1,13 @@
+package com.example.healthcare.security;
+
+import java.time.LocalDateTime;
+
+/**
+ * Révocation d'un token, diffusée aux autres instances du backend.
+ *
+ * @param tokenDigest empreinte SHA-256 du token révoqué
+ * @param expiryDate  date après laquelle la révocation n'a plus d'effet
+ * @param originNode  identifiant de l'instance qui a révoqué le token
+ */
+public record RevocationEvent(String tokenDigest, LocalDateTime expiryDate, String originNode) {
+}
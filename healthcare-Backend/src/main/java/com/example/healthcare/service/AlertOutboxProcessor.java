@@ -0,0 +1,200 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.AlertOutbox;
+import com.example.healthcare.Model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envoie les alertes de la table {@code alert_outbox} hors du fil des requêtes HTTP.
+ * Les alertes d'un même patient sont retenues pendant {@code alerts.outbox.coalesce-window-ms}
+ * à partir de la plus ancienne, puis regroupées en un seul e-mail. Chaque patient est
+ * traité par un worker du pool.
+ * <p>
+ * Les alertes sont réclamées en base avant l'envoi ({@code alerts.outbox.lease-ms}) : plusieurs
+ * instances se partagent la table sans envoyer deux fois la même alerte, et celles d'une instance
+ * arrêtée sont reprises à l'expiration du bail. Un échec SMTP reporte l'alerte avec un délai qui
+ * double à chaque essai ({@code alerts.outbox.retry-delay-ms}, plafonné à
+ * {@code alerts.outbox.retry-max-delay-ms}), jusqu'à {@code alerts.outbox.max-attempts}.
+ */
+@Component
+public class AlertOutboxProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertOutboxProcessor.class);
+
+    static final String ALERT_SUBJECT = "Alerte de Santé - Valeurs Anormales Détectées";
+
+    private final AlertOutboxService alertOutboxService;
+    private final EmailService emailService;
+    private final ThreadPoolExecutor executor;
+    private final Duration coalesceWindow;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final String owner;
+    private final long leaseMillis;
+    private final long retryDelayMillis;
+    private final long retryMaxDelayMillis;
+
+    private final AtomicLong pendingDepth = new AtomicLong();
+    private final AtomicLong oldestPendingAgeMillis = new AtomicLong();
+    private final Timer deliveryLagTimer;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+
+    public AlertOutboxProcessor(AlertOutboxService alertOutboxService,
+                                EmailService emailService,
+                                MeterRegistry meterRegistry,
+                                @Value("${alerts.outbox.workers:4}") int workers,
+                                @Value("${alerts.outbox.coalesce-window-ms:60000}") long coalesceWindowMillis,
+                                @Value("${alerts.outbox.batch-size:500}") int batchSize,
+                                @Value("${alerts.outbox.max-attempts:5}") int maxAttempts,
+                                @Value("${alerts.outbox.node-id:}") String nodeId,
+                                @Value("${alerts.outbox.lease-ms:300000}") long leaseMillis,
+                                @Value("${alerts.outbox.retry-delay-ms:60000}") long retryDelayMillis,
+                                @Value("${alerts.outbox.retry-max-delay-ms:3600000}") long retryMaxDelayMillis) {
+        this.alertOutboxService = alertOutboxService;
+        this.emailService = emailService;
+        this.coalesceWindow = Duration.ofMillis(coalesceWindowMillis);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.owner = nodeId.isBlank() ? AppointmentReminderClaimer.defaultNodeId() : nodeId;
+        this.leaseMillis = leaseMillis;
+        this.retryDelayMillis = retryDelayMillis;
+        this.retryMaxDelayMillis = retryMaxDelayMillis;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "alert-outbox-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        Gauge.builder("alerts.outbox.depth", pendingDepth, AtomicLong::get)
+                .description("Alerts waiting in the outbox")
+                .register(meterRegistry);
+        Gauge.builder("alerts.outbox.oldest.age", oldestPendingAgeMillis, AtomicLong::get)
+                .description("Age in milliseconds of the oldest pending alert")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.deliveryLagTimer = Timer.builder("alerts.outbox.delivery.lag")
+                .description("Time between an alert being queued and its e-mail being sent")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("alerts.outbox.sent")
+                .description("Alert e-mails sent")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("alerts.outbox.failed")
+                .description("Alert e-mail attempts that failed")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${alerts.outbox.poll-interval-ms:5000}")
+    public void processOutbox() {
+        LocalDateTime now = LocalDateTime.now();
+        List<AlertOutbox> due = alertOutboxService.claimDue(owner, now, now.minus(coalesceWindow),
+                now.plusNanos(leaseMillis * 1_000_000), batchSize);
+        if (!due.isEmpty()) {
+            dispatch(due);
+        }
+        refreshBacklogMetrics();
+    }
+
+    // Un e-mail par patient ; on attend la fin du tour pour ne jamais envoyer deux fois la même alerte
+    void dispatch(List<AlertOutbox> due) {
+        Map<Long, List<AlertOutbox>> byUser = new LinkedHashMap<>();
+        for (AlertOutbox alert : due) {
+            byUser.computeIfAbsent(alert.getUser().getId(), id -> new ArrayList<>()).add(alert);
+        }
+        logger.info("Dispatching {} queued alerts for {} patients", due.size(), byUser.size());
+
+        List<Future<?>> futures = new ArrayList<>(byUser.size());
+        for (List<AlertOutbox> alerts : byUser.values()) {
+            futures.add(executor.submit(() -> deliver(alerts)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                logger.error("Alert delivery task failed", e.getCause());
+            }
+        }
+    }
+
+    private void deliver(List<AlertOutbox> alerts) {
+        User user = alerts.get(0).getUser();
+        StringBuilder message = new StringBuilder("Alerte de santé pour " + user.getName() + ":\n");
+        List<Long> ids = new ArrayList<>(alerts.size());
+        int attempt = 1;
+        for (AlertOutbox alert : alerts) {
+            message.append(alert.getMessage());
+            ids.add(alert.getId());
+            attempt = Math.max(attempt, alert.getAttempts() + 1);
+        }
+
+        try {
+            emailService.sendEmail(user.getEmail(), ALERT_SUBJECT, message.toString());
+        } catch (Exception e) {
+            failedCounter.increment();
+            LocalDateTime retryAt = LocalDateTime.now().plusNanos(backoffMillis(attempt) * 1_000_000);
+            int failed = alertOutboxService.recordFailure(ids, retryAt, maxAttempts);
+            logger.warn("Failed to send {} alerts to {} (attempt {}, {} given up): {}",
+                    alerts.size(), user.getEmail(), attempt, failed, e.getMessage());
+            return;
+        }
+
+        LocalDateTime sentAt = LocalDateTime.now();
+        alertOutboxService.markSent(ids, sentAt);
+        sentCounter.increment();
+        for (AlertOutbox alert : alerts) {
+            deliveryLagTimer.record(Duration.between(alert.getCreatedAt(), sentAt));
+        }
+        logger.info("Alert sent to user {} ({} coalesced)", user.getEmail(), alerts.size());
+    }
+
+    // Délai avant l'essai suivant le n-ième échec : retry-delay-ms × 2^(n-1), plafonné
+    long backoffMillis(int attempt) {
+        int shift = Math.min(attempt - 1, 30);
+        return Math.min(retryDelayMillis << shift, retryMaxDelayMillis);
+    }
+
+    private void refreshBacklogMetrics() {
+        pendingDepth.set(alertOutboxService.countPending());
+        LocalDateTime oldest = alertOutboxService.findOldestPending();
+        oldestPendingAgeMillis.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis());
+    }
+
+    @Scheduled(cron = "0 30 0 * * ?") // Supprimer chaque nuit les alertes envoyées depuis plus de 7 jours
+    public void cleanupSentAlerts() {
+        alertOutboxService.deleteSentBefore(LocalDateTime.now().minusDays(7));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.AlertOutbox;
+import com.example.healthcare.Model.AlertStatus;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.repository.AlertOutboxRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Accès à la table {@code alert_outbox}. {@link #enqueue} rejoint la transaction de l'appelant,
+ * de sorte que l'alerte n'existe que si la mesure a bien été enregistrée.
+ * <p>
+ * Les alertes dues sont réclamées par une instance ({@link #claimDue}) avant l'envoi : une
+ * alerte réclamée n'est pas vue des autres instances tant que le bail court.
+ */
+@Service
+public class AlertOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertOutboxService.class);
+
+    private final AlertOutboxRepository alertOutboxRepository;
+
+    public AlertOutboxService(AlertOutboxRepository alertOutboxRepository) {
+        this.alertOutboxRepository = alertOutboxRepository;
+    }
+
+    @Transactional
+    public AlertOutbox enqueue(User user, String message) {
+        AlertOutbox alert = alertOutboxRepository.save(new AlertOutbox(user, message));
+        logger.info("Alert queued for userId {}", user.getId());
+        return alert;
+    }
+
+    /**
+     * Réclame pour {@code owner}, jusqu'à {@code leaseUntil}, les alertes envoyables des patients
+     * dont la plus ancienne date d'avant {@code dueBefore}.
+     *
+     * @return les alertes effectivement réclamées, regroupées par patient
+     */
+    @Transactional
+    public List<AlertOutbox> claimDue(String owner, LocalDateTime now, LocalDateTime dueBefore,
+                                      LocalDateTime leaseUntil, int limit) {
+        // Précision de la colonne : l'échéance relue doit être égale à celle écrite
+        leaseUntil = leaseUntil.truncatedTo(ChronoUnit.MILLIS);
+        List<Long> candidates = alertOutboxRepository.findClaimable(AlertStatus.PENDING, dueBefore, now,
+                PageRequest.of(0, limit));
+        if (candidates.isEmpty()
+                || alertOutboxRepository.claim(candidates, AlertStatus.PENDING, owner, leaseUntil, now) == 0) {
+            return List.of();
+        }
+        return alertOutboxRepository.findClaimed(candidates, owner, leaseUntil);
+    }
+
+    @Transactional
+    public void markSent(List<Long> ids, LocalDateTime sentAt) {
+        alertOutboxRepository.markSent(ids, AlertStatus.SENT, sentAt);
+    }
+
+    // Les alertes sont reportées à retryAt jusqu'à maxAttempts échecs, puis passent en FAILED
+    @Transactional
+    public int recordFailure(List<Long> ids, LocalDateTime retryAt, int maxAttempts) {
+        alertOutboxRepository.recordFailure(ids, retryAt);
+        return alertOutboxRepository.markFailed(ids, AlertStatus.FAILED, maxAttempts);
+    }
+
+    public long countPending() {
+        return alertOutboxRepository.countByStatus(AlertStatus.PENDING);
+    }
+
+    public LocalDateTime findOldestPending() {
+        return alertOutboxRepository.findOldestCreatedAt(AlertStatus.PENDING);
+    }
+
+    @Transactional
+    public int deleteSentBefore(LocalDateTime before) {
+        int deleted = alertOutboxRepository.deleteSentBefore(AlertStatus.SENT, before);
+        logger.info("Deleted {} sent alerts older than {}", deleted, before);
+        return deleted;
+    }
+}
@@ -0,0 +1,391 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.Appointment;
+import com.example.healthcare.exception.AppointmentConflictException;
+import com.example.healthcare.repository.AppointmentRepository;
+import com.example.healthcare.util.ConcurrentLongMap;
+import com.example.healthcare.util.IntervalIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Détection des chevauchements de rendez-vous sans requête par réservation.
+ * <p>
+ * Chaque médecin et chaque patient a un agenda en mémoire ({@link IntervalIndex}) chargé
+ * depuis appointment au premier besoin. Une réservation verrouille l'agenda du médecin puis
+ * celui du patient, toujours dans cet ordre : deux médecins différents ne se disputent
+ * jamais un verrou. La plage est retenue avant l'enregistrement, puis confirmée avec l'id
+ * du rendez-vous après le commit, ou libérée en cas d'échec.
+ * <p>
+ * Les agendas sont rechargés depuis la base toutes les
+ * {@code appointments.booking.reconcile-interval-ms} (rendez-vous pris par une autre
+ * instance) et retirés de la mémoire après {@code appointments.booking.idle-evict-ms}
+ * sans utilisation.
+ */
+@Service
+public class AppointmentBookingEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentBookingEngine.class);
+
+    private final AppointmentRepository appointmentRepository;
+    private final int slotMinutes;
+    private final int maxDurationMinutes;
+    private final long idleEvictMillis;
+
+    private final ConcurrentLongMap<Calendar> doctorCalendars = new ConcurrentLongMap<>();
+    private final ConcurrentLongMap<Calendar> patientCalendars = new ConcurrentLongMap<>();
+    private final AtomicLong reservationIds = new AtomicLong();
+    private final Counter conflictCounter;
+
+    /**
+     * Plage retenue en attente d'enregistrement ; à passer à {@link #confirmOnCommit} ou {@link #release}.
+     */
+    public static final class Reservation {
+        private final Calendar doctor;
+        private final Calendar patient;
+        private final long start;
+        private final long end;
+        private final long token;
+
+        private Reservation(Calendar doctor, Calendar patient, long start, long end, long token) {
+            this.doctor = doctor;
+            this.patient = patient;
+            this.start = start;
+            this.end = end;
+            this.token = token;
+        }
+    }
+
+    // Agenda d'un médecin ou d'un patient ; protégé par son propre moniteur
+    private static final class Calendar {
+        IntervalIndex index = new IntervalIndex();
+        boolean loaded;
+        // Retiré de la table : un appelant qui l'a obtenu avant doit en reprendre un neuf
+        boolean retired;
+        int pending;
+        long lastUsedMillis = System.currentTimeMillis();
+    }
+
+    public AppointmentBookingEngine(AppointmentRepository appointmentRepository,
+                                    @Value("${appointments.slot-minutes:30}") int slotMinutes,
+                                    @Value("${appointments.max-duration-minutes:240}") int maxDurationMinutes,
+                                    @Value("${appointments.booking.idle-evict-ms:3600000}") long idleEvictMillis,
+                                    MeterRegistry meterRegistry) {
+        if (slotMinutes <= 0 || slotMinutes > maxDurationMinutes) {
+            throw new IllegalArgumentException("appointments.slot-minutes must be in (0, appointments.max-duration-minutes]");
+        }
+        this.appointmentRepository = appointmentRepository;
+        this.slotMinutes = slotMinutes;
+        this.maxDurationMinutes = maxDurationMinutes;
+        this.idleEvictMillis = idleEvictMillis;
+        this.conflictCounter = Counter.builder("appointments.booking.conflicts")
+                .description("Bookings rejected because the doctor or the patient was already booked")
+                .register(meterRegistry);
+        Gauge.builder("appointments.booking.calendars", this,
+                        engine -> engine.doctorCalendars.size() + engine.patientCalendars.size())
+                .description("Doctor and patient calendars held in memory")
+                .register(meterRegistry);
+    }
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    // Durée demandée, sinon la durée d'un créneau
+    public int durationOf(Appointment appointment) {
+        Integer duration = appointment.getDurationMinutes();
+        if (duration == null) {
+            return slotMinutes;
+        }
+        if (duration <= 0 || duration > maxDurationMinutes) {
+            throw new IllegalArgumentException("Appointment duration must be between 1 and " + maxDurationMinutes + " minutes");
+        }
+        return duration;
+    }
+
+    /**
+     * Retient la plage pour le médecin et le patient.
+     *
+     * @throws AppointmentConflictException si l'un des deux a déjà un rendez-vous qui la chevauche
+     */
+    public Reservation reserve(long doctorId, long patientId, LocalDateTime start, int durationMinutes) {
+        long from = toEpochSecond(start);
+        long to = from + durationMinutes * 60L;
+        long token = -reservationIds.incrementAndGet();
+        while (true) {
+            Calendar doctor = calendarFor(doctorCalendars, doctorId);
+            synchronized (doctor) {
+                if (doctor.retired) {
+                    continue;
+                }
+                ensureLoaded(doctor, doctorId, true);
+                Calendar patient = calendarFor(patientCalendars, patientId);
+                synchronized (patient) {
+                    if (patient.retired) {
+                        continue;
+                    }
+                    ensureLoaded(patient, patientId, false);
+                    if (doctor.index.findConflict(from, to) != null) {
+                        conflictCounter.increment();
+                        throw new AppointmentConflictException("The doctor already has an appointment at " + start);
+                    }
+                    if (patient.index.findConflict(from, to) != null) {
+                        conflictCounter.increment();
+                        throw new AppointmentConflictException("The patient already has an appointment at " + start);
+                    }
+                    doctor.index.add(from, to, token);
+                    patient.index.add(from, to, token);
+                    doctor.pending++;
+                    patient.pending++;
+                    return new Reservation(doctor, patient, from, to, token);
+                }
+            }
+        }
+    }
+
+    /**
+     * Vérifie en base qu'aucun rendez-vous enregistré du médecin ne chevauche la plage. Couvre
+     * ceux qu'un agenda en mémoire ne connaît pas (autre instance, agenda évincé) ; à appeler
+     * dans la transaction d'enregistrement, la ligne du médecin verrouillée.
+     *
+     * @throws AppointmentConflictException si un rendez-vous enregistré chevauche la plage
+     */
+    public void checkStoredConflicts(long doctorId, LocalDateTime start, int durationMinutes) {
+        LocalDateTime end = start.plusMinutes(durationMinutes);
+        for (Appointment booked : appointmentRepository.findByDoctorIdBetween(doctorId,
+                start.minusMinutes(maxDurationMinutes), end)) {
+            int duration = booked.getDurationMinutes() != null ? booked.getDurationMinutes() : slotMinutes;
+            if (booked.getAppointmentDate().plusMinutes(duration).isAfter(start)) {
+                conflictCounter.increment();
+                throw new AppointmentConflictException("The doctor already has an appointment at " + start);
+            }
+        }
+    }
+
+    /**
+     * Plages occupées du médecin qui chevauchent [from, to), réservations en cours comprises,
+     * par début croissant (secondes epoch UTC des dates locales).
+     */
+    public List<IntervalIndex.Interval> bookedBetween(long doctorId, LocalDateTime from, LocalDateTime to) {
+        while (true) {
+            Calendar doctor = calendarFor(doctorCalendars, doctorId);
+            synchronized (doctor) {
+                if (doctor.retired) {
+                    continue;
+                }
+                ensureLoaded(doctor, doctorId, true);
+                return doctor.index.between(toEpochSecond(from), toEpochSecond(to));
+            }
+        }
+    }
+
+    // Charge en une requête les agendas des médecins qui ne sont pas encore en mémoire
+    public void preloadDoctors(Collection<Long> doctorIds) {
+        List<Long> missing = new ArrayList<>();
+        for (Long doctorId : doctorIds) {
+            Calendar calendar = doctorCalendars.get(doctorId);
+            if (calendar == null || !calendar.loaded) {
+                missing.add(doctorId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        Map<Long, List<Appointment>> byDoctor = new HashMap<>();
+        for (Appointment appointment : appointmentRepository.findByDoctorIdInFrom(missing, loadFrom())) {
+            byDoctor.computeIfAbsent(appointment.getDoctor().getId(), id -> new ArrayList<>()).add(appointment);
+        }
+        for (Long doctorId : missing) {
+            Calendar calendar = calendarFor(doctorCalendars, doctorId);
+            synchronized (calendar) {
+                if (!calendar.retired && !calendar.loaded) {
+                    populate(calendar, byDoctor.getOrDefault(doctorId, List.of()), doctorId, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remplace la réservation par le rendez-vous enregistré quand la transaction courante
+     * est validée, ou la libère si elle est annulée. Hors transaction, confirme immédiatement.
+     */
+    public void confirmOnCommit(Reservation reservation, long appointmentId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        confirm(reservation, appointmentId);
+                    } else {
+                        release(reservation);
+                    }
+                }
+            });
+        } else {
+            confirm(reservation, appointmentId);
+        }
+    }
+
+    public void release(Reservation reservation) {
+        settle(reservation.doctor, reservation, -1);
+        settle(reservation.patient, reservation, -1);
+    }
+
+    private void confirm(Reservation reservation, long appointmentId) {
+        settle(reservation.doctor, reservation, appointmentId);
+        settle(reservation.patient, reservation, appointmentId);
+    }
+
+    private static void settle(Calendar calendar, Reservation reservation, long appointmentId) {
+        synchronized (calendar) {
+            calendar.index.remove(reservation.start, reservation.token);
+            if (appointmentId >= 0) {
+                // Déjà présent si un rechargement a lu la ligne validée entre-temps
+                calendar.index.add(reservation.start, reservation.end, appointmentId);
+            }
+            calendar.pending--;
+            calendar.lastUsedMillis = System.currentTimeMillis();
+        }
+    }
+
+    // Libère la plage d'un rendez-vous supprimé, après le commit
+    public void releaseOnCommit(Appointment appointment) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    forget(appointment);
+                }
+            });
+        } else {
+            forget(appointment);
+        }
+    }
+
+    private void forget(Appointment appointment) {
+        long start = toEpochSecond(appointment.getAppointmentDate());
+        forget(doctorCalendars.get(appointment.getDoctor().getId()), start, appointment.getId());
+        forget(patientCalendars.get(appointment.getUser().getId()), start, appointment.getId());
+    }
+
+    private static void forget(Calendar calendar, long start, long appointmentId) {
+        if (calendar != null) {
+            synchronized (calendar) {
+                calendar.index.remove(start, appointmentId);
+            }
+        }
+    }
+
+    /**
+     * Recharge les agendas en mémoire depuis la base et retire ceux qui ne servent plus.
+     */
+    @Scheduled(fixedDelayString = "${appointments.booking.reconcile-interval-ms:300000}",
+            initialDelayString = "${appointments.booking.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long idleBefore = System.currentTimeMillis() - idleEvictMillis;
+        int evicted = evictIdle(doctorCalendars, idleBefore) + evictIdle(patientCalendars, idleBefore);
+        int reloaded = reload(doctorCalendars, true) + reload(patientCalendars, false);
+        logger.debug("Reconciled {} appointment calendars, evicted {}", reloaded, evicted);
+    }
+
+    private static int evictIdle(ConcurrentLongMap<Calendar> calendars, long idleBefore) {
+        return calendars.removeIf((id, calendar) -> {
+            synchronized (calendar) {
+                if (calendar.pending == 0 && calendar.lastUsedMillis < idleBefore) {
+                    calendar.retired = true;
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    private int reload(ConcurrentLongMap<Calendar> calendars, boolean doctor) {
+        // Copie d'abord : pas de requête sous le verrou d'un segment de la table
+        List<Long> ids = new ArrayList<>();
+        List<Calendar> loaded = new ArrayList<>();
+        calendars.forEach((id, calendar) -> {
+            ids.add(id);
+            loaded.add(calendar);
+        });
+        for (int i = 0; i < ids.size(); i++) {
+            Calendar calendar = loaded.get(i);
+            synchronized (calendar) {
+                if (calendar.retired || !calendar.loaded) {
+                    continue;
+                }
+                IntervalIndex previous = calendar.index;
+                calendar.index = new IntervalIndex();
+                calendar.loaded = false;
+                ensureLoaded(calendar, ids.get(i), doctor);
+                for (IntervalIndex.Interval interval : previous.between(Long.MIN_VALUE, Long.MAX_VALUE)) {
+                    if (interval.id() < 0) {
+                        calendar.index.add(interval.start(), interval.end(), interval.id());
+                    }
+                }
+            }
+        }
+        return ids.size();
+    }
+
+    private static Calendar calendarFor(ConcurrentLongMap<Calendar> calendars, long id) {
+        Calendar calendar = calendars.get(id);
+        if (calendar == null) {
+            Calendar created = new Calendar();
+            calendar = calendars.putIfAbsent(id, created);
+            if (calendar == null) {
+                calendar = created;
+            }
+        }
+        return calendar;
+    }
+
+    // Appelé sous le verrou de l'agenda
+    private void ensureLoaded(Calendar calendar, long id, boolean doctor) {
+        calendar.lastUsedMillis = System.currentTimeMillis();
+        if (calendar.loaded) {
+            return;
+        }
+        populate(calendar, doctor
+                ? appointmentRepository.findByDoctorIdFrom(id, loadFrom())
+                : appointmentRepository.findByUserIdFrom(id, loadFrom()), id, doctor);
+    }
+
+    private void populate(Calendar calendar, List<Appointment> appointments, long id, boolean doctor) {
+        for (Appointment appointment : appointments) {
+            long start = toEpochSecond(appointment.getAppointmentDate());
+            int duration = appointment.getDurationMinutes() != null ? appointment.getDurationMinutes() : slotMinutes;
+            if (calendar.index.add(start, start + duration * 60L, appointment.getId()) != null) {
+                logger.warn("Appointment {} overlaps another booking of {} {}", appointment.getId(),
+                        doctor ? "doctor" : "patient", id);
+            }
+        }
+        calendar.loaded = true;
+    }
+
+    // Un rendez-vous commencé plus tôt est forcément terminé
+    private LocalDateTime loadFrom() {
+        return LocalDateTime.now().minusMinutes(maxDurationMinutes);
+    }
+
+    static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+}
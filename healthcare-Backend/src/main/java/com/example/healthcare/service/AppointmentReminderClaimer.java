@@ -0,0 +1,113 @@
+package com.example.healthcare.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Répartition des rappels entre plusieurs instances (mode {@code reminders.claim.enabled}).
+ * <p>
+ * Chaque instance réclame en base des lots de rappels dus, à la taille de sa capacité
+ * ({@link AppointmentReminderDispatcher#capacity()}, ou {@code reminders.claim.batch-size}),
+ * en posant son identifiant et une échéance de bail sur les lignes, puis les envoie. Une
+ * ligne réclamée par une instance n'est pas vue des autres tant que le bail court : pas de
+ * double envoi, et le débit croît avec le nombre d'instances. Si une instance s'arrête en
+ * cours d'envoi, ses rappels sont repris à l'expiration du bail ({@code reminders.claim.lease-ms},
+ * à garder supérieur à la durée d'un passage).
+ */
+@Component
+public class AppointmentReminderClaimer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentReminderClaimer.class);
+
+    private static final int MAX_MISSES = 2;
+
+    private final AppointmentReminderService reminderService;
+    private final AppointmentReminderDispatcher dispatcher;
+    private final String owner;
+    private final long leaseMillis;
+    private final int batchSize;
+    private final Counter claimedCounter;
+    private final Counter conflictCounter;
+
+    public AppointmentReminderClaimer(AppointmentReminderService reminderService,
+                                      AppointmentReminderDispatcher dispatcher,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${reminders.claim.node-id:}") String nodeId,
+                                      @Value("${reminders.claim.lease-ms:300000}") long leaseMillis,
+                                      @Value("${reminders.claim.batch-size:0}") int batchSize) {
+        this.reminderService = reminderService;
+        this.dispatcher = dispatcher;
+        this.owner = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.leaseMillis = leaseMillis;
+        this.batchSize = batchSize > 0 ? batchSize : dispatcher.capacity();
+        this.claimedCounter = Counter.builder("reminders.claimed")
+                .description("Appointment reminders claimed by this instance")
+                .register(meterRegistry);
+        this.conflictCounter = Counter.builder("reminders.claim.conflicts")
+                .description("Claim attempts that lost rows to another instance")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Réclame et envoie les rappels dus jusqu'à {@code now}, lot par lot, tant qu'il en reste.
+     *
+     * @return nombre de rappels envoyés par cette instance
+     */
+    public int claimAndDispatch(LocalDateTime now) {
+        int sent = 0;
+        int misses = 0;
+        while (true) {
+            LocalDateTime claimedAt = LocalDateTime.now();
+            LocalDateTime leaseUntil = claimedAt.plusNanos(leaseMillis * 1_000_000);
+            List<Long> claimed;
+            try {
+                claimed = reminderService.claimDue(owner, now.isAfter(claimedAt) ? now : claimedAt, leaseUntil, batchSize);
+            } catch (DataAccessException e) {
+                // Conflit de verrou avec une autre instance : les lignes restantes seront vues au passage suivant
+                conflictCounter.increment();
+                logger.debug("Reminder claim by {} aborted: {}", owner, e.getMessage());
+                break;
+            }
+            if (claimed.isEmpty()) {
+                // Rien de dû, ou lignes prises par une autre instance entre lecture et réclamation :
+                // les suivantes sont essayées quelques fois avant d'attendre le passage suivant
+                if (++misses > MAX_MISSES) {
+                    break;
+                }
+                continue;
+            }
+            misses = 0;
+            claimedCounter.increment(claimed.size());
+            logger.debug("Instance {} claimed {} reminders until {}", owner, claimed.size(), leaseUntil);
+            sent += dispatcher.dispatch(claimed);
+        }
+        return sent;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    // Identifiant par défaut d'une instance : nom d'hôte suivi d'un suffixe aléatoire (64 caractères au plus)
+    static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "node";
+        }
+        String suffix = "-" + UUID.randomUUID().toString().substring(0, 8);
+        return (host.length() > 55 ? host.substring(0, 55) : host) + suffix;
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.Appointment;
+import com.example.healthcare.Model.AppointmentReminder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envoi des rappels dus par lots de {@code reminders.dispatch.batch-size}, répartis sur
+ * {@code reminders.dispatch.workers} workers. Chaque lot est lu en une requête, envoyé sur
+ * une seule connexion SMTP ({@link EmailService#sendAll}), puis marqué envoyé ou reporté
+ * en une requête par issue. Un échec est réessayé avec un délai qui double à chaque tentative,
+ * jusqu'à {@code reminders.max-attempts}.
+ */
+@Component
+public class AppointmentReminderDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentReminderDispatcher.class);
+
+    static final String REMINDER_SUBJECT = "Rappel de Rendez-vous Médical";
+
+    private final AppointmentReminderService reminderService;
+    private final AppointmentReminderWheel reminderWheel;
+    private final EmailService emailService;
+    private final ThreadPoolExecutor executor;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryDelayMillis;
+    private final long retryMaxDelayMillis;
+
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    private final AtomicLong lastRunPerSecond = new AtomicLong();
+
+    public AppointmentReminderDispatcher(AppointmentReminderService reminderService,
+                                         AppointmentReminderWheel reminderWheel,
+                                         EmailService emailService,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${reminders.dispatch.workers:4}") int workers,
+                                         @Value("${reminders.dispatch.batch-size:100}") int batchSize,
+                                         @Value("${reminders.max-attempts:5}") int maxAttempts,
+                                         @Value("${reminders.retry-delay-ms:60000}") long retryDelayMillis,
+                                         @Value("${reminders.retry-max-delay-ms:3600000}") long retryMaxDelayMillis) {
+        this.reminderService = reminderService;
+        this.reminderWheel = reminderWheel;
+        this.emailService = emailService;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMillis = retryDelayMillis;
+        this.retryMaxDelayMillis = retryMaxDelayMillis;
+        AtomicInteger threadCount = new AtomicInteger();
+        // File bornée : au-delà, le fil appelant envoie lui-même, ce qui ralentit la production
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers * 4),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "reminder-dispatch-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        this.sentCounter = Counter.builder("reminders.sent")
+                .description("Appointment reminder e-mails sent")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("reminders.failed")
+                .description("Appointment reminder e-mail attempts that failed")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("reminders.dispatch.batch")
+                .description("Time to load, send and update one batch of reminders")
+                .register(meterRegistry);
+        Gauge.builder("reminders.dispatch.throughput", lastRunPerSecond, AtomicLong::get)
+                .description("Reminders sent per second during the last dispatch run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Envoie les rappels donnés et attend la fin de tous les lots.
+     *
+     * @return nombre de rappels envoyés
+     */
+    public int dispatch(List<Long> reminderIds) {
+        long start = System.nanoTime();
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int from = 0; from < reminderIds.size(); from += batchSize) {
+            List<Long> batch = reminderIds.subList(from, Math.min(reminderIds.size(), from + batchSize));
+            futures.add(executor.submit(() -> batchTimer.record(() -> sendBatch(batch))));
+        }
+        int sent = 0;
+        for (Future<Integer> future : futures) {
+            try {
+                sent += future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                logger.error("Reminder batch failed", e.getCause());
+            }
+        }
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        long perSecond = sent * 1000L / elapsedMillis;
+        lastRunPerSecond.set(perSecond);
+        logger.info("Dispatched {} of {} reminders in {} ms ({} reminders/s)", sent, reminderIds.size(), elapsedMillis, perSecond);
+        return sent;
+    }
+
+    private int sendBatch(List<Long> batch) {
+        List<AppointmentReminder> reminders = reminderService.findSendable(batch);
+        if (reminders.isEmpty()) {
+            return 0;
+        }
+        List<SimpleMailMessage> messages = new ArrayList<>(reminders.size());
+        for (AppointmentReminder reminder : reminders) {
+            messages.add(message(reminder.getAppointment()));
+        }
+        Map<SimpleMailMessage, Exception> failures = emailService.sendAll(messages);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> sent = new ArrayList<>(reminders.size());
+        // Échecs regroupés par nombre de tentatives : même délai, une seule mise à jour
+        Map<Integer, List<Long>> failedByAttempt = new HashMap<>();
+        Map<Integer, String> errorByAttempt = new HashMap<>();
+        for (int i = 0; i < reminders.size(); i++) {
+            AppointmentReminder reminder = reminders.get(i);
+            Exception error = failures.get(messages.get(i));
+            if (error == null) {
+                sent.add(reminder.getId());
+            } else {
+                int attempt = reminder.getAttempts() + 1;
+                failedByAttempt.computeIfAbsent(attempt, a -> new ArrayList<>()).add(reminder.getId());
+                errorByAttempt.putIfAbsent(attempt, error.getMessage());
+            }
+        }
+
+        if (!sent.isEmpty()) {
+            reminderService.markSent(sent, now);
+            sentCounter.increment(sent.size());
+        }
+        failedByAttempt.forEach((attempt, ids) -> {
+            LocalDateTime retryAt = now.plusNanos(backoffMillis(attempt) * 1_000_000);
+            int abandoned = reminderService.recordFailure(ids, retryAt, errorByAttempt.get(attempt), maxAttempts);
+            failedCounter.increment(ids.size());
+            if (attempt < maxAttempts) {
+                ids.forEach(id -> reminderWheel.retryAt(id, retryAt));
+            }
+            logger.warn("Failed to send {} reminders (attempt {}, {} given up): {}",
+                    ids.size(), attempt, abandoned, errorByAttempt.get(attempt));
+        });
+        return sent.size();
+    }
+
+    // Rappels traités en parallèle par un passage : un lot par worker
+    public int capacity() {
+        return executor.getCorePoolSize() * batchSize;
+    }
+
+    // Délai avant la tentative suivante : retry-delay-ms, doublé à chaque échec, borné
+    long backoffMillis(int attempt) {
+        int shift = Math.min(attempt - 1, 30);
+        return Math.min(retryDelayMillis << shift, retryMaxDelayMillis);
+    }
+
+    private static SimpleMailMessage message(Appointment appointment) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(appointment.getUser().getEmail());
+        message.setSubject(REMINDER_SUBJECT);
+        message.setText("Rappel : Vous avez un rendez-vous avec le Dr " + appointment.getDoctor().getName() +
+                " le " + appointment.getAppointmentDate() + ".\nNotes : " +
+                (appointment.getReason() != null ? appointment.getReason() : "Aucune note"));
+        return message;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.AppointmentReminder;
+import com.example.healthcare.repository.AppointmentReminderRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Mises à jour groupées de {@code appointment_reminder} pour l'envoi des rappels :
+ * une requête par lot et par issue, pas par rappel.
+ */
+@Service
+public class AppointmentReminderService {
+
+    private final AppointmentReminderRepository reminderRepository;
+
+    public AppointmentReminderService(AppointmentReminderRepository reminderRepository) {
+        this.reminderRepository = reminderRepository;
+    }
+
+    /**
+     * Réclame au plus {@code limit} rappels dus pour {@code owner} jusqu'à {@code leaseUntil}.
+     * La mise à jour est conditionnelle : une ligne réclamée en même temps par une autre
+     * instance n'est prise que par l'une des deux, et seules les lignes obtenues sont renvoyées.
+     */
+    @Transactional
+    public List<Long> claimDue(String owner, LocalDateTime now, LocalDateTime leaseUntil, int limit) {
+        // Précision de la colonne : l'échéance relue doit être égale à celle écrite
+        leaseUntil = leaseUntil.truncatedTo(ChronoUnit.MILLIS);
+        List<Long> candidates = reminderRepository.findClaimable(now, PageRequest.of(0, limit));
+        if (candidates.isEmpty() || reminderRepository.claim(candidates, owner, leaseUntil, now) == 0) {
+            return List.of();
+        }
+        return reminderRepository.findClaimedIds(candidates, owner, leaseUntil);
+    }
+
+    public List<AppointmentReminder> findSendable(Collection<Long> ids) {
+        return reminderRepository.findSendable(ids);
+    }
+
+    @Transactional
+    public void markSent(Collection<Long> ids, LocalDateTime sentAt) {
+        reminderRepository.markSent(ids, sentAt);
+    }
+
+    /**
+     * Reporte les rappels à {@code retryAt} ; ceux qui atteignent {@code maxAttempts} échecs
+     * sont abandonnés.
+     *
+     * @return nombre de rappels abandonnés
+     */
+    @Transactional
+    public int recordFailure(Collection<Long> ids, LocalDateTime retryAt, String error, int maxAttempts) {
+        String truncated = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+        reminderRepository.recordFailure(ids, retryAt, truncated);
+        return reminderRepository.markFailed(ids, maxAttempts);
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.SchedulerWatermark;
+import com.example.healthcare.repository.AppointmentReminderRepository;
+import com.example.healthcare.repository.SchedulerWatermarkRepository;
+import com.example.healthcare.util.HashedTimingWheel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Échéances des rappels de rendez-vous en mémoire, dans une {@link HashedTimingWheel}.
+ * <p>
+ * Au démarrage, les rappels non envoyés postérieurs au point de reprise persistant
+ * (watermark) et antérieurs à {@code reminders.wheel.horizon-hours} sont chargés : ceux
+ * d'une période manquée arrivent à échéance au premier tick. Les rappels créés ou
+ * supprimés alimentent ensuite la roue directement, et l'horizon est prolongé toutes les
+ * {@code reminders.wheel.refill-interval-ms}. Un tick sans échéance ne touche pas la base.
+ */
+@Service
+public class AppointmentReminderWheel {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentReminderWheel.class);
+
+    static final String WATERMARK_NAME = "appointment-reminders";
+
+    private final AppointmentReminderRepository reminderRepository;
+    private final SchedulerWatermarkRepository watermarkRepository;
+    private final HashedTimingWheel wheel;
+    private final long horizonHours;
+    private final long maxCatchUpHours;
+
+    // Fin de la période déjà chargée ; null avant le premier chargement
+    private volatile LocalDateTime loadedUntil;
+    // Toutes les échéances jusqu'à cet instant ont été rendues
+    private volatile LocalDateTime firedThrough;
+    private LocalDateTime savedWatermark;
+
+    public AppointmentReminderWheel(AppointmentReminderRepository reminderRepository,
+                                    SchedulerWatermarkRepository watermarkRepository,
+                                    @Value("${reminders.wheel.tick-ms:1000}") long tickMillis,
+                                    @Value("${reminders.wheel.size:4096}") int wheelSize,
+                                    @Value("${reminders.wheel.horizon-hours:6}") long horizonHours,
+                                    @Value("${reminders.wheel.max-catch-up-hours:24}") long maxCatchUpHours,
+                                    MeterRegistry meterRegistry) {
+        this.reminderRepository = reminderRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.wheel = new HashedTimingWheel(tickMillis, wheelSize, System.currentTimeMillis());
+        this.horizonHours = horizonHours;
+        this.maxCatchUpHours = maxCatchUpHours;
+        Gauge.builder("reminders.wheel.pending", wheel, HashedTimingWheel::size)
+                .description("Appointment reminders waiting in the timing wheel")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime oldest = now.minusHours(maxCatchUpHours);
+        LocalDateTime from = watermarkRepository.findById(WATERMARK_NAME)
+                .map(SchedulerWatermark::getWatermark)
+                .filter(watermark -> watermark.isAfter(oldest))
+                .orElse(oldest);
+        firedThrough = from;
+        savedWatermark = from;
+        int loaded = loadBetween(from, now.plusHours(horizonHours));
+        logger.info("Loaded {} appointment reminders due after {}", loaded, from);
+    }
+
+    /**
+     * Prolonge l'horizon chargé et enregistre le point de reprise.
+     */
+    @Scheduled(fixedDelayString = "${reminders.wheel.refill-interval-ms:1800000}",
+            initialDelayString = "${reminders.wheel.refill-interval-ms:1800000}")
+    public synchronized void refill() {
+        if (loadedUntil == null) {
+            return;
+        }
+        try {
+            int loaded = loadBetween(loadedUntil, LocalDateTime.now().plusHours(horizonHours));
+            logger.debug("Loaded {} more appointment reminders until {}", loaded, loadedUntil);
+            saveWatermark();
+        } catch (DataAccessException e) {
+            logger.warn("Appointment reminder refill postponed: {}", e.getMessage());
+        }
+    }
+
+    private int loadBetween(LocalDateTime after, LocalDateTime until) {
+        int loaded = 0;
+        for (AppointmentReminderRepository.PendingReminder reminder : reminderRepository.findPendingBetween(after, until)) {
+            wheel.schedule(reminder.getId(), toMillis(reminder.getReminderTime()));
+            loaded++;
+        }
+        loadedUntil = until;
+        return loaded;
+    }
+
+    /**
+     * Ajoute un rappel enregistré (après le commit de la transaction courante, s'il y en a une).
+     * Un rappel au-delà de l'horizon sera chargé par {@link #refill}.
+     */
+    public void schedule(long reminderId, LocalDateTime reminderTime) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduleNow(reminderId, reminderTime);
+                }
+            });
+        } else {
+            scheduleNow(reminderId, reminderTime);
+        }
+    }
+
+    private void scheduleNow(long reminderId, LocalDateTime reminderTime) {
+        // Avant le premier chargement, load() le lira en base
+        LocalDateTime until = loadedUntil;
+        if (until != null && !reminderTime.isAfter(LocalDateTime.now().plusHours(horizonHours))) {
+            wheel.schedule(reminderId, toMillis(reminderTime));
+        }
+    }
+
+    // Retire des rappels supprimés, après le commit
+    public void cancel(Collection<Long> reminderIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reminderIds.forEach(wheel::cancel);
+                }
+            });
+        } else {
+            reminderIds.forEach(wheel::cancel);
+        }
+    }
+
+    /**
+     * Avance la roue jusqu'à {@code now} et renvoie les ids des rappels arrivés à échéance.
+     * Appeler {@link #markProcessed} une fois ces rappels traités.
+     */
+    public List<Long> advance(LocalDateTime now) {
+        List<Long> due = new ArrayList<>();
+        if (loadedUntil != null) {
+            wheel.advance(toMillis(now), due::add);
+        }
+        return due;
+    }
+
+    // Replanifie un rappel dont l'envoi a échoué
+    public void retryAt(long reminderId, LocalDateTime retryTime) {
+        wheel.schedule(reminderId, toMillis(retryTime));
+    }
+
+    /**
+     * Les rappels dus jusqu'à {@code now} ont été traités : le point de reprise avance,
+     * et il est enregistré si {@code save} (des rappels viennent d'être envoyés).
+     */
+    public void markProcessed(LocalDateTime now, boolean save) {
+        if (loadedUntil == null) {
+            return;
+        }
+        firedThrough = now;
+        if (save) {
+            saveWatermark();
+        }
+    }
+
+    // Enregistre le point de reprise s'il a avancé depuis le dernier enregistrement
+    synchronized void saveWatermark() {
+        LocalDateTime watermark = firedThrough;
+        if (watermark == null || watermark.equals(savedWatermark)) {
+            return;
+        }
+        watermarkRepository.save(new SchedulerWatermark(WATERMARK_NAME, watermark, LocalDateTime.now()));
+        savedWatermark = watermark;
+    }
+
+    int pending() {
+        return wheel.size();
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -31,6 +31,12 @@ public class AppointmentService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private AppointmentBookingEngine bookingEngine;
+
+    @Autowired
+    private AppointmentReminderWheel reminderWheel;
+
     @Autowired
     public AppointmentService(AppointmentRepository appointmentRepository, UserRepository userRepository) {
         this.appointmentRepository = appointmentRepository;
@@ -38,6 +44,7 @@ public class AppointmentService {
     }
 
     // Prendre un rendez-vous
+    @Transactional
     public Appointment addAppointment(Long userId, Long doctorId, Appointment appointment) {
         logger.info("Adding appointment for userId: {} with doctorId: {}", userId, doctorId);
         try {
@@ -57,8 +64,9 @@ public class AppointmentService {
             User user = userRepository.findById(userId)
                     .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
-            // Vérifier que le médecin existe et a le rôle DOCTOR
-            User doctor = userRepository.findById(doctorId)
+            // Vérifier que le médecin existe et a le rôle DOCTOR ; sa ligne reste verrouillée
+            // jusqu'au commit, ce qui sérialise les prises de rendez-vous de ce médecin
+            User doctor = userRepository.findByIdForUpdate(doctorId)
                     .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with id: " + doctorId));
             if (doctor.getRole() != Role.DOCTOR) {
                 throw new IllegalArgumentException("Selected user is not a doctor");
@@ -73,13 +81,27 @@ public class AppointmentService {
             appointment.setUser(user);
             appointment.setDoctor(doctor);
             appointment.setAccepted(false); // Par défaut, en attente
+            int duration = bookingEngine.durationOf(appointment);
+            appointment.setDurationMinutes(duration);
+
+            // Retenir la plage chez le médecin et le patient (AppointmentConflictException si déjà prise)
+            AppointmentBookingEngine.Reservation reservation =
+                    bookingEngine.reserve(doctorId, userId, appointment.getAppointmentDate(), duration);
 
             // Log avant l'enregistrement pour déboguer
             logger.info("Saving appointment: date={}, reason={}, userId={}, doctorId={}",
                     appointment.getAppointmentDate(), appointment.getReason(), userId, doctorId);
 
-            // Enregistrer le rendez-vous
-            Appointment savedAppointment = appointmentRepository.save(appointment);
+            // Enregistrer le rendez-vous, après contrôle en base des rendez-vous du médecin
+            Appointment savedAppointment;
+            try {
+                bookingEngine.checkStoredConflicts(doctorId, appointment.getAppointmentDate(), duration);
+                savedAppointment = appointmentRepository.save(appointment);
+            } catch (RuntimeException e) {
+                bookingEngine.release(reservation);
+                throw e;
+            }
+            bookingEngine.confirmOnCommit(reservation, savedAppointment.getId());
 
             // Générer un rappel 24 heures avant le rendez-vous
             try {
@@ -115,8 +137,9 @@ public class AppointmentService {
             AppointmentReminder reminder = new AppointmentReminder();
             reminder.setAppointment(appointment);
             reminder.setReminderTime(reminderTime);
-            reminder.setSent(true);
+            reminder.setSent(false);
             appointmentReminderRepository.save(reminder);
+            reminderWheel.schedule(reminder.getId(), reminderTime);
             logger.info("Generated reminder for appointment at {}: reminder set for {}", appointmentDate, reminderTime);
         } else {
             logger.info("Reminder time {} is in the past, no reminder generated for appointment at {}", reminderTime, appointmentDate);
@@ -154,8 +177,13 @@ public class AppointmentService {
         Appointment appointment = appointmentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with id: " + id));
         // Supprimer les rappels associés
+        List<Long> reminderIds = appointmentReminderRepository.findByAppointmentId(id).stream()
+                .map(AppointmentReminder::getId)
+                .toList();
         appointmentReminderRepository.deleteByAppointmentId(id);
+        reminderWheel.cancel(reminderIds);
         appointmentRepository.delete(appointment);
+        bookingEngine.releaseOnCommit(appointment);
     }
 
     public List<Appointment> getAppointmentsByDoctor(Long doctorId) {
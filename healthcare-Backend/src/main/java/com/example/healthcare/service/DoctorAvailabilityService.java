@@ -0,0 +1,282 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.DoctorAvailabilityDTO;
+import com.example.healthcare.Model.Role;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.Model.WorkingHours;
+import com.example.healthcare.Model.WorkingHoursDTO;
+import com.example.healthcare.exception.ResourceNotFoundException;
+import com.example.healthcare.repository.UserRepository;
+import com.example.healthcare.repository.WorkingHoursRepository;
+import com.example.healthcare.util.IntervalIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Créneaux libres des médecins : les plages hebdomadaires ({@link WorkingHours}) sont
+ * découpées en créneaux de {@code appointments.slot-minutes}, puis fusionnées en une passe
+ * avec les plages occupées de l'agenda en mémoire ({@link AppointmentBookingEngine}).
+ * Une recherche coûte une requête pour les plages horaires, quel que soit le nombre de créneaux.
+ * <p>
+ * Pour une spécialité, les médecins sont fusionnés en parallèle sur un pool dédié, borné à
+ * {@code appointments.availability.merge-threads} (par défaut le nombre de cœurs). Quand sa
+ * file est pleine, le thread de la requête fusionne lui-même.
+ */
+@Service
+public class DoctorAvailabilityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DoctorAvailabilityService.class);
+
+    private final WorkingHoursRepository workingHoursRepository;
+    private final UserRepository userRepository;
+    private final AppointmentBookingEngine bookingEngine;
+    private final int maxDays;
+    private final ThreadPoolExecutor mergeExecutor;
+    private final Timer searchTimer;
+
+    public DoctorAvailabilityService(WorkingHoursRepository workingHoursRepository,
+                                     UserRepository userRepository,
+                                     AppointmentBookingEngine bookingEngine,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${appointments.availability.max-days:31}") int maxDays,
+                                     @Value("${appointments.availability.merge-threads:0}") int mergeThreads) {
+        this.workingHoursRepository = workingHoursRepository;
+        this.userRepository = userRepository;
+        this.bookingEngine = bookingEngine;
+        this.maxDays = maxDays;
+        int poolSize = mergeThreads > 0 ? mergeThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.mergeExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(poolSize * 16),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "availability-merge-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        Gauge.builder("appointments.availability.merge.queue.depth", mergeExecutor, e -> e.getQueue().size())
+                .description("Per-doctor slot merges waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("appointments.availability.merge.active", mergeExecutor, ThreadPoolExecutor::getActiveCount)
+                .description("Per-doctor slot merges currently running")
+                .register(meterRegistry);
+        this.searchTimer = Timer.builder("appointments.availability.search")
+                .description("Time to compute the free slots of a whole specialization")
+                .register(meterRegistry);
+    }
+
+    public List<WorkingHoursDTO> getWorkingHours(Long doctorId) {
+        findDoctor(doctorId);
+        List<WorkingHoursDTO> hours = new ArrayList<>();
+        for (WorkingHours row : sorted(workingHoursRepository.findByDoctorId(doctorId))) {
+            hours.add(new WorkingHoursDTO(row.getDayOfWeek(), row.getStartTime(), row.getEndTime()));
+        }
+        return hours;
+    }
+
+    // Remplace toutes les plages du médecin
+    @Transactional
+    public List<WorkingHoursDTO> setWorkingHours(Long doctorId, List<WorkingHoursDTO> hours) {
+        User doctor = findDoctor(doctorId);
+        List<WorkingHours> rows = new ArrayList<>(hours.size());
+        for (WorkingHoursDTO dto : hours) {
+            if (dto.getDayOfWeek() == null || dto.getStartTime() == null || dto.getEndTime() == null) {
+                throw new IllegalArgumentException("dayOfWeek, startTime and endTime are required");
+            }
+            if (!dto.getStartTime().isBefore(dto.getEndTime())) {
+                throw new IllegalArgumentException("startTime must be before endTime on " + dto.getDayOfWeek());
+            }
+            rows.add(new WorkingHours(doctor, dto.getDayOfWeek(), dto.getStartTime(), dto.getEndTime()));
+        }
+        rows = sorted(rows);
+        for (int i = 1; i < rows.size(); i++) {
+            WorkingHours previous = rows.get(i - 1);
+            WorkingHours current = rows.get(i);
+            if (previous.getDayOfWeek() == current.getDayOfWeek()
+                    && current.getStartTime().isBefore(previous.getEndTime())) {
+                throw new IllegalArgumentException("Working hours overlap on " + current.getDayOfWeek());
+            }
+        }
+        workingHoursRepository.deleteByDoctorId(doctorId);
+        workingHoursRepository.saveAll(rows);
+        logger.info("Working hours of doctorId {} replaced with {} ranges", doctorId, rows.size());
+        return getWorkingHours(doctorId);
+    }
+
+    /**
+     * Créneaux libres du médecin sur [from, to) ; par défaut les 7 prochains jours.
+     */
+    public DoctorAvailabilityDTO getAvailability(Long doctorId, LocalDateTime from, LocalDateTime to) {
+        User doctor = findDoctor(doctorId);
+        LocalDateTime[] range = range(from, to);
+        return availabilityOf(doctor, workingHoursRepository.findByDoctorId(doctorId), range[0], range[1]);
+    }
+
+    /**
+     * Créneaux libres de tous les médecins de la spécialité qui en ont au moins un, triés
+     * par premier créneau disponible. Les plages horaires et les agendas manquants sont lus
+     * en une requête chacun, puis la fusion de chaque médecin est faite en parallèle.
+     */
+    public List<DoctorAvailabilityDTO> getAvailabilityBySpecialization(Long specializationId,
+                                                                      LocalDateTime from, LocalDateTime to) {
+        return searchTimer.record(() -> searchBySpecialization(specializationId, from, to));
+    }
+
+    private List<DoctorAvailabilityDTO> searchBySpecialization(Long specializationId,
+                                                               LocalDateTime from, LocalDateTime to) {
+        LocalDateTime[] range = range(from, to);
+        List<User> doctors = userRepository.findByRoleAndSpecializationId(Role.DOCTOR, specializationId);
+        if (doctors.isEmpty()) {
+            return List.of();
+        }
+        List<Long> doctorIds = doctors.stream().map(User::getId).toList();
+        Map<Long, List<WorkingHours>> hoursByDoctor = new HashMap<>();
+        for (WorkingHours row : workingHoursRepository.findByDoctorIdIn(doctorIds)) {
+            hoursByDoctor.computeIfAbsent(row.getDoctor().getId(), id -> new ArrayList<>()).add(row);
+        }
+        List<User> candidates = doctors.stream().filter(doctor -> hoursByDoctor.containsKey(doctor.getId())).toList();
+        bookingEngine.preloadDoctors(candidates.stream().map(User::getId).toList());
+
+        List<Future<DoctorAvailabilityDTO>> merges = new ArrayList<>(candidates.size());
+        for (User doctor : candidates) {
+            merges.add(mergeExecutor.submit(
+                    () -> availabilityOf(doctor, hoursByDoctor.get(doctor.getId()), range[0], range[1])));
+        }
+        List<DoctorAvailabilityDTO> availabilities = new ArrayList<>(merges.size());
+        for (Future<DoctorAvailabilityDTO> merge : merges) {
+            availabilities.add(await(merge));
+        }
+        return availabilities.stream()
+                .filter(availability -> !availability.getSlots().isEmpty())
+                .sorted(Comparator.comparing((DoctorAvailabilityDTO availability) -> availability.getSlots().get(0))
+                        .thenComparing(DoctorAvailabilityDTO::getDoctorId))
+                .toList();
+    }
+
+    private static DoctorAvailabilityDTO await(Future<DoctorAvailabilityDTO> merge) {
+        try {
+            return merge.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while computing availability", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Availability merge failed", e.getCause());
+        }
+    }
+
+    private DoctorAvailabilityDTO availabilityOf(User doctor, List<WorkingHours> hours, LocalDateTime from, LocalDateTime to) {
+        int slotMinutes = bookingEngine.getSlotMinutes();
+        List<LocalDateTime> slots = new ArrayList<>();
+        if (!hours.isEmpty()) {
+            List<IntervalIndex.Interval> booked = bookingEngine.bookedBetween(doctor.getId(), from, to);
+            mergeFreeSlots(sorted(hours), booked, from, to, slotMinutes, slots);
+        }
+        DoctorAvailabilityDTO availability = new DoctorAvailabilityDTO();
+        availability.setDoctorId(doctor.getId());
+        availability.setDoctorName(doctor.getName());
+        if (doctor.getSpecialization() != null) {
+            availability.setSpecializationName(doctor.getSpecialization().getName());
+        }
+        availability.setSlotMinutes(slotMinutes);
+        availability.setSlots(slots);
+        return availability;
+    }
+
+    /**
+     * Parcourt jour par jour les plages triées et les plages occupées triées en avançant
+     * deux curseurs : chaque créneau et chaque réservation ne sont examinés qu'une fois.
+     * Les créneaux sont alignés sur le début de la plage horaire.
+     */
+    static void mergeFreeSlots(List<WorkingHours> hours, List<IntervalIndex.Interval> booked,
+                               LocalDateTime from, LocalDateTime to, int slotMinutes, List<LocalDateTime> out) {
+        long slotSeconds = slotMinutes * 60L;
+        long fromSecond = from.toEpochSecond(ZoneOffset.UTC);
+        long toSecond = to.toEpochSecond(ZoneOffset.UTC);
+        int next = 0;
+        for (LocalDate day = from.toLocalDate(); day.atStartOfDay().isBefore(to); day = day.plusDays(1)) {
+            DayOfWeek dayOfWeek = day.getDayOfWeek();
+            for (WorkingHours range : hours) {
+                if (range.getDayOfWeek() != dayOfWeek) {
+                    continue;
+                }
+                long start = day.atTime(range.getStartTime()).toEpochSecond(ZoneOffset.UTC);
+                long end = day.atTime(range.getEndTime()).toEpochSecond(ZoneOffset.UTC);
+                for (long slot = start; slot + slotSeconds <= end && slot < toSecond; slot += slotSeconds) {
+                    if (slot < fromSecond) {
+                        continue;
+                    }
+                    long slotEnd = slot + slotSeconds;
+                    while (next < booked.size() && booked.get(next).end() <= slot) {
+                        next++;
+                    }
+                    if (next < booked.size() && booked.get(next).start() < slotEnd) {
+                        continue;
+                    }
+                    out.add(LocalDateTime.ofEpochSecond(slot, 0, ZoneOffset.UTC));
+                }
+            }
+        }
+    }
+
+    // Pas de créneau dans le passé ; la période est bornée à appointments.availability.max-days
+    private LocalDateTime[] range(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime start = from == null || from.isBefore(now) ? now : from;
+        LocalDateTime end = to != null ? to : start.plusDays(7);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to' and 'to' must be in the future");
+        }
+        if (end.isAfter(start.plusDays(maxDays))) {
+            throw new IllegalArgumentException("The period must not exceed " + maxDays + " days");
+        }
+        return new LocalDateTime[]{start, end};
+    }
+
+    private User findDoctor(Long doctorId) {
+        User doctor = userRepository.findById(doctorId)
+                .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with id: " + doctorId));
+        if (doctor.getRole() != Role.DOCTOR) {
+            throw new IllegalArgumentException("Selected user is not a doctor");
+        }
+        return doctor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        mergeExecutor.shutdownNow();
+    }
+
+    private static List<WorkingHours> sorted(List<WorkingHours> hours) {
+        List<WorkingHours> copy = new ArrayList<>(hours);
+        copy.sort(Comparator.comparing(WorkingHours::getDayOfWeek).thenComparing(WorkingHours::getStartTime));
+        return copy;
+    }
+}
@@ -1,10 +1,16 @@
 package com.example.healthcare.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Service
 public class EmailService {
 
@@ -18,4 +24,26 @@ public class EmailService {
         message.setText(text);
         mailSender.send(message);
     }
-}
\ No newline at end of file
+
+    /**
+     * Envoie les messages sur une seule connexion SMTP et renvoie ceux qui ont échoué,
+     * avec leur erreur ; une carte vide si tout est parti.
+     */
+    public Map<SimpleMailMessage, Exception> sendAll(List<SimpleMailMessage> messages) {
+        Map<SimpleMailMessage, Exception> failed = new IdentityHashMap<>();
+        if (messages.isEmpty()) {
+            return failed;
+        }
+        try {
+            mailSender.send(messages.toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            e.getFailedMessages().forEach((message, error) -> failed.put((SimpleMailMessage) message, error));
+            if (failed.isEmpty()) {
+                messages.forEach(message -> failed.put(message, e));
+            }
+        } catch (MailException e) {
+            messages.forEach(message -> failed.put(message, e));
+        }
+        return failed;
+    }
+}
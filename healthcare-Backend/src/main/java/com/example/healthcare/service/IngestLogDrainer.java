@@ -0,0 +1,136 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.IngestLogCheckpoint;
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.repository.IngestLogCheckpointRepository;
+import com.example.healthcare.util.MappedAppendLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Charge le journal d'ingestion dans medical_data par tranches de
+ * {@code medical-data.wal.drain-batch-size} mesures. Chaque tranche est insérée avec le
+ * nouveau point de reprise dans une seule transaction ; au démarrage, tout ce qui suit
+ * le point de reprise enregistré est rejoué.
+ */
+@Component
+public class IngestLogDrainer {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestLogDrainer.class);
+
+    private final IngestLogService ingestLogService;
+    private final MedicalDataService medicalDataService;
+    private final IngestLogCheckpointRepository checkpointRepository;
+    private final int drainBatchSize;
+    private final Counter drainedCounter;
+    private final Counter deadLetteredCounter;
+
+    // Position chargée en base ; -1 tant qu'elle n'a pas été lue
+    private long checkpoint = -1;
+
+    public IngestLogDrainer(IngestLogService ingestLogService,
+                            MedicalDataService medicalDataService,
+                            IngestLogCheckpointRepository checkpointRepository,
+                            @Value("${medical-data.wal.drain-batch-size:5000}") int drainBatchSize,
+                            MeterRegistry meterRegistry) {
+        this.ingestLogService = ingestLogService;
+        this.medicalDataService = medicalDataService;
+        this.checkpointRepository = checkpointRepository;
+        this.drainBatchSize = drainBatchSize;
+        this.drainedCounter = Counter.builder("ingest.log.drained")
+                .description("Readings loaded from the ingest log into the database")
+                .register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("ingest.log.dead-lettered")
+                .description("Logged readings of unknown patients moved to ingest_dead_letter")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayOnStartup() {
+        if (!ingestLogService.isEnabled()) {
+            return;
+        }
+        long replayed = drainQuietly();
+        if (replayed > 0) {
+            logger.info("Replayed {} readings from the ingest log", replayed);
+        }
+    }
+
+    // Le rejeu du démarrage est fait par replayOnStartup : pas de passage immédiat en plus
+    @Scheduled(fixedDelayString = "${medical-data.wal.drain-interval-ms:1000}",
+            initialDelayString = "${medical-data.wal.drain-interval-ms:1000}")
+    public void drain() {
+        if (ingestLogService.isEnabled()) {
+            drainQuietly();
+        }
+    }
+
+    private long drainQuietly() {
+        try {
+            return drainAll();
+        } catch (DataAccessException e) {
+            // Base indisponible : le journal continue d'accepter les mesures, on réessaiera
+            logger.warn("Ingest log drain postponed: {}", e.getMessage());
+            return 0;
+        } catch (RuntimeException e) {
+            logger.error("Ingest log drain failed: {}", e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * Charge tout ce qui a été ajouté au journal depuis le dernier point de reprise.
+     *
+     * @return nombre de mesures lues dans le journal
+     */
+    public synchronized long drainAll() {
+        MappedAppendLog log = ingestLogService.log();
+        if (checkpoint < 0) {
+            checkpoint = checkpointRepository.findById(ingestLogService.getLogId())
+                    .map(IngestLogCheckpoint::getPosition)
+                    .orElse(0L);
+            if (checkpoint > log.endPosition()) {
+                logger.warn("Ingest log checkpoint is ahead of the local log (directory replaced?), reading from its start");
+                checkpoint = log.startPosition();
+            }
+            ingestLogService.markDrained(checkpoint);
+        }
+
+        long total = 0;
+        while (true) {
+            Map<Long, List<MedicalData>> byUser = new LinkedHashMap<>();
+            long next = log.read(checkpoint, drainBatchSize, record -> byUser
+                    .computeIfAbsent(IngestLogService.readUserId(record), id -> new ArrayList<>())
+                    .add(IngestLogService.decode(record)));
+            if (byUser.isEmpty()) {
+                break;
+            }
+            int read = 0;
+            for (List<MedicalData> readings : byUser.values()) {
+                read += readings.size();
+            }
+            int deadLettered = medicalDataService.storeLoggedReadings(byUser,
+                    new IngestLogCheckpoint(ingestLogService.getLogId(), next, LocalDateTime.now()));
+            checkpoint = next;
+            ingestLogService.markDrained(next);
+            drainedCounter.increment(read);
+            deadLetteredCounter.increment(deadLettered);
+            total += read;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.util.MappedAppendLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Journal d'ingestion local des mesures ({@code medical-data.wal.enabled=true}).
+ * <p>
+ * Les mesures validées sont ajoutées à un {@link MappedAppendLog} ; l'appelant est libéré
+ * dès que l'écriture est durable. Les fsync sont groupés : un thread force le journal toutes
+ * les {@code medical-data.wal.fsync-interval-ms} et réveille tous les appelants couverts.
+ * {@link IngestLogDrainer} charge ensuite le journal en base.
+ * <p>
+ * Chaque instance doit avoir son propre répertoire et son propre {@code medical-data.wal.log-id}.
+ */
+@Service
+public class IngestLogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestLogService.class);
+
+    // userId, recordedAt (µs), masque de présence, glycémie, systolique, diastolique, fréquence cardiaque
+    static final int RECORD_BYTES = 8 + 8 + 1 + 8 + 4 + 4 + 4;
+
+    private final boolean enabled;
+    private final String logId;
+    private final Path directory;
+    private final int segmentSize;
+    private final long fsyncIntervalMillis;
+    private final long ackTimeoutMillis;
+    private final MeterRegistry meterRegistry;
+
+    private MappedAppendLog log;
+    private ScheduledExecutorService flusher;
+    private Counter appendedCounter;
+    // Position déjà chargée en base, tenue par IngestLogDrainer
+    private volatile long drainedPosition;
+
+    public IngestLogService(@Value("${medical-data.wal.enabled:false}") boolean enabled,
+                            @Value("${medical-data.wal.log-id:local}") String logId,
+                            @Value("${medical-data.wal.dir:data/ingest-log}") String directory,
+                            @Value("${medical-data.wal.segment-size-bytes:67108864}") int segmentSize,
+                            @Value("${medical-data.wal.fsync-interval-ms:10}") long fsyncIntervalMillis,
+                            @Value("${medical-data.wal.ack-timeout-ms:5000}") long ackTimeoutMillis,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.logId = logId;
+        this.directory = Path.of(directory);
+        this.segmentSize = segmentSize;
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+        this.ackTimeoutMillis = ackTimeoutMillis;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        log = new MappedAppendLog(directory, segmentSize);
+        logger.info("Ingest log '{}' opened in {} ({} segments)", logId, directory.toAbsolutePath(), log.segmentCount());
+        if (fsyncIntervalMillis > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ingest-log-fsync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushQuietly, fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        appendedCounter = Counter.builder("ingest.log.appended")
+                .description("Readings appended to the ingest log")
+                .register(meterRegistry);
+        Gauge.builder("ingest.log.pending.bytes", this, service -> service.log.bytesBetween(drainedPosition, service.log.endPosition()))
+                .description("Bytes of the ingest log not yet loaded into the database")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getLogId() {
+        return logId;
+    }
+
+    /**
+     * Ajoute les mesures d'un patient au journal et attend qu'elles soient sur disque.
+     */
+    public void append(long userId, List<MedicalData> readings) {
+        if (!enabled) {
+            throw new IllegalStateException("Ingest log is disabled");
+        }
+        if (readings.isEmpty()) {
+            return;
+        }
+        List<byte[]> records = new ArrayList<>(readings.size());
+        for (MedicalData medicalData : readings) {
+            records.add(encode(userId, medicalData));
+        }
+        long end = log.append(records);
+        if (fsyncIntervalMillis <= 0) {
+            log.flush();
+        }
+        try {
+            if (!log.awaitDurable(end, ackTimeoutMillis)) {
+                throw new IllegalStateException("Timed out waiting for the ingest log to reach the disk");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the ingest log", e);
+        }
+        appendedCounter.increment(records.size());
+    }
+
+    MappedAppendLog log() {
+        return log;
+    }
+
+    void markDrained(long position) {
+        drainedPosition = position;
+        log.deleteBefore(position);
+    }
+
+    static byte[] encode(long userId, MedicalData medicalData) {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES);
+        LocalDateTime recordedAt = medicalData.getRecordedAt();
+        buffer.putLong(userId);
+        buffer.putLong(recordedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + recordedAt.getNano() / 1_000);
+        int mask = (medicalData.getBloodSugar() != null ? 1 : 0)
+                | (medicalData.getSystolicBloodPressure() != null ? 2 : 0)
+                | (medicalData.getDiastolicBloodPressure() != null ? 4 : 0)
+                | (medicalData.getHeartRate() != null ? 8 : 0);
+        buffer.put((byte) mask);
+        buffer.putDouble(medicalData.getBloodSugar() != null ? medicalData.getBloodSugar() : 0);
+        buffer.putInt(medicalData.getSystolicBloodPressure() != null ? medicalData.getSystolicBloodPressure() : 0);
+        buffer.putInt(medicalData.getDiastolicBloodPressure() != null ? medicalData.getDiastolicBloodPressure() : 0);
+        buffer.putInt(medicalData.getHeartRate() != null ? medicalData.getHeartRate() : 0);
+        return buffer.array();
+    }
+
+    // Renvoie la mesure ; l'id du patient est lu par readUserId
+    static MedicalData decode(ByteBuffer record) {
+        long micros = record.getLong(8);
+        int mask = record.get(16);
+        MedicalData medicalData = new MedicalData();
+        medicalData.setRecordedAt(LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC));
+        if ((mask & 1) != 0) {
+            medicalData.setBloodSugar(record.getDouble(17));
+        }
+        if ((mask & 2) != 0) {
+            medicalData.setSystolicBloodPressure(record.getInt(25));
+        }
+        if ((mask & 4) != 0) {
+            medicalData.setDiastolicBloodPressure(record.getInt(29));
+        }
+        if ((mask & 8) != 0) {
+            medicalData.setHeartRate(record.getInt(33));
+        }
+        return medicalData;
+    }
+
+    static long readUserId(ByteBuffer record) {
+        return record.getLong(0);
+    }
+
+    private void flushQuietly() {
+        try {
+            log.flush();
+        } catch (RuntimeException e) {
+            logger.error("Ingest log fsync failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        if (log != null) {
+            log.close();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.repository.UserRepository;
+import com.example.healthcare.util.ExpiringCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Ids d'utilisateurs dont l'existence a été vérifiée récemment, pour que le mode journal
+ * d'ingestion refuse un id inconnu sans interroger la base à chaque envoi. Seules les
+ * réponses positives sont gardées : un compte créé entre-temps est vu au prochain appel.
+ */
+@Service
+public class KnownPatientCache {
+
+    private final UserRepository userRepository;
+    private final ExpiringCache<Long, Boolean> cache;
+    private final long ttlMillis;
+
+    public KnownPatientCache(UserRepository userRepository,
+                             @Value("${medical-data.wal.known-patients.max-size:100000}") int maxSize,
+                             @Value("${medical-data.wal.known-patients.ttl-ms:600000}") long ttlMillis) {
+        this.userRepository = userRepository;
+        this.cache = new ExpiringCache<>(maxSize);
+        this.ttlMillis = ttlMillis;
+    }
+
+    // Peut lever une exception d'accès aux données si la base est injoignable
+    public boolean isKnown(long userId) {
+        if (cache.get(userId) != null) {
+            return true;
+        }
+        boolean known = userRepository.existsById(userId);
+        if (known) {
+            cache.put(userId, Boolean.TRUE, System.currentTimeMillis() + ttlMillis);
+        }
+        return known;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.LatestVitals;
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.MedicalDataArchive;
+import com.example.healthcare.Model.VitalMetric;
+import com.example.healthcare.repository.MedicalDataArchiveRepository;
+import com.example.healthcare.repository.MedicalDataJdbcRepository;
+import com.example.healthcare.util.ExpiringCache;
+import com.example.healthcare.util.VitalsBlockCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dernières valeurs de chaque patient, gardées dans un cache borné. Les enregistrements
+ * de mesures mettent à jour les entrées présentes après le commit ; une entrée absente
+ * est chargée depuis medical_data à la première lecture.
+ * <p>
+ * Le TTL ({@code medical-data.latest.cache.ttl-ms}) borne le retard des valeurs écrites
+ * par une autre instance.
+ */
+@Service
+public class LatestVitalsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LatestVitalsService.class);
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final MedicalDataJdbcRepository medicalDataJdbcRepository;
+    private final MedicalDataArchiveRepository archiveRepository;
+    private final ExpiringCache<Long, LatestVitals> cache;
+    private final long ttlMillis;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public LatestVitalsService(MedicalDataJdbcRepository medicalDataJdbcRepository,
+                               MedicalDataArchiveRepository archiveRepository,
+                               @Value("${medical-data.latest.cache.max-size:50000}") int maxSize,
+                               @Value("${medical-data.latest.cache.ttl-ms:60000}") long ttlMillis) {
+        this.medicalDataJdbcRepository = medicalDataJdbcRepository;
+        this.archiveRepository = archiveRepository;
+        this.cache = new ExpiringCache<>(maxSize);
+        this.ttlMillis = ttlMillis;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public LatestVitals getLatest(Long userId) {
+        return getLatest(List.of(userId)).get(0);
+    }
+
+    /**
+     * Un instantané par patient demandé, dans l'ordre de la requête ; les absents du cache
+     * sont chargés ensemble.
+     */
+    public List<LatestVitals> getLatest(Collection<Long> userIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(userIds));
+        List<Long> missing = new ArrayList<>();
+        for (Long userId : ids) {
+            if (cache.get(userId) == null) {
+                missing.add(userId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            load(missing);
+        }
+        List<LatestVitals> snapshots = new ArrayList<>(ids.size());
+        for (Long userId : ids) {
+            LatestVitals snapshot = cache.get(userId);
+            snapshots.add(snapshot != null ? snapshot : new LatestVitals(userId));
+        }
+        return snapshots;
+    }
+
+    /**
+     * Met à jour les instantanés en cache avec des mesures qui viennent d'être enregistrées,
+     * une fois la transaction validée.
+     */
+    public void recordWritten(Long userId, List<MedicalData> readings) {
+        if (readings.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(userId, readings);
+                }
+            });
+        } else {
+            apply(userId, readings);
+        }
+    }
+
+    private void apply(Long userId, List<MedicalData> readings) {
+        synchronized (lockFor(userId)) {
+            LatestVitals current = cache.get(userId);
+            // Sans entrée en cache, la prochaine lecture chargera l'état validé depuis la base
+            if (current == null) {
+                return;
+            }
+            LatestVitals merged = current;
+            for (MedicalData medicalData : readings) {
+                merged = merged.merge(medicalData);
+            }
+            cache.put(userId, merged, System.currentTimeMillis() + ttlMillis);
+        }
+    }
+
+    private void load(List<Long> userIds) {
+        Map<Long, LatestVitals> loaded = medicalDataJdbcRepository.findLatest(userIds);
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        for (Long userId : userIds) {
+            LatestVitals snapshot = loaded.getOrDefault(userId, new LatestVitals(userId));
+            if (snapshot.getMetrics().size() < VitalMetric.values().length) {
+                snapshot = completeFromArchive(userId, snapshot);
+            }
+            synchronized (lockFor(userId)) {
+                // Une écriture concurrente a pu précéder le chargement : on garde le plus récent
+                LatestVitals current = cache.get(userId);
+                cache.put(userId, current != null ? current : snapshot, expiresAt);
+            }
+        }
+        logger.debug("Loaded latest vitals for {} patients from the database", userIds.size());
+    }
+
+    // Mesures absentes du niveau chaud : on consulte le bloc archivé le plus récent
+    private LatestVitals completeFromArchive(Long userId, LatestVitals snapshot) {
+        MedicalDataArchive block = archiveRepository.findFirstByUserIdOrderByWindowStartDesc(userId).orElse(null);
+        if (block == null) {
+            return snapshot;
+        }
+        LatestVitals completed = snapshot;
+        for (MedicalData medicalData : VitalsBlockCodec.decode(block.getPayload())) {
+            completed = completed.merge(medicalData);
+        }
+        return completed;
+    }
+
+    private Object lockFor(Long userId) {
+        return locks[(int) (userId ^ (userId >>> 32)) & (LOCK_STRIPES - 1)];
+    }
+}
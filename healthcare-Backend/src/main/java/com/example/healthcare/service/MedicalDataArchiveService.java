@@ -0,0 +1,110 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.MedicalDataArchive;
+import com.example.healthcare.repository.MedicalDataArchiveRepository;
+import com.example.healthcare.repository.MedicalDataJdbcRepository;
+import com.example.healthcare.util.VitalsBlockCodec;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Niveau froid de l'historique : les mesures d'une journée close sont compressées en un
+ * bloc de medical_data_archive et retirées de medical_data, dans la même transaction.
+ * Les lectures passent par {@link com.example.healthcare.repository.MedicalDataTieredRepository}.
+ */
+@Service
+public class MedicalDataArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MedicalDataArchiveService.class);
+
+    private static final Comparator<MedicalData> OLDEST_FIRST = Comparator
+            .comparing(MedicalData::getRecordedAt)
+            .thenComparing(MedicalData::getId);
+
+    private final MedicalDataArchiveRepository archiveRepository;
+    private final MedicalDataJdbcRepository medicalDataJdbcRepository;
+    private final int batchSize;
+
+    public MedicalDataArchiveService(MedicalDataArchiveRepository archiveRepository,
+                                     MedicalDataJdbcRepository medicalDataJdbcRepository,
+                                     @Value("${medical-data.batch.size:1000}") int batchSize) {
+        this.archiveRepository = archiveRepository;
+        this.medicalDataJdbcRepository = medicalDataJdbcRepository;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Archive les mesures du patient sur la journée commençant à {@code windowStart}.
+     * Les mesures arrivées après un premier archivage sont fusionnées dans le bloc existant.
+     *
+     * @return nombre de lignes retirées de medical_data
+     */
+    @Transactional
+    public int archiveWindow(long userId, LocalDateTime windowStart) {
+        LocalDateTime windowEnd = windowStart.plusDays(1);
+        List<MedicalData> rows = medicalDataJdbcRepository.findWindow(userId, windowStart, windowEnd);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        MedicalDataArchive block = archiveRepository.findByUserIdAndWindowStart(userId, windowStart).orElse(null);
+        List<MedicalData> readings = rows;
+        if (block == null) {
+            block = new MedicalDataArchive();
+            block.setUserId(userId);
+            block.setWindowStart(windowStart);
+            block.setWindowEnd(windowEnd);
+        } else {
+            readings = new ArrayList<>(VitalsBlockCodec.decode(block.getPayload()));
+            readings.addAll(rows);
+            readings.sort(OLDEST_FIRST);
+        }
+        block.setPayload(VitalsBlockCodec.encode(readings));
+        block.setReadingCount(readings.size());
+        block.setArchivedAt(LocalDateTime.now());
+        archiveRepository.save(block);
+
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (MedicalData medicalData : rows) {
+            ids.add(medicalData.getId());
+        }
+        medicalDataJdbcRepository.deleteByIds(ids, batchSize);
+        logger.debug("Archived {} readings for userId {} on {} ({} bytes)",
+                rows.size(), userId, windowStart.toLocalDate(), block.getPayload().length);
+        return rows.size();
+    }
+
+    // Mesures archivées sur [from, to), bloc par bloc
+    public void forEachArchived(long userId, LocalDateTime from, LocalDateTime to, Consumer<MedicalData> consumer) {
+        for (MedicalDataArchive block : archiveRepository.findOverlapping(userId, from, to, Pageable.unpaged())) {
+            for (MedicalData medicalData : VitalsBlockCodec.decode(block.getPayload())) {
+                if (!medicalData.getRecordedAt().isBefore(from) && medicalData.getRecordedAt().isBefore(to)) {
+                    consumer.accept(medicalData);
+                }
+            }
+        }
+    }
+
+    // Parcours de toutes les mesures archivées d'un patient, bloc par bloc
+    public long forEachArchived(long userId, Consumer<MedicalData> consumer) {
+        long count = 0;
+        for (MedicalDataArchive block : archiveRepository.findByUserIdOrderByWindowStart(userId)) {
+            for (MedicalData medicalData : VitalsBlockCodec.decode(block.getPayload())) {
+                consumer.accept(medicalData);
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.repository.MedicalDataJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Tâche nocturne qui déplace vers le niveau froid les journées plus anciennes que
+ * {@code medical-data.archive.after-days}, un patient et une journée à la fois, sans
+ * dépasser {@code medical-data.archive.max-blocks-per-run} blocs par passage.
+ * <p>
+ * Désactivée par défaut : les lignes archivées quittent la table {@code medical_data}, ce
+ * qui doit être un choix explicite du déploiement ({@code medical-data.archive.enabled=true}).
+ */
+@Component
+public class MedicalDataArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(MedicalDataArchiver.class);
+
+    private final MedicalDataArchiveService archiveService;
+    private final MedicalDataJdbcRepository medicalDataJdbcRepository;
+    private final boolean enabled;
+    private final int afterDays;
+    private final int maxBlocksPerRun;
+
+    public MedicalDataArchiver(MedicalDataArchiveService archiveService,
+                               MedicalDataJdbcRepository medicalDataJdbcRepository,
+                               @Value("${medical-data.archive.enabled:false}") boolean enabled,
+                               @Value("${medical-data.archive.after-days:30}") int afterDays,
+                               @Value("${medical-data.archive.max-blocks-per-run:100000}") int maxBlocksPerRun) {
+        this.archiveService = archiveService;
+        this.medicalDataJdbcRepository = medicalDataJdbcRepository;
+        this.enabled = enabled;
+        this.afterDays = afterDays;
+        this.maxBlocksPerRun = maxBlocksPerRun;
+    }
+
+    @Scheduled(cron = "${medical-data.archive.cron:0 30 3 * * *}")
+    public void archiveClosedWindows() {
+        if (!enabled) {
+            return;
+        }
+        archiveBefore(LocalDate.now().minusDays(afterDays).atStartOfDay());
+    }
+
+    /**
+     * Archive toutes les journées entièrement antérieures à {@code cutoff} (début de journée).
+     *
+     * @return nombre de blocs écrits
+     */
+    public int archiveBefore(LocalDateTime cutoff) {
+        int blocks = 0;
+        long readings = 0;
+        for (Long userId : medicalDataJdbcRepository.findUserIdsWithReadingsBefore(cutoff)) {
+            try {
+                LocalDateTime oldest;
+                while (blocks < maxBlocksPerRun
+                        && (oldest = medicalDataJdbcRepository.findOldestRecordedAt(userId, cutoff)) != null) {
+                    readings += archiveService.archiveWindow(userId, oldest.toLocalDate().atStartOfDay());
+                    blocks++;
+                }
+            } catch (DataAccessException e) {
+                // Conflit avec une autre instance ou erreur base : le patient sera repris au prochain passage
+                logger.error("Archiving failed for userId {}: {}", userId, e.getMessage());
+            }
+            if (blocks >= maxBlocksPerRun) {
+                logger.info("Archive run stopped after {} blocks, remaining windows will be archived next run", blocks);
+                break;
+            }
+        }
+        if (blocks > 0) {
+            logger.info("Archived {} readings into {} blocks (cutoff {})", readings, blocks, cutoff);
+        }
+        return blocks;
+    }
+}
@@ -1,29 +1,82 @@
 package com.example.healthcare.service;
 
+import com.example.healthcare.Model.IngestDeadLetter;
+import com.example.healthcare.Model.IngestLogCheckpoint;
 import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.MedicalDataBatchResult;
+import com.example.healthcare.Model.MedicalDataDTO;
+import com.example.healthcare.Model.MedicalDataPage;
 import com.example.healthcare.Model.User;
 import com.example.healthcare.exception.ResourceNotFoundException;
+import com.example.healthcare.repository.IngestDeadLetterRepository;
+import com.example.healthcare.repository.IngestLogCheckpointRepository;
+import com.example.healthcare.repository.MedicalDataJdbcRepository;
 import com.example.healthcare.repository.MedicalDataRepository;
 import com.example.healthcare.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class MedicalDataService {
 
     private static final Logger logger = LoggerFactory.getLogger(MedicalDataService.class);
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    // Bornes utilisées quand la période n'est pas précisée (compatibles DATETIME MySQL)
+    private static final LocalDateTime MIN_RECORDED_AT = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_RECORDED_AT = LocalDateTime.of(9999, 1, 1, 0, 0);
+
     private MedicalDataRepository medicalDataRepository;
 
     private UserRepository userRepository;
 
     @Autowired
-    private EmailService emailService;
+    private VitalAlertService vitalAlertService;
+
+    @Autowired
+    private VitalRollupService vitalRollupService;
+
+    @Autowired
+    private LatestVitalsService latestVitalsService;
+
+    @Autowired
+    private VitalSeriesService vitalSeriesService;
+
+    @Autowired
+    private MedicalDataJdbcRepository medicalDataJdbcRepository;
+
+    @Autowired
+    private IngestLogService ingestLogService;
+
+    @Autowired
+    private IngestLogCheckpointRepository ingestLogCheckpointRepository;
+
+    @Autowired
+    private IngestDeadLetterRepository ingestDeadLetterRepository;
+
+    @Autowired
+    private KnownPatientCache knownPatientCache;
+
+    @Value("${medical-data.batch.size:1000}")
+    private int batchSize;
 
     @Autowired
     public MedicalDataService(MedicalDataRepository medicalDataRepository, UserRepository userRepository) {
@@ -31,6 +84,7 @@ public class MedicalDataService {
         this.userRepository = userRepository;
     }
 
+    @Transactional
     public MedicalData addMedicalData(Long userId, MedicalData medicalData) {
         logger.info("Adding medical data for userId: {}", userId);
         User user = userRepository.findById(userId)
@@ -38,73 +92,206 @@ public class MedicalDataService {
         medicalData.setUser(user);
         medicalData.setRecordedAt(LocalDateTime.now());
 
-        // Vérifier les valeurs anormales et envoyer des alertes si nécessaire
-        checkForAbnormalValues(medicalData);
-
         MedicalData savedData = medicalDataRepository.save(medicalData);
+        vitalRollupService.record(user.getId(), List.of(savedData));
+        latestVitalsService.recordWritten(user.getId(), List.of(savedData));
+        vitalSeriesService.recordWritten(user.getId(), List.of(savedData));
+
+        // Les alertes sont mises en file dans la même transaction et envoyées par AlertOutboxProcessor
+        vitalAlertService.check(savedData);
+
         logger.info("Medical data added successfully: {}", savedData);
         return savedData;
     }
 
-    public List<MedicalData> getMedicalDataByUserId(Long userId) {
+    /**
+     * Enregistre un lot de mesures d'un patient : validation en une passe, un seul chargement
+     * de l'utilisateur, puis INSERT JDBC par lots de {@code medical-data.batch.size}.
+     */
+    @Transactional
+    public MedicalDataBatchResult addMedicalDataBatch(Long userId, List<MedicalDataDTO> readings) {
+        logger.info("Adding batch of {} medical data entries for userId: {}", readings.size(), userId);
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
-        return medicalDataRepository.findByUser(user);
+
+        MedicalDataBatchResult result = new MedicalDataBatchResult(readings.size());
+        List<MedicalData> accepted = validateBatch(user, readings, result);
+        result.setAccepted(storeReadings(user, accepted));
+        logger.info("Batch for userId {}: {} accepted, {} rejected", userId, result.getAccepted(), result.getRejected());
+        return result;
     }
 
-    private void checkForAbnormalValues(MedicalData medicalData) {
-        User user = medicalData.getUser();
-        StringBuilder alertMessage = new StringBuilder("Alerte de santé pour " + user.getName() + ":\n");
+    /**
+     * Mode journal d'ingestion : les mesures validées sont ajoutées au journal local et
+     * seront chargées en base par {@link IngestLogService}. Un id inconnu est refusé comme
+     * hors journal, d'après {@link KnownPatientCache} ; si la base est injoignable, les
+     * mesures sont acceptées et celles d'un patient inconnu iront dans ingest_dead_letter.
+     */
+    public MedicalDataBatchResult logMedicalDataBatch(Long userId, List<MedicalDataDTO> readings) {
+        ensureKnownPatient(userId);
+        MedicalDataBatchResult result = new MedicalDataBatchResult(readings.size());
+        List<MedicalData> accepted = validateBatch(null, readings, result);
+        ingestLogService.append(userId, accepted);
+        result.setAccepted(accepted.size());
+        logger.debug("Logged {} readings for userId {}", accepted.size(), userId);
+        return result;
+    }
 
-        boolean hasAbnormalValue = false;
+    private void ensureKnownPatient(Long userId) {
+        boolean known;
+        try {
+            known = knownPatientCache.isKnown(userId);
+        } catch (DataAccessException | TransactionException e) {
+            // Le journal reste disponible sans la base ; un id inconnu sera mis de côté au chargement
+            logger.warn("Could not check userId {} before logging readings, accepting them: {}", userId, e.getMessage());
+            return;
+        }
+        if (!known) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+    }
 
-        if (medicalData.getBloodSugar() != null) {
-            double bloodSugar = medicalData.getBloodSugar();
-            if (bloodSugar < 70 || bloodSugar > 130) {
-                hasAbnormalValue = true;
-                alertMessage.append("Glycémie anormale détectée : ").append(bloodSugar).append(" mg/dL (normale : 70-130 mg/dL)\n");
-                logger.warn("Abnormal blood sugar detected for userId {}: {}", user.getId(), bloodSugar);
+    /**
+     * Charge en base une tranche du journal d'ingestion et avance son point de reprise dans
+     * la même transaction. Les mesures d'un patient inconnu sont copiées dans
+     * ingest_dead_letter. Renvoie le nombre de mesures mises de côté.
+     */
+    @Transactional
+    public int storeLoggedReadings(Map<Long, List<MedicalData>> readingsByUser, IngestLogCheckpoint checkpoint) {
+        Map<Long, List<MedicalData>> unknown = new HashMap<>(readingsByUser);
+        for (User user : userRepository.findAllById(readingsByUser.keySet())) {
+            storeReadings(user, unknown.remove(user.getId()));
+        }
+        List<IngestDeadLetter> deadLetters = new ArrayList<>();
+        unknown.forEach((userId, readings) -> {
+            for (MedicalData medicalData : readings) {
+                deadLetters.add(new IngestDeadLetter(checkpoint.getLogId(), userId, medicalData,
+                        "User not found", checkpoint.getUpdatedAt()));
             }
+        });
+        if (!deadLetters.isEmpty()) {
+            ingestDeadLetterRepository.saveAll(deadLetters);
+            logger.warn("Moved {} logged readings of unknown patients {} to ingest_dead_letter",
+                    deadLetters.size(), unknown.keySet());
         }
+        ingestLogCheckpointRepository.save(checkpoint);
+        return deadLetters.size();
+    }
 
-        if (medicalData.getSystolicBloodPressure() != null) {
-            int systolicBP = medicalData.getSystolicBloodPressure();
-            if (systolicBP < 90 || systolicBP > 140) {
-                hasAbnormalValue = true;
-                alertMessage.append("Tension artérielle systolique anormale détectée : ").append(systolicBP).append(" mmHg (normale : 90-140 mmHg)\n");
-                logger.warn("Abnormal systolic blood pressure detected for userId {}: {}", user.getId(), systolicBP);
-            }
+    // Insertion de mesures validées avec leurs effets (agrégats, dernières valeurs, alertes)
+    private int storeReadings(User user, List<MedicalData> readings) {
+        for (MedicalData medicalData : readings) {
+            medicalData.setUser(user);
         }
+        int inserted = medicalDataJdbcRepository.insertBatch(user.getId(), readings, batchSize);
+        vitalRollupService.record(user.getId(), readings);
+        latestVitalsService.recordWritten(user.getId(), readings);
+        vitalSeriesService.recordWritten(user.getId(), readings);
+        vitalAlertService.check(user, readings);
+        return inserted;
+    }
 
-        if (medicalData.getDiastolicBloodPressure() != null) {
-            int diastolicBP = medicalData.getDiastolicBloodPressure();
-            if (diastolicBP < 60 || diastolicBP > 90) {
-                hasAbnormalValue = true;
-                alertMessage.append("Tension artérielle diastolique anormale détectée : ").append(diastolicBP).append(" mmHg (normale : 60-90 mmHg)\n");
-                logger.warn("Abnormal diastolic blood pressure detected for userId {}: {}", user.getId(), diastolicBP);
+    private List<MedicalData> validateBatch(User user, List<MedicalDataDTO> readings, MedicalDataBatchResult result) {
+        List<MedicalData> accepted = new ArrayList<>(readings.size());
+        LocalDateTime now = LocalDateTime.now();
+        // Tolérer un léger décalage d'horloge des appareils
+        LocalDateTime latestAllowed = now.plusMinutes(5);
+
+        for (int i = 0; i < readings.size(); i++) {
+            MedicalDataDTO dto = readings.get(i);
+            String error = validateReading(dto, latestAllowed);
+            if (error != null) {
+                result.reject(i, error);
+                continue;
             }
+            MedicalData medicalData = new MedicalData();
+            medicalData.setUser(user);
+            medicalData.setRecordedAt(dto.getRecordedAt() != null ? dto.getRecordedAt() : now);
+            medicalData.setBloodSugar(dto.getBloodSugar());
+            medicalData.setSystolicBloodPressure(dto.getSystolicBloodPressure());
+            medicalData.setDiastolicBloodPressure(dto.getDiastolicBloodPressure());
+            medicalData.setHeartRate(dto.getHeartRate());
+            accepted.add(medicalData);
         }
+        return accepted;
+    }
 
-        if (medicalData.getHeartRate() != null) {
-            int heartRate = medicalData.getHeartRate();
-            if (heartRate < 60 || heartRate > 100) {
-                hasAbnormalValue = true;
-                alertMessage.append("Fréquence cardiaque anormale détectée : ").append(heartRate).append(" bpm (normale : 60-100 bpm)\n");
-                logger.warn("Abnormal heart rate detected for userId {}: {}", user.getId(), heartRate);
-            }
+    private String validateReading(MedicalDataDTO dto, LocalDateTime latestAllowed) {
+        if (dto == null) {
+            return "Reading is empty";
+        }
+        if (dto.getBloodSugar() == null && dto.getSystolicBloodPressure() == null
+                && dto.getDiastolicBloodPressure() == null && dto.getHeartRate() == null) {
+            return "At least one measurement is required";
+        }
+        if (dto.getRecordedAt() != null && dto.getRecordedAt().isAfter(latestAllowed)) {
+            return "recordedAt is in the future";
+        }
+        if (dto.getBloodSugar() != null && (dto.getBloodSugar() <= 0 || dto.getBloodSugar() > 1000)) {
+            return "bloodSugar out of range";
+        }
+        if (dto.getSystolicBloodPressure() != null && (dto.getSystolicBloodPressure() <= 0 || dto.getSystolicBloodPressure() > 300)) {
+            return "systolicBloodPressure out of range";
+        }
+        if (dto.getDiastolicBloodPressure() != null && (dto.getDiastolicBloodPressure() <= 0 || dto.getDiastolicBloodPressure() > 250)) {
+            return "diastolicBloodPressure out of range";
+        }
+        if (dto.getHeartRate() != null && (dto.getHeartRate() <= 0 || dto.getHeartRate() > 300)) {
+            return "heartRate out of range";
+        }
+        return null;
+    }
+
+    public List<MedicalData> getMedicalDataByUserId(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        return medicalDataRepository.findByUser(user);
+    }
+
+    /**
+     * Page de mesures d'un patient sur [from, to), de la plus récente à la plus ancienne,
+     * lue par curseur (recordedAt, id) sur l'index (user_id, recorded_at, id).
+     */
+    public MedicalDataPage getMedicalDataPage(Long userId, LocalDateTime from, LocalDateTime to, Integer limit, String after) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        LocalDateTime rangeStart = from != null ? from : MIN_RECORDED_AT;
+        LocalDateTime rangeEnd = to != null ? to : MAX_RECORDED_AT;
+        // Lire une ligne de plus pour savoir s'il existe une page suivante
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+
+        List<MedicalData> rows;
+        if (after == null || after.isBlank()) {
+            rows = medicalDataRepository.findPage(userId, rangeStart, rangeEnd, pageRequest);
+        } else {
+            Cursor cursor = Cursor.decode(after);
+            rows = medicalDataRepository.findPageAfter(userId, rangeStart, rangeEnd, cursor.recordedAt(), cursor.id(), pageRequest);
         }
 
-        if (hasAbnormalValue) {
-            sendAlert(user, alertMessage.toString());
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            MedicalData last = rows.get(pageSize - 1);
+            nextCursor = new Cursor(last.getRecordedAt(), last.getId()).encode();
         }
+        return new MedicalDataPage(rows, nextCursor, pageSize);
     }
 
-    private void sendAlert(User user, String message) {
-        emailService.sendEmail(
-                user.getEmail(),
-                "Alerte de Santé - Valeurs Anormales Détectées",
-                message
-        );
-        logger.info("Alert sent to user {}: {}", user.getEmail(), message);
+    // Curseur opaque : base64url("recordedAt|id")
+    record Cursor(LocalDateTime recordedAt, Long id) {
+
+        String encode() {
+            String raw = recordedAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String value) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + value);
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.RefreshToken;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.exception.InvalidRefreshTokenException;
+import com.example.healthcare.repository.RefreshTokenRepository;
+import com.example.healthcare.security.TokenDigest;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Refresh tokens opaques et rotatifs. Seule l'empreinte SHA-256 est stockée ; chaque échange
+ * invalide l'ancien token, et la réutilisation d'un token déjà échangé révoque toute sa famille,
+ * y compris les access tokens émis pour elle (claim {@code sid}, via {@link TokenBlacklistService}).
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenBlacklistService tokenBlacklistService;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final long validityMillis;
+    private final long accessTokenValidityMillis;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               TokenBlacklistService tokenBlacklistService,
+                               @Value("${jwt.refresh-token.validity-ms:2592000000}") long validityMillis,
+                               @Value("${jwt.access-token.validity-ms:36000000}") long accessTokenValidityMillis) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.tokenBlacklistService = tokenBlacklistService;
+        this.validityMillis = validityMillis;
+        this.accessTokenValidityMillis = accessTokenValidityMillis;
+    }
+
+    public record IssuedToken(String familyId, String refreshToken) {
+    }
+
+    public record Rotation(User user, String familyId, String refreshToken) {
+    }
+
+    // Émettre le premier refresh token d'une nouvelle session
+    public IssuedToken issue(User user) {
+        String familyId = UUID.randomUUID().toString();
+        return new IssuedToken(familyId, issue(user, familyId));
+    }
+
+    private String issue(User user, String familyId) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        LocalDateTime expiresAt = LocalDateTime.now().plus(Duration.ofMillis(validityMillis));
+        refreshTokenRepository.save(new RefreshToken(TokenDigest.of(rawToken), familyId, user, expiresAt));
+        return rawToken;
+    }
+
+    // Échanger un refresh token valide contre un nouveau de la même famille
+    @Transactional(dontRollbackOn = InvalidRefreshTokenException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(TokenDigest.of(rawToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Unknown refresh token"));
+        if (stored.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new InvalidRefreshTokenException("Refresh token has expired");
+        }
+
+        // La lecture ne suffit pas : deux requêtes concurrentes verraient toutes deux rotatedAt à null
+        if (refreshTokenRepository.markRotated(stored.getId(), LocalDateTime.now()) == 0) {
+            // Un token déjà échangé ou révoqué est présenté à nouveau : il a probablement été volé
+            revokeFamily(stored.getFamilyId());
+            logger.warn("Refresh token reuse detected for userId {}, family {} revoked",
+                    stored.getUser().getId(), stored.getFamilyId());
+            throw new InvalidRefreshTokenException("Refresh token has been revoked");
+        }
+        User user = stored.getUser();
+        return new Rotation(user, stored.getFamilyId(), issue(user, stored.getFamilyId()));
+    }
+
+    // Révoquer toute la session à laquelle appartient ce refresh token
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(TokenDigest.of(rawToken))
+                .ifPresent(stored -> revokeFamily(stored.getFamilyId()));
+    }
+
+    // Refresh tokens de la famille, puis access tokens émis pour elle jusqu'à leur expiration
+    private void revokeFamily(String familyId) {
+        refreshTokenRepository.revokeFamily(familyId);
+        tokenBlacklistService.revokeSession(familyId, LocalDateTime.now().plus(Duration.ofMillis(accessTokenValidityMillis)));
+    }
+
+    @Transactional
+    public int cleanupExpiredTokens() {
+        return refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+}
@@ -2,29 +2,190 @@ package com.example.healthcare.service;
 
 import com.example.healthcare.Model.BlacklistedToken;
 import com.example.healthcare.repository.BlacklistedTokenRepository;
+import com.example.healthcare.security.RevocationBroadcaster;
+import com.example.healthcare.security.RevocationEvent;
+import com.example.healthcare.security.TokenDigest;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class TokenBlacklistService {
 
+    private static final Logger logger = LoggerFactory.getLogger(TokenBlacklistService.class);
+
+    // Recouvrement entre deux rattrapages, pour les transactions lentes et le décalage d'horloge entre nœuds
+    private static final long CATCH_UP_OVERLAP_SECONDS = 30;
+
     private final BlacklistedTokenRepository blacklistedTokenRepository;
+    private final RevocationBroadcaster revocationBroadcaster;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // Empreinte SHA-256 du token -> date d'expiration. Un token absent de cette
+    // table n'est pas blacklisté, ce qui évite une requête SQL pour la quasi-totalité des appels.
+    private final Map<String, LocalDateTime> revokedDigests = new ConcurrentHashMap<>();
 
-    public TokenBlacklistService(BlacklistedTokenRepository blacklistedTokenRepository) {
+    private volatile LocalDateTime catchUpWatermark = LocalDateTime.now();
+
+    public TokenBlacklistService(BlacklistedTokenRepository blacklistedTokenRepository,
+                                 RevocationBroadcaster revocationBroadcaster) {
         this.blacklistedTokenRepository = blacklistedTokenRepository;
+        this.revocationBroadcaster = revocationBroadcaster;
+    }
+
+    // Reconstruire la table en mémoire depuis blacklisted_tokens au démarrage
+    @PostConstruct
+    public void loadBlacklist() {
+        revocationBroadcaster.subscribe(this::applyRemoteRevocation);
+        catchUpWatermark = LocalDateTime.now();
+        migrateLegacyRows();
+        revokedDigests.clear();
+        for (BlacklistedToken blacklistedToken : blacklistedTokenRepository.findByExpiryDateAfter(LocalDateTime.now())) {
+            revokedDigests.put(blacklistedToken.getTokenDigest(), blacklistedToken.getExpiryDate());
+        }
+        logger.info("Loaded {} blacklisted tokens into memory", revokedDigests.size());
+    }
+
+    // Les anciennes lignes stockaient le JWT complet : le remplacer par son empreinte
+    private void migrateLegacyRows() {
+        List<BlacklistedToken> legacyRows = blacklistedTokenRepository.findByExpiryDayIsNull();
+        if (legacyRows.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<BlacklistedToken> expired = new ArrayList<>();
+        for (BlacklistedToken row : legacyRows) {
+            if (row.getExpiryDate().isBefore(now)) {
+                expired.add(row);
+                continue;
+            }
+            row.setTokenDigest(TokenDigest.of(row.getTokenDigest()));
+            row.setExpiryDay(row.getExpiryDate().toLocalDate());
+        }
+        legacyRows.removeAll(expired);
+        blacklistedTokenRepository.deleteAllInBatch(expired);
+        blacklistedTokenRepository.saveAll(legacyRows);
+        logger.info("Migrated {} legacy blacklisted tokens to digests, dropped {} expired", legacyRows.size(), expired.size());
     }
 
     public void blacklistToken(String token, LocalDateTime expiryDate) {
-        BlacklistedToken blacklistedToken = new BlacklistedToken(token, expiryDate);
-        blacklistedTokenRepository.save(blacklistedToken);
+        revokeDigest(TokenDigest.of(token), expiryDate);
+    }
+
+    /**
+     * Révoque tous les access tokens portant ce {@code sid} (famille de refresh tokens).
+     * L'entrée suit le même chemin qu'un token : table, mémoire, diffusion et rattrapage.
+     *
+     * @param expiryDate date après laquelle aucun access token de la session n'est encore valide
+     */
+    public void revokeSession(String sessionId, LocalDateTime expiryDate) {
+        String digest = sessionDigest(sessionId);
+        // Une session peut être révoquée deux fois (réutilisation puis déconnexion)
+        if (blacklistedTokenRepository.existsByTokenDigest(digest)) {
+            return;
+        }
+        revokeDigest(digest, expiryDate);
+    }
+
+    private void revokeDigest(String digest, LocalDateTime expiryDate) {
+        blacklistedTokenRepository.save(new BlacklistedToken(digest, expiryDate));
+        revokedDigests.put(digest, expiryDate);
+        revocationBroadcaster.publish(new RevocationEvent(digest, expiryDate, nodeId));
+    }
+
+    // Révocation faite sur une autre instance
+    void applyRemoteRevocation(RevocationEvent event) {
+        if (nodeId.equals(event.originNode()) || event.expiryDate().isBefore(LocalDateTime.now())) {
+            return;
+        }
+        revokedDigests.put(event.tokenDigest(), event.expiryDate());
+    }
+
+    /**
+     * Rattrape les révocations dont l'événement a été perdu, en relisant les lignes
+     * ajoutées à blacklisted_tokens depuis le dernier passage.
+     */
+    public int catchUpFromDatabase() {
+        LocalDateTime pollStart = LocalDateTime.now();
+        List<BlacklistedToken> recent = blacklistedTokenRepository
+                .findByBlacklistedAtAfter(catchUpWatermark.minusSeconds(CATCH_UP_OVERLAP_SECONDS));
+        int added = 0;
+        for (BlacklistedToken blacklistedToken : recent) {
+            if (blacklistedToken.getExpiryDate().isAfter(pollStart)
+                    && revokedDigests.putIfAbsent(blacklistedToken.getTokenDigest(), blacklistedToken.getExpiryDate()) == null) {
+                added++;
+            }
+        }
+        catchUpWatermark = pollStart;
+        if (added > 0) {
+            logger.info("Caught up {} blacklisted tokens revoked on other nodes", added);
+        }
+        return added;
     }
 
     public boolean isTokenBlacklisted(String token) {
-        return blacklistedTokenRepository.findByToken(token).isPresent();
+        return isDigestRevoked(TokenDigest.of(token));
+    }
+
+    public boolean isSessionRevoked(String sessionId) {
+        return sessionId != null && isDigestRevoked(sessionDigest(sessionId));
+    }
+
+    // Préfixe : l'empreinte d'une session ne peut pas coïncider avec celle d'un JWT
+    private static String sessionDigest(String sessionId) {
+        return TokenDigest.of("session:" + sessionId);
+    }
+
+    private boolean isDigestRevoked(String digest) {
+        LocalDateTime expiryDate = revokedDigests.get(digest);
+        if (expiryDate == null) {
+            return false;
+        }
+        if (expiryDate.isBefore(LocalDateTime.now())) {
+            revokedDigests.remove(digest, expiryDate);
+            return false;
+        }
+        // Touche possible : confirmer avec la base
+        return blacklistedTokenRepository.existsByTokenDigest(digest);
+    }
+
+    public void pruneExpiredEntries() {
+        LocalDateTime now = LocalDateTime.now();
+        revokedDigests.values().removeIf(expiryDate -> expiryDate.isBefore(now));
     }
 
-    public void cleanupExpiredTokens() {
-        blacklistedTokenRepository.deleteByExpiryDateBefore(LocalDateTime.now());
+    /**
+     * Supprime, par lots de {@code chunkSize} lignes, les tokens dont le jour d'expiration
+     * est entièrement passé. Chaque lot est un unique DELETE ... WHERE id IN (...).
+     */
+    public int purgeExpiredBuckets(int chunkSize, int maxChunks) {
+        LocalDate today = LocalDate.now();
+        int deleted = 0;
+        for (int chunk = 0; chunk < maxChunks; chunk++) {
+            List<Long> ids = blacklistedTokenRepository.findIdsExpiringBefore(today, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            blacklistedTokenRepository.deleteAllByIdInBatch(ids);
+            deleted += ids.size();
+            if (ids.size() < chunkSize) {
+                break;
+            }
+        }
+        pruneExpiredEntries();
+        if (deleted > 0) {
+            logger.info("Purged {} expired blacklisted tokens", deleted);
+        }
+        return deleted;
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.example.healthcare.service;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -7,13 +8,39 @@ import org.springframework.stereotype.Component;
 public class TokenCleanupScheduler {
 
     private final TokenBlacklistService tokenBlacklistService;
+    private final RefreshTokenService refreshTokenService;
+    private final int purgeChunkSize;
+    private final int purgeMaxChunks;
 
-    public TokenCleanupScheduler(TokenBlacklistService tokenBlacklistService) {
+    public TokenCleanupScheduler(TokenBlacklistService tokenBlacklistService,
+                                 RefreshTokenService refreshTokenService,
+                                 @Value("${token.blacklist.purge-chunk-size:1000}") int purgeChunkSize,
+                                 @Value("${token.blacklist.purge-max-chunks:10}") int purgeMaxChunks) {
         this.tokenBlacklistService = tokenBlacklistService;
+        this.refreshTokenService = refreshTokenService;
+        this.purgeChunkSize = purgeChunkSize;
+        this.purgeMaxChunks = purgeMaxChunks;
     }
 
     @Scheduled(cron = "0 0 0 * * ?") // Exécuter tous les jours à minuit
     public void cleanupExpiredTokens() {
-        tokenBlacklistService.cleanupExpiredTokens();
+        refreshTokenService.cleanupExpiredTokens();
     }
-}
\ No newline at end of file
+
+    // Purge incrémentale de la blacklist, étalée sur la journée plutôt qu'à minuit
+    @Scheduled(fixedDelayString = "${token.blacklist.purge-interval-ms:600000}")
+    public void purgeBlacklist() {
+        tokenBlacklistService.purgeExpiredBuckets(purgeChunkSize, purgeMaxChunks);
+    }
+
+    // Rattraper les révocations faites sur les autres instances
+    @Scheduled(fixedDelayString = "${token.revocation.catch-up-interval-ms:30000}")
+    public void catchUpRevocations() {
+        tokenBlacklistService.catchUpFromDatabase();
+    }
+
+    @Scheduled(fixedRate = 300000) // Purger la blacklist en mémoire toutes les 5 minutes
+    public void pruneInMemoryBlacklist() {
+        tokenBlacklistService.pruneExpiredEntries();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.util.ExpiringCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cache borné des UserDetails chargés par CustomUserDetailService. Les entrées expirent
+ * après un TTL court et peuvent être invalidées quand un utilisateur change.
+ */
+@Service
+public class UserDetailsCache {
+
+    private final CustomUserDetailService customUserDetailService;
+    private final ExpiringCache<String, UserDetails> cache;
+    private final long ttlMillis;
+
+    public UserDetailsCache(CustomUserDetailService customUserDetailService,
+                            @Value("${jwt.auth.user-cache.max-size:10000}") int maxSize,
+                            @Value("${jwt.auth.user-cache.ttl-ms:60000}") long ttlMillis) {
+        this.customUserDetailService = customUserDetailService;
+        this.cache = new ExpiringCache<>(maxSize);
+        this.ttlMillis = ttlMillis;
+    }
+
+    public UserDetails loadUserByUsername(String email) {
+        UserDetails userDetails = cache.get(email);
+        if (userDetails == null) {
+            userDetails = customUserDetailService.loadUserByUsername(email);
+            cache.put(email, userDetails, System.currentTimeMillis() + ttlMillis);
+        }
+        return userDetails;
+    }
+
+    public void invalidate(String email) {
+        cache.invalidate(email);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.User;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Contrôle des mesures enregistrées : seuils du patient ({@link VitalRuleEngine}), puis écarts
+ * par rapport à son historique ({@link VitalAnomalyDetector}). Les mesures anormales donnent
+ * une alerte mise en file dans {@code alert_outbox}, dans la transaction de l'appelant.
+ */
+@Service
+public class VitalAlertService {
+
+    // Au-delà, l'alerte d'un lot se contente de compter les mesures anormales restantes
+    private static final int MAX_DETAILED_READINGS = 50;
+
+    private final VitalRuleEngine vitalRuleEngine;
+    private final VitalAnomalyDetector vitalAnomalyDetector;
+    private final AlertOutboxService alertOutboxService;
+
+    public VitalAlertService(VitalRuleEngine vitalRuleEngine,
+                             VitalAnomalyDetector vitalAnomalyDetector,
+                             AlertOutboxService alertOutboxService) {
+        this.vitalRuleEngine = vitalRuleEngine;
+        this.vitalAnomalyDetector = vitalAnomalyDetector;
+        this.alertOutboxService = alertOutboxService;
+    }
+
+    public void check(MedicalData medicalData) {
+        User user = medicalData.getUser();
+        VitalRuleEngine.RuleSet rules = vitalRuleEngine.rulesFor(user);
+        int violations = vitalRuleEngine.evaluate(rules, medicalData);
+        VitalAnomalyDetector.Observation observation = vitalAnomalyDetector.observe(user.getId(), medicalData);
+        int deviations = observation.deviations() & ~violations;
+        if ((violations | deviations) != 0) {
+            queueAlert(user, "Mesure du " + medicalData.getRecordedAt() + " :\n"
+                    + describeAbnormalValues(rules, medicalData, violations, observation, deviations));
+        }
+    }
+
+    // Une seule alerte pour toutes les mesures anormales d'un lot ; les règles sont résolues une fois
+    public void check(User user, List<MedicalData> readings) {
+        VitalRuleEngine.RuleSet rules = vitalRuleEngine.rulesFor(user);
+        StringBuilder alertMessage = null;
+        int abnormalReadings = 0;
+        for (MedicalData medicalData : readings) {
+            int violations = vitalRuleEngine.evaluate(rules, medicalData);
+            VitalAnomalyDetector.Observation observation = vitalAnomalyDetector.observe(user.getId(), medicalData);
+            int deviations = observation.deviations() & ~violations;
+            if ((violations | deviations) == 0) {
+                continue;
+            }
+            if (alertMessage == null) {
+                alertMessage = new StringBuilder();
+            }
+            if (++abnormalReadings <= MAX_DETAILED_READINGS) {
+                alertMessage.append("Mesure du ").append(medicalData.getRecordedAt()).append(" :\n")
+                        .append(describeAbnormalValues(rules, medicalData, violations, observation, deviations));
+            }
+        }
+        if (alertMessage != null) {
+            if (abnormalReadings > MAX_DETAILED_READINGS) {
+                alertMessage.append("... et ").append(abnormalReadings - MAX_DETAILED_READINGS)
+                        .append(" autres mesures anormales\n");
+            }
+            queueAlert(user, alertMessage.toString());
+        }
+    }
+
+    // Dépassements des seuils, puis écarts par rapport à l'historique du patient (déjà exclus des premiers)
+    private String describeAbnormalValues(VitalRuleEngine.RuleSet rules, MedicalData medicalData, int violations,
+                                          VitalAnomalyDetector.Observation observation, int deviations) {
+        Long userId = medicalData.getUser().getId();
+        if (deviations == 0) {
+            return vitalRuleEngine.describe(rules, medicalData, violations, userId);
+        }
+        return vitalRuleEngine.describe(rules, medicalData, violations, userId)
+                + vitalAnomalyDetector.describe(userId, medicalData, observation, deviations);
+    }
+
+    private void queueAlert(User user, String message) {
+        alertOutboxService.enqueue(user, message);
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.VitalBaseline;
+import com.example.healthcare.Model.VitalMetric;
+import com.example.healthcare.repository.VitalBaselineJdbcRepository;
+import com.example.healthcare.repository.VitalBaselineRepository;
+import com.example.healthcare.util.ConcurrentLongMap;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Détection d'écarts par rapport à l'historique propre à chaque patient.
+ * <p>
+ * Pour chaque patient et chaque mesure, on maintient une moyenne et une variance
+ * exponentiellement pondérées (EWMA) ; une mesure est signalée quand son z-score dépasse
+ * {@code vitals.anomaly.z-threshold} après {@code vitals.anomaly.min-samples} mesures.
+ * Le coût par mesure est constant, quelle que soit la longueur de l'historique.
+ * <p>
+ * Les états sont gardés dans une {@link ConcurrentLongMap} indexée par l'id du patient,
+ * restaurés depuis {@code vital_baseline} à la première mesure reçue après un redémarrage,
+ * et sauvegardés toutes les {@code vitals.anomaly.flush-interval-ms}.
+ */
+@Service
+public class VitalAnomalyDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(VitalAnomalyDetector.class);
+
+    private static final VitalMetric[] METRICS = VitalMetric.values();
+
+    private final VitalBaselineRepository baselineRepository;
+    private final VitalBaselineJdbcRepository baselineJdbcRepository;
+    private final ConcurrentLongMap<PatientBaseline> baselines = new ConcurrentLongMap<>();
+
+    private final boolean enabled;
+    private final double alpha;
+    private final double zThreshold;
+    private final long minSamples;
+    private final double minStdDev;
+    private final long idleEvictMillis;
+
+    @Value("${vitals.anomaly.flush-batch-size:500}")
+    private int flushBatchSize = 500;
+
+    public VitalAnomalyDetector(VitalBaselineRepository baselineRepository,
+                                VitalBaselineJdbcRepository baselineJdbcRepository,
+                                @Value("${vitals.anomaly.enabled:true}") boolean enabled,
+                                @Value("${vitals.anomaly.alpha:0.1}") double alpha,
+                                @Value("${vitals.anomaly.z-threshold:3.0}") double zThreshold,
+                                @Value("${vitals.anomaly.min-samples:20}") long minSamples,
+                                @Value("${vitals.anomaly.min-std-dev:1.0}") double minStdDev,
+                                @Value("${vitals.anomaly.idle-evict-ms:3600000}") long idleEvictMillis) {
+        if (alpha <= 0 || alpha >= 1) {
+            throw new IllegalArgumentException("vitals.anomaly.alpha must be in (0, 1)");
+        }
+        this.baselineRepository = baselineRepository;
+        this.baselineJdbcRepository = baselineJdbcRepository;
+        this.enabled = enabled;
+        this.alpha = alpha;
+        this.zThreshold = zThreshold;
+        this.minSamples = minSamples;
+        this.minStdDev = minStdDev;
+        this.idleEvictMillis = idleEvictMillis;
+    }
+
+    /**
+     * Résultat d'un appel à {@link #observe} : masque des mesures inhabituelles
+     * (bit {@code 1 << ordinal}) et, pour celles-ci, la moyenne avant la mise à jour et le
+     * z-score. Copié sous le verrou du patient, il ne dépend pas des mesures suivantes.
+     */
+    public record Observation(int deviations, double[] previousMeans, double[] zScores) {
+
+        static final Observation NONE = new Observation(0, null, null);
+    }
+
+    /**
+     * Met à jour l'état du patient avec la mesure et renvoie les écarts détectés.
+     */
+    public Observation observe(long userId, MedicalData medicalData) {
+        if (!enabled) {
+            return Observation.NONE;
+        }
+        while (true) {
+            PatientBaseline baseline = baselines.get(userId);
+            if (baseline == null) {
+                baseline = restore(userId);
+            }
+            Observation observation = baseline.observe(medicalData, alpha, zThreshold, minSamples, minStdDev);
+            if (observation != null) {
+                return observation;
+            }
+            // Évincé par flush() entre la lecture et la mise à jour : repartir de l'état sauvegardé
+        }
+    }
+
+    // Texte des écarts de deviations (sous-ensemble de observation.deviations())
+    public String describe(long userId, MedicalData medicalData, Observation observation, int deviations) {
+        deviations &= observation.deviations();
+        if (deviations == 0) {
+            return "";
+        }
+        StringBuilder message = new StringBuilder();
+        for (int i = 0; i < METRICS.length; i++) {
+            if ((deviations & (1 << i)) == 0) {
+                continue;
+            }
+            VitalMetric metric = METRICS[i];
+            double value = metric.read(medicalData);
+            double z = observation.zScores()[i];
+            message.append(String.format(Locale.ROOT,
+                    "%s inhabituelle pour ce patient : %s %s (moyenne habituelle : %.1f %s, écart : %.1f σ)\n",
+                    metric.getLabel(), metric.isIntegral() ? Long.toString((long) value) : Double.toString(value),
+                    metric.getUnit(), observation.previousMeans()[i], metric.getUnit(), z));
+            logger.warn("Unusual {} for userId {}: {} (z = {})", metric, userId, value, z);
+        }
+        return message.toString();
+    }
+
+    private PatientBaseline restore(long userId) {
+        PatientBaseline restored = new PatientBaseline();
+        for (VitalBaseline row : baselineRepository.findByUserId(userId)) {
+            int i = row.getMetric().ordinal();
+            restored.mean[i] = row.getMean();
+            restored.variance[i] = row.getVariance();
+            restored.lastValue[i] = row.getLastValue();
+            restored.count[i] = row.getSampleCount();
+        }
+        PatientBaseline existing = baselines.putIfAbsent(userId, restored);
+        return existing != null ? existing : restored;
+    }
+
+    @Scheduled(fixedDelayString = "${vitals.anomaly.flush-interval-ms:30000}")
+    public void flush() {
+        LocalDateTime now = LocalDateTime.now();
+        List<VitalBaseline> dirty = new ArrayList<>();
+        baselines.forEach((userId, baseline) -> baseline.drainDirty(userId, now, dirty));
+        if (!dirty.isEmpty()) {
+            try {
+                baselineJdbcRepository.upsertAll(dirty, flushBatchSize);
+                logger.debug("Saved {} vital baselines", dirty.size());
+            } catch (DataAccessException e) {
+                // Réessayer au prochain passage
+                logger.error("Failed to save {} vital baselines: {}", dirty.size(), e.getMessage());
+                for (VitalBaseline row : dirty) {
+                    PatientBaseline baseline = baselines.get(row.getUserId());
+                    if (baseline != null) {
+                        baseline.markDirty(row.getMetric().ordinal());
+                    }
+                }
+            }
+        }
+
+        // Les patients inactifs sont retirés de la mémoire ; leur état est déjà sauvegardé
+        long idleBefore = System.currentTimeMillis() - idleEvictMillis;
+        int evicted = baselines.removeIf((userId, baseline) -> baseline.retireIfIdleSince(idleBefore));
+        if (evicted > 0) {
+            logger.debug("Evicted {} idle vital baselines", evicted);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    int trackedPatients() {
+        return baselines.size();
+    }
+
+    /**
+     * État EWMA des quatre mesures d'un patient, indexé par {@link VitalMetric#ordinal()}.
+     */
+    static final class PatientBaseline {
+        final double[] mean = new double[METRICS.length];
+        final double[] variance = new double[METRICS.length];
+        final double[] lastValue = new double[METRICS.length];
+        final long[] count = new long[METRICS.length];
+        // Bits des mesures modifiées depuis la dernière sauvegarde
+        int dirtyMetrics;
+        long lastSeenMillis = System.currentTimeMillis();
+        // Retiré de la table : un appelant qui l'a obtenu avant doit en reprendre un neuf
+        boolean retired;
+
+        // null si l'état a été retiré de la table : la mesure n'a pas été prise en compte
+        synchronized Observation observe(MedicalData medicalData, double alpha, double zThreshold,
+                                         long minSamples, double minStdDev) {
+            if (retired) {
+                return null;
+            }
+            int deviations = 0;
+            double[] previousMeans = null;
+            double[] zScores = null;
+            for (int i = 0; i < METRICS.length; i++) {
+                double x = METRICS[i].read(medicalData);
+                if (x != x) {
+                    continue;
+                }
+                if (count[i] == 0) {
+                    mean[i] = x;
+                    variance[i] = 0;
+                } else {
+                    double diff = x - mean[i];
+                    double z = diff / Math.max(Math.sqrt(variance[i]), minStdDev);
+                    if (count[i] >= minSamples && Math.abs(z) >= zThreshold) {
+                        if (deviations == 0) {
+                            previousMeans = new double[METRICS.length];
+                            zScores = new double[METRICS.length];
+                        }
+                        deviations |= 1 << i;
+                        previousMeans[i] = mean[i];
+                        zScores[i] = z;
+                    }
+                    // Moyenne et variance exponentiellement pondérées, mises à jour en une passe
+                    double increment = alpha * diff;
+                    mean[i] += increment;
+                    variance[i] = (1 - alpha) * (variance[i] + diff * increment);
+                }
+                lastValue[i] = x;
+                count[i]++;
+                dirtyMetrics |= 1 << i;
+            }
+            lastSeenMillis = System.currentTimeMillis();
+            return deviations == 0 ? Observation.NONE : new Observation(deviations, previousMeans, zScores);
+        }
+
+        synchronized void drainDirty(long userId, LocalDateTime now, List<VitalBaseline> out) {
+            for (int i = 0; i < METRICS.length; i++) {
+                if ((dirtyMetrics & (1 << i)) == 0) {
+                    continue;
+                }
+                VitalBaseline row = new VitalBaseline();
+                row.setUserId(userId);
+                row.setMetric(METRICS[i]);
+                row.setMean(mean[i]);
+                row.setVariance(variance[i]);
+                row.setLastValue(lastValue[i]);
+                row.setSampleCount(count[i]);
+                row.setUpdatedAt(now);
+                out.add(row);
+            }
+            dirtyMetrics = 0;
+        }
+
+        synchronized void markDirty(int metric) {
+            dirtyMetrics |= 1 << metric;
+        }
+
+        // Un état non sauvegardé n'est jamais retiré
+        synchronized boolean retireIfIdleSince(long millis) {
+            if (dirtyMetrics == 0 && lastSeenMillis < millis) {
+                retired = true;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.repository.MedicalDataJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Reconstruit les agrégats de tous les patients à partir de l'historique existant.
+ * Activé par {@code vitals.rollups.backfill-on-startup=true}, à lancer une fois après
+ * le déploiement des agrégats (de préférence hors des heures de pointe), puis à désactiver.
+ */
+@Component
+public class VitalRollupBackfillJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(VitalRollupBackfillJob.class);
+
+    private final VitalRollupService vitalRollupService;
+    private final MedicalDataJdbcRepository medicalDataJdbcRepository;
+    private final boolean backfillOnStartup;
+
+    public VitalRollupBackfillJob(VitalRollupService vitalRollupService,
+                                  MedicalDataJdbcRepository medicalDataJdbcRepository,
+                                  @Value("${vitals.rollups.backfill-on-startup:false}") boolean backfillOnStartup) {
+        this.vitalRollupService = vitalRollupService;
+        this.medicalDataJdbcRepository = medicalDataJdbcRepository;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (backfillOnStartup) {
+            Thread thread = new Thread(this::backfill, "vital-rollup-backfill");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    public void backfill() {
+        List<Long> userIds = medicalDataJdbcRepository.findUserIdsWithReadings();
+        logger.info("Starting rollup backfill for {} patients", userIds.size());
+        long readings = 0;
+        int done = 0;
+        for (Long userId : userIds) {
+            try {
+                readings += vitalRollupService.rebuild(userId);
+            } catch (Exception e) {
+                logger.error("Rollup backfill failed for userId {}: {}", userId, e.getMessage());
+            }
+            if (++done % 100 == 0) {
+                logger.info("Rollup backfill: {}/{} patients done", done, userIds.size());
+            }
+        }
+        logger.info("Rollup backfill finished: {} patients, {} readings", done, readings);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.RollupBucket;
+import com.example.healthcare.Model.RollupGranularity;
+import com.example.healthcare.Model.VitalRollupDTO;
+import com.example.healthcare.repository.MedicalDataJdbcRepository;
+import com.example.healthcare.repository.VitalRollupJdbcRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Agrégats horaires et journaliers des mesures, tenus à jour à chaque enregistrement
+ * pour que les graphiques de tendance lisent une ligne par intervalle au lieu de
+ * l'historique brut.
+ */
+@Service
+public class VitalRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VitalRollupService.class);
+
+    // Période affichée quand le client ne la précise pas
+    private static final int DEFAULT_DAYS = 90;
+    private static final int DEFAULT_HOURS = 7 * 24;
+
+    private final VitalRollupJdbcRepository rollupRepository;
+    private final MedicalDataJdbcRepository medicalDataJdbcRepository;
+    private final MedicalDataArchiveService archiveService;
+    private final int batchSize;
+
+    public VitalRollupService(VitalRollupJdbcRepository rollupRepository,
+                              MedicalDataJdbcRepository medicalDataJdbcRepository,
+                              MedicalDataArchiveService archiveService,
+                              @Value("${medical-data.batch.size:1000}") int batchSize) {
+        this.rollupRepository = rollupRepository;
+        this.medicalDataJdbcRepository = medicalDataJdbcRepository;
+        this.archiveService = archiveService;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Ajoute les mesures aux agrégats, dans la transaction de l'appelant : un seul upsert
+     * par intervalle touché, quel que soit le nombre de mesures.
+     */
+    @Transactional
+    public void record(long userId, List<MedicalData> readings) {
+        if (readings.isEmpty()) {
+            return;
+        }
+        rollupRepository.upsert(userId, aggregate(readings), batchSize);
+    }
+
+    public List<VitalRollupDTO> getRollups(long userId, RollupGranularity granularity,
+                                           LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from
+                : granularity == RollupGranularity.DAY ? end.minusDays(DEFAULT_DAYS) : end.minusHours(DEFAULT_HOURS);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        return rollupRepository.findRange(userId, granularity, granularity.bucketStart(start), end);
+    }
+
+    /**
+     * Recalcule entièrement les agrégats d'un patient depuis medical_data et les blocs archivés.
+     */
+    @Transactional
+    public int rebuild(long userId) {
+        rollupRepository.deleteByUserId(userId);
+        Map<LocalDateTime, RollupBucket> hourly = new LinkedHashMap<>();
+        Map<LocalDateTime, RollupBucket> daily = new LinkedHashMap<>();
+        int readings = 0;
+        long afterId = 0;
+        List<MedicalData> chunk;
+        do {
+            chunk = medicalDataJdbcRepository.findChunkAfterId(userId, afterId, batchSize);
+            for (MedicalData medicalData : chunk) {
+                if (medicalData.getRecordedAt() != null) {
+                    add(hourly, RollupGranularity.HOUR, medicalData);
+                    add(daily, RollupGranularity.DAY, medicalData);
+                }
+                afterId = medicalData.getId();
+            }
+            readings += chunk.size();
+        } while (chunk.size() == batchSize);
+        readings += archiveService.forEachArchived(userId, medicalData -> {
+            add(hourly, RollupGranularity.HOUR, medicalData);
+            add(daily, RollupGranularity.DAY, medicalData);
+        });
+
+        List<RollupBucket> buckets = new ArrayList<>(hourly.size() + daily.size());
+        buckets.addAll(hourly.values());
+        buckets.addAll(daily.values());
+        rollupRepository.upsert(userId, buckets, batchSize);
+        logger.info("Rebuilt {} rollups from {} readings for userId {}", buckets.size(), readings, userId);
+        return readings;
+    }
+
+    private static List<RollupBucket> aggregate(List<MedicalData> readings) {
+        Map<LocalDateTime, RollupBucket> hourly = new LinkedHashMap<>();
+        Map<LocalDateTime, RollupBucket> daily = new LinkedHashMap<>();
+        for (MedicalData medicalData : readings) {
+            add(hourly, RollupGranularity.HOUR, medicalData);
+            add(daily, RollupGranularity.DAY, medicalData);
+        }
+        List<RollupBucket> buckets = new ArrayList<>(hourly.size() + daily.size());
+        buckets.addAll(hourly.values());
+        buckets.addAll(daily.values());
+        return buckets;
+    }
+
+    private static void add(Map<LocalDateTime, RollupBucket> buckets, RollupGranularity granularity, MedicalData medicalData) {
+        LocalDateTime start = granularity.bucketStart(medicalData.getRecordedAt());
+        buckets.computeIfAbsent(start, key -> new RollupBucket(granularity, key)).add(medicalData);
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.Model.VitalMetric;
+import com.example.healthcare.Model.VitalThresholdDTO;
+import com.example.healthcare.Model.VitalThresholdOverride;
+import com.example.healthcare.config.VitalThresholdProperties;
+import com.example.healthcare.exception.ResourceNotFoundException;
+import com.example.healthcare.repository.UserRepository;
+import com.example.healthcare.repository.VitalThresholdOverrideRepository;
+import com.example.healthcare.util.ExpiringCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Seuils des constantes vitales compilés en tables de bornes primitives.
+ * <p>
+ * Les règles sont résolues une fois par patient ({@link #rulesFor}) puis {@link #evaluate}
+ * ne fait que des comparaisons de doubles et renvoie un masque des mesures hors limites :
+ * aucune allocation tant que la mesure est normale. Le message n'est construit par
+ * {@link #describe} qu'en cas de dépassement.
+ * <p>
+ * Priorité : seuil du patient, puis tranche d'âge, puis {@code vitals.thresholds.defaults},
+ * puis valeur historique de {@link VitalMetric}.
+ */
+@Service
+public class VitalRuleEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(VitalRuleEngine.class);
+
+    private static final VitalMetric[] METRICS = VitalMetric.values();
+
+    /**
+     * Bornes inclusives de chaque mesure, indexées par {@link VitalMetric#ordinal()}.
+     */
+    public static final class RuleSet {
+        private final double[] min;
+        private final double[] max;
+
+        private RuleSet(double[] min, double[] max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        public double min(VitalMetric metric) { return min[metric.ordinal()]; }
+        public double max(VitalMetric metric) { return max[metric.ordinal()]; }
+    }
+
+    private final VitalThresholdOverrideRepository overrideRepository;
+    private final UserRepository userRepository;
+    private final ExpiringCache<Long, RuleSet> resolvedRules;
+    private final long resolvedRulesTtlMillis;
+
+    // [0] = défaut, [i + 1] = tranche d'âge i
+    private final RuleSet[] baseRules;
+    private final int[] bandMinAge;
+    private final int[] bandMaxAge;
+
+    // Règles d'un patient compilées pour chaque entrée de baseRules ; remplacée en bloc
+    private volatile Map<Long, RuleSet[]> patientRules = Map.of();
+
+    public VitalRuleEngine(VitalThresholdProperties properties,
+                           VitalThresholdOverrideRepository overrideRepository,
+                           UserRepository userRepository,
+                           @Value("${vitals.thresholds.cache.max-size:10000}") int cacheMaxSize,
+                           @Value("${vitals.thresholds.cache.ttl-ms:600000}") long cacheTtlMillis) {
+        this.overrideRepository = overrideRepository;
+        this.userRepository = userRepository;
+        this.resolvedRules = new ExpiringCache<>(cacheMaxSize);
+        this.resolvedRulesTtlMillis = cacheTtlMillis;
+
+        double[] min = new double[METRICS.length];
+        double[] max = new double[METRICS.length];
+        for (VitalMetric metric : METRICS) {
+            min[metric.ordinal()] = metric.getDefaultMin();
+            max[metric.ordinal()] = metric.getDefaultMax();
+        }
+        RuleSet defaults = overlay(new RuleSet(min, max), properties.getDefaults());
+
+        List<VitalThresholdProperties.AgeBand> bands = properties.getAgeBands();
+        this.baseRules = new RuleSet[bands.size() + 1];
+        this.bandMinAge = new int[bands.size()];
+        this.bandMaxAge = new int[bands.size()];
+        baseRules[0] = defaults;
+        for (int i = 0; i < bands.size(); i++) {
+            VitalThresholdProperties.AgeBand band = bands.get(i);
+            bandMinAge[i] = band.getMinAge();
+            bandMaxAge[i] = band.getMaxAge() != null ? band.getMaxAge() : Integer.MAX_VALUE;
+            baseRules[i + 1] = overlay(defaults, band.getRanges());
+        }
+        logger.info("Vital thresholds compiled with {} age bands", bands.size());
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${vitals.thresholds.reload-interval-ms:60000}")
+    public void reloadOverrides() {
+        Map<Long, List<VitalThresholdOverride>> byUser = new HashMap<>();
+        for (VitalThresholdOverride override : overrideRepository.findAll()) {
+            byUser.computeIfAbsent(override.getUser().getId(), id -> new ArrayList<>()).add(override);
+        }
+        Map<Long, RuleSet[]> compiled = new HashMap<>(byUser.size());
+        byUser.forEach((userId, overrides) -> compiled.put(userId, compilePatient(overrides)));
+        synchronized (this) {
+            patientRules = Map.copyOf(compiled);
+            resolvedRules.invalidateAll();
+        }
+    }
+
+    /**
+     * Règles applicables à un patient. À appeler une fois par requête ou par lot.
+     */
+    public RuleSet rulesFor(User user) {
+        Long userId = user.getId();
+        if (userId != null) {
+            RuleSet cached = resolvedRules.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        int base = baseIndexFor(user.getBirthday());
+        RuleSet[] patient = userId != null ? patientRules.get(userId) : null;
+        RuleSet rules = patient != null ? patient[base] : baseRules[base];
+        if (userId != null) {
+            resolvedRules.put(userId, rules, System.currentTimeMillis() + resolvedRulesTtlMillis);
+        }
+        return rules;
+    }
+
+    /**
+     * Masque des mesures hors limites (bit {@code 1 << ordinal}) ; 0 si la mesure est normale.
+     */
+    public int evaluate(RuleSet rules, MedicalData medicalData) {
+        int violations = 0;
+        for (int i = 0; i < METRICS.length; i++) {
+            double value = METRICS[i].read(medicalData);
+            // Une mesure absente (NaN) échoue aux deux comparaisons
+            if (value < rules.min[i] || value > rules.max[i]) {
+                violations |= 1 << i;
+            }
+        }
+        return violations;
+    }
+
+    public String describe(RuleSet rules, MedicalData medicalData, int violations, Long userId) {
+        StringBuilder message = new StringBuilder();
+        for (int i = 0; i < METRICS.length; i++) {
+            if ((violations & (1 << i)) == 0) {
+                continue;
+            }
+            VitalMetric metric = METRICS[i];
+            String value = format(metric, metric.read(medicalData));
+            message.append(metric.getLabel()).append(" anormale détectée : ")
+                    .append(value).append(' ').append(metric.getUnit())
+                    .append(" (normale : ").append(format(rules.min[i])).append('-').append(format(rules.max[i]))
+                    .append(' ').append(metric.getUnit()).append(")\n");
+            logger.warn("Abnormal {} detected for userId {}: {}", metric, userId, value);
+        }
+        return message.toString();
+    }
+
+    public List<VitalThresholdDTO> getEffectiveThresholds(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        RuleSet rules = rulesFor(user);
+        List<VitalThresholdDTO> thresholds = new ArrayList<>(METRICS.length);
+        for (VitalMetric metric : METRICS) {
+            thresholds.add(new VitalThresholdDTO(metric, rules.min(metric), rules.max(metric)));
+        }
+        return thresholds;
+    }
+
+    @Transactional
+    public void setPatientOverride(Long userId, VitalMetric metric, Double min, Double max) {
+        if (min == null && max == null) {
+            throw new IllegalArgumentException("At least one of min or max is required");
+        }
+        if (min != null && max != null && min > max) {
+            throw new IllegalArgumentException("min must not be greater than max");
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        VitalThresholdOverride override = overrideRepository.findByUserIdAndMetric(userId, metric)
+                .orElseGet(() -> new VitalThresholdOverride(user, metric, null, null));
+        override.setMinValue(min);
+        override.setMaxValue(max);
+        overrideRepository.save(override);
+        refreshPatient(userId);
+        logger.info("Threshold override for {} set for userId {}: {}-{}", metric, userId, min, max);
+    }
+
+    @Transactional
+    public void removePatientOverride(Long userId, VitalMetric metric) {
+        overrideRepository.findByUserIdAndMetric(userId, metric).ifPresent(overrideRepository::delete);
+        refreshPatient(userId);
+        logger.info("Threshold override for {} removed for userId {}", metric, userId);
+    }
+
+    private void refreshPatient(Long userId) {
+        List<VitalThresholdOverride> overrides = overrideRepository.findByUserId(userId);
+        synchronized (this) {
+            Map<Long, RuleSet[]> updated = new HashMap<>(patientRules);
+            if (overrides.isEmpty()) {
+                updated.remove(userId);
+            } else {
+                updated.put(userId, compilePatient(overrides));
+            }
+            patientRules = Map.copyOf(updated);
+            resolvedRules.invalidate(userId);
+        }
+    }
+
+    private RuleSet[] compilePatient(List<VitalThresholdOverride> overrides) {
+        RuleSet[] compiled = new RuleSet[baseRules.length];
+        for (int b = 0; b < baseRules.length; b++) {
+            double[] min = baseRules[b].min.clone();
+            double[] max = baseRules[b].max.clone();
+            for (VitalThresholdOverride override : overrides) {
+                int i = override.getMetric().ordinal();
+                if (override.getMinValue() != null) {
+                    min[i] = override.getMinValue();
+                }
+                if (override.getMaxValue() != null) {
+                    max[i] = override.getMaxValue();
+                }
+            }
+            compiled[b] = new RuleSet(min, max);
+        }
+        return compiled;
+    }
+
+    private static RuleSet overlay(RuleSet base, Map<VitalMetric, VitalThresholdProperties.Range> ranges) {
+        double[] min = base.min.clone();
+        double[] max = base.max.clone();
+        ranges.forEach((metric, range) -> {
+            int i = metric.ordinal();
+            if (range.getMin() != null) {
+                min[i] = range.getMin();
+            }
+            if (range.getMax() != null) {
+                max[i] = range.getMax();
+            }
+            if (min[i] > max[i]) {
+                throw new IllegalStateException("Invalid thresholds for " + metric + ": " + min[i] + " > " + max[i]);
+            }
+        });
+        return new RuleSet(min, max);
+    }
+
+    // Première tranche d'âge correspondante, sinon les seuils par défaut
+    private int baseIndexFor(Date birthday) {
+        if (birthday == null || bandMinAge.length == 0) {
+            return 0;
+        }
+        LocalDate birthDate = birthday instanceof java.sql.Date sqlDate
+                ? sqlDate.toLocalDate()
+                : birthday.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        int age = Period.between(birthDate, LocalDate.now()).getYears();
+        for (int i = 0; i < bandMinAge.length; i++) {
+            if (age >= bandMinAge[i] && age <= bandMaxAge[i]) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static String format(VitalMetric metric, double value) {
+        return metric.isIntegral() ? Long.toString((long) value) : Double.toString(value);
+    }
+
+    private static String format(double bound) {
+        return bound == Math.rint(bound) ? Long.toString((long) bound) : Double.toString(bound);
+    }
+}
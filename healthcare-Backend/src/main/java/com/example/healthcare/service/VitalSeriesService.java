@@ -0,0 +1,255 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.VitalMetric;
+import com.example.healthcare.Model.VitalRollupDTO;
+import com.example.healthcare.Model.VitalSeriesDTO;
+import com.example.healthcare.repository.MedicalDataJdbcRepository;
+import com.example.healthcare.util.VitalSeries;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Niveau chaud des graphiques : les {@code vitals.hot-tier.window-days} derniers jours de
+ * chaque patient actif sont gardés en mémoire dans une {@link VitalSeries}, chargée à la
+ * première lecture puis complétée à chaque enregistrement. Les requêtes de période et
+ * d'agrégat parcourent les tableaux primitifs sans créer d'entité.
+ * <p>
+ * L'empreinte totale est bornée par {@code vitals.hot-tier.max-bytes} : au-delà, les patients
+ * les moins récemment consultés sont retirés en entier. Une période qui commence avant la
+ * fenêtre est lue en base (et dans les archives) sans être mise en cache.
+ */
+@Service
+public class VitalSeriesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VitalSeriesService.class);
+
+    private static final VitalMetric[] METRICS = VitalMetric.values();
+
+    private final MedicalDataJdbcRepository medicalDataJdbcRepository;
+    private final MedicalDataArchiveService archiveService;
+    private final Duration window;
+    private final int maxReadingsPerPatient;
+    private final long maxBytes;
+    private final int maxQueryDays;
+
+    // Ordre d'accès : le premier patient est le moins récemment utilisé
+    private final LinkedHashMap<Long, Entry> patients = new LinkedHashMap<>(256, 0.75f, true);
+    private long footprintBytes;
+
+    public VitalSeriesService(MedicalDataJdbcRepository medicalDataJdbcRepository,
+                              MedicalDataArchiveService archiveService,
+                              @Value("${vitals.hot-tier.window-days:7}") int windowDays,
+                              @Value("${vitals.hot-tier.max-readings-per-patient:16384}") int maxReadingsPerPatient,
+                              @Value("${vitals.hot-tier.max-bytes:134217728}") long maxBytes,
+                              @Value("${vitals.hot-tier.max-query-days:31}") int maxQueryDays,
+                              MeterRegistry meterRegistry) {
+        this.medicalDataJdbcRepository = medicalDataJdbcRepository;
+        this.archiveService = archiveService;
+        this.window = Duration.ofDays(windowDays);
+        this.maxReadingsPerPatient = maxReadingsPerPatient;
+        this.maxBytes = maxBytes;
+        this.maxQueryDays = maxQueryDays;
+        Gauge.builder("vitals.hot-tier.bytes", this, VitalSeriesService::footprintBytes)
+                .description("Estimated heap used by in-memory vital series")
+                .register(meterRegistry);
+        Gauge.builder("vitals.hot-tier.patients", this, VitalSeriesService::patientCount)
+                .description("Patients with vital series in memory")
+                .register(meterRegistry);
+    }
+
+    public VitalSeriesDTO getSeries(long userId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime end = to != null ? to : now;
+        LocalDateTime start = resolveStart(from, end);
+        VitalSeriesDTO dto = new VitalSeriesDTO(userId, start, end);
+        long startMillis = VitalSeries.toMillis(start);
+        long endMillis = VitalSeries.toMillis(end);
+        VitalSeries series = seriesFor(userId, start, end, now);
+        synchronized (series) {
+            for (VitalMetric metric : METRICS) {
+                VitalSeries.Column column = series.column(metric, startMillis, endMillis);
+                if (column.timestamps().length > 0) {
+                    dto.getMetrics().put(metric, column);
+                }
+            }
+        }
+        return dto;
+    }
+
+    // Nombre, min, max et moyenne de chaque mesure présente sur la période
+    public Map<VitalMetric, VitalRollupDTO.MetricSummary> getSummary(long userId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime end = to != null ? to : now;
+        LocalDateTime start = resolveStart(from, end);
+        long startMillis = VitalSeries.toMillis(start);
+        long endMillis = VitalSeries.toMillis(end);
+        Map<VitalMetric, VitalRollupDTO.MetricSummary> summaries = new EnumMap<>(VitalMetric.class);
+        VitalSeries series = seriesFor(userId, start, end, now);
+        synchronized (series) {
+            for (VitalMetric metric : METRICS) {
+                VitalRollupDTO.MetricSummary summary = series.summarize(metric, startMillis, endMillis);
+                if (summary != null) {
+                    summaries.put(metric, summary);
+                }
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Ajoute aux séries en mémoire des mesures qui viennent d'être enregistrées, une fois
+     * la transaction validée. Un patient absent de la mémoire sera chargé à sa prochaine lecture.
+     */
+    public void recordWritten(Long userId, List<MedicalData> readings) {
+        if (readings.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(userId, readings);
+                }
+            });
+        } else {
+            apply(userId, readings);
+        }
+    }
+
+    private void apply(Long userId, List<MedicalData> readings) {
+        Entry entry;
+        synchronized (patients) {
+            entry = patients.get(userId);
+        }
+        if (entry == null) {
+            return;
+        }
+        long windowStart = VitalSeries.toMillis(LocalDateTime.now().minus(window));
+        long bytes;
+        synchronized (entry.series) {
+            for (MedicalData medicalData : readings) {
+                long time = VitalSeries.toMillis(medicalData.getRecordedAt());
+                if (time >= windowStart) {
+                    entry.series.add(time, medicalData);
+                }
+            }
+            bytes = entry.series.footprintBytes();
+        }
+        account(userId, entry, bytes);
+    }
+
+    private LocalDateTime resolveStart(LocalDateTime from, LocalDateTime end) {
+        LocalDateTime start = from != null ? from : end.minus(window);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        if (start.isBefore(end.minusDays(maxQueryDays))) {
+            throw new IllegalArgumentException("Period must not exceed " + maxQueryDays + " days");
+        }
+        return start;
+    }
+
+    // Série en mémoire si la période est dans la fenêtre, sinon série temporaire lue en base
+    private VitalSeries seriesFor(long userId, LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        LocalDateTime windowStart = now.minus(window);
+        if (!start.isBefore(windowStart)) {
+            return cachedSeries(userId, windowStart);
+        }
+        VitalSeries series = new VitalSeries(Integer.MAX_VALUE);
+        medicalDataJdbcRepository.loadSeries(userId, start, end, series);
+        archiveService.forEachArchived(userId, start, end,
+                medicalData -> series.add(VitalSeries.toMillis(medicalData.getRecordedAt()), medicalData));
+        return series;
+    }
+
+    private VitalSeries cachedSeries(long userId, LocalDateTime windowStart) {
+        Entry entry;
+        synchronized (patients) {
+            entry = patients.get(userId);
+            if (entry == null) {
+                entry = new Entry(new VitalSeries(maxReadingsPerPatient));
+                patients.put(userId, entry);
+            }
+        }
+        long bytes;
+        synchronized (entry.series) {
+            if (!entry.series.isLoaded()) {
+                // Les écritures validées pendant le chargement sont dédoublonnées par VitalSeries.add
+                try {
+                    medicalDataJdbcRepository.loadSeries(userId, windowStart, null, entry.series);
+                } catch (RuntimeException e) {
+                    remove(userId, entry);
+                    throw e;
+                }
+                entry.series.markLoaded();
+                logger.debug("Loaded {} readings of userId {} into the hot tier", entry.series.size(), userId);
+            }
+            entry.series.trimBefore(VitalSeries.toMillis(windowStart));
+            bytes = entry.series.footprintBytes();
+        }
+        account(userId, entry, bytes);
+        return entry.series;
+    }
+
+    private void account(long userId, Entry entry, long bytes) {
+        synchronized (patients) {
+            if (patients.get(userId) != entry) {
+                return;
+            }
+            footprintBytes += bytes - entry.accountedBytes;
+            entry.accountedBytes = bytes;
+            // Éviction des patients les moins récemment utilisés ; celui qu'on vient de servir est le dernier
+            Iterator<Entry> eldest = patients.values().iterator();
+            while (footprintBytes > maxBytes && patients.size() > 1) {
+                Entry evicted = eldest.next();
+                eldest.remove();
+                footprintBytes -= evicted.accountedBytes;
+            }
+        }
+    }
+
+    private void remove(long userId, Entry entry) {
+        synchronized (patients) {
+            if (patients.remove(userId, entry)) {
+                footprintBytes -= entry.accountedBytes;
+            }
+        }
+    }
+
+    long footprintBytes() {
+        synchronized (patients) {
+            return footprintBytes;
+        }
+    }
+
+    int patientCount() {
+        synchronized (patients) {
+            return patients.size();
+        }
+    }
+
+    private static final class Entry {
+        final VitalSeries series;
+        // Taille comptée dans footprintBytes ; protégée par le verrou de 'patients'
+        long accountedBytes;
+
+        Entry(VitalSeries series) {
+            this.series = series;
+        }
+    }
+}
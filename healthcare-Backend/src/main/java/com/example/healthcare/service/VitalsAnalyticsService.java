@@ -0,0 +1,194 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.CohortStatsDTO;
+import com.example.healthcare.Model.VitalMetric;
+import com.example.healthcare.repository.MedicalRecordRepository;
+import com.example.healthcare.repository.VitalsSnapshotJdbcRepository;
+import com.example.healthcare.util.ColumnarVitals;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Requêtes de population sur un instantané en colonnes hors tas ({@link ColumnarVitals})
+ * des {@code analytics.snapshot.days} derniers jours, reconstruit toutes les
+ * {@code analytics.snapshot.refresh-interval-ms}. Les requêtes ne touchent ni la base ni
+ * les entités : elles parcourent les colonnes de l'instantané courant.
+ * <p>
+ * Désactivé par défaut : chaque reconstruction parcourt toute la période et charge
+ * l'instantané en mémoire directe sur chaque nœud. À activer de préférence avec une
+ * réplique ({@code analytics.snapshot.datasource.url}).
+ */
+@Service
+public class VitalsAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VitalsAnalyticsService.class);
+
+    private final VitalsSnapshotJdbcRepository snapshotRepository;
+    private final MedicalRecordRepository medicalRecordRepository;
+    private final boolean enabled;
+    private final int snapshotDays;
+    private final int maxListedPatients;
+
+    private volatile Snapshot current;
+
+    private record Snapshot(ColumnarVitals data, LocalDateTime builtAt, LocalDateTime since) {
+    }
+
+    public VitalsAnalyticsService(VitalsSnapshotJdbcRepository snapshotRepository,
+                                  MedicalRecordRepository medicalRecordRepository,
+                                  @Value("${analytics.snapshot.enabled:false}") boolean enabled,
+                                  @Value("${analytics.snapshot.days:90}") int snapshotDays,
+                                  @Value("${analytics.max-listed-patients:1000}") int maxListedPatients,
+                                  MeterRegistry meterRegistry) {
+        this.snapshotRepository = snapshotRepository;
+        this.medicalRecordRepository = medicalRecordRepository;
+        this.enabled = enabled;
+        this.snapshotDays = snapshotDays;
+        this.maxListedPatients = maxListedPatients;
+        if (enabled && !snapshotRepository.readsFromReplica()) {
+            logger.warn("Analytics snapshot is enabled without analytics.snapshot.datasource.url: " +
+                    "every refresh scans {} days of medical_data on the primary database", snapshotDays);
+        }
+        Gauge.builder("analytics.snapshot.rows", this, service -> service.current != null ? service.current.data().getRows() : 0)
+                .description("Rows in the analytics snapshot")
+                .register(meterRegistry);
+        Gauge.builder("analytics.snapshot.off-heap.bytes", this,
+                        service -> service.current != null ? service.current.data().getOffHeapBytes() : 0)
+                .description("Direct memory held by the analytics snapshot")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            Thread thread = new Thread(this::refreshQuietly, "analytics-snapshot");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.snapshot.refresh-interval-ms:900000}",
+            initialDelayString = "${analytics.snapshot.refresh-interval-ms:900000}")
+    public void scheduledRefresh() {
+        if (enabled) {
+            refreshQuietly();
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // On garde l'instantané précédent
+            logger.error("Analytics snapshot refresh failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reconstruit l'instantané puis remplace le précédent ; les requêtes en cours terminent
+     * sur l'ancien, libéré par le GC.
+     */
+    public synchronized void refresh() {
+        long start = System.currentTimeMillis();
+        LocalDateTime since = LocalDate.now().minusDays(snapshotDays).atStartOfDay();
+        long expected = snapshotRepository.countReadingsSince(since);
+        ColumnarVitals.Builder builder = new ColumnarVitals.Builder(
+                since.toEpochSecond(ZoneOffset.UTC), (int) Math.min(Integer.MAX_VALUE / 4, expected + expected / 8));
+        snapshotRepository.scanReadingsSince(since, builder::add);
+        ColumnarVitals data = builder.build();
+        current = new Snapshot(data, LocalDateTime.now(), since);
+        logger.info("Analytics snapshot rebuilt: {} readings of {} patients, {} MB off-heap, in {} ms",
+                data.getRows(), data.getPatientCount(), data.getOffHeapBytes() >> 20, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Statistiques d'une mesure sur [from, to) pour une cohorte : patients dont l'historique
+     * mentionne {@code condition}, ou liste explicite {@code userIds}, ou toute la population.
+     * Avec {@code threshold}, compte les patients dont la moyenne sur la période le dépasse.
+     */
+    public CohortStatsDTO cohortStats(VitalMetric metric, LocalDateTime from, LocalDateTime to,
+                                      String condition, Collection<Long> userIds, Double threshold) {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            throw new IllegalStateException("Analytics snapshot is not ready yet");
+        }
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(7);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        if (start.isBefore(snapshot.since())) {
+            throw new IllegalArgumentException("The analytics snapshot starts at " + snapshot.since());
+        }
+
+        ColumnarVitals data = snapshot.data();
+        boolean[] mask = null;
+        int cohortPatients = data.getPatientCount();
+        List<Long> cohort = null;
+        if (condition != null && !condition.isBlank()) {
+            cohort = medicalRecordRepository.findUserIdsByDisease("%" + condition.toLowerCase(Locale.ROOT) + "%");
+        } else if (userIds != null && !userIds.isEmpty()) {
+            cohort = List.copyOf(userIds);
+        }
+        if (cohort != null) {
+            mask = new boolean[data.getPatientCount()];
+            for (Long userId : cohort) {
+                int index = data.patientIndex(userId);
+                if (index >= 0) {
+                    mask[index] = true;
+                }
+            }
+            cohortPatients = cohort.size();
+        }
+
+        ColumnarVitals.PatientAggregates aggregates = data.aggregate(metric,
+                start.toEpochSecond(ZoneOffset.UTC), end.toEpochSecond(ZoneOffset.UTC), mask);
+
+        CohortStatsDTO stats = new CohortStatsDTO();
+        stats.setMetric(metric);
+        stats.setFrom(start);
+        stats.setTo(end);
+        stats.setCohortPatients(cohortPatients);
+        stats.setReadings(aggregates.values);
+        stats.setRowsScanned(aggregates.rowsScanned);
+        stats.setSnapshotAt(snapshot.builtAt());
+        if (aggregates.values > 0) {
+            stats.setMean(aggregates.sum / aggregates.values);
+            stats.setMin(aggregates.min);
+            stats.setMax(aggregates.max);
+        }
+        stats.setThreshold(threshold);
+        int withReadings = 0;
+        int above = 0;
+        for (int p = 0; p < aggregates.counts.length; p++) {
+            int count = aggregates.counts[p];
+            if (count == 0) {
+                continue;
+            }
+            withReadings++;
+            if (threshold != null && aggregates.sums[p] / count > threshold) {
+                above++;
+                if (stats.getPatientIdsAboveThreshold().size() < maxListedPatients) {
+                    stats.getPatientIdsAboveThreshold().add(data.patientId(p));
+                }
+            }
+        }
+        stats.setPatientsWithReadings(withReadings);
+        stats.setPatientsAboveThreshold(above);
+        return stats;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.healthcare.util;
+
+/**
+ * Lecture bit à bit du format produit par {@link BitWriter}.
+ */
+public class BitReader {
+
+    private final byte[] buffer;
+    private long bitPosition;
+
+    public BitReader(byte[] buffer) {
+        this.buffer = buffer;
+    }
+
+    public boolean readBit() {
+        int index = (int) (bitPosition >>> 3);
+        if (index >= buffer.length) {
+            throw new IllegalStateException("Read past the end of the block");
+        }
+        boolean bit = (buffer[index] & (0x80 >>> (bitPosition & 7))) != 0;
+        bitPosition++;
+        return bit;
+    }
+
+    public long readBits(int count) {
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value = (value << 1) | (readBit() ? 1L : 0L);
+        }
+        return value;
+    }
+}
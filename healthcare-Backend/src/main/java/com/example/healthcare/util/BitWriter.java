@@ -0,0 +1,48 @@
+package com.example.healthcare.util;
+
+import java.util.Arrays;
+
+/**
+ * Écriture bit à bit dans un tableau d'octets extensible (poids fort en premier).
+ */
+public class BitWriter {
+
+    private byte[] buffer;
+    private long bitPosition;
+
+    public BitWriter(int initialCapacityBytes) {
+        buffer = new byte[Math.max(16, initialCapacityBytes)];
+    }
+
+    public void writeBit(boolean bit) {
+        ensureCapacity(1);
+        if (bit) {
+            int index = (int) (bitPosition >>> 3);
+            buffer[index] |= (byte) (0x80 >>> (bitPosition & 7));
+        }
+        bitPosition++;
+    }
+
+    // Les 'count' bits de poids faible de 'value', du plus fort au plus faible
+    public void writeBits(long value, int count) {
+        ensureCapacity(count);
+        for (int shift = count - 1; shift >= 0; shift--) {
+            if (((value >>> shift) & 1L) != 0) {
+                int index = (int) (bitPosition >>> 3);
+                buffer[index] |= (byte) (0x80 >>> (bitPosition & 7));
+            }
+            bitPosition++;
+        }
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, (int) ((bitPosition + 7) >>> 3));
+    }
+
+    private void ensureCapacity(int bits) {
+        long neededBytes = (bitPosition + bits + 7) >>> 3;
+        if (neededBytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, (int) Math.max(neededBytes, buffer.length * 2L));
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.healthcare.util;
+
+import com.example.healthcare.Model.VitalMetric;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Instantané en colonnes des mesures de tous les patients, hors du tas Java : chaque colonne
+ * est un {@link ByteBuffer} direct. Une ligne occupe 24 octets :
+ * <ul>
+ *   <li>indice dense du patient ({@code int}, voir {@link #patientId}) ;</li>
+ *   <li>horodatage en secondes depuis {@link #getBaseEpochSecond()} ({@code int}) ;</li>
+ *   <li>une colonne {@code float} par {@link VitalMetric}, NaN quand la mesure est absente.</li>
+ * </ul>
+ * Les lignes sont découpées en blocs de {@value #CHUNK_ROWS} dont on garde l'horodatage minimal
+ * et maximal, pour sauter les blocs hors période. Immuable une fois construit.
+ */
+public final class ColumnarVitals {
+
+    public static final int CHUNK_ROWS = 4096;
+    private static final VitalMetric[] METRICS = VitalMetric.values();
+
+    /**
+     * Sommes et nombres de valeurs par patient (indices denses), et agrégats globaux.
+     */
+    public static final class PatientAggregates {
+        public final double[] sums;
+        public final int[] counts;
+        public long rowsScanned;
+        public long values;
+        public double min = Double.POSITIVE_INFINITY;
+        public double max = Double.NEGATIVE_INFINITY;
+        public double sum;
+
+        PatientAggregates(int patients) {
+            sums = new double[patients];
+            counts = new int[patients];
+        }
+    }
+
+    private final int rows;
+    private final long baseEpochSecond;
+    private final IntBuffer patients;
+    private final IntBuffer times;
+    private final FloatBuffer[] metrics;
+    private final long[] patientIds;
+    private final Map<Long, Integer> patientIndexes;
+    private final int[] chunkMinTime;
+    private final int[] chunkMaxTime;
+    private final long offHeapBytes;
+
+    private ColumnarVitals(Builder builder) {
+        this.rows = builder.rows;
+        this.baseEpochSecond = builder.baseEpochSecond;
+        this.patients = builder.patients.asIntBuffer().limit(rows).slice();
+        this.times = builder.times.asIntBuffer().limit(rows).slice();
+        this.metrics = new FloatBuffer[METRICS.length];
+        long bytes = builder.patients.capacity() + builder.times.capacity();
+        for (int m = 0; m < METRICS.length; m++) {
+            metrics[m] = builder.metrics[m].asFloatBuffer().limit(rows).slice();
+            bytes += builder.metrics[m].capacity();
+        }
+        this.offHeapBytes = bytes;
+        this.patientIds = Arrays.copyOf(builder.patientIds, builder.patientIndexes.size());
+        this.patientIndexes = builder.patientIndexes;
+        int chunks = (rows + CHUNK_ROWS - 1) / CHUNK_ROWS;
+        this.chunkMinTime = new int[chunks];
+        this.chunkMaxTime = new int[chunks];
+        for (int c = 0; c < chunks; c++) {
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int i = c * CHUNK_ROWS, end = Math.min(rows, i + CHUNK_ROWS); i < end; i++) {
+                int t = times.get(i);
+                min = Math.min(min, t);
+                max = Math.max(max, t);
+            }
+            chunkMinTime[c] = min;
+            chunkMaxTime[c] = max;
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getPatientCount() {
+        return patientIds.length;
+    }
+
+    public long getBaseEpochSecond() {
+        return baseEpochSecond;
+    }
+
+    public long getOffHeapBytes() {
+        return offHeapBytes;
+    }
+
+    public long patientId(int index) {
+        return patientIds[index];
+    }
+
+    // Indice dense du patient, -1 s'il n'a aucune mesure dans l'instantané
+    public int patientIndex(long userId) {
+        Integer index = patientIndexes.get(userId);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Agrège une mesure sur [fromEpochSecond, toEpochSecond) pour les patients sélectionnés
+     * ({@code patientMask} nul : tous).
+     * <p>
+     * Chaque bloc est traité en deux passes : un filtre sans branchement remplit un vecteur
+     * de sélection, puis les valeurs retenues sont agrégées. Les boucles ne lisent que des
+     * colonnes primitives et restent à la portée de la vectorisation automatique du JIT.
+     */
+    public PatientAggregates aggregate(VitalMetric metric, long fromEpochSecond, long toEpochSecond, boolean[] patientMask) {
+        PatientAggregates result = new PatientAggregates(patientIds.length);
+        long fromRelative = Math.max(fromEpochSecond - baseEpochSecond, Integer.MIN_VALUE);
+        long toRelative = Math.min(toEpochSecond - baseEpochSecond, Integer.MAX_VALUE);
+        if (fromRelative >= toRelative) {
+            return result;
+        }
+        int from = (int) fromRelative;
+        int to = (int) toRelative;
+        FloatBuffer values = metrics[metric.ordinal()];
+        int[] selection = new int[CHUNK_ROWS];
+        for (int c = 0; c < chunkMinTime.length; c++) {
+            if (chunkMaxTime[c] < from || chunkMinTime[c] >= to) {
+                continue;
+            }
+            int start = c * CHUNK_ROWS;
+            int end = Math.min(rows, start + CHUNK_ROWS);
+            result.rowsScanned += end - start;
+
+            // Passe 1 : filtre période + présence, écrit sans branchement
+            int selected = 0;
+            for (int i = start; i < end; i++) {
+                int t = times.get(i);
+                float v = values.get(i);
+                selection[selected] = i;
+                selected += (t >= from & t < to & v == v) ? 1 : 0;
+            }
+
+            // Passe 2 : agrégation des lignes retenues
+            for (int k = 0; k < selected; k++) {
+                int i = selection[k];
+                int p = patients.get(i);
+                if (patientMask != null && !patientMask[p]) {
+                    continue;
+                }
+                double v = values.get(i);
+                result.sums[p] += v;
+                result.counts[p]++;
+                result.values++;
+                result.sum += v;
+                result.min = Math.min(result.min, v);
+                result.max = Math.max(result.max, v);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Construction en ajout seul ; les tampons directs doublent quand ils sont pleins.
+     */
+    public static final class Builder {
+        private final long baseEpochSecond;
+        private int rows;
+        private ByteBuffer patients;
+        private ByteBuffer times;
+        private final ByteBuffer[] metrics = new ByteBuffer[METRICS.length];
+        private long[] patientIds = new long[1024];
+        private final Map<Long, Integer> patientIndexes = new HashMap<>();
+
+        public Builder(long baseEpochSecond, int expectedRows) {
+            this.baseEpochSecond = baseEpochSecond;
+            int capacity = Math.max(CHUNK_ROWS, expectedRows);
+            patients = allocate(capacity * 4);
+            times = allocate(capacity * 4);
+            for (int m = 0; m < METRICS.length; m++) {
+                metrics[m] = allocate(capacity * 4);
+            }
+        }
+
+        // Valeurs NaN pour les mesures absentes ; horodatage en secondes epoch
+        public void add(long userId, long epochSecond, float bloodSugar, float systolic, float diastolic, float heartRate) {
+            long relative = epochSecond - baseEpochSecond;
+            if (relative < 0 || relative > Integer.MAX_VALUE) {
+                return;
+            }
+            if ((rows + 1) * 4L > times.capacity()) {
+                grow();
+            }
+            int index = patientIndexes.computeIfAbsent(userId, id -> {
+                int next = patientIndexes.size();
+                if (next == patientIds.length) {
+                    patientIds = Arrays.copyOf(patientIds, next * 2);
+                }
+                patientIds[next] = id;
+                return next;
+            });
+            int offset = rows * 4;
+            patients.putInt(offset, index);
+            times.putInt(offset, (int) relative);
+            metrics[VitalMetric.BLOOD_SUGAR.ordinal()].putFloat(offset, bloodSugar);
+            metrics[VitalMetric.SYSTOLIC_BLOOD_PRESSURE.ordinal()].putFloat(offset, systolic);
+            metrics[VitalMetric.DIASTOLIC_BLOOD_PRESSURE.ordinal()].putFloat(offset, diastolic);
+            metrics[VitalMetric.HEART_RATE.ordinal()].putFloat(offset, heartRate);
+            rows++;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public ColumnarVitals build() {
+            return new ColumnarVitals(this);
+        }
+
+        private void grow() {
+            int capacity = times.capacity() * 2;
+            patients = copy(patients, capacity);
+            times = copy(times, capacity);
+            for (int m = 0; m < METRICS.length; m++) {
+                metrics[m] = copy(metrics[m], capacity);
+            }
+        }
+
+        private static ByteBuffer allocate(int bytes) {
+            return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+        }
+
+        private static ByteBuffer copy(ByteBuffer source, int capacity) {
+            ByteBuffer target = allocate(capacity);
+            target.put(0, source, 0, source.capacity());
+            return target;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.healthcare.util;
+
+/**
+ * Table de hachage concurrente à clés {@code long} primitives : adressage ouvert
+ * (sondage linéaire) réparti sur des segments verrouillés indépendamment.
+ * Aucune clé n'est convertie en {@code Long}, donc une lecture n'alloue rien.
+ */
+public class ConcurrentLongMap<V> {
+
+    private static final int SEGMENT_BITS = 6;
+    private static final int SEGMENT_COUNT = 1 << SEGMENT_BITS;
+
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    @FunctionalInterface
+    public interface EntryPredicate<V> {
+        boolean test(long key, V value);
+    }
+
+    private final Segment<V>[] segments;
+
+    public ConcurrentLongMap() {
+        this(16);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ConcurrentLongMap(int initialSegmentCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(4, initialSegmentCapacity - 1) << 1);
+        segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment<>(capacity);
+        }
+    }
+
+    public V get(long key) {
+        int hash = hash(key);
+        return segments[hash & (SEGMENT_COUNT - 1)].get(key, hash >>> SEGMENT_BITS);
+    }
+
+    /**
+     * Associe la valeur si la clé est absente ; renvoie la valeur déjà présente sinon, ou {@code null}.
+     */
+    public V putIfAbsent(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        int hash = hash(key);
+        return segments[hash & (SEGMENT_COUNT - 1)].putIfAbsent(key, hash >>> SEGMENT_BITS, value);
+    }
+
+    public V remove(long key) {
+        int hash = hash(key);
+        return segments[hash & (SEGMENT_COUNT - 1)].remove(key, hash >>> SEGMENT_BITS);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    // Chaque segment est parcouru sous son verrou ; le consommateur ne doit pas modifier la table
+    public void forEach(EntryConsumer<V> consumer) {
+        for (Segment<V> segment : segments) {
+            segment.forEach(consumer);
+        }
+    }
+
+    public int removeIf(EntryPredicate<V> predicate) {
+        int removed = 0;
+        for (Segment<V> segment : segments) {
+            removed += segment.removeIf(predicate);
+        }
+        return removed;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static final class Segment<V> {
+        private long[] keys;
+        private Object[] values;
+        private int size;
+
+        Segment(int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized V get(long key, int hash) {
+            int mask = keys.length - 1;
+            for (int i = hash & mask; values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return (V) values[i];
+                }
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized V putIfAbsent(long key, int hash, V value) {
+            int mask = keys.length - 1;
+            int i = hash & mask;
+            for (; values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return (V) values[i];
+                }
+            }
+            keys[i] = key;
+            values[i] = value;
+            if (++size * 4 > keys.length * 3) {
+                resize();
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized V remove(long key, int hash) {
+            int mask = keys.length - 1;
+            for (int i = hash & mask; values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    V old = (V) values[i];
+                    delete(i);
+                    return old;
+                }
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized void forEach(EntryConsumer<V> consumer) {
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != null) {
+                    consumer.accept(keys[i], (V) values[i]);
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized int removeIf(EntryPredicate<V> predicate) {
+            int removed = 0;
+            int i = 0;
+            while (i < keys.length) {
+                // delete() peut ramener une autre entrée dans la case i : on la réexamine
+                if (values[i] != null && predicate.test(keys[i], (V) values[i])) {
+                    delete(i);
+                    removed++;
+                } else {
+                    i++;
+                }
+            }
+            return removed;
+        }
+
+        // Suppression par décalage arrière, pour ne pas laisser de trou dans une séquence de sondage
+        private void delete(int slot) {
+            int mask = keys.length - 1;
+            values[slot] = null;
+            size--;
+            int free = slot;
+            for (int j = (slot + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+                int home = (hash(keys[j]) >>> SEGMENT_BITS) & mask;
+                boolean reachable = free <= j ? (free < home && home <= j) : (free < home || home <= j);
+                if (!reachable) {
+                    keys[free] = keys[j];
+                    values[free] = values[j];
+                    values[j] = null;
+                    free = j;
+                }
+            }
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            Object[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new Object[oldValues.length * 2];
+            int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldValues[j] != null) {
+                    int i = (hash(oldKeys[j]) >>> SEGMENT_BITS) & mask;
+                    while (values[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[j];
+                    values[i] = oldValues[j];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.healthcare.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Roue temporelle hachée : les échéances (en millisecondes epoch) sont rangées dans
+ * {@code wheelSize} cases de {@code tickMillis} selon leur tick, et chaque avance ne
+ * parcourt que les cases des ticks écoulés. Planifier, annuler et avancer d'un tick
+ * coûtent O(1) en moyenne, quel que soit le nombre d'échéances en attente.
+ * <p>
+ * Une échéance porte un id {@code long} ; replanifier un id remplace l'échéance précédente.
+ * Après une pause plus longue qu'un tour de roue, {@link #advance} fait un seul tour complet.
+ */
+public class HashedTimingWheel {
+
+    private static final class Entry {
+        final long id;
+        final long deadlineTick;
+        boolean cancelled;
+
+        Entry(long id, long deadlineTick) {
+            this.id = id;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<Entry>[] buckets;
+    private final Map<Long, Entry> byId = new HashMap<>();
+    // Dernier tick traité : tout ce qui arrive à échéance jusqu'à lui a été rendu
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("tickMillis must be positive and wheelSize a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.buckets = new List[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Planifie l'id à l'échéance donnée ; une échéance déjà passée sera rendue à la prochaine avance.
+     */
+    public synchronized void schedule(long id, long deadlineMillis) {
+        Entry previous = byId.remove(id);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        // Arrondi au tick supérieur : jamais rendu avant l'échéance
+        long tick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        Entry entry = new Entry(id, tick);
+        buckets[(int) (tick & mask)].add(entry);
+        byId.put(id, entry);
+    }
+
+    public synchronized boolean cancel(long id) {
+        Entry entry = byId.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        entry.cancelled = true;
+        return true;
+    }
+
+    /**
+     * Rend, via {@code expired}, les ids arrivés à échéance jusqu'à {@code nowMillis}.
+     *
+     * @return nombre d'ids rendus
+     */
+    public synchronized int advance(long nowMillis, LongConsumer expired) {
+        long nowTick = Math.floorDiv(nowMillis, tickMillis);
+        if (nowTick <= currentTick) {
+            return 0;
+        }
+        int fired = 0;
+        long steps = Math.min(nowTick - currentTick, (long) mask + 1);
+        for (long step = 1; step <= steps; step++) {
+            List<Entry> bucket = buckets[(int) ((currentTick + step) & mask)];
+            if (bucket.isEmpty()) {
+                continue;
+            }
+            int kept = 0;
+            for (int i = 0; i < bucket.size(); i++) {
+                Entry entry = bucket.get(i);
+                if (entry.cancelled) {
+                    continue;
+                }
+                if (entry.deadlineTick <= nowTick) {
+                    byId.remove(entry.id);
+                    expired.accept(entry.id);
+                    fired++;
+                } else {
+                    // Échéance d'un tour ultérieur
+                    bucket.set(kept++, entry);
+                }
+            }
+            bucket.subList(kept, bucket.size()).clear();
+        }
+        currentTick = nowTick;
+        return fired;
+    }
+
+    public synchronized boolean contains(long id) {
+        return byId.containsKey(id);
+    }
+
+    public synchronized int size() {
+        return byId.size();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.healthcare.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Intervalles [début, fin) disjoints triés par début, en secondes epoch. Comme ils ne se
+ * chevauchent pas, seul l'intervalle qui commence juste avant la fin d'une demande peut
+ * la chevaucher : une recherche de conflit est une seule descente dans l'arbre, en O(log n).
+ * <p>
+ * Non synchronisée : l'appelant tient le verrou du propriétaire (médecin ou patient).
+ */
+public class IntervalIndex {
+
+    /**
+     * Intervalle réservé ; {@code id} est l'id du rendez-vous, ou négatif pour une
+     * réservation pas encore enregistrée.
+     */
+    public record Interval(long start, long end, long id) {
+    }
+
+    private final TreeMap<Long, Interval> byStart = new TreeMap<>();
+
+    // Intervalle qui chevauche [start, end), null si la plage est libre
+    public Interval findConflict(long start, long end) {
+        Map.Entry<Long, Interval> before = byStart.lowerEntry(end);
+        return before != null && before.getValue().end() > start ? before.getValue() : null;
+    }
+
+    /**
+     * Ajoute l'intervalle s'il ne chevauche rien.
+     *
+     * @return l'intervalle en conflit, ou {@code null} si l'ajout a eu lieu
+     */
+    public Interval add(long start, long end, long id) {
+        if (end <= start) {
+            throw new IllegalArgumentException("Empty interval");
+        }
+        Interval conflict = findConflict(start, end);
+        if (conflict == null) {
+            byStart.put(start, new Interval(start, end, id));
+        }
+        return conflict;
+    }
+
+    public boolean remove(long start, long id) {
+        Interval interval = byStart.get(start);
+        if (interval == null || interval.id() != id) {
+            return false;
+        }
+        byStart.remove(start);
+        return true;
+    }
+
+    // Intervalles qui chevauchent [from, to), par début croissant
+    public List<Interval> between(long from, long to) {
+        List<Interval> result = new ArrayList<>();
+        Map.Entry<Long, Interval> first = byStart.lowerEntry(from);
+        if (first != null && first.getValue().end() > from) {
+            result.add(first.getValue());
+        }
+        result.addAll(byStart.subMap(from, true, to, false).values());
+        return result;
+    }
+
+    // Retire les intervalles terminés avant {@code before}
+    public void trimBefore(long before) {
+        byStart.headMap(before).values().removeIf(interval -> interval.end() <= before);
+    }
+
+    public int size() {
+        return byStart.size();
+    }
+}
@@ -0,0 +1,324 @@
+package com.example.healthcare.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal en ajout seul, découpé en segments de taille fixe projetés en mémoire
+ * ({@code 00000000000000000042.seg}).
+ * <p>
+ * Chaque enregistrement est écrit sous la forme {@code [longueur][crc32c][données]} ;
+ * une longueur nulle marque la fin d'un segment (les fichiers sont préalloués à zéro).
+ * Une position est codée sur un long : {@code (index du segment << 32) | offset}.
+ * <p>
+ * L'écriture ne rend pas les données durables : {@link #flush()} force les pages sur
+ * disque et fait avancer {@link #durablePosition()}, ce qui permet de grouper les fsync.
+ * À la réouverture, le dernier segment est relu jusqu'au premier enregistrement incomplet.
+ */
+public class MappedAppendLog implements Closeable {
+
+    private static final int HEADER_BYTES = 8;
+    private static final String SUFFIX = ".seg";
+
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(ByteBuffer record);
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Object durabilityLock = new Object();
+
+    private volatile Segment active;
+    private volatile long endPosition;
+    private volatile long durablePosition;
+
+    public MappedAppendLog(Path directory, int segmentSize) throws IOException {
+        if (segmentSize <= HEADER_BYTES) {
+            throw new IllegalArgumentException("segmentSize is too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long index = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+                Segment segment = Segment.open(file, index, (int) Math.max(Files.size(file), segmentSize));
+                segment.recover();
+                segments.put(index, segment);
+            }
+        }
+        if (segments.isEmpty()) {
+            active = createSegment(0);
+        } else {
+            active = segments.lastEntry().getValue();
+        }
+        endPosition = position(active.index, active.limit);
+        durablePosition = endPosition;
+    }
+
+    public static long position(long segmentIndex, int offset) {
+        return (segmentIndex << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    public static long segmentIndex(long position) {
+        return position >>> 32;
+    }
+
+    public static int offset(long position) {
+        return (int) position;
+    }
+
+    /**
+     * Ajoute les enregistrements à la suite, sans attendre le disque.
+     *
+     * @return position de fin du dernier enregistrement ajouté
+     */
+    public synchronized long append(List<byte[]> records) {
+        for (byte[] record : records) {
+            int size = HEADER_BYTES + record.length;
+            if (record.length == 0) {
+                throw new IllegalArgumentException("Empty records are not allowed");
+            }
+            if (size > segmentSize) {
+                throw new IllegalArgumentException("Record of " + record.length + " bytes exceeds the segment size");
+            }
+            if (active.limit + size > active.capacity()) {
+                rotate();
+            }
+            MappedByteBuffer buffer = active.buffer;
+            int offset = active.limit;
+            CRC32C crc = new CRC32C();
+            crc.update(record);
+            buffer.put(offset + HEADER_BYTES, record);
+            buffer.putInt(offset + 4, (int) crc.getValue());
+            // La longueur est écrite en dernier : un enregistrement incomplet reste invisible
+            buffer.putInt(offset, record.length);
+            active.limit = offset + size;
+        }
+        endPosition = position(active.index, active.limit);
+        return endPosition;
+    }
+
+    /**
+     * Force sur disque tout ce qui a été ajouté jusqu'ici.
+     */
+    public void flush() {
+        Segment segment;
+        long target;
+        synchronized (this) {
+            segment = active;
+            target = endPosition;
+        }
+        if (target <= durablePosition) {
+            return;
+        }
+        // Les segments précédents ont été forcés lors de la rotation
+        segment.buffer.force();
+        synchronized (durabilityLock) {
+            if (target > durablePosition) {
+                durablePosition = target;
+            }
+            durabilityLock.notifyAll();
+        }
+    }
+
+    /**
+     * Attend que la position soit durable. Renvoie {@code false} si le délai expire.
+     */
+    public boolean awaitDurable(long position, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (durabilityLock) {
+            while (durablePosition < position) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                durabilityLock.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lit au plus {@code maxRecords} enregistrements complets à partir de {@code from}.
+     * Le tampon passé au consommateur n'est valable que pendant l'appel.
+     *
+     * @return position qui suit le dernier enregistrement lu
+     */
+    public long read(long from, int maxRecords, RecordConsumer consumer) {
+        long position = Math.max(from, startPosition());
+        int read = 0;
+        while (read < maxRecords) {
+            Segment segment = segments.get(segmentIndex(position));
+            if (segment == null) {
+                Map.Entry<Long, Segment> next = segments.higherEntry(segmentIndex(position));
+                if (next == null) {
+                    break;
+                }
+                position = position(next.getKey(), 0);
+                continue;
+            }
+            // Un segment scellé ne change plus ; l'actif peut recevoir d'autres enregistrements après 'limit'
+            boolean sealed = segment != active;
+            int offset = offset(position);
+            int limit = segment.limit;
+            ByteBuffer buffer = segment.buffer.duplicate();
+            while (read < maxRecords && offset + HEADER_BYTES <= limit) {
+                int length = buffer.getInt(offset);
+                consumer.accept(buffer.slice(offset + HEADER_BYTES, length).asReadOnlyBuffer());
+                offset += HEADER_BYTES + length;
+                read++;
+            }
+            position = position(segment.index, offset);
+            if (offset < limit || !sealed) {
+                break;
+            }
+            // Segment scellé entièrement lu : on passe au suivant
+            Map.Entry<Long, Segment> next = segments.higherEntry(segment.index);
+            if (next == null) {
+                break;
+            }
+            position = position(next.getKey(), 0);
+        }
+        return position;
+    }
+
+    /**
+     * Supprime les segments scellés entièrement situés avant {@code position}.
+     */
+    public void deleteBefore(long position) {
+        long index = segmentIndex(position);
+        for (Map.Entry<Long, Segment> entry : segments.headMap(index).entrySet()) {
+            Segment segment = entry.getValue();
+            if (segment == active) {
+                continue;
+            }
+            segments.remove(entry.getKey());
+            segment.close();
+            try {
+                Files.deleteIfExists(segment.file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    public long startPosition() {
+        Map.Entry<Long, Segment> first = segments.firstEntry();
+        return first != null ? position(first.getKey(), 0) : endPosition;
+    }
+
+    public long endPosition() {
+        return endPosition;
+    }
+
+    public long durablePosition() {
+        return durablePosition;
+    }
+
+    // Octets entre deux positions, en tenant compte des segments intermédiaires
+    public long bytesBetween(long from, long to) {
+        if (to <= from) {
+            return 0;
+        }
+        long segmentsApart = segmentIndex(to) - segmentIndex(from);
+        return segmentsApart * segmentSize + offset(to) - offset(from);
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        flush();
+        for (Segment segment : segments.values()) {
+            segment.close();
+        }
+        segments.clear();
+    }
+
+    private void rotate() {
+        active.buffer.force();
+        active = createSegment(active.index + 1);
+    }
+
+    private Segment createSegment(long index) {
+        Path file = directory.resolve(String.format("%020d%s", index, SUFFIX));
+        try {
+            Segment segment = Segment.open(file, index, segmentSize);
+            segments.put(index, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Segment {
+        final Path file;
+        final long index;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        // Fin des enregistrements complets ; écrit sous le verrou du journal
+        volatile int limit;
+
+        private Segment(Path file, long index, FileChannel channel, MappedByteBuffer buffer) {
+            this.file = file;
+            this.index = index;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path file, long index, int size) throws IOException {
+            FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(file, index, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+
+        int capacity() {
+            return buffer.capacity();
+        }
+
+        // Avance jusqu'au premier enregistrement absent ou corrompu (écriture interrompue)
+        void recover() {
+            int offset = 0;
+            CRC32C crc = new CRC32C();
+            while (offset + HEADER_BYTES <= capacity()) {
+                int length = buffer.getInt(offset);
+                if (length <= 0 || offset + HEADER_BYTES + length > capacity()) {
+                    break;
+                }
+                crc.reset();
+                crc.update(buffer.slice(offset + HEADER_BYTES, length));
+                if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+                    break;
+                }
+                offset += HEADER_BYTES + length;
+            }
+            limit = offset;
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.healthcare.util;
+
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.VitalMetric;
+import com.example.healthcare.Model.VitalRollupDTO;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Mesures récentes d'un patient en colonnes de types primitifs, dans un tampon circulaire
+ * trié par date : {@code long[]} pour l'horodatage (millisecondes, heure locale lue comme UTC),
+ * {@code double[]} / {@code int[]} pour les valeurs et un octet de présence par mesure.
+ * <p>
+ * La capacité double jusqu'à {@code maxCapacity} ; au-delà, les mesures les plus anciennes
+ * sont écrasées. Non thread-safe : l'appelant synchronise sur l'instance.
+ */
+public class VitalSeries {
+
+    private static final int INITIAL_CAPACITY = 64;
+    // 8 (horodatage) + 8 (glycémie) + 3 × 4 (entiers) + 1 (présence)
+    private static final int BYTES_PER_SLOT = 29;
+    private static final int FIXED_OVERHEAD_BYTES = 128;
+
+    // Horodatages et valeurs présentes d'une mesure, dans l'ordre chronologique
+    public record Column(long[] timestamps, double[] values) {
+    }
+
+    private final int maxCapacity;
+    private long[] times;
+    private double[] bloodSugar;
+    private int[] systolic;
+    private int[] diastolic;
+    private int[] heartRate;
+    private byte[] present;
+    private int head;
+    private int size;
+    private boolean loaded;
+
+    public VitalSeries(int maxCapacity) {
+        this.maxCapacity = Integer.highestOneBit(Math.max(INITIAL_CAPACITY, maxCapacity));
+        allocate(Math.min(INITIAL_CAPACITY, this.maxCapacity));
+    }
+
+    public static long toMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    public boolean add(long time, MedicalData medicalData) {
+        int mask = 0;
+        double sugar = 0;
+        int sys = 0;
+        int dia = 0;
+        int hr = 0;
+        if (medicalData.getBloodSugar() != null) {
+            sugar = medicalData.getBloodSugar();
+            mask |= 1 << VitalMetric.BLOOD_SUGAR.ordinal();
+        }
+        if (medicalData.getSystolicBloodPressure() != null) {
+            sys = medicalData.getSystolicBloodPressure();
+            mask |= 1 << VitalMetric.SYSTOLIC_BLOOD_PRESSURE.ordinal();
+        }
+        if (medicalData.getDiastolicBloodPressure() != null) {
+            dia = medicalData.getDiastolicBloodPressure();
+            mask |= 1 << VitalMetric.DIASTOLIC_BLOOD_PRESSURE.ordinal();
+        }
+        if (medicalData.getHeartRate() != null) {
+            hr = medicalData.getHeartRate();
+            mask |= 1 << VitalMetric.HEART_RATE.ordinal();
+        }
+        return add(time, mask, sugar, sys, dia, hr);
+    }
+
+    /**
+     * Insère une mesure à sa place chronologique. Une mesure identique (même instant, mêmes
+     * valeurs) déjà présente est ignorée, ce qui permet de rejouer sans doublon une écriture
+     * concurrente d'un chargement.
+     *
+     * @return {@code false} si la mesure était déjà présente ou plus ancienne qu'un tampon plein
+     */
+    public boolean add(long time, int mask, double sugar, int sys, int dia, int hr) {
+        int index = size == 0 || time >= timeAt(size - 1) ? size : upperBound(time);
+        for (int i = index - 1; i >= 0 && timeAt(i) == time; i--) {
+            int p = slot(i);
+            if (present[p] == mask && bloodSugar[p] == sugar && systolic[p] == sys
+                    && diastolic[p] == dia && heartRate[p] == hr) {
+                return false;
+            }
+        }
+        if (size == times.length) {
+            if (times.length < maxCapacity) {
+                allocate(times.length * 2);
+            } else if (index == 0) {
+                return false;
+            } else {
+                head = (head + 1) & (times.length - 1);
+                size--;
+                index--;
+            }
+        }
+        // Décalage vers la droite des mesures plus récentes (rare : arrivée tardive)
+        for (int i = size; i > index; i--) {
+            copy(slot(i - 1), slot(i));
+        }
+        int p = slot(index);
+        times[p] = time;
+        present[p] = (byte) mask;
+        bloodSugar[p] = sugar;
+        systolic[p] = sys;
+        diastolic[p] = dia;
+        heartRate[p] = hr;
+        size++;
+        return true;
+    }
+
+    // Oublie les mesures antérieures à 'time'
+    public int trimBefore(long time) {
+        int removed = 0;
+        while (size > 0 && times[head] < time) {
+            head = (head + 1) & (times.length - 1);
+            size--;
+            removed++;
+        }
+        return removed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public void markLoaded() {
+        loaded = true;
+    }
+
+    public long footprintBytes() {
+        return (long) times.length * BYTES_PER_SLOT + FIXED_OVERHEAD_BYTES;
+    }
+
+    public Column column(VitalMetric metric, long from, long to) {
+        int start = lowerBound(from);
+        int end = lowerBound(to);
+        int bit = 1 << metric.ordinal();
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            if ((present[slot(i)] & bit) != 0) {
+                count++;
+            }
+        }
+        long[] timestamps = new long[count];
+        double[] values = new double[count];
+        int n = 0;
+        for (int i = start; i < end; i++) {
+            int p = slot(i);
+            if ((present[p] & bit) != 0) {
+                timestamps[n] = times[p];
+                values[n] = value(metric, p);
+                n++;
+            }
+        }
+        return new Column(timestamps, values);
+    }
+
+    // Nombre, minimum, maximum et moyenne d'une mesure sur [from, to) ; null sans valeur
+    public VitalRollupDTO.MetricSummary summarize(VitalMetric metric, long from, long to) {
+        int end = lowerBound(to);
+        int bit = 1 << metric.ordinal();
+        long count = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double sum = 0;
+        for (int i = lowerBound(from); i < end; i++) {
+            int p = slot(i);
+            if ((present[p] & bit) != 0) {
+                double value = value(metric, p);
+                count++;
+                sum += value;
+                if (value < min) {
+                    min = value;
+                }
+                if (value > max) {
+                    max = value;
+                }
+            }
+        }
+        return count == 0 ? null : new VitalRollupDTO.MetricSummary(count, min, max, sum / count);
+    }
+
+    // Premier indice logique dont l'horodatage est >= time
+    private int lowerBound(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timeAt(mid) < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Premier indice logique dont l'horodatage est > time
+    private int upperBound(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timeAt(mid) <= time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private double value(VitalMetric metric, int p) {
+        return switch (metric) {
+            case BLOOD_SUGAR -> bloodSugar[p];
+            case SYSTOLIC_BLOOD_PRESSURE -> systolic[p];
+            case DIASTOLIC_BLOOD_PRESSURE -> diastolic[p];
+            case HEART_RATE -> heartRate[p];
+        };
+    }
+
+    private long timeAt(int index) {
+        return times[slot(index)];
+    }
+
+    private int slot(int index) {
+        return (head + index) & (times.length - 1);
+    }
+
+    private void copy(int from, int to) {
+        times[to] = times[from];
+        present[to] = present[from];
+        bloodSugar[to] = bloodSugar[from];
+        systolic[to] = systolic[from];
+        diastolic[to] = diastolic[from];
+        heartRate[to] = heartRate[from];
+    }
+
+    // Nouvelle capacité ; les mesures sont recopiées dans l'ordre à partir de l'indice 0
+    private void allocate(int capacity) {
+        long[] newTimes = new long[capacity];
+        double[] newBloodSugar = new double[capacity];
+        int[] newSystolic = new int[capacity];
+        int[] newDiastolic = new int[capacity];
+        int[] newHeartRate = new int[capacity];
+        byte[] newPresent = new byte[capacity];
+        for (int i = 0; i < size; i++) {
+            int p = slot(i);
+            newTimes[i] = times[p];
+            newBloodSugar[i] = bloodSugar[p];
+            newSystolic[i] = systolic[p];
+            newDiastolic[i] = diastolic[p];
+            newHeartRate[i] = heartRate[p];
+            newPresent[i] = present[p];
+        }
+        times = newTimes;
+        bloodSugar = newBloodSugar;
+        systolic = newSystolic;
+        diastolic = newDiastolic;
+        heartRate = newHeartRate;
+        present = newPresent;
+        head = 0;
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.healthcare.util;
+
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.VitalMetric;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compression d'une fenêtre de mesures d'un patient, dans l'esprit de Gorilla (Facebook) :
+ * <ul>
+ *   <li>horodatages (microsecondes) et identifiants en delta-of-delta, codés sur 1 bit
+ *   quand l'intervalle est régulier ;</li>
+ *   <li>chaque mesure en colonne : un bit de présence par relevé, puis les valeurs présentes
+ *   XORées avec la précédente, dont seuls les bits significatifs sont écrits.</li>
+ * </ul>
+ * Les relevés doivent être triés par (recordedAt, id). Le décodage rend des MedicalData sans user.
+ */
+public final class VitalsBlockCodec {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final VitalMetric[] METRICS = VitalMetric.values();
+
+    private VitalsBlockCodec() {
+    }
+
+    public static byte[] encode(List<MedicalData> readings) {
+        int count = readings.size();
+        BitWriter out = new BitWriter(count * 8 + 32);
+        out.writeBits(FORMAT_VERSION, 8);
+        out.writeBits(count, 32);
+        if (count == 0) {
+            return out.toByteArray();
+        }
+
+        long[] timestamps = new long[count];
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            MedicalData medicalData = readings.get(i);
+            timestamps[i] = toMicros(medicalData.getRecordedAt());
+            ids[i] = medicalData.getId();
+        }
+        writeDeltaOfDelta(out, timestamps);
+        writeDeltaOfDelta(out, ids);
+
+        for (VitalMetric metric : METRICS) {
+            XorState state = new XorState();
+            for (MedicalData medicalData : readings) {
+                double value = metric.read(medicalData);
+                boolean present = value == value;
+                out.writeBit(present);
+                if (present) {
+                    state.write(out, Double.doubleToRawLongBits(value));
+                }
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static List<MedicalData> decode(byte[] block) {
+        BitReader in = new BitReader(block);
+        int version = (int) in.readBits(8);
+        if (version != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported archive block version " + version);
+        }
+        int count = (int) in.readBits(32);
+        List<MedicalData> readings = new ArrayList<>(count);
+        if (count == 0) {
+            return readings;
+        }
+
+        long[] timestamps = readDeltaOfDelta(in, count);
+        long[] ids = readDeltaOfDelta(in, count);
+        for (int i = 0; i < count; i++) {
+            MedicalData medicalData = new MedicalData();
+            medicalData.setId(ids[i]);
+            medicalData.setRecordedAt(fromMicros(timestamps[i]));
+            readings.add(medicalData);
+        }
+
+        for (VitalMetric metric : METRICS) {
+            XorState state = new XorState();
+            for (MedicalData medicalData : readings) {
+                if (in.readBit()) {
+                    double value = Double.longBitsToDouble(state.read(in));
+                    switch (metric) {
+                        case BLOOD_SUGAR -> medicalData.setBloodSugar(value);
+                        case SYSTOLIC_BLOOD_PRESSURE -> medicalData.setSystolicBloodPressure((int) value);
+                        case DIASTOLIC_BLOOD_PRESSURE -> medicalData.setDiastolicBloodPressure((int) value);
+                        case HEART_RATE -> medicalData.setHeartRate((int) value);
+                    }
+                }
+            }
+        }
+        return readings;
+    }
+
+    private static void writeDeltaOfDelta(BitWriter out, long[] values) {
+        out.writeBits(values[0], 64);
+        long previousDelta = 0;
+        for (int i = 1; i < values.length; i++) {
+            long delta = values[i] - values[i - 1];
+            writeSigned(out, delta - previousDelta);
+            previousDelta = delta;
+        }
+    }
+
+    private static long[] readDeltaOfDelta(BitReader in, int count) {
+        long[] values = new long[count];
+        values[0] = in.readBits(64);
+        long previousDelta = 0;
+        for (int i = 1; i < count; i++) {
+            previousDelta += readSigned(in);
+            values[i] = values[i - 1] + previousDelta;
+        }
+        return values;
+    }
+
+    // '0' pour 0, puis des tailles croissantes (préfixes 10, 110, 1110, 1111)
+    private static void writeSigned(BitWriter out, long value) {
+        if (value == 0) {
+            out.writeBit(false);
+        } else if (fits(value, 14)) {
+            out.writeBits(0b10, 2);
+            out.writeBits(value, 14);
+        } else if (fits(value, 24)) {
+            out.writeBits(0b110, 3);
+            out.writeBits(value, 24);
+        } else if (fits(value, 34)) {
+            out.writeBits(0b1110, 4);
+            out.writeBits(value, 34);
+        } else {
+            out.writeBits(0b1111, 4);
+            out.writeBits(value, 64);
+        }
+    }
+
+    private static long readSigned(BitReader in) {
+        if (!in.readBit()) {
+            return 0;
+        }
+        int bits;
+        if (!in.readBit()) {
+            bits = 14;
+        } else if (!in.readBit()) {
+            bits = 24;
+        } else if (!in.readBit()) {
+            bits = 34;
+        } else {
+            return in.readBits(64);
+        }
+        long raw = in.readBits(bits);
+        return (raw << (64 - bits)) >> (64 - bits);
+    }
+
+    private static boolean fits(long value, int bits) {
+        long limit = 1L << (bits - 1);
+        return value >= -limit && value < limit;
+    }
+
+    private static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Codage XOR d'une suite de doubles : '0' si la valeur est inchangée, sinon
+     * '10' + bits significatifs dans la fenêtre précédente, ou '11' + nouvelle fenêtre.
+     */
+    private static final class XorState {
+        private boolean first = true;
+        private long previous;
+        private int leading = -1;
+        private int trailing;
+
+        void write(BitWriter out, long bits) {
+            if (first) {
+                out.writeBits(bits, 64);
+                first = false;
+                previous = bits;
+                return;
+            }
+            long xor = bits ^ previous;
+            previous = bits;
+            if (xor == 0) {
+                out.writeBit(false);
+                return;
+            }
+            out.writeBit(true);
+            int lz = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int tz = Long.numberOfTrailingZeros(xor);
+            if (leading >= 0 && lz >= leading && tz >= trailing) {
+                out.writeBit(false);
+                out.writeBits(xor >>> trailing, 64 - leading - trailing);
+            } else {
+                leading = lz;
+                trailing = tz;
+                int length = 64 - lz - tz;
+                out.writeBit(true);
+                out.writeBits(lz, 5);
+                out.writeBits(length - 1, 6);
+                out.writeBits(xor >>> tz, length);
+            }
+        }
+
+        long read(BitReader in) {
+            if (first) {
+                first = false;
+                previous = in.readBits(64);
+                return previous;
+            }
+            if (!in.readBit()) {
+                return previous;
+            }
+            if (in.readBit()) {
+                leading = (int) in.readBits(5);
+                int length = (int) in.readBits(6) + 1;
+                trailing = 64 - leading - length;
+            }
+            long xor = in.readBits(64 - leading - trailing) << trailing;
+            previous ^= xor;
+            return previous;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.healthcare.Controller;
+
+import com.example.healthcare.Model.Role;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.exception.HashingCapacityExceededException;
+import com.example.healthcare.repository.UserRepository;
+import com.example.healthcare.service.PasswordHashingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.example.healthcare.TestFixtures.createUser;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuthControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private PasswordHashingService passwordHashingService;
+
+    @Test
+    void saturatedHashingPoolAnswers429WithRetryAfter() throws Exception {
+        User patient = createUser(userRepository, "auth", Role.PATIENT);
+        when(passwordHashingService.matches(any(), anyString()))
+                .thenThrow(new HashingCapacityExceededException("Too many concurrent authentication requests"));
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + patient.getEmail() + "\",\"password\":\"secret\",\"role\":\"PATIENT\"}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.message").value("Too many concurrent authentication requests, please retry shortly"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.healthcare.Controller;
+
+import com.example.healthcare.Model.Role;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.repository.UserRepository;
+import com.example.healthcare.security.JwtUtil;
+import com.example.healthcare.service.DoctorAvailabilityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.example.healthcare.TestFixtures.createUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class DoctorControllerTests {
+
+    private static final String MONDAY_MORNING = "[{\"dayOfWeek\":\"MONDAY\",\"startTime\":\"09:00\",\"endTime\":\"12:00\"}]";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DoctorAvailabilityService availabilityService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String bearer(User user) {
+        return "Bearer " + jwtUtil.generateToken(user.getEmail(), user.getRole().name(), user.getId());
+    }
+
+    @Test
+    void doctorCanOnlyUpdateTheirOwnWorkingHours() throws Exception {
+        User owner = createUser(userRepository, "hours", Role.DOCTOR);
+        User other = createUser(userRepository, "hours", Role.DOCTOR);
+
+        mockMvc.perform(put("/api/doctors/" + owner.getId() + "/working-hours")
+                        .header("Authorization", bearer(other))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(MONDAY_MORNING))
+                .andExpect(status().isForbidden())
+                .andExpect(content().string("Error: Only the doctor themself can update these working hours"));
+        assertTrue(availabilityService.getWorkingHours(owner.getId()).isEmpty());
+
+        mockMvc.perform(put("/api/doctors/" + owner.getId() + "/working-hours")
+                        .header("Authorization", bearer(owner))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(MONDAY_MORNING))
+                .andExpect(status().isOk());
+        assertEquals(1, availabilityService.getWorkingHours(owner.getId()).size());
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.healthcare.Controller;
+
+import com.example.healthcare.Model.Role;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.repository.UserRepository;
+import com.example.healthcare.security.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.example.healthcare.TestFixtures.createUser;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "medical-data.batch.max-items=3")
+@AutoConfigureMockMvc
+class MedicalDataControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private User patient;
+    private String bearer;
+
+    @BeforeEach
+    void setUp() {
+        patient = createUser(userRepository, "batch", Role.PATIENT);
+        bearer = "Bearer " + jwtUtil.generateToken(patient.getEmail(), patient.getRole().name(), patient.getId());
+    }
+
+    @Test
+    void oversizedBatchIsRejectedWith413() throws Exception {
+        mockMvc.perform(post("/api/medical-data/user/" + patient.getId() + "/batch")
+                        .header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"heartRate\":70},{\"heartRate\":71},{\"heartRate\":72},{\"heartRate\":73}]"))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(content().string("Error: at most 3 readings per batch"));
+    }
+
+    @Test
+    void invalidItemsAreReportedByIndexAndTheOthersStored() throws Exception {
+        mockMvc.perform(post("/api/medical-data/user/" + patient.getId() + "/batch")
+                        .header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"heartRate\":70,\"bloodSugar\":5.4},{\"bloodSugar\":0},{}]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.received").value(3))
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.rejectedItems[0].index").value(1))
+                .andExpect(jsonPath("$.rejectedItems[0].error").value("bloodSugar out of range"))
+                .andExpect(jsonPath("$.rejectedItems[1].index").value(2))
+                .andExpect(jsonPath("$.rejectedItems[1].error").value("At least one measurement is required"));
+    }
+}
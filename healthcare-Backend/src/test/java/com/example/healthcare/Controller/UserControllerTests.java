@@ -0,0 +1,61 @@
+package com.example.healthcare.Controller;
+
+import com.example.healthcare.Model.Role;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.repository.UserRepository;
+import com.example.healthcare.security.JwtUtil;
+import com.example.healthcare.service.CustomUserDetailService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.example.healthcare.TestFixtures.createUser;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Principal chargé via le cache de UserDetails plutôt que depuis les claims
+@SpringBootTest(properties = "jwt.auth.principal-source=user-details")
+@AutoConfigureMockMvc
+class UserControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @SpyBean
+    private CustomUserDetailService customUserDetailService;
+
+    @Test
+    void profileUpdateInvalidatesTheCachedUserDetails() throws Exception {
+        User patient = createUser(userRepository, "profile", Role.PATIENT);
+        String bearer = "Bearer " + jwtUtil.generateToken(patient.getEmail(), patient.getRole().name(), patient.getId());
+
+        mockMvc.perform(get("/api/users/profile").header("Authorization", bearer)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/profile").header("Authorization", bearer)).andExpect(status().isOk());
+        verify(customUserDetailService, times(1)).loadUserByUsername(patient.getEmail());
+
+        mockMvc.perform(put("/api/users/profile")
+                        .header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Nouveau nom\",\"phoneNumber\":\"0611111111\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Nouveau nom"));
+
+        // L'entrée a été retirée du cache : la requête suivante recharge le compte
+        mockMvc.perform(get("/api/users/profile").header("Authorization", bearer)).andExpect(status().isOk());
+        verify(customUserDetailService, times(2)).loadUserByUsername(patient.getEmail());
+    }
+}
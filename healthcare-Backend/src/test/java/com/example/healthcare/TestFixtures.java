@@ -0,0 +1,43 @@
+package com.example.healthcare;
+
+import com.example.healthcare.Model.MedicalDataDTO;
+import com.example.healthcare.Model.Role;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.repository.UserRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Données de test partagées : utilisateurs à e-mail unique et mesures de constantes.
+ */
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    /**
+     * Utilisateur non enregistré, d'e-mail unique ({@code prefix-ROLE-n@example.com}).
+     * Le mot de passe n'est jamais vérifié par les tests qui l'utilisent.
+     */
+    public static User newUser(String prefix, Role role) {
+        User user = new User();
+        user.setEmail(prefix + "-" + role + "-" + System.nanoTime() + "@example.com");
+        user.setPassword("not-used");
+        user.setRole(role);
+        user.setName(prefix + " " + role);
+        user.setPhoneNumber("0600000000");
+        return user;
+    }
+
+    public static User createUser(UserRepository userRepository, String prefix, Role role) {
+        return userRepository.save(newUser(prefix, role));
+    }
+
+    public static MedicalDataDTO reading(LocalDateTime recordedAt, Double bloodSugar, Integer heartRate) {
+        MedicalDataDTO dto = new MedicalDataDTO();
+        dto.setRecordedAt(recordedAt);
+        dto.setBloodSugar(bloodSugar);
+        dto.setHeartRate(heartRate);
+        return dto;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.healthcare.config;
+
+import com.example.healthcare.Model.Role;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.repository.UserRepository;
+import com.example.healthcare.security.JwtUtil;
+import com.example.healthcare.service.TokenBlacklistService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static com.example.healthcare.TestFixtures.newUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class JwtTokenValidatorTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TokenBlacklistService tokenBlacklistService;
+
+    private User patient;
+
+    @BeforeEach
+    void setUp() {
+        patient = userRepository.findByEmail("validator-patient@example.com");
+        if (patient == null) {
+            User user = newUser("validator", Role.PATIENT);
+            user.setEmail("validator-patient@example.com");
+            patient = userRepository.save(user);
+        }
+    }
+
+    @Test
+    void authenticatedRequestRunsOneQueryAndOnePipelinePass() throws Exception {
+        String jwt = jwtUtil.generateToken(patient.getEmail(), patient.getRole().name(), patient.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long verifiedBefore = stageCount("verify");
+        statistics.clear();
+
+        mockMvc.perform(get("/api/appointments/user/" + patient.getId())
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isOk());
+
+        // Seule la requête du contrôleur (findByUserId) doit atteindre la base
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(verifiedBefore + 1, stageCount("verify"));
+    }
+
+    @Test
+    void invalidTokenIsRejected() throws Exception {
+        mockMvc.perform(get("/api/appointments/user/" + patient.getId())
+                        .header("Authorization", "Bearer not-a-jwt"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void accessTokenOfARevokedSessionIsRejected() throws Exception {
+        String sessionId = UUID.randomUUID().toString();
+        String jwt = jwtUtil.generateToken(patient.getEmail(), patient.getRole().name(), patient.getId(), sessionId);
+        tokenBlacklistService.revokeSession(sessionId, LocalDateTime.now().plusHours(1));
+
+        mockMvc.perform(get("/api/appointments/user/" + patient.getId())
+                        .header("Authorization", "Bearer " + jwt))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private long stageCount(String stage) {
+        return meterRegistry.get("auth.pipeline.stage").tag("stage", stage).timer().count();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.healthcare.security;
+
+import com.example.healthcare.service.UserDetailsCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class JwtPrincipalFactoryTests {
+
+    private final JwtUtil jwtUtil = new JwtUtil(100, 60000);
+    private final UserDetailsCache userDetailsCache = mock(UserDetailsCache.class);
+
+    @Test
+    void claimsModeBuildsThePrincipalWithoutLoadingTheUser() {
+        JwtPrincipalFactory factory = new JwtPrincipalFactory(userDetailsCache, JwtPrincipalFactory.MODE_CLAIMS);
+        ParsedToken token = jwtUtil.parse(jwtUtil.generateToken("claims@example.com", "DOCTOR", 7L));
+
+        AuthenticatedUser principal = assertInstanceOf(AuthenticatedUser.class, factory.resolve(token));
+
+        assertEquals(7L, principal.getId());
+        assertEquals("claims@example.com", principal.getUsername());
+        assertEquals("DOCTOR", principal.getRole());
+        assertEquals("ROLE_DOCTOR", principal.getAuthorities().iterator().next().getAuthority());
+        verifyNoInteractions(userDetailsCache);
+    }
+
+    @Test
+    void tokensWithoutRoleAndUserDetailsModeGoThroughTheCache() {
+        UserDetails loaded = new User("cached@example.com", "hash", List.of());
+        when(userDetailsCache.loadUserByUsername("cached@example.com")).thenReturn(loaded);
+
+        JwtPrincipalFactory claims = new JwtPrincipalFactory(userDetailsCache, JwtPrincipalFactory.MODE_CLAIMS);
+        assertSame(loaded, claims.resolve(jwtUtil.parse(jwtUtil.generateToken("cached@example.com", null))));
+
+        JwtPrincipalFactory userDetails = new JwtPrincipalFactory(userDetailsCache, JwtPrincipalFactory.MODE_USER_DETAILS);
+        assertSame(loaded, userDetails.resolve(jwtUtil.parse(jwtUtil.generateToken("cached@example.com", "PATIENT", 3L))));
+    }
+}
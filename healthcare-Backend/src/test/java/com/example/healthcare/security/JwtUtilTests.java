@@ -0,0 +1,26 @@
+package com.example.healthcare.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtUtilTests {
+
+    @Test
+    void claimsAreCachedUntilTheTokenExpires() throws Exception {
+        JwtUtil jwtUtil = new JwtUtil(100, 1000);
+        String token = jwtUtil.generateToken("cache@example.com", "PATIENT", 42L, "session-1");
+
+        ParsedToken parsed = jwtUtil.parse(token);
+        assertSame(parsed, jwtUtil.parse(token));
+        assertEquals(42L, parsed.getUserId());
+        assertEquals("session-1", parsed.getSessionId());
+
+        // L'entrée expire avec le token : la vérification suivante refuse le token expiré
+        Thread.sleep(parsed.getExpiresAtMillis() - System.currentTimeMillis() + 50);
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.parse(token));
+    }
+}
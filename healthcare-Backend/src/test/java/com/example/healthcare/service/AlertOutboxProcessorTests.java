@@ -0,0 +1,167 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.AlertOutbox;
+import com.example.healthcare.Model.AlertStatus;
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.Role;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.repository.AlertOutboxRepository;
+import com.example.healthcare.repository.UserRepository;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.example.healthcare.TestFixtures.createUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class AlertOutboxProcessorTests {
+
+    // Même port que spring.mail.port dans les propriétés de test
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(new ServerSetup(2525, null, ServerSetup.PROTOCOL_SMTP))
+            .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+
+    @Autowired
+    private AlertOutboxService alertOutboxService;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private MedicalDataService medicalDataService;
+
+    @Autowired
+    private AlertOutboxRepository alertOutboxRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Processeur propre au test ; celui du contexte ne voit pas ces alertes avant sa fenêtre de 60 s
+    private AlertOutboxProcessor processor(String nodeId, long coalesceWindowMillis, int maxAttempts, long retryDelayMillis) {
+        return new AlertOutboxProcessor(alertOutboxService, emailService, new SimpleMeterRegistry(), 2,
+                coalesceWindowMillis, 500, maxAttempts, nodeId, 300000, retryDelayMillis, 3600000);
+    }
+
+    private List<AlertOutbox> alertsOf(User user) {
+        return alertOutboxRepository.findAll().stream()
+                .filter(alert -> alert.getUser().getId().equals(user.getId()))
+                .toList();
+    }
+
+    @Test
+    void abnormalReadingIsQueuedWithTheMeasurement() {
+        User patient = createUser(userRepository, "outbox", Role.PATIENT);
+        MedicalData reading = new MedicalData();
+        reading.setBloodSugar(400.0);
+
+        medicalDataService.addMedicalData(patient.getId(), reading);
+
+        List<AlertOutbox> alerts = alertsOf(patient);
+        assertEquals(1, alerts.size());
+        assertEquals(AlertStatus.PENDING, alerts.get(0).getStatus());
+        assertEquals(0, alerts.get(0).getAttempts());
+        assertNull(alerts.get(0).getClaimedBy());
+        // Rien n'est envoyé sur le fil de la requête
+        assertEquals(0, greenMail.getReceivedMessagesForDomain(patient.getEmail()).length);
+    }
+
+    @Test
+    void alertsOfOnePatientAreCoalescedAfterTheWindow() throws Exception {
+        User patient = createUser(userRepository, "outbox", Role.PATIENT);
+        for (int i = 0; i < 3; i++) {
+            alertOutboxService.enqueue(patient, "Alerte " + i + "\n");
+        }
+        AlertOutboxProcessor processor = processor("node-a", 300, 5, 60000);
+
+        processor.processOutbox();
+        assertEquals(0, greenMail.getReceivedMessagesForDomain(patient.getEmail()).length);
+
+        Thread.sleep(400);
+        processor.processOutbox();
+        MimeMessage[] received = greenMail.getReceivedMessagesForDomain(patient.getEmail());
+        assertEquals(1, received.length);
+        String body = GreenMailUtil.getBody(received[0]);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(body.contains("Alerte " + i));
+        }
+        for (AlertOutbox alert : alertsOf(patient)) {
+            assertEquals(AlertStatus.SENT, alert.getStatus());
+            assertNull(alert.getClaimedBy());
+        }
+
+        processor.processOutbox();
+        assertEquals(1, greenMail.getReceivedMessagesForDomain(patient.getEmail()).length);
+    }
+
+    @Test
+    void failedAlertsBackOffThenGiveUp() throws Exception {
+        User patient = createUser(userRepository, "outbox", Role.PATIENT);
+        alertOutboxService.enqueue(patient, "Alerte\n");
+        AlertOutboxProcessor processor = processor("node-a", 0, 2, 200);
+        LocalDateTime before = LocalDateTime.now();
+        greenMail.stop();
+
+        processor.processOutbox();
+        AlertOutbox alert = alertsOf(patient).get(0);
+        assertEquals(AlertStatus.PENDING, alert.getStatus());
+        assertEquals(1, alert.getAttempts());
+        assertTrue(alert.getNextAttemptAt().isAfter(before));
+        assertNull(alert.getClaimedBy());
+
+        // Pas de nouvel essai avant l'échéance
+        processor.processOutbox();
+        assertEquals(1, alertsOf(patient).get(0).getAttempts());
+        assertEquals(400, processor.backoffMillis(2));
+
+        Thread.sleep(300);
+        processor.processOutbox();
+        alert = alertsOf(patient).get(0);
+        assertEquals(2, alert.getAttempts());
+        assertEquals(AlertStatus.FAILED, alert.getStatus());
+    }
+
+    @Test
+    void alertsOfAStoppedInstanceAreTakenOverWhenTheLeaseExpires() throws Exception {
+        User patient = createUser(userRepository, "outbox", Role.PATIENT);
+        alertOutboxService.enqueue(patient, "Alerte\n");
+        LocalDateTime now = LocalDateTime.now();
+        assertFalse(alertOutboxService.claimDue("stopped", now, now, now.plusNanos(300_000_000), 500).isEmpty());
+
+        AlertOutboxProcessor survivor = processor("survivor", 0, 5, 60000);
+        survivor.processOutbox();
+        assertEquals(0, greenMail.getReceivedMessagesForDomain(patient.getEmail()).length);
+        Thread.sleep(400);
+        survivor.processOutbox();
+        assertEquals(1, greenMail.getReceivedMessagesForDomain(patient.getEmail()).length);
+        assertEquals(AlertStatus.SENT, alertsOf(patient).get(0).getStatus());
+    }
+
+    @Test
+    void cleanupDeletesOnlyAlertsSentMoreThanAWeekAgo() {
+        User patient = createUser(userRepository, "outbox", Role.PATIENT);
+        AlertOutbox old = alertOutboxService.enqueue(patient, "Ancienne\n");
+        AlertOutbox recent = alertOutboxService.enqueue(patient, "Récente\n");
+        AlertOutbox pending = alertOutboxService.enqueue(patient, "En attente\n");
+        alertOutboxService.markSent(List.of(old.getId()), LocalDateTime.now().minusDays(8));
+        alertOutboxService.markSent(List.of(recent.getId()), LocalDateTime.now().minusDays(1));
+
+        processor("node-a", 60000, 5, 60000).cleanupSentAlerts();
+
+        List<Long> remaining = alertsOf(patient).stream().map(AlertOutbox::getId).toList();
+        assertEquals(List.of(recent.getId(), pending.getId()), remaining);
+    }
+}
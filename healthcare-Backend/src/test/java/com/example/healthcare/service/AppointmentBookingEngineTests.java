@@ -0,0 +1,137 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.Appointment;
+import com.example.healthcare.Model.Role;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.exception.AppointmentConflictException;
+import com.example.healthcare.repository.AppointmentRepository;
+import com.example.healthcare.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.healthcare.TestFixtures.createUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class AppointmentBookingEngineTests {
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentBookingEngine bookingEngine;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Appointment book(User patient, User doctor, LocalDateTime date) {
+        Appointment appointment = new Appointment();
+        appointment.setAppointmentDate(date);
+        appointment.setReason("Consultation");
+        return appointmentService.addAppointment(patient.getId(), doctor.getId(), appointment);
+    }
+
+    @Test
+    void concurrentBookingsOfTheSameSlotAcceptOnlyOne() throws Exception {
+        User doctor = createUser(userRepository, "booking", Role.DOCTOR);
+        List<User> patients = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            patients.add(createUser(userRepository, "booking", Role.PATIENT));
+        }
+        LocalDateTime slot = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.HOURS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(patients.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < patients.size(); i++) {
+            User patient = patients.get(i);
+            // Début décalé de quelques minutes : les plages se chevauchent toutes
+            LocalDateTime date = slot.plusMinutes(i);
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    book(patient, doctor, date);
+                    return true;
+                } catch (AppointmentConflictException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+        int booked = 0;
+        for (Future<Boolean> result : results) {
+            booked += result.get(30, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        executor.shutdown();
+        assertEquals(1, booked);
+        assertEquals(1, appointmentService.getAppointmentsForDoctor(doctor.getId()).size());
+
+        // Le créneau suivant reste libre ; rechargement depuis la base sans effet sur les conflits
+        int slotMinutes = bookingEngine.getSlotMinutes();
+        Appointment next = book(patients.get(0), doctor, slot.plusMinutes(slotMinutes + patients.size()));
+        bookingEngine.reconcile();
+        assertThrows(AppointmentConflictException.class, () -> book(patients.get(1), doctor, next.getAppointmentDate()));
+
+        // Suppression : la plage redevient disponible
+        appointmentService.deleteAppointment(next.getId());
+        book(patients.get(1), doctor, next.getAppointmentDate());
+    }
+
+    @Test
+    void aPatientCannotBeBookedWithTwoDoctorsAtOnce() {
+        User patient = createUser(userRepository, "booking", Role.PATIENT);
+        User first = createUser(userRepository, "booking", Role.DOCTOR);
+        User second = createUser(userRepository, "booking", Role.DOCTOR);
+        LocalDateTime date = LocalDateTime.now().plusDays(5).truncatedTo(ChronoUnit.HOURS);
+
+        book(patient, first, date);
+        assertThrows(AppointmentConflictException.class, () -> book(patient, second, date.plusMinutes(10)));
+
+        Appointment longer = new Appointment();
+        longer.setAppointmentDate(date.minusHours(2));
+        longer.setReason("Bilan");
+        longer.setDurationMinutes(150);
+        assertThrows(AppointmentConflictException.class,
+                () -> appointmentService.addAppointment(patient.getId(), second.getId(), longer));
+        longer.setDurationMinutes(120);
+        assertEquals(120, appointmentService.addAppointment(patient.getId(), second.getId(), longer).getDurationMinutes());
+    }
+
+    @Test
+    void appointmentsUnknownToTheCalendarAreCaughtAtCommit() {
+        User patient = createUser(userRepository, "booking", Role.PATIENT);
+        User other = createUser(userRepository, "booking", Role.PATIENT);
+        User doctor = createUser(userRepository, "booking", Role.DOCTOR);
+        LocalDateTime date = LocalDateTime.now().plusDays(6).truncatedTo(ChronoUnit.HOURS);
+        book(patient, doctor, date);
+
+        // Rendez-vous enregistré par une autre instance : absent de l'agenda en mémoire
+        Appointment stored = new Appointment();
+        stored.setUser(other);
+        stored.setDoctor(doctor);
+        stored.setAppointmentDate(date.plusHours(2));
+        stored.setReason("Autre instance");
+        stored.setDurationMinutes(60);
+        appointmentRepository.save(stored);
+
+        assertThrows(AppointmentConflictException.class, () -> book(patient, doctor, date.plusHours(2).plusMinutes(30)));
+        // La réservation refusée est libérée : le créneau suivant reste réservable
+        book(patient, doctor, date.plusHours(3));
+        assertEquals(3, appointmentService.getAppointmentsForDoctor(doctor.getId()).size());
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.Appointment;
+import com.example.healthcare.Model.AppointmentReminder;
+import com.example.healthcare.Model.Role;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.repository.AppointmentReminderRepository;
+import com.example.healthcare.repository.AppointmentRepository;
+import com.example.healthcare.repository.UserRepository;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.example.healthcare.TestFixtures.createUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class AppointmentReminderClaimerTests {
+
+    // Même port que spring.mail.port dans les propriétés de test
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(new ServerSetup(2525, null, ServerSetup.PROTOCOL_SMTP))
+            .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+
+    @Autowired
+    private AppointmentReminderService reminderService;
+
+    @Autowired
+    private AppointmentReminderWheel reminderWheel;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private AppointmentReminderRepository reminderRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private List<Long> saveDueReminders(User patient, int count) {
+        User doctor = createUser(userRepository, "claim", Role.DOCTOR);
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Appointment appointment = new Appointment();
+            appointment.setUser(patient);
+            appointment.setDoctor(doctor);
+            appointment.setAppointmentDate(now.plusDays(2).plusMinutes(i));
+            appointment.setReason("Contrôle " + i);
+            appointment = appointmentRepository.save(appointment);
+            AppointmentReminder reminder = new AppointmentReminder();
+            reminder.setAppointment(appointment);
+            reminder.setReminderTime(now.minusSeconds(1));
+            ids.add(reminderRepository.save(reminder).getId());
+        }
+        return ids;
+    }
+
+    // Une « instance » : son propre pool d'envoi et son propre identifiant, sur la même base
+    private AppointmentReminderClaimer instance(String nodeId, long leaseMillis) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AppointmentReminderDispatcher dispatcher = new AppointmentReminderDispatcher(reminderService, reminderWheel,
+                emailService, registry, 2, 20, 5, 60000, 3600000);
+        return new AppointmentReminderClaimer(reminderService, dispatcher, registry, nodeId, leaseMillis, 0);
+    }
+
+    @Test
+    void concurrentInstancesShareDueRemindersWithoutDuplicates() throws Exception {
+        User patient = createUser(userRepository, "claim", Role.PATIENT);
+        List<Long> ids = saveDueReminders(patient, 300);
+        List<AppointmentReminderClaimer> instances = List.of(
+                instance("node-a", 300000), instance("node-b", 300000), instance("node-c", 300000));
+
+        ExecutorService pool = Executors.newFixedThreadPool(instances.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (AppointmentReminderClaimer claimer : instances) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return claimer.claimAndDispatch(LocalDateTime.now());
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        MimeMessage[] received = greenMail.getReceivedMessagesForDomain(patient.getEmail());
+        assertEquals(300, received.length);
+        Set<String> bodies = new HashSet<>();
+        for (MimeMessage message : received) {
+            bodies.add(GreenMailUtil.getBody(message));
+        }
+        assertEquals(300, bodies.size());
+        for (AppointmentReminder reminder : reminderRepository.findAllById(ids)) {
+            assertTrue(reminder.isSent());
+            assertEquals(1, reminder.getAttempts());
+        }
+    }
+
+    @Test
+    void remindersOfAStoppedInstanceAreTakenOverWhenTheLeaseExpires() throws Exception {
+        User patient = createUser(userRepository, "claim", Role.PATIENT);
+        List<Long> ids = saveDueReminders(patient, 5);
+        // L'instance réclame puis s'arrête sans envoyer
+        LocalDateTime now = LocalDateTime.now();
+        assertTrue(reminderService.claimDue("stopped", now, now.plusNanos(300_000_000), 100).containsAll(ids));
+
+        AppointmentReminderClaimer survivor = instance("survivor", 300000);
+        survivor.claimAndDispatch(LocalDateTime.now());
+        assertEquals(0, greenMail.getReceivedMessagesForDomain(patient.getEmail()).length);
+        Thread.sleep(400);
+        survivor.claimAndDispatch(LocalDateTime.now());
+        assertEquals(5, greenMail.getReceivedMessagesForDomain(patient.getEmail()).length);
+        for (AppointmentReminder reminder : reminderRepository.findAllById(ids)) {
+            assertTrue(reminder.isSent());
+            assertEquals("survivor", reminder.getClaimedBy());
+        }
+    }
+}
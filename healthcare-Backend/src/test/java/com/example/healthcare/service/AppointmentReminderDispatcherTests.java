@@ -0,0 +1,109 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.Appointment;
+import com.example.healthcare.Model.AppointmentReminder;
+import com.example.healthcare.Model.Role;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.repository.AppointmentReminderRepository;
+import com.example.healthcare.repository.AppointmentRepository;
+import com.example.healthcare.repository.UserRepository;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.healthcare.TestFixtures.createUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"reminders.dispatch.batch-size=25", "reminders.max-attempts=2"})
+class AppointmentReminderDispatcherTests {
+
+    // Même port que spring.mail.port dans les propriétés de test
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(new ServerSetup(2525, null, ServerSetup.PROTOCOL_SMTP))
+            .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+
+    @Autowired
+    private AppointmentReminderDispatcher dispatcher;
+
+    @Autowired
+    private AppointmentReminderRepository reminderRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private List<Long> saveDueReminders(int count) {
+        User patient = createUser(userRepository, "dispatch", Role.PATIENT);
+        User doctor = createUser(userRepository, "dispatch", Role.DOCTOR);
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Appointment appointment = new Appointment();
+            appointment.setUser(patient);
+            appointment.setDoctor(doctor);
+            appointment.setAppointmentDate(now.plusDays(1).plusMinutes(i));
+            appointment.setReason("Suivi " + i);
+            appointment = appointmentRepository.save(appointment);
+            AppointmentReminder reminder = new AppointmentReminder();
+            reminder.setAppointment(appointment);
+            reminder.setReminderTime(now.minusSeconds(1));
+            ids.add(reminderRepository.save(reminder).getId());
+        }
+        return ids;
+    }
+
+    @Test
+    void dueRemindersAreSentInParallelBatchesAndMarkedOnce() {
+        List<Long> ids = saveDueReminders(200);
+
+        assertEquals(200, dispatcher.dispatch(ids));
+        assertEquals(200, greenMail.getReceivedMessages().length);
+        for (AppointmentReminder reminder : reminderRepository.findAllById(ids)) {
+            assertTrue(reminder.isSent());
+            assertNotNull(reminder.getSentAt());
+            assertEquals(1, reminder.getAttempts());
+        }
+
+        // Un second passage ne renvoie rien
+        assertEquals(0, dispatcher.dispatch(ids));
+        assertEquals(200, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void failedSendsAreRescheduledWithBackoffThenAbandoned() {
+        List<Long> ids = saveDueReminders(3);
+        LocalDateTime before = LocalDateTime.now();
+        greenMail.stop();
+
+        assertEquals(0, dispatcher.dispatch(ids));
+        for (AppointmentReminder reminder : reminderRepository.findAllById(ids)) {
+            assertFalse(reminder.isSent());
+            assertFalse(reminder.isFailed());
+            assertEquals(1, reminder.getAttempts());
+            assertTrue(reminder.getReminderTime().isAfter(before.plusSeconds(59)));
+            assertNotNull(reminder.getLastError());
+        }
+        assertEquals(120_000, dispatcher.backoffMillis(2));
+
+        // Deuxième échec : reminders.max-attempts est atteint
+        assertEquals(0, dispatcher.dispatch(ids));
+        for (AppointmentReminder reminder : reminderRepository.findAllById(ids)) {
+            assertTrue(reminder.isFailed());
+            assertEquals(2, reminder.getAttempts());
+        }
+        assertEquals(0, reminderRepository.findSendable(ids).size());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.Appointment;
+import com.example.healthcare.Model.AppointmentReminder;
+import com.example.healthcare.Model.Role;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.repository.AppointmentReminderRepository;
+import com.example.healthcare.repository.AppointmentRepository;
+import com.example.healthcare.repository.SchedulerWatermarkRepository;
+import com.example.healthcare.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.example.healthcare.TestFixtures.createUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = "reminders.wheel.tick-ms=100")
+class AppointmentReminderWheelTests {
+
+    @MockBean
+    private EmailService emailService;
+
+    @Autowired
+    private AppointmentReminderWheel reminderWheel;
+
+    @Autowired
+    private AppointmentReminderRepository reminderRepository;
+
+    @Autowired
+    private SchedulerWatermarkRepository watermarkRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private AppointmentReminder saveReminder(User patient, User doctor, LocalDateTime reminderTime) {
+        Appointment appointment = new Appointment();
+        appointment.setUser(patient);
+        appointment.setDoctor(doctor);
+        appointment.setAppointmentDate(reminderTime.plusHours(24));
+        appointment.setReason("Suivi");
+        appointment = appointmentRepository.save(appointment);
+        AppointmentReminder reminder = new AppointmentReminder();
+        reminder.setAppointment(appointment);
+        reminder.setReminderTime(reminderTime);
+        reminder.setSent(false);
+        return reminderRepository.save(reminder);
+    }
+
+    @Test
+    void dueRemindersAreSentOnTimeAndMissedOnesAreCaughtUpAfterARestart() throws Exception {
+        User patient = createUser(userRepository, "reminder", Role.PATIENT);
+        User doctor = createUser(userRepository, "reminder", Role.DOCTOR);
+
+        AppointmentReminder due = saveReminder(patient, doctor, LocalDateTime.now().plusNanos(300_000_000));
+        reminderWheel.schedule(due.getId(), due.getReminderTime());
+        verify(emailService, timeout(5000)).sendAll(anyList());
+        Thread.sleep(200);
+        assertTrue(reminderRepository.findById(due.getId()).orElseThrow().isSent());
+        LocalDateTime watermark = watermarkRepository.findById(AppointmentReminderWheel.WATERMARK_NAME)
+                .orElseThrow().getWatermark();
+        assertTrue(!watermark.isBefore(due.getReminderTime()));
+
+        // Rappels enregistrés pendant un arrêt : seul celui qui suit le point de reprise est rattrapé
+        AppointmentReminder missed = saveReminder(patient, doctor, watermark.plusNanos(1_000_000));
+        AppointmentReminder alreadyHandled = saveReminder(patient, doctor, watermark.minusSeconds(1));
+        AppointmentReminder later = saveReminder(patient, doctor, LocalDateTime.now().plusHours(2));
+        AppointmentReminderWheel restarted = new AppointmentReminderWheel(reminderRepository, watermarkRepository,
+                100, 64, 6, 24, new SimpleMeterRegistry());
+        restarted.load();
+        assertEquals(2, restarted.pending());
+        // Les échéances passées sont rendues au tick suivant
+        assertEquals(List.of(missed.getId()), restarted.advance(LocalDateTime.now().plusNanos(200_000_000)));
+        assertEquals(List.of(later.getId()), restarted.advance(later.getReminderTime().plusSeconds(1)));
+        assertEquals(0, restarted.pending());
+        assertTrue(!reminderRepository.findById(alreadyHandled.getId()).orElseThrow().isSent());
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.Appointment;
+import com.example.healthcare.Model.DoctorAvailabilityDTO;
+import com.example.healthcare.Model.Role;
+import com.example.healthcare.Model.Specialization;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.Model.WorkingHoursDTO;
+import com.example.healthcare.repository.SpecializationRepository;
+import com.example.healthcare.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.healthcare.TestFixtures.newUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class DoctorAvailabilityServiceTests {
+
+    @Autowired
+    private DoctorAvailabilityService availabilityService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SpecializationRepository specializationRepository;
+
+    private User createUser(Role role, Specialization specialization) {
+        User user = newUser("availability", role);
+        user.setSpecialization(specialization);
+        return userRepository.save(user);
+    }
+
+    // Matinées 9h-12h et un après-midi 14h-15h chaque jour de la semaine
+    private void setMornings(User doctor) {
+        List<WorkingHoursDTO> hours = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            hours.add(new WorkingHoursDTO(day, LocalTime.of(14, 0), LocalTime.of(15, 0)));
+            hours.add(new WorkingHoursDTO(day, LocalTime.of(9, 0), LocalTime.of(12, 0)));
+        }
+        availabilityService.setWorkingHours(doctor.getId(), hours);
+    }
+
+    private static List<LocalDateTime> times(LocalDate day, String... times) {
+        List<LocalDateTime> result = new ArrayList<>();
+        for (String time : times) {
+            result.add(day.atTime(LocalTime.parse(time)));
+        }
+        return result;
+    }
+
+    @Test
+    void freeSlotsExcludeBookedIntervalsForOneDoctorAndAcrossASpecialization() {
+        Specialization specialization = specializationRepository.save(new Specialization("Cardiologie " + System.nanoTime()));
+        User first = createUser(Role.DOCTOR, specialization);
+        User second = createUser(Role.DOCTOR, specialization);
+        createUser(Role.DOCTOR, specialization); // sans plage horaire : jamais proposé
+        User patient = createUser(Role.PATIENT, null);
+        setMornings(first);
+        setMornings(second);
+        assertEquals(14, availabilityService.getWorkingHours(first.getId()).size());
+
+        LocalDate day = LocalDate.now().plusDays(2);
+        Appointment appointment = new Appointment();
+        appointment.setAppointmentDate(day.atTime(10, 15));
+        appointment.setReason("Contrôle");
+        appointment.setDurationMinutes(45);
+        appointmentService.addAppointment(patient.getId(), first.getId(), appointment);
+
+        LocalDateTime from = day.atTime(8, 0);
+        LocalDateTime to = day.atTime(18, 0);
+        DoctorAvailabilityDTO availability = availabilityService.getAvailability(first.getId(), from, to);
+        assertEquals(30, availability.getSlotMinutes());
+        assertEquals(times(day, "09:00", "09:30", "11:00", "11:30", "14:00", "14:30"), availability.getSlots());
+
+        // La période commence en cours de plage
+        assertEquals(times(day, "11:30", "14:00"), availabilityService
+                .getAvailability(first.getId(), day.atTime(11, 20), day.atTime(14, 30)).getSlots());
+
+        List<DoctorAvailabilityDTO> bySpecialization =
+                availabilityService.getAvailabilityBySpecialization(specialization.getId(), from, to);
+        assertEquals(2, bySpecialization.size());
+        assertEquals(List.of(first.getId(), second.getId()),
+                bySpecialization.stream().map(DoctorAvailabilityDTO::getDoctorId).sorted().toList());
+        DoctorAvailabilityDTO secondAvailability = bySpecialization.stream()
+                .filter(a -> a.getDoctorId().equals(second.getId())).findFirst().orElseThrow();
+        assertEquals(8, secondAvailability.getSlots().size());
+    }
+
+    @Test
+    void rejectsOverlappingWorkingHours() {
+        User doctor = createUser(Role.DOCTOR, null);
+        List<WorkingHoursDTO> hours = List.of(
+                new WorkingHoursDTO(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(12, 0)),
+                new WorkingHoursDTO(DayOfWeek.MONDAY, LocalTime.of(11, 0), LocalTime.of(13, 0)));
+        assertThrows(IllegalArgumentException.class, () -> availabilityService.setWorkingHours(doctor.getId(), hours));
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.IngestDeadLetter;
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.MedicalDataBatchResult;
+import com.example.healthcare.Model.MedicalDataDTO;
+import com.example.healthcare.Model.Role;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.exception.ResourceNotFoundException;
+import com.example.healthcare.repository.IngestDeadLetterRepository;
+import com.example.healthcare.repository.IngestLogCheckpointRepository;
+import com.example.healthcare.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.healthcare.TestFixtures.createUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "medical-data.wal.enabled=true",
+        "medical-data.wal.dir=target/ingest-log-test-${random.uuid}",
+        "medical-data.wal.segment-size-bytes=4096",
+        "medical-data.wal.drain-interval-ms=3600000"
+})
+class IngestLogDrainerTests {
+
+    private static final long UNKNOWN_USER_ID = 999_999L;
+
+    @Autowired
+    private MedicalDataService medicalDataService;
+
+    @Autowired
+    private IngestLogService ingestLogService;
+
+    @Autowired
+    private IngestLogDrainer ingestLogDrainer;
+
+    @Autowired
+    private IngestLogCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private IngestDeadLetterRepository deadLetterRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private static List<MedicalDataDTO> readings(LocalDateTime start, int count) {
+        List<MedicalDataDTO> readings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            MedicalDataDTO dto = new MedicalDataDTO();
+            dto.setRecordedAt(start.plusMinutes(i));
+            dto.setHeartRate(70 + i % 5);
+            if (i % 10 == 0) {
+                dto.setBloodSugar(101.5);
+            }
+            readings.add(dto);
+        }
+        return readings;
+    }
+
+    @Test
+    void loggedReadingsAreLoadedOnceAndReplayedAfterARestart() {
+        User patient = createUser(userRepository, "wal", Role.PATIENT);
+        LocalDateTime start = LocalDateTime.of(2025, 5, 1, 8, 0);
+
+        // 150 mesures de 45 octets : plusieurs segments de 4 Ko
+        MedicalDataBatchResult result = medicalDataService.logMedicalDataBatch(patient.getId(), readings(start, 150));
+        assertEquals(150, result.getAccepted());
+        // Un id inconnu est refusé avant d'entrer dans le journal
+        assertThrows(ResourceNotFoundException.class,
+                () -> medicalDataService.logMedicalDataBatch(UNKNOWN_USER_ID, readings(start, 3)));
+        // Accepté pendant une panne de la base : mis de côté au chargement, pas perdu
+        MedicalData accepted = new MedicalData();
+        accepted.setRecordedAt(start);
+        accepted.setHeartRate(64);
+        ingestLogService.append(UNKNOWN_USER_ID, List.of(accepted, accepted));
+        assertEquals(0, medicalDataService.getMedicalDataByUserId(patient.getId()).size());
+
+        assertEquals(152, ingestLogDrainer.drainAll());
+        List<MedicalData> stored = medicalDataService.getMedicalDataByUserId(patient.getId());
+        assertEquals(150, stored.size());
+        assertEquals(Double.valueOf(101.5), stored.stream()
+                .filter(m -> m.getRecordedAt().equals(start)).findFirst().orElseThrow().getBloodSugar());
+        List<IngestDeadLetter> deadLetters = deadLetterRepository.findByUserIdOrderByRecordedAt(UNKNOWN_USER_ID);
+        assertEquals(2, deadLetters.size());
+        assertEquals(Integer.valueOf(64), deadLetters.get(0).getHeartRate());
+        assertEquals(ingestLogService.getLogId(), deadLetters.get(0).getLogId());
+        assertEquals(0, ingestLogDrainer.drainAll());
+
+        // Redémarrage simulé : un nouveau drainer reprend au point de reprise enregistré en base
+        medicalDataService.logMedicalDataBatch(patient.getId(), readings(start.plusHours(5), 20));
+        IngestLogDrainer restarted = new IngestLogDrainer(ingestLogService, medicalDataService,
+                checkpointRepository, 7, new SimpleMeterRegistry());
+        assertEquals(20, restarted.drainAll());
+        assertEquals(170, medicalDataService.getMedicalDataByUserId(patient.getId()).size());
+        assertEquals(ingestLogService.log().endPosition(),
+                checkpointRepository.findById(ingestLogService.getLogId()).orElseThrow().getPosition());
+    }
+}
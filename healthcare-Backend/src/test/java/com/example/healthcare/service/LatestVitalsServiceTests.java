@@ -0,0 +1,72 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.LatestVitals;
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.Role;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.Model.VitalMetric;
+import com.example.healthcare.repository.MedicalDataJdbcRepository;
+import com.example.healthcare.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.healthcare.TestFixtures.createUser;
+import static com.example.healthcare.TestFixtures.reading;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class LatestVitalsServiceTests {
+
+    @Autowired
+    private MedicalDataService medicalDataService;
+
+    @Autowired
+    private LatestVitalsService latestVitalsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @SpyBean
+    private MedicalDataJdbcRepository medicalDataJdbcRepository;
+
+    @Test
+    void doctorViewIsLoadedOnceThenServedFromMemory() {
+        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            User user = createUser(userRepository, "latest", Role.PATIENT);
+            ids.add(user.getId());
+            medicalDataService.addMedicalDataBatch(user.getId(), List.of(
+                    reading(yesterday.minusHours(2), 90.0, 60 + i),
+                    reading(yesterday, null, 70 + i)));
+        }
+        Long empty = createUser(userRepository, "latest", Role.PATIENT).getId();
+        ids.add(empty);
+
+        List<LatestVitals> cold = latestVitalsService.getLatest(ids);
+        assertEquals(70L, cold.get(0).getMetrics().get(VitalMetric.HEART_RATE).value());
+        assertEquals(90.0, cold.get(0).getMetrics().get(VitalMetric.BLOOD_SUGAR).value());
+        assertTrue(cold.get(3).getMetrics().isEmpty());
+
+        // Écriture : l'instantané en cache est mis à jour sans relire la base
+        MedicalData latest = new MedicalData();
+        latest.setHeartRate(75);
+        medicalDataService.addMedicalData(ids.get(0), latest);
+
+        List<LatestVitals> warm = latestVitalsService.getLatest(ids);
+        assertEquals(75L, warm.get(0).getMetrics().get(VitalMetric.HEART_RATE).value());
+        assertEquals(90.0, warm.get(0).getMetrics().get(VitalMetric.BLOOD_SUGAR).value());
+        assertEquals(71L, warm.get(1).getMetrics().get(VitalMetric.HEART_RATE).value());
+        verify(medicalDataJdbcRepository, times(1)).findLatest(anyCollection());
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.MedicalDataDTO;
+import com.example.healthcare.Model.MedicalDataPage;
+import com.example.healthcare.Model.Role;
+import com.example.healthcare.Model.RollupGranularity;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.Model.VitalMetric;
+import com.example.healthcare.Model.VitalRollupDTO;
+import com.example.healthcare.repository.MedicalDataArchiveRepository;
+import com.example.healthcare.repository.MedicalDataJdbcRepository;
+import com.example.healthcare.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.healthcare.TestFixtures.createUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class MedicalDataArchiveServiceTests {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 6, 1, 0, 0);
+    private static final LocalDateTime CUTOFF = DAY.plusDays(2);
+
+    @Autowired
+    private MedicalDataService medicalDataService;
+
+    @Autowired
+    private MedicalDataArchiver archiver;
+
+    @Autowired
+    private MedicalDataArchiveRepository archiveRepository;
+
+    @Autowired
+    private MedicalDataJdbcRepository medicalDataJdbcRepository;
+
+    @Autowired
+    private VitalRollupService vitalRollupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User patient;
+
+    @BeforeEach
+    void setUp() {
+        patient = createUser(userRepository, "archive", Role.PATIENT);
+    }
+
+    private void addReadings(LocalDateTime start, int count) {
+        List<MedicalDataDTO> readings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            MedicalDataDTO dto = new MedicalDataDTO();
+            dto.setRecordedAt(start.plusMinutes(30L * i));
+            dto.setHeartRate(60 + i % 20);
+            if (i % 4 == 0) {
+                dto.setBloodSugar(95.5);
+            }
+            readings.add(dto);
+        }
+        medicalDataService.addMedicalDataBatch(patient.getId(), readings);
+    }
+
+    @Test
+    void archivedDaysAreReadBackThroughTheRepository() {
+        // Deux journées à archiver (96 mesures) et une journée récente qui reste en base
+        addReadings(DAY, 96);
+        addReadings(CUTOFF.plusHours(1), 10);
+        List<MedicalData> before = medicalDataService.getMedicalDataByUserId(patient.getId());
+        assertEquals(106, before.size());
+
+        assertEquals(2, archiver.archiveBefore(CUTOFF));
+        assertEquals(0, medicalDataJdbcRepository.findWindow(patient.getId(), DAY, CUTOFF).size());
+        assertEquals(2, archiveRepository.findByUserIdOrderByWindowStart(patient.getId()).size());
+
+        // Une mesure en retard sur une journée déjà archivée est fusionnée au bloc existant
+        addReadings(DAY.plusHours(12).plusMinutes(1), 1);
+        assertEquals(1, archiver.archiveBefore(CUTOFF));
+        assertEquals(49, archiveRepository.findByUserIdAndWindowStart(patient.getId(), DAY).orElseThrow().getReadingCount());
+
+        assertEquals(107, medicalDataService.getMedicalDataByUserId(patient.getId()).size());
+
+        // Parcours par pages de 7 sur les deux niveaux : ordre décroissant strict, sans doublon ni trou
+        List<MedicalData> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            MedicalDataPage page = medicalDataService.getMedicalDataPage(patient.getId(), null, null, 7, cursor);
+            pages.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(107, pages.size());
+        for (int i = 1; i < pages.size(); i++) {
+            MedicalData newer = pages.get(i - 1);
+            MedicalData older = pages.get(i);
+            assertTrue(older.getRecordedAt().isBefore(newer.getRecordedAt())
+                    || (older.getRecordedAt().isEqual(newer.getRecordedAt()) && older.getId() < newer.getId()));
+        }
+        assertEquals(CUTOFF.plusHours(1).plusMinutes(270), pages.get(0).getRecordedAt());
+        assertEquals(DAY, pages.get(106).getRecordedAt());
+
+        // Période entièrement archivée
+        MedicalDataPage archivedDay = medicalDataService.getMedicalDataPage(
+                patient.getId(), DAY.plusHours(12), DAY.plusHours(13), 100, null);
+        assertEquals(3, archivedDay.getItems().size());
+        assertNull(archivedDay.getNextCursor());
+
+        // Les agrégats reconstruits tiennent compte des mesures archivées
+        vitalRollupService.rebuild(patient.getId());
+        List<VitalRollupDTO> daily = vitalRollupService.getRollups(patient.getId(), RollupGranularity.DAY, DAY, CUTOFF);
+        assertEquals(2, daily.size());
+        assertEquals(49, daily.get(0).getMetrics().get(VitalMetric.HEART_RATE).count());
+    }
+}
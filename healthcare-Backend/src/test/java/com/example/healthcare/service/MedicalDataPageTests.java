@@ -0,0 +1,80 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.MedicalDataDTO;
+import com.example.healthcare.Model.MedicalDataPage;
+import com.example.healthcare.Model.Role;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+
+import static com.example.healthcare.TestFixtures.createUser;
+import static com.example.healthcare.TestFixtures.reading;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class MedicalDataPageTests {
+
+    @Autowired
+    private MedicalDataService medicalDataService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void cursorRoundTripsThroughItsEncodedForm() {
+        LocalDateTime recordedAt = LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_000_000);
+        MedicalDataService.Cursor cursor = new MedicalDataService.Cursor(recordedAt, 42L);
+
+        assertEquals(cursor, MedicalDataService.Cursor.decode(cursor.encode()));
+        assertThrows(IllegalArgumentException.class, () -> MedicalDataService.Cursor.decode("not-a-cursor"));
+    }
+
+    @Test
+    void pagesWalkEveryReadingOnceWhenRecordedAtTies() {
+        User patient = createUser(userRepository, "page", Role.PATIENT);
+        LocalDateTime base = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        List<MedicalDataDTO> readings = new ArrayList<>();
+        // Trois mesures à la même seconde, à cheval sur deux pages
+        for (int i = 0; i < 3; i++) {
+            readings.add(reading(base, 5.0 + i / 10.0, 70 + i));
+        }
+        for (int i = 1; i <= 4; i++) {
+            readings.add(reading(base.minusMinutes(i), 5.0, 70));
+        }
+        medicalDataService.addMedicalDataBatch(patient.getId(), readings);
+
+        List<MedicalData> walked = new ArrayList<>();
+        String after = null;
+        int pages = 0;
+        do {
+            MedicalDataPage page = medicalDataService.getMedicalDataPage(patient.getId(), null, null, 2, after);
+            walked.addAll(page.getItems());
+            after = page.getNextCursor();
+            pages++;
+        } while (after != null);
+
+        assertEquals(4, pages);
+        assertEquals(7, walked.size());
+        assertEquals(7, new HashSet<>(walked.stream().map(MedicalData::getId).toList()).size());
+        List<MedicalData> expected = new ArrayList<>(walked);
+        expected.sort(Comparator.comparing(MedicalData::getRecordedAt).thenComparing(MedicalData::getId).reversed());
+        assertEquals(expected.stream().map(MedicalData::getId).toList(), walked.stream().map(MedicalData::getId).toList());
+
+        // Période sans mesure (borne to exclusive) : page vide, sans curseur
+        MedicalDataPage last = medicalDataService.getMedicalDataPage(patient.getId(), null, base.minusMinutes(4), 2, null);
+        assertEquals(0, last.getItems().size());
+        assertNull(last.getNextCursor());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.exception.HashingCapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingServiceTests {
+
+    // Encodeur qui bloque jusqu'à l'ouverture du verrou : tient les workers occupés
+    private static final class BlockingEncoder implements PasswordEncoder {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+
+    @Test
+    void fullQueueIsRejectedImmediately() throws Exception {
+        BlockingEncoder encoder = new BlockingEncoder();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHashingService service = new PasswordHashingService(encoder, registry, 1, 1, 10000);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // Un mot de passe en cours sur l'unique worker, un autre dans la file d'une place
+            Future<String> running = callers.submit(() -> service.encode("first"));
+            assertTrue(encoder.started.await(5, TimeUnit.SECONDS));
+            Future<String> queued = callers.submit(() -> service.encode("second"));
+            while (registry.get("auth.hashing.queue.depth").gauge().value() < 1) {
+                Thread.sleep(5);
+            }
+
+            long start = System.nanoTime();
+            HashingCapacityExceededException e = assertThrows(HashingCapacityExceededException.class,
+                    () -> service.encode("third"));
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+            assertEquals("Too many concurrent authentication requests", e.getMessage());
+            assertEquals(1.0, registry.get("auth.hashing.rejected").counter().count());
+
+            encoder.release.countDown();
+            assertEquals("hash:first", running.get(5, TimeUnit.SECONDS));
+            assertEquals("hash:second", queued.get(5, TimeUnit.SECONDS));
+        } finally {
+            encoder.release.countDown();
+            callers.shutdownNow();
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void slowHashingTimesOut() {
+        BlockingEncoder encoder = new BlockingEncoder();
+        PasswordHashingService service = new PasswordHashingService(encoder, new SimpleMeterRegistry(), 1, 1, 50);
+        try {
+            HashingCapacityExceededException e = assertThrows(HashingCapacityExceededException.class,
+                    () -> service.matches("secret", "hash:secret"));
+            assertEquals("Password hashing timed out", e.getMessage());
+        } finally {
+            encoder.release.countDown();
+            service.shutdown();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.RefreshToken;
+import com.example.healthcare.Model.Role;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.exception.InvalidRefreshTokenException;
+import com.example.healthcare.repository.RefreshTokenRepository;
+import com.example.healthcare.repository.UserRepository;
+import com.example.healthcare.security.JwtUtil;
+import com.example.healthcare.security.TokenDigest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.example.healthcare.TestFixtures.createUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class RefreshTokenServiceTests {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private TokenBlacklistService tokenBlacklistService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private User patient;
+
+    @BeforeEach
+    void setUp() {
+        patient = createUser(userRepository, "refresh", Role.PATIENT);
+    }
+
+    @Test
+    void rotationIssuesANewTokenOfTheSameFamily() {
+        RefreshTokenService.IssuedToken issued = refreshTokenService.issue(patient);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(issued.refreshToken());
+
+        assertEquals(patient.getId(), rotation.user().getId());
+        assertEquals(issued.familyId(), rotation.familyId());
+        assertNotEquals(issued.refreshToken(), rotation.refreshToken());
+        RefreshToken old = refreshTokenRepository.findByTokenHash(TokenDigest.of(issued.refreshToken())).orElseThrow();
+        assertTrue(old.getRotatedAt() != null);
+        assertFalse(tokenBlacklistService.isSessionRevoked(issued.familyId()));
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheFamilyAndItsAccessTokens() {
+        RefreshTokenService.IssuedToken issued = refreshTokenService.issue(patient);
+        String jwt = jwtUtil.generateToken(patient.getEmail(), patient.getRole().name(), patient.getId(), issued.familyId());
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(issued.refreshToken());
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(issued.refreshToken()));
+
+        // Le token légitime issu de la rotation est révoqué avec le reste de la famille
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(rotation.refreshToken()));
+        assertTrue(tokenBlacklistService.isSessionRevoked(jwtUtil.parse(jwt).getSessionId()));
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        RefreshTokenService.IssuedToken issued = refreshTokenService.issue(patient);
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(TokenDigest.of(issued.refreshToken())).orElseThrow();
+        stored.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        refreshTokenRepository.save(stored);
+
+        InvalidRefreshTokenException e = assertThrows(InvalidRefreshTokenException.class,
+                () -> refreshTokenService.rotate(issued.refreshToken()));
+        assertEquals("Refresh token has expired", e.getMessage());
+    }
+
+    @Test
+    void concurrentRotationsOfOneTokenLetExactlyOneThrough() throws Exception {
+        RefreshTokenService.IssuedToken issued = refreshTokenService.issue(patient);
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<RefreshTokenService.Rotation>> results = new ArrayList<>();
+        try {
+            Callable<RefreshTokenService.Rotation> rotate = () -> {
+                start.await();
+                return refreshTokenService.rotate(issued.refreshToken());
+            };
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(rotate));
+            }
+            start.countDown();
+
+            int succeeded = 0;
+            for (Future<RefreshTokenService.Rotation> result : results) {
+                try {
+                    result.get();
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(InvalidRefreshTokenException.class, e.getCause());
+                }
+            }
+            assertEquals(1, succeeded);
+        } finally {
+            pool.shutdownNow();
+        }
+        // Les échecs sont traités comme une réutilisation : la famille est révoquée
+        assertTrue(tokenBlacklistService.isSessionRevoked(issued.familyId()));
+    }
+}
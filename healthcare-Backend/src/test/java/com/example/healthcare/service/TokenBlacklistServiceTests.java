@@ -0,0 +1,112 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.BlacklistedToken;
+import com.example.healthcare.repository.BlacklistedTokenRepository;
+import com.example.healthcare.security.LoopbackRevocationBroadcaster;
+import com.example.healthcare.security.TokenDigest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Plusieurs instances de TokenBlacklistService partageant une même base (simulée)
+ * et un même bus de révocation, comme plusieurs nœuds derrière le load balancer.
+ */
+class TokenBlacklistServiceTests {
+
+    private BlacklistedTokenRepository repository;
+    private LoopbackRevocationBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(BlacklistedTokenRepository.class);
+        when(repository.findByExpiryDayIsNull()).thenReturn(List.of());
+        when(repository.findByExpiryDateAfter(any())).thenReturn(List.of());
+        when(repository.findByBlacklistedAtAfter(any())).thenReturn(List.of());
+        when(repository.existsByTokenDigest(anyString())).thenReturn(true);
+        broadcaster = new LoopbackRevocationBroadcaster();
+    }
+
+    private TokenBlacklistService startNode(LoopbackRevocationBroadcaster nodeBroadcaster) {
+        TokenBlacklistService node = new TokenBlacklistService(repository, nodeBroadcaster);
+        node.loadBlacklist();
+        return node;
+    }
+
+    @Test
+    void logoutOnOneNodeIsSeenByTheOthers() {
+        TokenBlacklistService nodeA = startNode(broadcaster);
+        TokenBlacklistService nodeB = startNode(broadcaster);
+
+        nodeA.blacklistToken("token-1", LocalDateTime.now().plusHours(1));
+
+        assertTrue(nodeA.isTokenBlacklisted("token-1"));
+        assertTrue(nodeB.isTokenBlacklisted("token-1"));
+    }
+
+    @Test
+    void unknownTokenNeverReachesTheDatabase() {
+        TokenBlacklistService node = startNode(broadcaster);
+
+        assertFalse(node.isTokenBlacklisted("never-revoked"));
+        verify(repository, never()).existsByTokenDigest(anyString());
+    }
+
+    @Test
+    void missedEventIsCaughtUpFromTheDatabase() {
+        TokenBlacklistService nodeA = startNode(broadcaster);
+        // Nœud isolé du bus : il ne reçoit aucun événement
+        TokenBlacklistService nodeB = startNode(new LoopbackRevocationBroadcaster());
+
+        LocalDateTime expiry = LocalDateTime.now().plusHours(1);
+        nodeA.blacklistToken("token-2", expiry);
+        assertFalse(nodeB.isTokenBlacklisted("token-2"));
+
+        when(repository.findByBlacklistedAtAfter(any()))
+                .thenReturn(List.of(new BlacklistedToken(TokenDigest.of("token-2"), expiry)));
+        assertEquals(1, nodeB.catchUpFromDatabase());
+        assertTrue(nodeB.isTokenBlacklisted("token-2"));
+    }
+
+    @Test
+    void catchUpOverlapPicksUpLateCommitsWithoutCountingThemTwice() {
+        TokenBlacklistService node = startNode(new LoopbackRevocationBroadcaster());
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        LocalDateTime firstPoll = LocalDateTime.now();
+        assertEquals(0, node.catchUpFromDatabase());
+
+        // Transaction lente : la ligne porte une date antérieure au passage précédent
+        BlacklistedToken late = new BlacklistedToken(TokenDigest.of("late-token"), LocalDateTime.now().plusHours(1));
+        late.setBlacklistedAt(firstPoll.minusSeconds(10));
+        BlacklistedToken expired = new BlacklistedToken(TokenDigest.of("expired-token"), LocalDateTime.now().minusMinutes(1));
+        expired.setBlacklistedAt(firstPoll.minusSeconds(5));
+        when(repository.findByBlacklistedAtAfter(any())).thenReturn(List.of(late, expired));
+
+        assertEquals(1, node.catchUpFromDatabase());
+        assertTrue(node.isTokenBlacklisted("late-token"));
+        assertFalse(node.isTokenBlacklisted("expired-token"));
+
+        // Toujours dans la fenêtre de recouvrement au passage suivant : déjà connue, non recomptée
+        assertEquals(0, node.catchUpFromDatabase());
+        verify(repository, times(3)).findByBlacklistedAtAfter(since.capture());
+        List<LocalDateTime> bounds = since.getAllValues();
+        // Chaque requête remonte avant le passage précédent
+        assertTrue(bounds.get(1).isBefore(late.getBlacklistedAt()));
+        assertFalse(bounds.get(1).isBefore(bounds.get(0)));
+        assertTrue(bounds.get(2).isBefore(firstPoll));
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.VitalBaseline;
+import com.example.healthcare.Model.VitalMetric;
+import com.example.healthcare.repository.VitalBaselineJdbcRepository;
+import com.example.healthcare.repository.VitalBaselineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VitalAnomalyDetectorTests {
+
+    private static final int HEART_RATE = 1 << VitalMetric.HEART_RATE.ordinal();
+
+    private VitalBaselineRepository baselineRepository;
+    private VitalBaselineJdbcRepository baselineJdbcRepository;
+
+    @BeforeEach
+    void setUp() {
+        baselineRepository = mock(VitalBaselineRepository.class);
+        baselineJdbcRepository = mock(VitalBaselineJdbcRepository.class);
+        when(baselineRepository.findByUserId(anyLong())).thenReturn(List.of());
+    }
+
+    private VitalAnomalyDetector detector() {
+        return new VitalAnomalyDetector(baselineRepository, baselineJdbcRepository,
+                true, 0.1, 3.0, 20, 1.0, 3_600_000);
+    }
+
+    private static MedicalData heartRate(int bpm) {
+        MedicalData medicalData = new MedicalData();
+        medicalData.setHeartRate(bpm);
+        return medicalData;
+    }
+
+    @Test
+    void flagsDeviationFromThePatientsOwnBaseline() {
+        VitalAnomalyDetector detector = detector();
+        // Patient bradycarde chronique : 48-52 bpm, hors des seuils généraux mais habituel pour lui
+        for (int i = 0; i < 50; i++) {
+            assertEquals(0, detector.observe(1L, heartRate(48 + i % 5)).deviations());
+        }
+        assertEquals(HEART_RATE, detector.observe(1L, heartRate(75)).deviations());
+        // Un autre patient n'est pas affecté
+        assertEquals(0, detector.observe(2L, heartRate(75)).deviations());
+    }
+
+    @Test
+    void noAlertBeforeMinimumSamples() {
+        VitalAnomalyDetector detector = detector();
+        for (int i = 0; i < 5; i++) {
+            detector.observe(1L, heartRate(50));
+        }
+        assertEquals(0, detector.observe(1L, heartRate(120)).deviations());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void stateSurvivesRestartThroughFlush() {
+        VitalAnomalyDetector before = detector();
+        for (int i = 0; i < 50; i++) {
+            before.observe(1L, heartRate(48 + i % 5));
+        }
+        before.flush();
+        ArgumentCaptor<List<VitalBaseline>> saved = ArgumentCaptor.forClass(List.class);
+        verify(baselineJdbcRepository).upsertAll(saved.capture(), anyInt());
+        assertEquals(1, saved.getValue().size());
+        assertEquals(50, saved.getValue().get(0).getSampleCount());
+
+        when(baselineRepository.findByUserId(1L)).thenReturn(saved.getValue());
+        VitalAnomalyDetector after = detector();
+        assertEquals(HEART_RATE, after.observe(1L, heartRate(75)).deviations());
+    }
+
+    @Test
+    void observationIsASnapshotAndRetiredBaselinesRejectUpdates() {
+        VitalAnomalyDetector detector = detector();
+        for (int i = 0; i < 50; i++) {
+            detector.observe(1L, heartRate(48 + i % 5));
+        }
+        MedicalData spike = heartRate(75);
+        VitalAnomalyDetector.Observation observation = detector.observe(1L, spike);
+        String expected = detector.describe(1L, spike, observation, HEART_RATE);
+        // Une mesure suivante du même patient ne modifie pas le texte de la précédente
+        detector.observe(1L, heartRate(140));
+        assertEquals(expected, detector.describe(1L, spike, observation, HEART_RATE));
+        assertTrue(expected.contains("75"));
+
+        // Un état retiré par flush() refuse la mesure : observe() en reprend un neuf
+        VitalAnomalyDetector.PatientBaseline baseline = new VitalAnomalyDetector.PatientBaseline();
+        assertTrue(baseline.retireIfIdleSince(Long.MAX_VALUE));
+        assertNull(baseline.observe(heartRate(60), 0.1, 3.0, 20, 1.0));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.Role;
+import com.example.healthcare.Model.RollupGranularity;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.Model.VitalMetric;
+import com.example.healthcare.Model.VitalRollupDTO;
+import com.example.healthcare.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.example.healthcare.TestFixtures.createUser;
+import static com.example.healthcare.TestFixtures.reading;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest
+class VitalRollupServiceTests {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 3, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2025, 3, 3, 0, 0);
+
+    @Autowired
+    private MedicalDataService medicalDataService;
+
+    @Autowired
+    private VitalRollupService vitalRollupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User patient;
+
+    @BeforeEach
+    void setUp() {
+        patient = createUser(userRepository, "rollup", Role.PATIENT);
+    }
+
+    @Test
+    void rollupsAreMaintainedIncrementallyAndMatchARebuild() {
+        medicalDataService.addMedicalDataBatch(patient.getId(), List.of(
+                reading(LocalDateTime.of(2025, 3, 1, 8, 10), null, 60),
+                reading(LocalDateTime.of(2025, 3, 1, 9, 5), null, 70)));
+        // Deuxième envoi dans un intervalle déjà agrégé : min / max / somme sont fusionnés
+        medicalDataService.addMedicalDataBatch(patient.getId(), List.of(
+                reading(LocalDateTime.of(2025, 3, 1, 8, 50), 100.0, 80),
+                reading(LocalDateTime.of(2025, 3, 2, 10, 0), null, 90)));
+
+        assertRollups();
+        vitalRollupService.rebuild(patient.getId());
+        assertRollups();
+    }
+
+    private void assertRollups() {
+        List<VitalRollupDTO> hourly = vitalRollupService.getRollups(patient.getId(), RollupGranularity.HOUR, FROM, TO);
+        assertEquals(3, hourly.size());
+        assertEquals(LocalDateTime.of(2025, 3, 1, 8, 0), hourly.get(0).getBucketStart());
+        assertEquals(new VitalRollupDTO.MetricSummary(2, 60, 80, 70), hourly.get(0).getMetrics().get(VitalMetric.HEART_RATE));
+        assertEquals(new VitalRollupDTO.MetricSummary(1, 100, 100, 100), hourly.get(0).getMetrics().get(VitalMetric.BLOOD_SUGAR));
+        assertFalse(hourly.get(1).getMetrics().containsKey(VitalMetric.BLOOD_SUGAR));
+
+        List<VitalRollupDTO> daily = vitalRollupService.getRollups(patient.getId(), RollupGranularity.DAY, FROM, TO);
+        assertEquals(2, daily.size());
+        assertEquals(new VitalRollupDTO.MetricSummary(3, 60, 80, 70), daily.get(0).getMetrics().get(VitalMetric.HEART_RATE));
+        assertEquals(new VitalRollupDTO.MetricSummary(1, 90, 90, 90), daily.get(1).getMetrics().get(VitalMetric.HEART_RATE));
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.Model.VitalMetric;
+import com.example.healthcare.Model.VitalThresholdOverride;
+import com.example.healthcare.config.VitalThresholdProperties;
+import com.example.healthcare.repository.UserRepository;
+import com.example.healthcare.repository.VitalThresholdOverrideRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VitalRuleEngineTests {
+
+    private VitalThresholdOverrideRepository overrideRepository;
+
+    @BeforeEach
+    void setUp() {
+        overrideRepository = mock(VitalThresholdOverrideRepository.class);
+        when(overrideRepository.findAll()).thenReturn(List.of());
+    }
+
+    private VitalRuleEngine engine(Map<String, String> config) {
+        VitalThresholdProperties properties = new Binder(new MapConfigurationPropertySource(config))
+                .bind("vitals.thresholds", VitalThresholdProperties.class)
+                .orElseGet(VitalThresholdProperties::new);
+        VitalRuleEngine engine = new VitalRuleEngine(properties, overrideRepository,
+                mock(UserRepository.class), 100, 60_000);
+        engine.reloadOverrides();
+        return engine;
+    }
+
+    private static User patient(long id, int age) {
+        User user = new User();
+        user.setId(id);
+        user.setBirthday(Date.valueOf(LocalDate.now().minusYears(age).minusDays(1)));
+        return user;
+    }
+
+    private static MedicalData reading(Double bloodSugar, Integer systolic, Integer diastolic, Integer heartRate) {
+        MedicalData medicalData = new MedicalData();
+        medicalData.setBloodSugar(bloodSugar);
+        medicalData.setSystolicBloodPressure(systolic);
+        medicalData.setDiastolicBloodPressure(diastolic);
+        medicalData.setHeartRate(heartRate);
+        return medicalData;
+    }
+
+    @Test
+    void historicalLimitsApplyWithoutConfiguration() {
+        VitalRuleEngine engine = engine(Map.of());
+        VitalRuleEngine.RuleSet rules = engine.rulesFor(patient(1, 40));
+
+        assertEquals(0, engine.evaluate(rules, reading(100.0, 120, 80, 72)));
+        assertEquals(0, engine.evaluate(rules, reading(null, null, null, 72)));
+        MedicalData tachycardia = reading(null, null, null, 110);
+        int violations = engine.evaluate(rules, tachycardia);
+        assertEquals(1 << VitalMetric.HEART_RATE.ordinal(), violations);
+        assertEquals("Fréquence cardiaque anormale détectée : 110 bpm (normale : 60-100 bpm)\n",
+                engine.describe(rules, tachycardia, violations, 1L));
+    }
+
+    @Test
+    void ageBandOverridesDefaults() {
+        VitalRuleEngine engine = engine(Map.of(
+                "vitals.thresholds.defaults.heart-rate.max", "95",
+                "vitals.thresholds.age-bands[0].min-age", "65",
+                "vitals.thresholds.age-bands[0].ranges.systolic-blood-pressure.max", "150"));
+        MedicalData reading = reading(null, 145, null, 97);
+
+        int senior = engine.evaluate(engine.rulesFor(patient(1, 70)), reading);
+        int adult = engine.evaluate(engine.rulesFor(patient(2, 40)), reading);
+
+        assertEquals(1 << VitalMetric.HEART_RATE.ordinal(), senior);
+        assertEquals((1 << VitalMetric.HEART_RATE.ordinal()) | (1 << VitalMetric.SYSTOLIC_BLOOD_PRESSURE.ordinal()), adult);
+    }
+
+    @Test
+    void patientOverrideTakesPrecedence() {
+        User user = patient(7, 40);
+        when(overrideRepository.findAll()).thenReturn(List.of(
+                new VitalThresholdOverride(user, VitalMetric.BLOOD_SUGAR, null, 180.0)));
+        VitalRuleEngine engine = engine(Map.of());
+
+        VitalRuleEngine.RuleSet rules = engine.rulesFor(user);
+
+        assertEquals(70.0, rules.min(VitalMetric.BLOOD_SUGAR));
+        assertEquals(180.0, rules.max(VitalMetric.BLOOD_SUGAR));
+        assertEquals(0, engine.evaluate(rules, reading(170.0, null, null, null)));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.healthcare.service;
+
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.VitalMetric;
+import com.example.healthcare.Model.VitalSeriesDTO;
+import com.example.healthcare.repository.MedicalDataJdbcRepository;
+import com.example.healthcare.util.VitalSeries;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class VitalSeriesServiceTests {
+
+    private final MedicalDataJdbcRepository jdbcRepository = mock(MedicalDataJdbcRepository.class);
+
+    // Budget de deux séries de 64 cases
+    private final VitalSeriesService service = new VitalSeriesService(jdbcRepository,
+            mock(MedicalDataArchiveService.class), 7, 1024, 2 * 2_000, 31, new SimpleMeterRegistry());
+
+    private static MedicalData reading(LocalDateTime recordedAt, int heartRate) {
+        MedicalData medicalData = new MedicalData();
+        medicalData.setRecordedAt(recordedAt);
+        medicalData.setHeartRate(heartRate);
+        return medicalData;
+    }
+
+    @Test
+    void loadsOnFirstReadAppliesWritesAndEvictsLeastRecentlyUsedPatients() {
+        LocalDateTime now = LocalDateTime.now();
+        doAnswer(invocation -> {
+            VitalSeries series = invocation.getArgument(3);
+            series.add(VitalSeries.toMillis(now.minusHours(2)), reading(now.minusHours(2), 70));
+            return null;
+        }).when(jdbcRepository).loadSeries(anyLong(), any(), isNull(), any());
+
+        assertEquals(1, service.getSeries(1L, null, null).getMetrics().get(VitalMetric.HEART_RATE).values().length);
+        service.recordWritten(1L, List.of(reading(now.minusHours(1), 90), reading(now.minusDays(8), 50)));
+        VitalSeriesDTO series = service.getSeries(1L, null, null);
+        assertEquals(2, series.getMetrics().get(VitalMetric.HEART_RATE).values().length);
+        assertEquals(80.0, service.getSummary(1L, null, null).get(VitalMetric.HEART_RATE).avg());
+        verify(jdbcRepository, times(1)).loadSeries(eq(1L), any(), isNull(), any());
+
+        service.getSeries(2L, null, null);
+        service.getSeries(1L, null, null);
+        service.getSeries(3L, null, null);
+        // Le patient 2 était le moins récemment consulté : il est rechargé
+        assertEquals(2, service.patientCount());
+        service.getSeries(2L, null, null);
+        verify(jdbcRepository, times(2)).loadSeries(eq(2L), any(), isNull(), any());
+        verify(jdbcRepository, times(1)).loadSeries(eq(1L), any(), isNull(), any());
+
+        assertThrows(IllegalArgumentException.class, () -> service.getSeries(1L, now.minusDays(40), now));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.healthcare.util;
+
+import com.example.healthcare.Model.VitalMetric;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarVitalsTests {
+
+    private static final long BASE = 1_700_000_000L;
+
+    @Test
+    void aggregatesPerPatientOverThePeriodAndSkipsMissingValues() {
+        // Capacité initiale volontairement trop petite pour forcer l'agrandissement des tampons
+        ColumnarVitals.Builder builder = new ColumnarVitals.Builder(BASE, 1);
+        int rows = 3 * ColumnarVitals.CHUNK_ROWS + 17;
+        for (int i = 0; i < rows; i++) {
+            long userId = 100 + (i % 3);
+            float heartRate = i % 10 == 0 ? Float.NaN : 60 + (i % 3) * 10;
+            builder.add(userId, BASE + i * 60L, Float.NaN, 120, 80, heartRate);
+        }
+        // Avant la base : ignoré
+        builder.add(100, BASE - 1, 5f, 120, 80, 300);
+        ColumnarVitals snapshot = builder.build();
+        assertEquals(rows, snapshot.getRows());
+        assertEquals(3, snapshot.getPatientCount());
+        assertTrue(snapshot.getOffHeapBytes() >= rows * 24L);
+
+        // Seulement le dernier bloc et quelques lignes du précédent
+        long from = BASE + (3L * ColumnarVitals.CHUNK_ROWS - 30) * 60;
+        long to = BASE + rows * 60L;
+        ColumnarVitals.PatientAggregates all = snapshot.aggregate(VitalMetric.HEART_RATE, from, to, null);
+        assertEquals(ColumnarVitals.CHUNK_ROWS + 17, all.rowsScanned);
+        int expected = 0;
+        for (int i = 3 * ColumnarVitals.CHUNK_ROWS - 30; i < rows; i++) {
+            expected += i % 10 == 0 ? 0 : 1;
+        }
+        assertEquals(expected, all.values);
+        assertEquals(60.0, all.min);
+        assertEquals(80.0, all.max);
+        int second = snapshot.patientIndex(101);
+        assertEquals(70.0, all.sums[second] / all.counts[second], 1e-9);
+
+        boolean[] mask = new boolean[snapshot.getPatientCount()];
+        mask[second] = true;
+        ColumnarVitals.PatientAggregates cohort = snapshot.aggregate(VitalMetric.HEART_RATE, from, to, mask);
+        assertEquals(all.counts[second], cohort.values);
+        assertEquals(70.0, cohort.sum / cohort.values, 1e-9);
+
+        // Mesure jamais renseignée, période vide
+        assertEquals(0, snapshot.aggregate(VitalMetric.BLOOD_SUGAR, BASE, to, null).values);
+        assertEquals(0, snapshot.aggregate(VitalMetric.HEART_RATE, to, to + 60, null).rowsScanned);
+        assertEquals(-1, snapshot.patientIndex(999));
+    }
+}
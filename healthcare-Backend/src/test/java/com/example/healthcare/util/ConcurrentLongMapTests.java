@@ -0,0 +1,41 @@
+package com.example.healthcare.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ConcurrentLongMapTests {
+
+    // Comparaison avec HashMap sur une suite aléatoire d'ajouts et de suppressions
+    @Test
+    void behavesLikeAHashMap() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>(4);
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                String value = "v" + i;
+                assertEquals(expected.putIfAbsent(key, value), map.putIfAbsent(key, value));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+
+        int removed = map.removeIf((key, value) -> key % 2 == 0);
+        expected.keySet().removeIf(key -> key % 2 == 0);
+        assertEquals(expected.size(), map.size());
+        assertEquals(removed + expected.size(), removed + map.size());
+        for (long key = 0; key < 5_000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+        assertNull(map.get(-1L));
+    }
+}
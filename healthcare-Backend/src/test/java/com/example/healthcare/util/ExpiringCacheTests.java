@@ -0,0 +1,46 @@
+package com.example.healthcare.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExpiringCacheTests {
+
+    @Test
+    void expiredEntryIsDroppedOnRead() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10);
+        cache.put("expired", "a", System.currentTimeMillis() - 1);
+        cache.put("live", "b", ExpiringCache.NEVER);
+
+        assertNull(cache.get("expired"));
+        assertEquals("b", cache.get("live"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void fullCachePurgesExpiredEntriesBeforeEvictingLiveOnes() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(10);
+        for (int i = 0; i < 5; i++) {
+            cache.put(i, i, System.currentTimeMillis() - 1);
+        }
+        for (int i = 5; i < 10; i++) {
+            cache.put(i, i, ExpiringCache.NEVER);
+        }
+
+        cache.put(10, 10, ExpiringCache.NEVER);
+        assertEquals(6, cache.size());
+        for (int i = 5; i <= 10; i++) {
+            assertEquals(i, cache.get(i));
+        }
+
+        // Sans entrée expirée, environ 10 % des entrées sont évincées
+        for (int i = 11; i < 15; i++) {
+            cache.put(i, i, ExpiringCache.NEVER);
+        }
+        cache.put(15, 15, ExpiringCache.NEVER);
+        assertTrue(cache.size() <= 10);
+        assertEquals(15, cache.get(15));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.healthcare.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedTimingWheelTests {
+
+    private static List<Long> advance(HashedTimingWheel wheel, long now) {
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(now, fired::add);
+        return fired;
+    }
+
+    @Test
+    void firesEachIdOnceAtItsTickAcrossRotationsAndPauses() {
+        // 8 cases de 100 ms : un tour fait 800 ms
+        HashedTimingWheel wheel = new HashedTimingWheel(100, 8, 10_000);
+        wheel.schedule(1, 10_250);
+        wheel.schedule(2, 10_250 + 800); // même case, tour suivant
+        wheel.schedule(3, 9_000);        // déjà échu
+        wheel.schedule(4, 10_500);
+        wheel.schedule(4, 12_000);       // replanifié
+        wheel.schedule(5, 10_400);
+        assertTrue(wheel.cancel(5));
+        assertFalse(wheel.cancel(5));
+        assertEquals(4, wheel.size());
+
+        assertEquals(List.of(3L), advance(wheel, 10_120));
+        assertEquals(List.of(), advance(wheel, 10_299));
+        assertEquals(List.of(1L), advance(wheel, 10_300));
+        assertEquals(List.of(), advance(wheel, 10_700));
+
+        // Pause de plusieurs tours : un seul tour complet rattrape tout
+        List<Long> fired = advance(wheel, 20_000);
+        fired.sort(null);
+        assertEquals(List.of(2L, 4L), fired);
+        assertEquals(0, wheel.size());
+        assertEquals(List.of(), advance(wheel, 30_000));
+    }
+}
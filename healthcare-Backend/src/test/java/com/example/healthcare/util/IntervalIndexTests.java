@@ -0,0 +1,44 @@
+package com.example.healthcare.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntervalIndexTests {
+
+    @Test
+    void rejectsOverlapsButAcceptsAdjacentIntervals() {
+        IntervalIndex index = new IntervalIndex();
+        assertNull(index.add(100, 200, 1));
+        assertNull(index.add(300, 400, 2));
+
+        // Bornes exclusives : contigu avant, entre et après
+        assertNull(index.add(0, 100, 3));
+        assertNull(index.add(200, 300, 4));
+        assertNull(index.add(400, 500, 5));
+        assertEquals(5, index.size());
+
+        assertEquals(1, index.add(150, 160, 6).id());
+        assertEquals(2, index.add(250, 350, 7).id());
+        assertEquals(5, index.add(450, 1000, 8).id());
+        assertNotNull(index.findConflict(-50, 1));
+        assertNull(index.findConflict(500, 600));
+
+        List<IntervalIndex.Interval> between = index.between(150, 300);
+        assertEquals(List.of(1L, 4L), between.stream().map(IntervalIndex.Interval::id).toList());
+
+        assertFalse(index.remove(100, 99));
+        assertTrue(index.remove(100, 1));
+        assertNull(index.add(120, 180, 9));
+
+        index.trimBefore(300);
+        assertEquals(2, index.size());
+        assertNull(index.findConflict(0, 300));
+    }
+}
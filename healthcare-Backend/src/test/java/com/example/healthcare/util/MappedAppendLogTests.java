@@ -0,0 +1,90 @@
+package com.example.healthcare.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedAppendLogTests {
+
+    @TempDir
+    Path directory;
+
+    private static byte[] record(int i) {
+        return ByteBuffer.allocate(12).putInt(i).putLong(i * 31L).array();
+    }
+
+    private static List<Integer> readAll(MappedAppendLog log, long from) {
+        List<Integer> values = new ArrayList<>();
+        long position = from;
+        while (true) {
+            int before = values.size();
+            position = log.read(position, 7, buffer -> values.add(buffer.getInt(0)));
+            if (values.size() == before) {
+                return values;
+            }
+        }
+    }
+
+    @Test
+    void rotatesSegmentsAndRecoversAfterReopening() throws Exception {
+        // 20 octets par enregistrement, 5 par segment de 100 octets
+        MappedAppendLog log = new MappedAppendLog(directory, 100);
+        for (int i = 0; i < 23; i++) {
+            log.append(List.of(record(i)));
+        }
+        log.flush();
+        assertEquals(log.endPosition(), log.durablePosition());
+        assertEquals(5, log.segmentCount());
+        assertEquals(23, readAll(log, 0).size());
+
+        long middle = log.read(0, 12, buffer -> { });
+        log.deleteBefore(middle);
+        assertEquals(3, log.segmentCount());
+        assertEquals(List.of(12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22), readAll(log, middle));
+        long end = log.endPosition();
+        log.close();
+
+        MappedAppendLog reopened = new MappedAppendLog(directory, 100);
+        assertEquals(end, reopened.endPosition());
+        reopened.append(List.of(record(23)));
+        assertEquals(12, readAll(reopened, middle).size());
+        reopened.close();
+    }
+
+    @Test
+    void ignoresATornRecordAtTheTail() throws Exception {
+        MappedAppendLog log = new MappedAppendLog(directory, 1000);
+        log.append(List.of(record(1), record(2), record(3)));
+        long end = log.endPosition();
+        log.close();
+
+        // Longueur écrite mais données corrompues, comme après un arrêt brutal
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, 12), MappedAppendLog.offset(end));
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}), MappedAppendLog.offset(end) + 10);
+        }
+
+        MappedAppendLog reopened = new MappedAppendLog(directory, 1000);
+        assertEquals(end, reopened.endPosition());
+        assertEquals(List.of(1, 2, 3), readAll(reopened, 0));
+        reopened.append(List.of(record(4)));
+        assertEquals(List.of(1, 2, 3, 4), readAll(reopened, 0));
+        assertTrue(reopened.awaitDurable(0, 10));
+        reopened.close();
+    }
+}
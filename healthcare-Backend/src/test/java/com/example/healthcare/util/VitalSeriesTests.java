@@ -0,0 +1,52 @@
+package com.example.healthcare.util;
+
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.VitalMetric;
+import com.example.healthcare.Model.VitalRollupDTO;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VitalSeriesTests {
+
+    private static MedicalData reading(Integer heartRate, Double bloodSugar) {
+        MedicalData medicalData = new MedicalData();
+        medicalData.setHeartRate(heartRate);
+        medicalData.setBloodSugar(bloodSugar);
+        return medicalData;
+    }
+
+    @Test
+    void keepsReadingsInTimeOrderAndOverwritesTheOldestWhenFull() {
+        VitalSeries series = new VitalSeries(64);
+        for (int i = 0; i < 100; i++) {
+            series.add(i * 1000L, reading(60 + i, null));
+        }
+        // Arrivée tardive au milieu, puis doublon exact ignoré
+        assertTrue(series.add(50_500L, reading(999, 5.5)));
+        assertFalse(series.add(50_500L, reading(999, 5.5)));
+        assertEquals(64, series.size());
+
+        VitalSeries.Column heartRate = series.column(VitalMetric.HEART_RATE, 0, Long.MAX_VALUE);
+        assertEquals(64, heartRate.timestamps().length);
+        assertEquals(37_000L, heartRate.timestamps()[0]);
+        for (int i = 1; i < heartRate.timestamps().length; i++) {
+            assertTrue(heartRate.timestamps()[i - 1] <= heartRate.timestamps()[i]);
+        }
+        assertArrayEquals(new double[]{5.5}, series.column(VitalMetric.BLOOD_SUGAR, 0, Long.MAX_VALUE).values());
+
+        // Plus ancien que tout un tampon plein : ignoré
+        assertFalse(series.add(0L, reading(1, null)));
+
+        assertEquals(new VitalRollupDTO.MetricSummary(3, 110, 999, (110 + 999 + 111) / 3.0),
+                series.summarize(VitalMetric.HEART_RATE, 50_000L, 51_001L));
+        assertNull(series.summarize(VitalMetric.SYSTOLIC_BLOOD_PRESSURE, 0, Long.MAX_VALUE));
+
+        assertEquals(13, series.trimBefore(50_000L));
+        assertEquals(51, series.size());
+    }
+}
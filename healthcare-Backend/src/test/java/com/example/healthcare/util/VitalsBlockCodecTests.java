@@ -0,0 +1,98 @@
+package com.example.healthcare.util;
+
+import com.example.healthcare.Model.MedicalData;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VitalsBlockCodecTests {
+
+    // Taille approximative d'une ligne medical_data sous InnoDB, index secondaire compris
+    private static final int RAW_ROW_BYTES = 90;
+
+    // Une journée de mesures minute par minute d'un objet connecté
+    private static List<MedicalData> wearableDay(Random random) {
+        List<MedicalData> readings = new ArrayList<>();
+        LocalDateTime time = LocalDateTime.of(2025, 1, 10, 0, 0, 3);
+        long id = 1_000_000;
+        int heartRate = 70;
+        for (int minute = 0; minute < 1440; minute++) {
+            MedicalData medicalData = new MedicalData();
+            medicalData.setId(id++);
+            // Quelques secondes de gigue de temps en temps
+            medicalData.setRecordedAt(time.plusMinutes(minute).plusSeconds(random.nextInt(20) == 0 ? random.nextInt(5) : 0));
+            heartRate = Math.max(45, Math.min(160, heartRate + random.nextInt(3) - 1));
+            medicalData.setHeartRate(heartRate);
+            if (minute % 60 == 0) {
+                medicalData.setSystolicBloodPressure(110 + random.nextInt(20));
+                medicalData.setDiastolicBloodPressure(70 + random.nextInt(10));
+            }
+            if (minute % 240 == 0) {
+                medicalData.setBloodSugar(90 + random.nextInt(40) / 2.0);
+            }
+            readings.add(medicalData);
+        }
+        return readings;
+    }
+
+    @Test
+    void roundTripsAndCompressesMinuteLevelData() {
+        List<MedicalData> readings = wearableDay(new Random(7));
+        byte[] block = VitalsBlockCodec.encode(readings);
+        assertSameReadings(readings, VitalsBlockCodec.decode(block));
+
+        long rawBytes = (long) readings.size() * RAW_ROW_BYTES;
+        assertTrue(rawBytes >= 10L * block.length, "block of " + block.length + " bytes for " + rawBytes + " raw bytes");
+    }
+
+    @Test
+    void roundTripsIrregularValues() {
+        Random random = new Random(11);
+        List<MedicalData> readings = new ArrayList<>();
+        LocalDateTime time = LocalDateTime.of(2024, 12, 31, 23, 59, 59, 999_999_000);
+        long id = 5;
+        for (int i = 0; i < 500; i++) {
+            MedicalData medicalData = new MedicalData();
+            // Écarts de temps et d'identifiants très variables, y compris nuls
+            time = time.plusNanos(random.nextInt(3) == 0 ? 0 : (long) random.nextInt(1_000_000) * 1_000_000_000L + 1_000);
+            id += random.nextInt(4) == 0 ? 1L << random.nextInt(40) : 1;
+            medicalData.setId(id);
+            medicalData.setRecordedAt(time);
+            if (random.nextBoolean()) {
+                medicalData.setBloodSugar(random.nextDouble() * 300);
+            }
+            if (random.nextBoolean()) {
+                medicalData.setSystolicBloodPressure(random.nextInt(250) + 1);
+            }
+            if (random.nextBoolean()) {
+                medicalData.setDiastolicBloodPressure(random.nextInt(250) + 1);
+            }
+            if (random.nextBoolean()) {
+                medicalData.setHeartRate(random.nextInt(300) + 1);
+            }
+            readings.add(medicalData);
+        }
+        assertSameReadings(readings, VitalsBlockCodec.decode(VitalsBlockCodec.encode(readings)));
+        assertEquals(0, VitalsBlockCodec.decode(VitalsBlockCodec.encode(List.of())).size());
+    }
+
+    private static void assertSameReadings(List<MedicalData> expected, List<MedicalData> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            MedicalData e = expected.get(i);
+            MedicalData a = actual.get(i);
+            assertEquals(e.getId(), a.getId());
+            assertEquals(e.getRecordedAt(), a.getRecordedAt());
+            assertEquals(e.getBloodSugar(), a.getBloodSugar());
+            assertEquals(e.getSystolicBloodPressure(), a.getSystolicBloodPressure());
+            assertEquals(e.getDiastolicBloodPressure(), a.getDiastolicBloodPressure());
+            assertEquals(e.getHeartRate(), a.getHeartRate());
+        }
+    }
+}
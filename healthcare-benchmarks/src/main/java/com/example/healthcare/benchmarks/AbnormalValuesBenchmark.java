@@ -0,0 +1,82 @@
+package com.example.healthcare.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.healthcare.Model.AlertOutbox;
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.Role;
+import com.example.healthcare.Model.User;
+import com.example.healthcare.config.VitalThresholdProperties;
+import com.example.healthcare.repository.UserRepository;
+import com.example.healthcare.repository.VitalBaselineJdbcRepository;
+import com.example.healthcare.repository.VitalBaselineRepository;
+import com.example.healthcare.repository.VitalThresholdOverrideRepository;
+import com.example.healthcare.service.AlertOutboxService;
+import com.example.healthcare.service.VitalAlertService;
+import com.example.healthcare.service.VitalAnomalyDetector;
+import com.example.healthcare.service.VitalRuleEngine;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * VitalAlertService.check sur une mesure normale et une mesure anormale
+ * (la mise en file de l'alerte est simulée).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+// Plus d'itérations qu'ailleurs : les messages alloués par le chemin anormal font varier les pauses du GC
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class AbnormalValuesBenchmark {
+
+    private VitalAlertService vitalAlertService;
+    private VitalRuleEngine vitalRuleEngine;
+    private VitalRuleEngine.RuleSet rules;
+    private MedicalData normalReading;
+    private MedicalData abnormalReading;
+
+    @Setup
+    public void setUp() {
+        // Les WARN de describe() par mesure anormale mesureraient la console, pas le contrôle
+        ((Logger) LoggerFactory.getLogger("com.example.healthcare.service")).setLevel(Level.ERROR);
+        vitalRuleEngine = new VitalRuleEngine(new VitalThresholdProperties(),
+                Mockito.mock(VitalThresholdOverrideRepository.class), Mockito.mock(UserRepository.class), 10_000, 600_000);
+        VitalAnomalyDetector vitalAnomalyDetector = new VitalAnomalyDetector(
+                Mockito.mock(VitalBaselineRepository.class), Mockito.mock(VitalBaselineJdbcRepository.class),
+                true, 0.1, 3.0, 20, 1.0, 3_600_000);
+        // Mise en file simulée sans Mockito : le mock inline parcourt la pile à chaque appel
+        AlertOutboxService alertOutboxService = new AlertOutboxService(null) {
+            @Override
+            public AlertOutbox enqueue(User user, String message) {
+                return null;
+            }
+        };
+        vitalAlertService = new VitalAlertService(vitalRuleEngine, vitalAnomalyDetector, alertOutboxService);
+
+        User patient = BenchmarkFixtures.user(1, Role.PATIENT);
+        normalReading = BenchmarkFixtures.reading(patient, 100.0, 120, 80, 72);
+        abnormalReading = BenchmarkFixtures.reading(patient, 190.0, 160, 95, 110);
+        rules = vitalRuleEngine.rulesFor(patient);
+    }
+
+    // Chemin normal du moteur de règles seul, sans la mise en file
+    @Benchmark
+    public int evaluateNormalReading() {
+        return vitalRuleEngine.evaluate(rules, normalReading);
+    }
+
+    @Benchmark
+    public void normalReading() {
+        vitalAlertService.check(normalReading);
+    }
+
+    @Benchmark
+    public void abnormalReading() {
+        vitalAlertService.check(abnormalReading);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.healthcare.benchmarks;
+
+import com.example.healthcare.Model.Appointment;
+import com.example.healthcare.Model.MedicalData;
+import com.example.healthcare.Model.Role;
+import com.example.healthcare.Model.Specialization;
+import com.example.healthcare.Model.User;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Jeux de données partagés par les benchmarks.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static User user(long id, Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        user.setPassword("$2a$10$abcdefghijklmnopqrstuv");
+        user.setRole(role);
+        user.setName("User " + id);
+        user.setPhoneNumber("06000000" + (id % 100));
+        user.setBirthday(Date.valueOf(LocalDate.of(1970 + (int) (id % 40), 1 + (int) (id % 12), 1)));
+        if (role == Role.DOCTOR) {
+            Specialization specialization = new Specialization("Cardiologie");
+            specialization.setId(id % 5);
+            user.setSpecialization(specialization);
+        }
+        return user;
+    }
+
+    static List<User> users(int count, Role role) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            users.add(user(i, role));
+        }
+        return users;
+    }
+
+    static MedicalData reading(User user, double bloodSugar, int systolic, int diastolic, int heartRate) {
+        MedicalData medicalData = new MedicalData();
+        medicalData.setUser(user);
+        medicalData.setRecordedAt(LocalDateTime.of(2025, 1, 1, 8, 0));
+        medicalData.setBloodSugar(bloodSugar);
+        medicalData.setSystolicBloodPressure(systolic);
+        medicalData.setDiastolicBloodPressure(diastolic);
+        medicalData.setHeartRate(heartRate);
+        return medicalData;
+    }
+
+    static User patientWithHistory(int readings) {
+        User patient = user(1, Role.PATIENT);
+        List<MedicalData> history = new ArrayList<>(readings);
+        for (int i = 0; i < readings; i++) {
+            MedicalData reading = reading(patient, 90 + i % 20, 110 + i % 15, 70 + i % 10, 60 + i % 30);
+            reading.setId((long) i);
+            reading.setRecordedAt(LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(i));
+            history.add(reading);
+        }
+        patient.setMedicalData(history);
+        return patient;
+    }
+
+    static Appointment appointment() {
+        Appointment appointment = new Appointment();
+        appointment.setId(1L);
+        appointment.setUser(user(1, Role.PATIENT));
+        appointment.setDoctor(user(2, Role.DOCTOR));
+        appointment.setAppointmentDate(LocalDateTime.of(2025, 3, 1, 10, 30));
+        appointment.setReason("Contrôle de la tension");
+        return appointment;
+    }
+}
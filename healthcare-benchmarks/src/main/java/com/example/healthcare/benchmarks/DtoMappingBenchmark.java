@@ -0,0 +1,61 @@
+package com.example.healthcare.benchmarks;
+
+import com.example.healthcare.Controller.DoctorController;
+import com.example.healthcare.Controller.PatientDController;
+import com.example.healthcare.Model.Role;
+import com.example.healthcare.repository.UserRepository;
+import com.example.healthcare.service.DoctorAvailabilityService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Conversion entité -> DTO des listes de médecins et de patients.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    // Référence forte pour que le niveau de log reste appliqué
+    private static final Logger CONTROLLER_LOGGER = Logger.getLogger(DoctorController.class.getName());
+
+    @Param({"200"})
+    public int size;
+
+    private DoctorController doctorController;
+    private PatientDController patientDController;
+    private Authentication authentication;
+
+    @Setup
+    public void setUp() {
+        CONTROLLER_LOGGER.setLevel(Level.WARNING);
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findByRole(Role.DOCTOR)).thenReturn(BenchmarkFixtures.users(size, Role.DOCTOR));
+        Mockito.when(userRepository.findByRole(Role.PATIENT)).thenReturn(BenchmarkFixtures.users(size, Role.PATIENT));
+        doctorController = new DoctorController(userRepository, Mockito.mock(DoctorAvailabilityService.class));
+        patientDController = new PatientDController(userRepository);
+        authentication = new UsernamePasswordAuthenticationToken("bench", null,
+                List.of(new SimpleGrantedAuthority("ROLE_PATIENT")));
+    }
+
+    @Benchmark
+    public Object doctors() {
+        return doctorController.getAllDoctors(authentication);
+    }
+
+    @Benchmark
+    public Object patients() {
+        return patientDController.getAllDoctors(authentication);
+    }
+}
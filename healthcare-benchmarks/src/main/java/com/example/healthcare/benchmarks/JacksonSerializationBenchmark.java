@@ -0,0 +1,45 @@
+package com.example.healthcare.benchmarks;
+
+import com.example.healthcare.HealthcareApplication;
+import com.example.healthcare.Model.Appointment;
+import com.example.healthcare.Model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation JSON des graphes Appointment et User, avec l'ObjectMapper de l'application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonSerializationBenchmark {
+
+    @Param({"100"})
+    public int readings;
+
+    private ObjectMapper objectMapper;
+    private Appointment appointment;
+    private User patient;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new HealthcareApplication().objectMapper();
+        appointment = BenchmarkFixtures.appointment();
+        patient = BenchmarkFixtures.patientWithHistory(readings);
+    }
+
+    @Benchmark
+    public byte[] appointment() throws Exception {
+        return objectMapper.writeValueAsBytes(appointment);
+    }
+
+    @Benchmark
+    public byte[] userWithMedicalData() throws Exception {
+        return objectMapper.writeValueAsBytes(patient);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.healthcare.benchmarks;
+
+import com.example.healthcare.config.JwtTokenValidator;
+import com.example.healthcare.repository.BlacklistedTokenRepository;
+import com.example.healthcare.security.JwtPrincipalFactory;
+import com.example.healthcare.security.JwtUtil;
+import com.example.healthcare.security.LoopbackRevocationBroadcaster;
+import com.example.healthcare.service.TokenBlacklistService;
+import com.example.healthcare.service.UserDetailsCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtre JWT complet (en-tête, blacklist, signature, principal) avec une chaîne vide.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenValidatorBenchmark {
+
+    private JwtTokenValidator validator;
+    private String authorizationHeader;
+    private FilterChain chain;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil(10_000, 900_000);
+        BlacklistedTokenRepository repository = Mockito.mock(BlacklistedTokenRepository.class);
+        TokenBlacklistService blacklistService = new TokenBlacklistService(repository, new LoopbackRevocationBroadcaster());
+        blacklistService.loadBlacklist();
+        JwtPrincipalFactory principalFactory = new JwtPrincipalFactory(
+                Mockito.mock(UserDetailsCache.class), JwtPrincipalFactory.MODE_CLAIMS);
+
+        validator = new JwtTokenValidator(jwtUtil, principalFactory, blacklistService, new SimpleMeterRegistry());
+        authorizationHeader = "Bearer " + jwtUtil.generateToken("bench@example.com", "PATIENT", 42L);
+        chain = (request, response) -> { };
+    }
+
+    @Benchmark
+    public void authenticatedRequest(Blackhole blackhole) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/medical-data");
+        request.addHeader("Authorization", authorizationHeader);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            validator.doFilter(request, response, chain);
+            blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
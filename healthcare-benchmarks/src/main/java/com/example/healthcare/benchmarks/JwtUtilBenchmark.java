@@ -0,0 +1,53 @@
+package com.example.healthcare.benchmarks;
+
+import com.example.healthcare.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+    private UserDetails userDetails;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(10_000, 900_000);
+        token = jwtUtil.generateToken("bench@example.com", "PATIENT", 42L);
+        userDetails = new User("bench@example.com", "", List.of(new SimpleGrantedAuthority("ROLE_PATIENT")));
+        jwtUtil.parse(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("bench@example.com", "PATIENT", 42L);
+    }
+
+    // Vérification HMAC complète, sans le cache de claims
+    @Benchmark
+    public String verifySignature() {
+        return jwtUtil.extractClaim(token, Claims::getSubject);
+    }
+
+    @Benchmark
+    public Object parseCached() {
+        return jwtUtil.parse(token);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token, userDetails);
+    }
+}